@@ -31,6 +31,7 @@ import com.alibaba.csp.sentinel.property.DynamicSentinelProperty;
 import com.alibaba.csp.sentinel.property.PropertyListener;
 import com.alibaba.csp.sentinel.property.SentinelProperty;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.RulePresenceRegistry;
 import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRule;
 import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRuleUtil;
 import com.alibaba.csp.sentinel.slots.block.flow.param.ParameterMetricStorage;
@@ -147,6 +148,7 @@ public final class GatewayRuleManager {
             if (conf == null || conf.isEmpty()) {
                 applyToConvertedParamMap(new HashSet<ParamFlowRule>());
                 GATEWAY_RULE_MAP.clear();
+                RulePresenceRegistry.updateResources(RulePresenceRegistry.GATEWAY_FLOW, null);
                 return;
             }
             Map<String, Set<GatewayFlowRule>> gatewayRuleMap = new ConcurrentHashMap<>();
@@ -201,6 +203,7 @@ public final class GatewayRuleManager {
 
             GATEWAY_RULE_MAP.clear();
             GATEWAY_RULE_MAP.putAll(gatewayRuleMap);
+            RulePresenceRegistry.updateResources(RulePresenceRegistry.GATEWAY_FLOW, GATEWAY_RULE_MAP.keySet());
         }
 
         private void applyToConvertedParamMap(Set<ParamFlowRule> paramFlowRules) {
@@ -198,9 +198,23 @@ abstract class InheritableBaseSubscriber<T> implements CoreSubscriber<T>, Subscr
         }
     }
 
+    /**
+     * Hook for deferring the request of downstream. If the request is deferred, the sub-class is responsible
+     * for requesting the deferred amount from {@link #upstream()} later.
+     *
+     * @param n the requested amount
+     * @return true if the request is deferred, otherwise it will be passed to the upstream directly
+     */
+    protected boolean hookDeferRequest(long n) {
+        return false;
+    }
+
     @Override
     public final void request(long n) {
         if (Operators.validate(n)) {
+            if (hookDeferRequest(n)) {
+                return;
+            }
             Subscription s = this.subscription;
             if (s != null) {
                 s.request(n);
@@ -17,17 +17,21 @@ package com.alibaba.csp.sentinel.adapter.reactor;
 
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.alibaba.csp.sentinel.AsyncEntry;
 import com.alibaba.csp.sentinel.SphU;
 import com.alibaba.csp.sentinel.Tracer;
 import com.alibaba.csp.sentinel.context.ContextUtil;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.flow.PacedContinuation;
 import com.alibaba.csp.sentinel.util.AssertUtil;
 import com.alibaba.csp.sentinel.util.function.Supplier;
 
 import org.reactivestreams.Subscription;
 import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Operators;
+import reactor.core.scheduler.Schedulers;
 import reactor.util.context.Context;
 
 /**
@@ -44,6 +48,12 @@ public class SentinelReactorSubscriber<T> extends InheritableBaseSubscriber<T> {
     private volatile AsyncEntry currentEntry;
     private final AtomicBoolean entryExited = new AtomicBoolean(false);
 
+    /**
+     * Whether the request of downstream is held until the pass time reserved by paced rules.
+     */
+    private volatile boolean pacing = false;
+    private final AtomicLong deferredDemand = new AtomicLong(0);
+
     public SentinelReactorSubscriber(EntryConfig entryConfig,
                                      CoreSubscriber<? super T> actual,
                                      boolean unary) {
@@ -89,9 +99,18 @@ public class SentinelReactorSubscriber<T> extends InheritableBaseSubscriber<T> {
             ContextUtil.enter(sentinelContextConfig.getContextName(), sentinelContextConfig.getOrigin());
         }
         try {
-            AsyncEntry entry = SphU.asyncEntry(entryConfig.getResourceName(), entryConfig.getResourceType(),
-                entryConfig.getEntryType(), entryConfig.getAcquireCount(), entryConfig.getArgs());
+            // Paced rules (e.g. rate limiter) won't block the subscribing thread (which may be an event loop).
+            AsyncEntry entry = SphU.asyncEntryWithPacing(entryConfig.getResourceName(),
+                entryConfig.getResourceType(), entryConfig.getEntryType(), entryConfig.getAcquireCount(),
+                entryConfig.getArgs());
             this.currentEntry = entry;
+            long waitInMs = entry.getPassWaitInMs();
+            if (waitInMs > 0) {
+                // Hold the demand of downstream until the pass time.
+                this.pacing = true;
+                PacedContinuation.runWhenPassed(entry, this::releaseDeferredDemand,
+                    task -> Schedulers.parallel().schedule(task));
+            }
             actual.onSubscribe(this);
         } catch (BlockException ex) {
             // Mark as completed (exited) explicitly.
@@ -107,6 +126,36 @@ public class SentinelReactorSubscriber<T> extends InheritableBaseSubscriber<T> {
         }
     }
 
+    @Override
+    protected boolean hookDeferRequest(long n) {
+        if (!pacing) {
+            return false;
+        }
+        long r, u;
+        do {
+            r = deferredDemand.get();
+            u = Operators.addCap(r, n);
+        } while (!deferredDemand.compareAndSet(r, u));
+        if (!pacing) {
+            // Released concurrently, so request the demand by ourselves.
+            requestDeferredDemand();
+        }
+        return true;
+    }
+
+    private void releaseDeferredDemand() {
+        pacing = false;
+        requestDeferredDemand();
+    }
+
+    private void requestDeferredDemand() {
+        long n = deferredDemand.getAndSet(0);
+        Subscription s = upstream();
+        if (n > 0 && s != null) {
+            s.request(n);
+        }
+    }
+
     @Override
     protected void hookOnSubscribe(Subscription subscription) {
         doWithContextOrCurrent(() -> currentContext().getOrEmpty(SentinelReactorConstants.SENTINEL_CONTEXT_KEY),
@@ -3,12 +3,16 @@ package com.alibaba.csp.sentinel.adapter.reactor;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.alibaba.csp.sentinel.Constants;
 import com.alibaba.csp.sentinel.EntryType;
 import com.alibaba.csp.sentinel.node.ClusterNode;
 import com.alibaba.csp.sentinel.node.EntranceNode;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
 import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
 import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
@@ -184,6 +188,35 @@ public class MonoSentinelOperatorIntegrationTest {
         FlowRuleManager.loadRules(new ArrayList<>());
     }
 
+    @Test
+    public void testRateLimiterPacingWithoutBlockingSubscriber() throws Exception {
+        String resourceName = createResourceName("testRateLimiterPacingWithoutBlockingSubscriber");
+        FlowRuleManager.loadRules(Collections.singletonList(
+            new FlowRule(resourceName).setCount(5)
+                .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER)
+                .setMaxQueueingTimeMs(1000)
+        ));
+        int requests = 3;
+        CountDownLatch latch = new CountDownLatch(requests);
+        AtomicLong lastEmitTime = new AtomicLong();
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < requests; i++) {
+            Mono.just(i)
+                .transform(new SentinelReactorTransformer<>(resourceName))
+                .subscribe(e -> {
+                    lastEmitTime.set(System.currentTimeMillis());
+                    latch.countDown();
+                });
+        }
+        // The subscribing thread should not wait for the pass time.
+        assertTrue(System.currentTimeMillis() - start < 200);
+        assertTrue(latch.await(3, TimeUnit.SECONDS));
+        // The last request is paced to at least 400 ms later.
+        assertTrue(lastEmitTime.get() - start >= 350);
+
+        FlowRuleManager.loadRules(new ArrayList<>());
+    }
+
     private String createResourceName(String resourceName) {
         return "reactor_test_mono_" + resourceName;
     }
@@ -0,0 +1,91 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.adapter.spring.webflux.callback;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.PathTemplateMatcher;
+
+import org.springframework.web.reactive.result.method.RequestMappingInfo;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+
+/**
+ * <p>URL cleaner that unifies the request path to the REST template it matches (e.g. {@code /foo/1} to
+ * {@code /foo/{id}}), so that the resources will not explode with distinct URLs. As the
+ * {@link org.springframework.web.server.WebFilter} runs before the handler is resolved, the templates
+ * could be collected from the request mappings via {@link #fromRequestMappings(Collection, boolean)}
+ * once the application context has been refreshed:</p>
+ *
+ * <pre>
+ * WebFluxCallbackManager.setUrlCleaner(PathTemplateUrlCleaner.fromRequestMappings(
+ *     requestMappingHandlerMapping.getHandlerMethods().keySet(), true));
+ * </pre>
+ *
+ * @since 1.7.1
+ */
+public class PathTemplateUrlCleaner implements BiFunction<ServerWebExchange, String, String> {
+
+    private final PathTemplateMatcher matcher;
+    private final boolean excludeUnmatched;
+
+    /**
+     * @param templates        URL templates
+     * @param excludeUnmatched whether paths matching no template should be excluded from Sentinel
+     *                         (cleaned to the empty string), or else kept as they are
+     */
+    public PathTemplateUrlCleaner(Collection<String> templates, boolean excludeUnmatched) {
+        this.matcher = PathTemplateMatcher.compile(templates);
+        this.excludeUnmatched = excludeUnmatched;
+    }
+
+    /**
+     * Build the cleaner from the patterns of request mappings (e.g. the keys of
+     * {@code RequestMappingHandlerMapping#getHandlerMethods()}). Patterns that are not supported by
+     * {@link PathTemplateMatcher} (e.g. {@code /foo/*.html}) are ignored.
+     *
+     * @param mappings         request mappings of the handlers
+     * @param excludeUnmatched whether paths matching no template should be excluded from Sentinel
+     * @return the URL cleaner
+     */
+    public static PathTemplateUrlCleaner fromRequestMappings(Collection<RequestMappingInfo> mappings,
+                                                             boolean excludeUnmatched) {
+        AssertUtil.notNull(mappings, "mappings cannot be null");
+        // The same pattern may be mapped for several HTTP methods.
+        Set<String> templates = new LinkedHashSet<>();
+        for (RequestMappingInfo info : mappings) {
+            for (PathPattern pattern : info.getPatternsCondition().getPatterns()) {
+                if (PathTemplateMatcher.isSupported(pattern.getPatternString())) {
+                    templates.add(pattern.getPatternString());
+                }
+            }
+        }
+        return new PathTemplateUrlCleaner(templates, excludeUnmatched);
+    }
+
+    @Override
+    public String apply(ServerWebExchange exchange, String path) {
+        String template = matcher.match(path);
+        if (template != null) {
+            return template;
+        }
+        return excludeUnmatched ? "" : path;
+    }
+}
@@ -20,6 +20,7 @@ import com.alibaba.csp.sentinel.adapter.spring.webmvc.callback.UrlCleaner;
 
 import javax.servlet.http.HttpServletRequest;
 
+import com.alibaba.csp.sentinel.util.PathTemplateMatcher;
 import com.alibaba.csp.sentinel.util.StringUtil;
 import org.springframework.web.servlet.HandlerMapping;
 
@@ -51,10 +52,15 @@ public class SentinelWebInterceptor extends AbstractSentinelInterceptor {
     protected String getResourceName(HttpServletRequest request) {
         // Resolve the Spring Web URL pattern from the request attribute.
         Object resourceNameObject = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
-        if (resourceNameObject == null || !(resourceNameObject instanceof String)) {
-            return null;
+        String resourceName;
+        if (resourceNameObject instanceof String) {
+            resourceName = (String) resourceNameObject;
+        } else {
+            resourceName = matchPathTemplate(request);
+            if (resourceName == null) {
+                return null;
+            }
         }
-        String resourceName = (String) resourceNameObject;
         UrlCleaner urlCleaner = config.getUrlCleaner();
         if (urlCleaner != null) {
             resourceName = urlCleaner.clean(resourceName);
@@ -66,4 +72,17 @@ public class SentinelWebInterceptor extends AbstractSentinelInterceptor {
         return resourceName;
     }
 
+    private String matchPathTemplate(HttpServletRequest request) {
+        PathTemplateMatcher matcher = config.getPathTemplateMatcher();
+        if (matcher == null) {
+            return null;
+        }
+        String path = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        if (path != null && StringUtil.isNotEmpty(contextPath) && path.startsWith(contextPath)) {
+            path = path.substring(contextPath.length());
+        }
+        return matcher.match(path);
+    }
+
 }
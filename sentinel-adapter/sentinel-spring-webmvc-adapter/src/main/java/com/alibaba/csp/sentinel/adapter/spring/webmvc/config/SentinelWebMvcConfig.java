@@ -16,6 +16,7 @@
 package com.alibaba.csp.sentinel.adapter.spring.webmvc.config;
 
 import com.alibaba.csp.sentinel.adapter.spring.webmvc.callback.UrlCleaner;
+import com.alibaba.csp.sentinel.util.PathTemplateMatcher;
 
 /**
  * @author kaizi2009
@@ -33,6 +34,13 @@ public class SentinelWebMvcConfig extends BaseWebMvcConfig {
      * Specify whether the URL resource name should contain the HTTP method prefix (e.g. {@code POST:}).
      */
     private boolean httpMethodSpecify;
+    /**
+     * Specify the URL templates for requests without a Spring URL pattern resolved (e.g. requests of handlers
+     * that are not mapped by patterns), so that such requests are unified as well.
+     *
+     * @since 1.7.1
+     */
+    private PathTemplateMatcher pathTemplateMatcher;
 
     public SentinelWebMvcConfig() {
         super();
@@ -57,11 +65,21 @@ public class SentinelWebMvcConfig extends BaseWebMvcConfig {
         return this;
     }
 
+    public PathTemplateMatcher getPathTemplateMatcher() {
+        return pathTemplateMatcher;
+    }
+
+    public SentinelWebMvcConfig setPathTemplateMatcher(PathTemplateMatcher pathTemplateMatcher) {
+        this.pathTemplateMatcher = pathTemplateMatcher;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "SentinelWebMvcConfig{" +
             "urlCleaner=" + urlCleaner +
             ", httpMethodSpecify=" + httpMethodSpecify +
+            ", pathTemplates=" + (pathTemplateMatcher == null ? null : pathTemplateMatcher.getTemplates()) +
             ", requestAttributeName='" + requestAttributeName + '\'' +
             ", blockExceptionHandler=" + blockExceptionHandler +
             ", originParser=" + originParser +
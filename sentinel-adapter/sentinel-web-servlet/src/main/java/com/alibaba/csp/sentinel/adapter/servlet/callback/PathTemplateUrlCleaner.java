@@ -0,0 +1,60 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.adapter.servlet.callback;
+
+import java.util.Collection;
+
+import com.alibaba.csp.sentinel.util.PathTemplateMatcher;
+
+/**
+ * <p>URL cleaner that unifies the URL to the REST template it matches (e.g. {@code /foo/1} to
+ * {@code /foo/{id}}), so that the resources will not explode with distinct URLs. The templates are
+ * compiled to a {@link PathTemplateMatcher}, so no regex is involved when cleaning the URL.</p>
+ *
+ * <pre>
+ * WebCallbackManager.setUrlCleaner(new PathTemplateUrlCleaner(Arrays.asList("/foo/{id}", "/static/**")));
+ * </pre>
+ *
+ * @since 1.7.1
+ */
+public class PathTemplateUrlCleaner implements UrlCleaner {
+
+    private final PathTemplateMatcher matcher;
+    private final boolean excludeUnmatched;
+
+    public PathTemplateUrlCleaner(Collection<String> templates) {
+        this(templates, false);
+    }
+
+    /**
+     * @param templates        URL templates
+     * @param excludeUnmatched whether URLs matching no template should be excluded from Sentinel
+     *                         (cleaned to the empty string), or else kept as they are
+     */
+    public PathTemplateUrlCleaner(Collection<String> templates, boolean excludeUnmatched) {
+        this.matcher = PathTemplateMatcher.compile(templates);
+        this.excludeUnmatched = excludeUnmatched;
+    }
+
+    @Override
+    public String clean(String originUrl) {
+        String template = matcher.match(originUrl);
+        if (template != null) {
+            return template;
+        }
+        return excludeUnmatched ? "" : originUrl;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.context.ContextUtil;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.authority.AuthorityRule;
+import com.alibaba.csp.sentinel.slots.block.authority.AuthorityRuleManager;
+import com.alibaba.csp.sentinel.slots.block.authority.AuthoritySlot;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for checking authority rules of different amount of origins, comparing the compiled
+ * rules in {@link AuthoritySlot} with splitting the {@code limitApp} on every check.
+ *
+ * <p>Run with {@code -prof gc} to see the allocation rate of each case.</p>
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class AuthorityRuleBenchmark {
+
+    private static final String RESOURCE_NAME = "authorityResource";
+    private static final Object[] NO_ARGS = new Object[0];
+
+    @Param({"1", "10", "1000"})
+    private int originCount;
+
+    private final AuthoritySlot slot = new AuthoritySlot();
+    private final ResourceWrapper resource = new StringResourceWrapper(RESOURCE_NAME, EntryType.IN);
+
+    private AuthorityRule rule;
+    private Context context;
+
+    @Setup
+    public void prepare() {
+        StringBuilder limitApp = new StringBuilder();
+        for (int i = 0; i < originCount; i++) {
+            if (i > 0) {
+                limitApp.append(',');
+            }
+            limitApp.append("caller-app-").append(i);
+        }
+        rule = new AuthorityRule()
+            .setResource(RESOURCE_NAME)
+            .setLimitApp(limitApp.toString())
+            .as(AuthorityRule.class)
+            .setStrategy(RuleConstant.AUTHORITY_WHITE);
+        AuthorityRuleManager.loadRules(Collections.singletonList(rule));
+        // The origin in the middle of the list.
+        context = ContextUtil.enter("authorityContext", "caller-app-" + originCount / 2);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ContextUtil.exit();
+    }
+
+    @Benchmark
+    public void testCompiledRule() throws Throwable {
+        slot.entry(context, resource, null, 1, false, NO_ARGS);
+    }
+
+    @Benchmark
+    public boolean testSplitLimitApp() {
+        String requester = context.getOrigin();
+        String limitApp = rule.getLimitApp();
+        boolean contain = limitApp.indexOf(requester) > -1;
+        if (contain) {
+            boolean exactlyMatch = false;
+            for (String app : limitApp.split(",")) {
+                if (requester.equals(app)) {
+                    exactlyMatch = true;
+                    break;
+                }
+            }
+            contain = exactlyMatch;
+        }
+        return contain;
+    }
+}
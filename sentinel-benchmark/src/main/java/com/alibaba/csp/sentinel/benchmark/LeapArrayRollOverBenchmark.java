@@ -0,0 +1,72 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.slots.statistic.metric.ArrayMetric;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for {@link ArrayMetric#addPass(int)} under heavy contention across window boundaries.
+ *
+ * <p>Short windows make the threads hit a bucket roll-over every few milliseconds, so the tail
+ * latency (p99 and above in the sample-time mode) shows the cost of rolling over buckets.</p>
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class LeapArrayRollOverBenchmark {
+
+    private static final int INTERVAL_IN_MS = 1000;
+
+    @Param({"1", "10", "500"})
+    private int windowLengthInMs;
+
+    private ArrayMetric metric;
+
+    @Setup
+    public void prepare() {
+        metric = new ArrayMetric(INTERVAL_IN_MS / windowLengthInMs, INTERVAL_IN_MS, false);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public void test32ThreadsAddPass() {
+        metric.addPass(1);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void test64ThreadsAddPass() {
+        metric.addPass(1);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.slots.block.flow.controller.RateLimiterController;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for the pacing accuracy of {@link RateLimiterController} under each time source mode.
+ *
+ * <p>Every invocation waits for its turn, so the sampled time of one invocation should be close to
+ * the expected interval ({@code 1000 / count} ms). The deviation of the percentiles from the interval
+ * shows how accurate the pacing is. Each mode runs in a separate fork, as the time source is
+ * resolved only once when {@code TimeUtil} is loaded.</p>
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class RateLimiterPacingBenchmark {
+
+    @Param({SentinelConfig.TIME_SOURCE_TICK, SentinelConfig.TIME_SOURCE_SYSTEM, SentinelConfig.TIME_SOURCE_ADAPTIVE})
+    private String timeSource;
+
+    @Param({"100", "500"})
+    private int count;
+
+    private RateLimiterController controller;
+
+    @Setup
+    public void prepare() {
+        SentinelConfig.setConfig(SentinelConfig.TIME_SOURCE, timeSource);
+        controller = new RateLimiterController(Integer.MAX_VALUE, count);
+    }
+
+    @Benchmark
+    public boolean testPacing() {
+        return controller.canPass(null, 1);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for the rule-aware entry fast path, comparing resources with and without rules.
+ *
+ * <p>Run with {@code -prof gc} to see the allocation rate of each case.</p>
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class RuleAwareEntryBenchmark {
+
+    private static final String RULED_RESOURCE = "ruledResource";
+    private static final String UNRULED_RESOURCE = "unruledResource";
+
+    @Param({"false", "true"})
+    private boolean fastPath;
+
+    @Setup
+    public void prepare() {
+        // Must be set before the first entry so that the config is picked up.
+        SentinelConfig.setConfig(SentinelConfig.ENTRY_FAST_PATH_ENABLED, String.valueOf(fastPath));
+        FlowRule rule = new FlowRule(RULED_RESOURCE).setCount(Integer.MAX_VALUE);
+        FlowRuleManager.loadRules(Collections.singletonList(rule));
+    }
+
+    private void doEntry(String resource) {
+        Entry e = null;
+        try {
+            e = SphU.entry(resource);
+        } catch (BlockException ex) {
+            // Never happens as the threshold is large enough.
+        } finally {
+            if (e != null) {
+                e.exit();
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void testRuledResource() {
+        doEntry(RULED_RESOURCE);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void testUnruledResource() {
+        doEntry(UNRULED_RESOURCE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void test4ThreadsRuledResource() {
+        doEntry(RULED_RESOURCE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void test4ThreadsUnruledResource() {
+        doEntry(UNRULED_RESOURCE);
+    }
+}
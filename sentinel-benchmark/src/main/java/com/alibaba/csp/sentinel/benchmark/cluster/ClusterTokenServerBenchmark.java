@@ -0,0 +1,125 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark.cluster;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.csp.sentinel.cluster.client.NettyTransportClient;
+import com.alibaba.csp.sentinel.cluster.server.config.ServerTransportConfig;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Benchmark for the cluster flow control path: a token server is started in-process and driven by a fleet
+ * of token clients over loopback. Each benchmark thread is bound to one client, and picks flow IDs (and
+ * parameter keys) following a Zipf distribution of the given skew.</p>
+ *
+ * <p>Throughput is reported in ops/ms, and the sample-time mode reports the latency percentiles (p0.50, p0.99,
+ * p0.999) of a request. Run e.g. {@code java -jar benchmarks.jar ClusterTokenServerBenchmark -p clients=32}.</p>
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(16)
+@State(Scope.Benchmark)
+public class ClusterTokenServerBenchmark {
+
+    @Param({"4"})
+    private int clients;
+
+    @Param({"100"})
+    private int flowCount;
+
+    /**
+     * Skew of flow IDs, where 0 is uniform.
+     */
+    @Param({"0", "1.1"})
+    private double flowSkew;
+
+    @Param({"1000"})
+    private int paramKeyCount;
+
+    @Param({"1.1"})
+    private double paramKeySkew;
+
+    /**
+     * Count of shards that process requests off the I/O threads, 0 for processing on the I/O threads.
+     */
+    @Param({"0"})
+    private int processingShards;
+
+    private TokenServerFixture fixture;
+    private SkewedPicker flowPicker;
+    private SkewedPicker keyPicker;
+
+    private final AtomicInteger threadCounter = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        fixture = new TokenServerFixture(flowCount, Double.MAX_VALUE / 2,
+            new ServerTransportConfig().setProcessingShards(processingShards));
+        fixture.start(clients, 1000);
+        flowPicker = new SkewedPicker(flowCount, flowSkew);
+        keyPicker = new SkewedPicker(paramKeyCount, paramKeySkew);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        fixture.stop();
+    }
+
+    @State(Scope.Thread)
+    public static class ClientState {
+
+        NettyTransportClient client;
+
+        @Setup(Level.Trial)
+        public void setUp(ClusterTokenServerBenchmark benchmark) {
+            client = benchmark.fixture.client(benchmark.threadCounter.getAndIncrement());
+        }
+    }
+
+    @Benchmark
+    public Integer requestToken(ClientState state) {
+        int flowIndex = flowPicker.next(ThreadLocalRandom.current());
+        return TokenServerFixture.send(state.client, TokenServerFixture.flowRequest(flowIndex));
+    }
+
+    @Benchmark
+    public Integer requestParamToken(ClientState state) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int flowIndex = flowPicker.next(random);
+        Object key = TokenServerFixture.paramKey(keyPicker, random);
+        return TokenServerFixture.send(state.client, TokenServerFixture.paramFlowRequest(flowIndex, key));
+    }
+}
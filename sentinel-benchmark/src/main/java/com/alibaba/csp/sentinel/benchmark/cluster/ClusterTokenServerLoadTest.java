@@ -0,0 +1,169 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark.cluster;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.client.NettyTransportClient;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.server.config.ServerTransportConfig;
+
+/**
+ * <p>Closed-loop load test of the token server for sizing instances, which runs longer than the JMH benchmark
+ * and reports the throughput and the latency histogram of each kind of request. Options are system
+ * properties:</p>
+ * <ul>
+ * <li>{@code clients}: count of token clients (default 4)</li>
+ * <li>{@code threads}: count of threads sending requests, which are bound to the clients evenly (default 16)</li>
+ * <li>{@code durationSec}: duration of the test after 10 seconds of warm-up (default 60)</li>
+ * <li>{@code flowCount}, {@code flowSkew}: count of flow rules, and the Zipf skew of flow IDs (default 100, 1.1)</li>
+ * <li>{@code paramKeys}, {@code paramKeySkew}: count of parameter keys and their skew (default 1000, 1.1)</li>
+ * <li>{@code paramRatio}: ratio of param flow requests (default 0.5)</li>
+ * <li>{@code threshold}: QPS threshold of each rule (default: unlimited)</li>
+ * <li>{@code shards}: count of request processing shards of the server (default 0)</li>
+ * </ul>
+ */
+public class ClusterTokenServerLoadTest {
+
+    private static final int WARM_UP_SEC = 10;
+
+    public static void main(String[] args) throws Exception {
+        int clients = Integer.getInteger("clients", 4);
+        int threads = Integer.getInteger("threads", 16);
+        int durationSec = Integer.getInteger("durationSec", 60);
+        int flowCount = Integer.getInteger("flowCount", 100);
+        double flowSkew = Double.parseDouble(System.getProperty("flowSkew", "1.1"));
+        int paramKeys = Integer.getInteger("paramKeys", 1000);
+        double paramKeySkew = Double.parseDouble(System.getProperty("paramKeySkew", "1.1"));
+        double paramRatio = Double.parseDouble(System.getProperty("paramRatio", "0.5"));
+        double threshold = Double.parseDouble(System.getProperty("threshold", String.valueOf(Double.MAX_VALUE / 2)));
+        int shards = Integer.getInteger("shards", 0);
+
+        TokenServerFixture fixture = new TokenServerFixture(flowCount, threshold,
+            new ServerTransportConfig().setProcessingShards(shards));
+        fixture.start(clients, 1000);
+
+        Worker[] workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(fixture.client(i), new SkewedPicker(flowCount, flowSkew),
+                new SkewedPicker(paramKeys, paramKeySkew), paramRatio);
+            workers[i].start();
+        }
+        try {
+            TimeUnit.SECONDS.sleep(WARM_UP_SEC);
+            Stats flow = new Stats("requestToken");
+            Stats param = new Stats("requestParamToken");
+            for (Worker worker : workers) {
+                worker.flowStats = flow;
+                worker.paramStats = param;
+            }
+            long start = System.nanoTime();
+            TimeUnit.SECONDS.sleep(durationSec);
+            double elapsedSec = (System.nanoTime() - start) / 1e9;
+            for (Worker worker : workers) {
+                worker.flowStats = null;
+                worker.paramStats = null;
+            }
+            System.out.printf("clients=%d, threads=%d, flowCount=%d, flowSkew=%.2f, shards=%d, duration=%.1fs%n",
+                clients, threads, flowCount, flowSkew, shards, elapsedSec);
+            flow.print(elapsedSec);
+            param.print(elapsedSec);
+        } finally {
+            for (Worker worker : workers) {
+                worker.running = false;
+            }
+            for (Worker worker : workers) {
+                worker.join();
+            }
+            fixture.stop();
+        }
+    }
+
+    private static class Stats {
+
+        private final String name;
+        private final LatencyHistogram latencyMicros = new LatencyHistogram();
+        private final AtomicLong ok = new AtomicLong();
+        private final AtomicLong blocked = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+
+        Stats(String name) {
+            this.name = name;
+        }
+
+        void record(Integer status, long latencyNanos) {
+            latencyMicros.record(latencyNanos / 1000);
+            if (status == null) {
+                failed.incrementAndGet();
+            } else if (status == TokenResultStatus.OK) {
+                ok.incrementAndGet();
+            } else {
+                blocked.incrementAndGet();
+            }
+        }
+
+        void print(double elapsedSec) {
+            long total = latencyMicros.totalCount();
+            System.out.printf("%-18s throughput=%.0f/s, ok=%d, blocked=%d, failed=%d, "
+                    + "latency(us): p50=%d, p99=%d, p999=%d%n",
+                name, total / elapsedSec, ok.get(), blocked.get(), failed.get(),
+                latencyMicros.percentile(50), latencyMicros.percentile(99), latencyMicros.percentile(99.9));
+        }
+    }
+
+    private static class Worker extends Thread {
+
+        private final NettyTransportClient client;
+        private final SkewedPicker flowPicker;
+        private final SkewedPicker keyPicker;
+        private final double paramRatio;
+
+        volatile boolean running = true;
+        volatile Stats flowStats;
+        volatile Stats paramStats;
+
+        Worker(NettyTransportClient client, SkewedPicker flowPicker, SkewedPicker keyPicker, double paramRatio) {
+            this.client = client;
+            this.flowPicker = flowPicker;
+            this.keyPicker = keyPicker;
+            this.paramRatio = paramRatio;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (running) {
+                int flowIndex = flowPicker.next(random);
+                boolean isParam = random.nextDouble() < paramRatio;
+                ClusterRequest request = isParam
+                    ? TokenServerFixture.paramFlowRequest(flowIndex, TokenServerFixture.paramKey(keyPicker, random))
+                    : TokenServerFixture.flowRequest(flowIndex);
+                long start = System.nanoTime();
+                Integer status = TokenServerFixture.send(client, request);
+                Stats stats = isParam ? paramStats : flowStats;
+                if (stats != null) {
+                    stats.record(status, System.nanoTime() - start);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark.cluster;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.client.NettyTransportClient;
+import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientConfig;
+import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientConfigManager;
+import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterFlowRuleManager;
+import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterParamFlowRuleManager;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
+import com.alibaba.csp.sentinel.cluster.request.data.ParamFlowRequestData;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.server.SentinelDefaultTokenServer;
+import com.alibaba.csp.sentinel.cluster.server.config.ClusterServerConfigManager;
+import com.alibaba.csp.sentinel.cluster.server.config.ServerFlowConfig;
+import com.alibaba.csp.sentinel.cluster.server.config.ServerTransportConfig;
+import com.alibaba.csp.sentinel.slots.block.ClusterRuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.ClusterFlowConfig;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowClusterConfig;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRule;
+
+/**
+ * <p>A token server started in-process, and a fleet of {@link NettyTransportClient}s connected to it over
+ * loopback, which could be shared by the JMH benchmark and the load test.</p>
+ *
+ * <p>Flow IDs of flow rules are {@code [1, flowCount]}, and flow IDs of param flow rules are
+ * {@code [PARAM_FLOW_ID_BASE + 1, PARAM_FLOW_ID_BASE + flowCount]}. Thresholds are large enough by default,
+ * so the cost of the token server itself is measured rather than blocking.</p>
+ */
+public class TokenServerFixture {
+
+    public static final String NAMESPACE = "sentinel-benchmark";
+    public static final long PARAM_FLOW_ID_BASE = 1000000L;
+
+    private static final int READY_TIMEOUT_MS = 10000;
+
+    private final int flowCount;
+    private final double threshold;
+    private final ServerTransportConfig transportConfig;
+
+    private SentinelDefaultTokenServer server;
+    private final List<NettyTransportClient> clients = new ArrayList<>();
+
+    public TokenServerFixture(int flowCount, double threshold, ServerTransportConfig transportConfig) {
+        this.flowCount = flowCount;
+        this.threshold = threshold;
+        this.transportConfig = transportConfig;
+    }
+
+    public void start(int clientCount, int requestTimeoutMs) throws Exception {
+        transportConfig.setPort(findFreePort());
+        ClusterServerConfigManager.loadGlobalTransportConfig(transportConfig);
+        ClusterServerConfigManager.loadServerNamespaceSet(Collections.singleton(NAMESPACE));
+        ClusterServerConfigManager.loadGlobalFlowConfig(new ServerFlowConfig().setMaxAllowedQps(Double.MAX_VALUE));
+        ClusterFlowRuleManager.loadRules(NAMESPACE, flowRules());
+        ClusterParamFlowRuleManager.loadRules(NAMESPACE, paramFlowRules());
+
+        server = new SentinelDefaultTokenServer();
+        server.start();
+
+        ClusterClientConfigManager.applyNewConfig(new ClusterClientConfig().setRequestTimeout(requestTimeoutMs));
+        for (int i = 0; i < clientCount; i++) {
+            NettyTransportClient client = new NettyTransportClient("127.0.0.1", transportConfig.getPort());
+            client.start();
+            clients.add(client);
+        }
+        long deadline = System.currentTimeMillis() + READY_TIMEOUT_MS;
+        for (NettyTransportClient client : clients) {
+            while (!client.isReady()) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw new IllegalStateException("Token clients are not ready in " + READY_TIMEOUT_MS + " ms");
+                }
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    public void stop() throws Exception {
+        for (NettyTransportClient client : clients) {
+            client.stop();
+        }
+        clients.clear();
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    public NettyTransportClient client(int index) {
+        return clients.get(index % clients.size());
+    }
+
+    public int getFlowCount() {
+        return flowCount;
+    }
+
+    public static ClusterRequest<FlowRequestData> flowRequest(int flowIndex) {
+        FlowRequestData data = new FlowRequestData().setFlowId(flowIndex + 1).setCount(1).setPriority(false);
+        return new ClusterRequest<>(ClusterConstants.MSG_TYPE_FLOW, data);
+    }
+
+    public static ClusterRequest<ParamFlowRequestData> paramFlowRequest(int flowIndex, Object param) {
+        ParamFlowRequestData data = new ParamFlowRequestData().setFlowId(PARAM_FLOW_ID_BASE + flowIndex + 1)
+            .setCount(1).setParams(Collections.singletonList(param));
+        return new ClusterRequest<>(ClusterConstants.MSG_TYPE_PARAM_FLOW, data);
+    }
+
+    /**
+     * Send the request and return the status, where {@code null} indicates a failure (e.g. timeout).
+     */
+    public static Integer send(NettyTransportClient client, ClusterRequest request) {
+        try {
+            ClusterResponse response = client.sendRequest(request);
+            return response.getStatus();
+        } catch (Exception ex) {
+            return null;
+        }
+    }
+
+    public static Object paramKey(SkewedPicker keyPicker, Random random) {
+        return "key-" + keyPicker.next(random);
+    }
+
+    private List<FlowRule> flowRules() {
+        List<FlowRule> rules = new ArrayList<>(flowCount);
+        for (int i = 1; i <= flowCount; i++) {
+            rules.add(new FlowRule("cluster-resource-" + i)
+                .setCount(threshold)
+                .setClusterMode(true)
+                .setClusterConfig(new ClusterFlowConfig()
+                    .setFlowId((long)i)
+                    .setThresholdType(ClusterRuleConstant.FLOW_THRESHOLD_GLOBAL)));
+        }
+        return rules;
+    }
+
+    private List<ParamFlowRule> paramFlowRules() {
+        List<ParamFlowRule> rules = new ArrayList<>(flowCount);
+        for (int i = 1; i <= flowCount; i++) {
+            ParamFlowRule rule = new ParamFlowRule("cluster-param-resource-" + i)
+                .setParamIdx(0)
+                .setCount(threshold);
+            rule.setClusterMode(true).setClusterConfig(new ParamFlowClusterConfig()
+                .setFlowId(PARAM_FLOW_ID_BASE + i)
+                .setThresholdType(ClusterRuleConstant.FLOW_THRESHOLD_GLOBAL));
+            rules.add(rule);
+        }
+        return rules;
+    }
+
+    private static int findFreePort() throws IOException {
+        ServerSocket socket = new ServerSocket(0);
+        try {
+            return socket.getLocalPort();
+        } finally {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark.cluster;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.flow.DefaultTokenService;
+import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterFlowRuleManager;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.server.codec.DefaultResponseEntityWriter;
+import com.alibaba.csp.sentinel.cluster.server.config.ClusterServerConfigManager;
+import com.alibaba.csp.sentinel.cluster.server.config.ServerFlowConfig;
+import com.alibaba.csp.sentinel.cluster.server.init.DefaultClusterServerInitFunc;
+import com.alibaba.csp.sentinel.cluster.server.processor.FlowRequestProcessor;
+import com.alibaba.csp.sentinel.slots.block.ClusterRuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.ClusterFlowConfig;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Benchmark for the garbage produced by the token server per token request, without the transport.
+ * Flow 1 always passes, and flow 2 is always blocked.</p>
+ *
+ * <p>Run with the GC profiler to see the allocation rate, e.g.
+ * {@code java -jar benchmarks.jar TokenServiceGcBenchmark -prof gc}, where {@code gc.alloc.rate.norm}
+ * is the bytes allocated per request.</p>
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class TokenServiceGcBenchmark {
+
+    private static final long PASS_FLOW_ID = 1L;
+    private static final long BLOCK_FLOW_ID = 2L;
+
+    private final DefaultTokenService tokenService = new DefaultTokenService();
+    private final FlowRequestProcessor processor = new FlowRequestProcessor();
+    private final DefaultResponseEntityWriter writer = new DefaultResponseEntityWriter();
+
+    private ClusterRequest<FlowRequestData> passRequest;
+    private ClusterRequest<FlowRequestData> blockRequest;
+    private ByteBuf out;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        new DefaultClusterServerInitFunc().init();
+        ClusterServerConfigManager.loadServerNamespaceSet(Collections.singleton(TokenServerFixture.NAMESPACE));
+        ClusterServerConfigManager.loadGlobalFlowConfig(new ServerFlowConfig().setMaxAllowedQps(Double.MAX_VALUE));
+        ClusterFlowRuleManager.loadRules(TokenServerFixture.NAMESPACE, Arrays.asList(
+            clusterRule(PASS_FLOW_ID, Double.MAX_VALUE / 2), clusterRule(BLOCK_FLOW_ID, 0)));
+
+        passRequest = new ClusterRequest<>(1, ClusterConstants.MSG_TYPE_FLOW,
+            new FlowRequestData().setFlowId(PASS_FLOW_ID).setCount(1));
+        blockRequest = new ClusterRequest<>(2, ClusterConstants.MSG_TYPE_FLOW,
+            new FlowRequestData().setFlowId(BLOCK_FLOW_ID).setCount(1));
+        out = Unpooled.buffer(64);
+    }
+
+    @Benchmark
+    public TokenResult requestTokenPass() {
+        return tokenService.requestToken(PASS_FLOW_ID, 1, false);
+    }
+
+    @Benchmark
+    public TokenResult requestTokenBlocked() {
+        return tokenService.requestToken(BLOCK_FLOW_ID, 1, false);
+    }
+
+    @Benchmark
+    public int processAndEncodePass() {
+        return processAndEncode(passRequest);
+    }
+
+    @Benchmark
+    public int processAndEncodeBlocked() {
+        return processAndEncode(blockRequest);
+    }
+
+    private int processAndEncode(ClusterRequest<FlowRequestData> request) {
+        ClusterResponse<?> response = processor.processRequest(request);
+        out.clear();
+        writer.writeTo(response, out);
+        return out.readableBytes();
+    }
+
+    private static FlowRule clusterRule(long flowId, double count) {
+        return new FlowRule("gc-benchmark-resource-" + flowId)
+            .setCount(count)
+            .setClusterMode(true)
+            .setClusterConfig(new ClusterFlowConfig()
+                .setFlowId(flowId)
+                .setThresholdType(ClusterRuleConstant.FLOW_THRESHOLD_GLOBAL));
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client;
+
+import com.alibaba.csp.sentinel.log.RecordLog;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+
+/**
+ * Chooses between the NIO transport and the native epoll transport of Netty. The epoll transport is loaded
+ * reflectively, so {@code netty-transport-native-epoll} is only needed on the classpath when it is enabled.
+ *
+ * @since 1.7.1
+ */
+final class ClientTransportSupport {
+
+    private static final String EPOLL_CLASS = "io.netty.channel.epoll.Epoll";
+    private static final String EPOLL_EVENT_LOOP_GROUP_CLASS = "io.netty.channel.epoll.EpollEventLoopGroup";
+    private static final String EPOLL_SOCKET_CHANNEL_CLASS = "io.netty.channel.epoll.EpollSocketChannel";
+
+    private final boolean epoll;
+
+    ClientTransportSupport(boolean nativeTransport) {
+        this.epoll = nativeTransport && isEpollAvailable();
+    }
+
+    boolean isEpoll() {
+        return epoll;
+    }
+
+    /**
+     * @param threads count of threads, 0 for the default count of Netty
+     */
+    EventLoopGroup newEventLoopGroup(int threads) {
+        if (!epoll) {
+            return new NioEventLoopGroup(threads);
+        }
+        try {
+            return (EventLoopGroup)Class.forName(EPOLL_EVENT_LOOP_GROUP_CLASS).getConstructor(int.class)
+                .newInstance(threads);
+        } catch (Exception ex) {
+            throw new IllegalStateException("Failed to create epoll event loop group", ex);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    Class<? extends SocketChannel> socketChannelClass() {
+        if (!epoll) {
+            return NioSocketChannel.class;
+        }
+        try {
+            return (Class<? extends SocketChannel>)Class.forName(EPOLL_SOCKET_CHANNEL_CLASS);
+        } catch (ClassNotFoundException ex) {
+            throw new IllegalStateException("Failed to load epoll socket channel", ex);
+        }
+    }
+
+    private static boolean isEpollAvailable() {
+        try {
+            Object available = Class.forName(EPOLL_CLASS).getMethod("isAvailable").invoke(null);
+            if (Boolean.TRUE.equals(available)) {
+                return true;
+            }
+            RecordLog.warn("[ClientTransportSupport] Native epoll transport is unavailable, using NIO");
+        } catch (Throwable ex) {
+            RecordLog.warn("[ClientTransportSupport] Native epoll transport is not on the classpath, using NIO");
+        }
+        return false;
+    }
+}
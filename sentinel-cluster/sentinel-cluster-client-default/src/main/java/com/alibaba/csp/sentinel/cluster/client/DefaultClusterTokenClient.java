@@ -15,17 +15,24 @@
  */
 package com.alibaba.csp.sentinel.cluster.client;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import com.alibaba.csp.sentinel.cluster.AsyncClusterTransportClient;
 import com.alibaba.csp.sentinel.cluster.ClusterConstants;
 import com.alibaba.csp.sentinel.cluster.ClusterErrorMessages;
+import com.alibaba.csp.sentinel.cluster.ClusterResponseCallback;
 import com.alibaba.csp.sentinel.cluster.ClusterTransportClient;
 import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultCallback;
 import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
 import com.alibaba.csp.sentinel.cluster.TokenServerDescriptor;
+import com.alibaba.csp.sentinel.cluster.client.TokenServerGroup.ServerConnection;
 import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientAssignConfig;
 import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientConfigManager;
+import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientStartUpConfig;
 import com.alibaba.csp.sentinel.cluster.client.config.ServerChangeObserver;
 import com.alibaba.csp.sentinel.cluster.log.ClusterClientStatLogUtil;
 import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
@@ -37,15 +44,24 @@ import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.util.StringUtil;
 
 /**
- * Default implementation of {@link ClusterTokenClient}.
+ * Default implementation of {@link ClusterTokenClient}, which also supports {@link AsyncClusterTokenClient}.
+ * When multiple token servers are assigned, every request is routed to the server that owns the flow
+ * (see {@link TokenServerGroup}).
  *
  * @author Eric Zhao
  * @since 1.4.0
  */
-public class DefaultClusterTokenClient implements ClusterTokenClient {
+public class DefaultClusterTokenClient implements AsyncClusterTokenClient {
 
-    private ClusterTransportClient transportClient;
-    private TokenServerDescriptor serverDescriptor;
+    /**
+     * Connections to the assigned token servers, which is replaced as a whole when the servers change.
+     */
+    private volatile TokenServerGroup serverGroup;
+
+    /**
+     * Request objects of the synchronous flow requests, which are reused by the calling thread.
+     */
+    private static final ThreadLocal<ClusterRequest<FlowRequestData>> FLOW_REQUEST = new ThreadLocal<>();
 
     private final AtomicBoolean shouldStart = new AtomicBoolean(false);
 
@@ -59,54 +75,109 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
         initNewConnection();
     }
 
-    private boolean serverEqual(TokenServerDescriptor descriptor, ClusterClientAssignConfig config) {
-        if (descriptor == null || config == null) {
-            return false;
-        }
-        return descriptor.getHost().equals(config.getServerHost()) && descriptor.getPort() == config.getServerPort();
-    }
-
     private void initNewConnection() {
-        if (transportClient != null) {
+        if (serverGroup != null) {
             return;
         }
-        String host = ClusterClientConfigManager.getServerHost();
-        int port = ClusterClientConfigManager.getServerPort();
-        if (StringUtil.isBlank(host) || port <= 0) {
+        List<TokenServerDescriptor> servers = assignedServers(ClusterClientConfigManager.getServerHost(),
+            ClusterClientConfigManager.getServerPort(), ClusterClientConfigManager.getServerList());
+        if (servers.isEmpty()) {
             return;
         }
 
         try {
-            this.transportClient = new NettyTransportClient(host, port);
-            this.serverDescriptor = new TokenServerDescriptor(host, port);
-            RecordLog.info("[DefaultClusterTokenClient] New client created: " + serverDescriptor);
+            this.serverGroup = newServerGroup(servers, null);
+            RecordLog.info("[DefaultClusterTokenClient] New client created: " + servers);
         } catch (Exception ex) {
             RecordLog.warn("[DefaultClusterTokenClient] Failed to initialize new token client", ex);
         }
     }
 
     private void changeServer(/*@Valid*/ ClusterClientAssignConfig config) {
-        if (serverEqual(serverDescriptor, config)) {
+        List<TokenServerDescriptor> servers = assignedServers(config.getServerHost(), config.getServerPort(),
+            config.getServerList());
+        TokenServerGroup oldGroup = this.serverGroup;
+        if (servers.isEmpty() || (oldGroup != null && oldGroup.hasServers(servers))) {
             return;
         }
         try {
-            if (transportClient != null) {
-                transportClient.stop();
+            // Connections to the servers that remain in the cluster are kept, together with their leases.
+            TokenServerGroup newGroup = newServerGroup(servers, oldGroup);
+            // Replace with new, even if the new clients are not ready.
+            this.serverGroup = newGroup;
+            if (oldGroup != null) {
+                for (ServerConnection connection : oldGroup.getConnections()) {
+                    if (newGroup.get(TokenServerGroup.addressOf(connection.getDescriptor())) != connection) {
+                        connection.getTransportClient().stop();
+                    }
+                }
             }
-            // Replace with new, even if the new client is not ready.
-            this.transportClient = new NettyTransportClient(config.getServerHost(), config.getServerPort());
-            this.serverDescriptor = new TokenServerDescriptor(config.getServerHost(), config.getServerPort());
             startClientIfScheduled();
-            RecordLog.info("[DefaultClusterTokenClient] New client created: " + serverDescriptor);
+            RecordLog.info("[DefaultClusterTokenClient] New client created: " + servers);
         } catch (Exception ex) {
             RecordLog.warn("[DefaultClusterTokenClient] Failed to change remote token server", ex);
         }
     }
 
+    /**
+     * Resolve the assigned servers, where the primary server comes first.
+     */
+    private static List<TokenServerDescriptor> assignedServers(String host, Integer port, List<String> serverList) {
+        List<TokenServerDescriptor> servers = new ArrayList<>();
+        boolean primaryPresent = StringUtil.isNotBlank(host) && port != null && port > 0;
+        if (primaryPresent) {
+            servers.add(new TokenServerDescriptor(host, port));
+        }
+        if (serverList != null && !serverList.isEmpty()) {
+            List<TokenServerDescriptor> list = new ArrayList<>();
+            boolean primaryInList = false;
+            for (String address : serverList) {
+                TokenServerDescriptor server = ClusterClientConfigManager.parseServerAddress(address);
+                if (server == null) {
+                    continue;
+                }
+                if (primaryPresent && server.getHost().equals(host) && server.getPort() == port) {
+                    primaryInList = true;
+                } else {
+                    list.add(server);
+                }
+            }
+            if (!primaryInList) {
+                // The server list is the whole cluster, so the primary server only counts if it is in the list.
+                servers.clear();
+            }
+            servers.addAll(list);
+        }
+        return servers;
+    }
+
+    private static TokenServerGroup newServerGroup(List<TokenServerDescriptor> servers, TokenServerGroup previous)
+        throws Exception {
+        List<ServerConnection> connections = new ArrayList<>(servers.size());
+        for (TokenServerDescriptor server : servers) {
+            ServerConnection connection = previous == null ? null
+                : previous.get(TokenServerGroup.addressOf(server));
+            if (connection == null) {
+                ClusterTransportClient transportClient = new NettyTransportClient(server.getHost(), server.getPort());
+                connection = new ServerConnection(server, transportClient, newLeaseManager(transportClient));
+            }
+            connections.add(connection);
+        }
+        return new TokenServerGroup(connections);
+    }
+
+    private static TokenLeaseManager newLeaseManager(ClusterTransportClient transportClient) {
+        int leaseMs = ClusterClientStartUpConfig.getLeaseMs();
+        return leaseMs > 0 ? new TokenLeaseManager(transportClient, leaseMs) : null;
+    }
+
     private void startClientIfScheduled() throws Exception {
         if (shouldStart.get()) {
-            if (transportClient != null) {
-                transportClient.start();
+            TokenServerGroup group = this.serverGroup;
+            if (group != null) {
+                for (ServerConnection connection : group.getConnections()) {
+                    connection.getTransportClient().start();
+                }
             } else {
                 RecordLog.warn("[DefaultClusterTokenClient] Cannot start transport client: client not created");
             }
@@ -115,8 +186,11 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
 
     private void stopClientIfStarted() throws Exception {
         if (shouldStart.compareAndSet(true, false)) {
-            if (transportClient != null) {
-                transportClient.stop();
+            TokenServerGroup group = this.serverGroup;
+            if (group != null) {
+                for (ServerConnection connection : group.getConnections()) {
+                    connection.getTransportClient().stop();
+                }
             }
         }
     }
@@ -133,17 +207,35 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
         stopClientIfStarted();
     }
 
+    /**
+     * Get the state of the client, which is started if the client is connected to any of the token servers.
+     */
     @Override
     public int getState() {
-        if (transportClient == null) {
+        TokenServerGroup group = this.serverGroup;
+        if (group == null) {
             return ClientConstants.CLIENT_STATUS_OFF;
         }
-        return transportClient.isReady() ? ClientConstants.CLIENT_STATUS_STARTED : ClientConstants.CLIENT_STATUS_OFF;
+        for (ServerConnection connection : group.getConnections()) {
+            if (connection.getTransportClient().isReady()) {
+                return ClientConstants.CLIENT_STATUS_STARTED;
+            }
+        }
+        return ClientConstants.CLIENT_STATUS_OFF;
     }
 
+    /**
+     * @return the primary token server
+     */
     @Override
     public TokenServerDescriptor currentServer() {
-        return serverDescriptor;
+        TokenServerGroup group = this.serverGroup;
+        return group == null ? null : group.getPrimary().getDescriptor();
+    }
+
+    private ServerConnection route(Long flowId) {
+        TokenServerGroup group = this.serverGroup;
+        return group == null ? null : group.route(flowId);
     }
 
     @Override
@@ -151,11 +243,14 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
         if (notValidRequest(flowId, acquireCount)) {
             return badRequest();
         }
-        FlowRequestData data = new FlowRequestData().setCount(acquireCount)
-            .setFlowId(flowId).setPriority(prioritized);
-        ClusterRequest<FlowRequestData> request = new ClusterRequest<>(ClusterConstants.MSG_TYPE_FLOW, data);
+        ServerConnection server = route(flowId);
         try {
-            TokenResult result = sendTokenRequest(request);
+            TokenResult result;
+            if (server != null && server.getLeaseManager() != null && !prioritized) {
+                result = server.getLeaseManager().acquire(flowId, acquireCount);
+            } else {
+                result = sendFlowRequest(server, flowId, acquireCount, prioritized);
+            }
             logForResult(result);
             return result;
         } catch (Exception ex) {
@@ -173,7 +268,7 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
             .setFlowId(flowId).setParams(params);
         ClusterRequest<ParamFlowRequestData> request = new ClusterRequest<>(ClusterConstants.MSG_TYPE_PARAM_FLOW, data);
         try {
-            TokenResult result = sendTokenRequest(request);
+            TokenResult result = sendTokenRequest(route(flowId), request);
             logForResult(result);
             return result;
         } catch (Exception ex) {
@@ -182,6 +277,35 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
         }
     }
 
+    @Override
+    public void requestTokenAsync(Long flowId, int acquireCount, boolean prioritized, TokenResultCallback callback) {
+        if (notValidRequest(flowId, acquireCount)) {
+            callback.onComplete(badRequest());
+            return;
+        }
+        ServerConnection server = route(flowId);
+        if (server != null && server.getLeaseManager() != null && !prioritized) {
+            server.getLeaseManager().acquireAsync(flowId, acquireCount, callback);
+            return;
+        }
+        FlowRequestData data = new FlowRequestData().setCount(acquireCount)
+            .setFlowId(flowId).setPriority(prioritized);
+        sendTokenRequestAsync(server, new ClusterRequest<>(ClusterConstants.MSG_TYPE_FLOW, data), callback);
+    }
+
+    @Override
+    public void requestParamTokenAsync(Long flowId, int acquireCount, Collection<Object> params,
+                                       TokenResultCallback callback) {
+        if (notValidRequest(flowId, acquireCount) || params == null || params.isEmpty()) {
+            callback.onComplete(badRequest());
+            return;
+        }
+        ParamFlowRequestData data = new ParamFlowRequestData().setCount(acquireCount)
+            .setFlowId(flowId).setParams(params);
+        sendTokenRequestAsync(route(flowId), new ClusterRequest<>(ClusterConstants.MSG_TYPE_PARAM_FLOW, data),
+            callback);
+    }
+
     private void logForResult(TokenResult result) {
         switch (result.getStatus()) {
             case TokenResultStatus.NO_RULE_EXISTS:
@@ -190,24 +314,88 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
             case TokenResultStatus.TOO_MANY_REQUEST:
                 ClusterClientStatLogUtil.log(ClusterErrorMessages.TOO_MANY_REQUESTS);
                 break;
+            case TokenResultStatus.NOT_OWNER:
+                ClusterClientStatLogUtil.log(ClusterErrorMessages.NOT_OWNER_SERVER);
+                break;
             default:
         }
     }
 
-    private TokenResult sendTokenRequest(ClusterRequest request) throws Exception {
-        if (transportClient == null) {
+    /**
+     * Send a synchronous flow request, where the request objects of the calling thread are reused.
+     */
+    private TokenResult sendFlowRequest(ServerConnection server, long flowId, int acquireCount, boolean prioritized)
+        throws Exception {
+        ClusterRequest<FlowRequestData> request = FLOW_REQUEST.get();
+        if (request == null) {
+            request = new ClusterRequest<>(ClusterConstants.MSG_TYPE_FLOW, new FlowRequestData());
+        } else {
+            FLOW_REQUEST.remove();
+        }
+        request.getData().setCount(acquireCount).setFlowId(flowId).setPriority(prioritized);
+        TokenResult result = sendTokenRequest(server, request);
+        // The request has been encoded once its response is received, so it is safe to reuse.
+        // Requests that failed (e.g. timed out) may still be queued for writing, so they are dropped.
+        FLOW_REQUEST.set(request);
+        return result;
+    }
+
+    private TokenResult sendTokenRequest(ServerConnection server, ClusterRequest request) throws Exception {
+        if (server == null) {
             RecordLog.warn(
                 "[DefaultClusterTokenClient] Client not created, please check your config for cluster client");
             return clientFail();
         }
-        ClusterResponse response = transportClient.sendRequest(request);
-        TokenResult result = new TokenResult(response.getStatus());
-        if (response.getData() != null) {
-            FlowTokenResponseData responseData = (FlowTokenResponseData)response.getData();
-            result.setRemaining(responseData.getRemainingCount())
-                .setWaitInMs(responseData.getWaitInMs());
+        return toTokenResult(server.getTransportClient().sendRequest(request));
+    }
+
+    private void sendTokenRequestAsync(ServerConnection server, ClusterRequest request,
+                                       final TokenResultCallback callback) {
+        if (server == null) {
+            RecordLog.warn(
+                "[DefaultClusterTokenClient] Client not created, please check your config for cluster client");
+            callback.onComplete(clientFail());
+            return;
+        }
+        ClusterTransportClient transportClient = server.getTransportClient();
+        if (!(transportClient instanceof AsyncClusterTransportClient)) {
+            // Fall back to the synchronous request in the calling thread.
+            TokenResult result;
+            try {
+                result = toTokenResult(transportClient.sendRequest(request));
+                logForResult(result);
+            } catch (Exception ex) {
+                ClusterClientStatLogUtil.log(ex.getMessage());
+                result = clientFail();
+            }
+            callback.onComplete(result);
+            return;
         }
-        return result;
+        ((AsyncClusterTransportClient)transportClient).sendRequestAsync(request, new ClusterResponseCallback() {
+            @Override
+            public void onResponse(ClusterResponse response) {
+                TokenResult result = toTokenResult(response);
+                logForResult(result);
+                callback.onComplete(result);
+            }
+
+            @Override
+            public void onFailure(Throwable cause) {
+                ClusterClientStatLogUtil.log(cause.getMessage());
+                callback.onComplete(clientFail());
+            }
+        });
+    }
+
+    private TokenResult toTokenResult(ClusterResponse response) {
+        FlowTokenResponseData responseData = (FlowTokenResponseData)response.getData();
+        if (responseData == null || (responseData.getRemainingCount() == 0 && responseData.getWaitInMs() == 0)) {
+            // Most of the blocked results carry nothing but the status.
+            return new TokenResult(response.getStatus());
+        }
+        return new TokenResult(response.getStatus())
+            .setRemaining(responseData.getRemainingCount())
+            .setWaitInMs(responseData.getWaitInMs());
     }
 
     private boolean notValidRequest(Long id, int count) {
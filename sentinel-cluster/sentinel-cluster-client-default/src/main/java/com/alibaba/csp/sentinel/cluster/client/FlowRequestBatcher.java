@@ -0,0 +1,182 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.ClusterErrorMessages;
+import com.alibaba.csp.sentinel.cluster.ClusterResponseCallback;
+import com.alibaba.csp.sentinel.cluster.exception.SentinelClusterException;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.BatchFlowRequestData;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.data.BatchFlowTokenResponseData;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>Coalesces concurrent flow requests (of the same or different flows) into batch requests, so the token
+ * server receives one frame for many requests.</p>
+ *
+ * <p>A flush is scheduled in the I/O thread once the first request is queued, and requests that arrive
+ * before the flush are sent together. A batch is flushed immediately when it reaches the max size.
+ * A single request is sent as a normal flow request.</p>
+ *
+ * @since 1.7.1
+ */
+final class FlowRequestBatcher {
+
+    private final int maxSize;
+    private final long windowMicros;
+    private final Sender sender;
+
+    private final Queue<PendingRequest> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedCount = new AtomicInteger(0);
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    private final Runnable flushTask = new Runnable() {
+        @Override
+        public void run() {
+            flush();
+        }
+    };
+
+    FlowRequestBatcher(int maxSize, long windowMicros, Sender sender) {
+        AssertUtil.isTrue(maxSize > 1 && maxSize <= ClusterConstants.MAX_BATCH_FLOW_REQUEST_COUNT,
+            "invalid max size of batch");
+        AssertUtil.notNull(sender, "sender cannot be null");
+        this.maxSize = maxSize;
+        this.windowMicros = windowMicros;
+        this.sender = sender;
+    }
+
+    /**
+     * Queue a flow request, which will be sent by the executor (the event loop of the connection).
+     *
+     * @param data     the flow request
+     * @param callback callback of the response
+     * @param executor executor to flush the requests
+     */
+    void add(FlowRequestData data, ClusterResponseCallback callback, ScheduledExecutorService executor) {
+        queue.offer(new PendingRequest(data, callback));
+        try {
+            if (queuedCount.incrementAndGet() >= maxSize) {
+                flushScheduled.set(true);
+                executor.execute(flushTask);
+            } else if (flushScheduled.compareAndSet(false, true)) {
+                if (windowMicros > 0) {
+                    executor.schedule(flushTask, windowMicros, TimeUnit.MICROSECONDS);
+                } else {
+                    executor.execute(flushTask);
+                }
+            }
+        } catch (RejectedExecutionException ex) {
+            // The connection is closing, so the requests will be failed by the sender.
+            flush();
+        }
+    }
+
+    void flush() {
+        // Reset the flag before draining, so requests queued after draining will schedule another flush.
+        flushScheduled.set(false);
+        List<PendingRequest> batch;
+        while (!(batch = drain()).isEmpty()) {
+            send(batch);
+        }
+    }
+
+    private List<PendingRequest> drain() {
+        List<PendingRequest> batch = new ArrayList<>(maxSize);
+        PendingRequest request;
+        while (batch.size() < maxSize && (request = queue.poll()) != null) {
+            queuedCount.decrementAndGet();
+            batch.add(request);
+        }
+        return batch;
+    }
+
+    private void send(final List<PendingRequest> batch) {
+        if (batch.size() == 1) {
+            PendingRequest request = batch.get(0);
+            sender.send(new ClusterRequest<>(ClusterConstants.MSG_TYPE_FLOW, request.data), request.callback);
+            return;
+        }
+        BatchFlowRequestData data = new BatchFlowRequestData();
+        for (PendingRequest request : batch) {
+            data.addRequest(request.data);
+        }
+        sender.send(new ClusterRequest<>(ClusterConstants.MSG_TYPE_BATCH_FLOW, data), new ClusterResponseCallback() {
+            @Override
+            public void onResponse(ClusterResponse response) {
+                if (response.getStatus() != ClusterConstants.RESPONSE_STATUS_OK) {
+                    for (PendingRequest request : batch) {
+                        request.callback.onResponse(new ClusterResponse<>(0, ClusterConstants.MSG_TYPE_FLOW,
+                            response.getStatus(), null));
+                    }
+                    return;
+                }
+                Object data = response.getData();
+                List<ClusterResponse<?>> responses = data instanceof BatchFlowTokenResponseData
+                    ? new ArrayList<ClusterResponse<?>>(((BatchFlowTokenResponseData)data).getResponses()) : null;
+                if (responses == null || responses.size() != batch.size()) {
+                    onFailure(new SentinelClusterException(ClusterErrorMessages.UNEXPECTED_STATUS));
+                    return;
+                }
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).callback.onResponse(responses.get(i));
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable cause) {
+                for (PendingRequest request : batch) {
+                    request.callback.onFailure(cause);
+                }
+            }
+        });
+    }
+
+    interface Sender {
+
+        /**
+         * Send the request without batching.
+         *
+         * @param request  the request
+         * @param callback callback of the response
+         */
+        void send(ClusterRequest request, ClusterResponseCallback callback);
+    }
+
+    private static class PendingRequest {
+
+        private final FlowRequestData data;
+        private final ClusterResponseCallback callback;
+
+        PendingRequest(FlowRequestData data, ClusterResponseCallback callback) {
+            this.data = data;
+            this.callback = callback;
+        }
+    }
+}
@@ -15,23 +15,28 @@
  */
 package com.alibaba.csp.sentinel.cluster.client;
 
-import java.util.AbstractMap.SimpleEntry;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import com.alibaba.csp.sentinel.cluster.AsyncClusterTransportClient;
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
 import com.alibaba.csp.sentinel.cluster.ClusterErrorMessages;
-import com.alibaba.csp.sentinel.cluster.ClusterTransportClient;
+import com.alibaba.csp.sentinel.cluster.ClusterResponseCallback;
 import com.alibaba.csp.sentinel.cluster.client.codec.netty.NettyRequestEncoder;
 import com.alibaba.csp.sentinel.cluster.client.codec.netty.NettyResponseDecoder;
 import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientConfigManager;
+import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientStartUpConfig;
 import com.alibaba.csp.sentinel.cluster.client.handler.TokenClientHandler;
+import com.alibaba.csp.sentinel.cluster.client.handler.TokenClientPromise;
 import com.alibaba.csp.sentinel.cluster.client.handler.TokenClientPromiseHolder;
 import com.alibaba.csp.sentinel.cluster.exception.SentinelClusterException;
 import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
 import com.alibaba.csp.sentinel.cluster.request.Request;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
 import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
 import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
 import com.alibaba.csp.sentinel.log.RecordLog;
@@ -44,12 +49,14 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
-import io.netty.channel.ChannelPromise;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 import io.netty.handler.codec.LengthFieldPrepender;
+import io.netty.handler.flush.FlushConsolidationHandler;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
 import io.netty.util.concurrent.GenericFutureListener;
 
 /**
@@ -58,55 +65,96 @@ import io.netty.util.concurrent.GenericFutureListener;
  * @author Eric Zhao
  * @since 1.4.0
  */
-public class NettyTransportClient implements ClusterTransportClient {
+public class NettyTransportClient implements AsyncClusterTransportClient {
 
     @SuppressWarnings("PMD.ThreadPoolCreationRule")
     private static final ScheduledExecutorService SCHEDULER = Executors.newScheduledThreadPool(1,
         new NamedThreadFactory("sentinel-cluster-transport-client-scheduler"));
 
+    /**
+     * Timer wheel for timeouts of in-flight requests. The tick is fine enough compared with the request timeout,
+     * and adding or cancelling a timeout is O(1).
+     */
+    private static final HashedWheelTimer TIMEOUT_TIMER = new HashedWheelTimer(
+        new NamedThreadFactory("sentinel-cluster-transport-client-timeout", true), 10, TimeUnit.MILLISECONDS, 512);
+
     public static final int RECONNECT_DELAY_MS = 2000;
 
     private final String host;
     private final int port;
 
     private Channel channel;
-    private NioEventLoopGroup eventLoopGroup;
+    private EventLoopGroup eventLoopGroup;
     private TokenClientHandler clientHandler;
 
     private final AtomicInteger idGenerator = new AtomicInteger(0);
+    /**
+     * Pending requests of this client, as xids are only unique within the client.
+     */
+    private final TokenClientPromiseHolder promiseHolder = new TokenClientPromiseHolder();
     private final AtomicInteger currentState = new AtomicInteger(ClientConstants.CLIENT_STATUS_OFF);
     private final AtomicInteger failConnectedTime = new AtomicInteger(0);
 
     private final AtomicBoolean shouldRetry = new AtomicBoolean(true);
 
+    /**
+     * Coalesces flow requests into batch requests, which is null if batching is disabled.
+     */
+    private final FlowRequestBatcher batcher;
+
     public NettyTransportClient(String host, int port) {
         AssertUtil.assertNotBlank(host, "remote host cannot be blank");
         AssertUtil.isTrue(port > 0, "port should be positive");
         this.host = host;
         this.port = port;
+        int batchMaxSize = ClusterClientStartUpConfig.getBatchMaxSize();
+        if (batchMaxSize > 1) {
+            this.batcher = new FlowRequestBatcher(batchMaxSize, ClusterClientStartUpConfig.getBatchWindowMicros(),
+                new FlowRequestBatcher.Sender() {
+                    @Override
+                    public void send(ClusterRequest request, ClusterResponseCallback callback) {
+                        doSendRequest(request, callback);
+                    }
+                });
+        } else {
+            this.batcher = null;
+        }
     }
 
     private Bootstrap initClientBootstrap() {
         Bootstrap b = new Bootstrap();
-        eventLoopGroup = new NioEventLoopGroup();
+        ClientTransportSupport transport = new ClientTransportSupport(ClusterClientConfigManager.isNativeTransport());
+        final int maxFrameLength = ClusterClientConfigManager.getMaxFrameLength();
+        final int flushConsolidation = ClusterClientConfigManager.getFlushConsolidation();
+        eventLoopGroup = transport.newEventLoopGroup(ClusterClientConfigManager.getIoThreads());
         b.group(eventLoopGroup)
-            .channel(NioSocketChannel.class)
+            .channel(transport.socketChannelClass())
             .option(ChannelOption.TCP_NODELAY, true)
             .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
             .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, ClusterClientConfigManager.getConnectTimeout())
             .handler(new ChannelInitializer<SocketChannel>() {
                 @Override
                 public void initChannel(SocketChannel ch) throws Exception {
-                    clientHandler = new TokenClientHandler(currentState, disconnectCallback);
+                    clientHandler = new TokenClientHandler(currentState, disconnectCallback, promiseHolder);
 
                     ChannelPipeline pipeline = ch.pipeline();
-                    pipeline.addLast(new LengthFieldBasedFrameDecoder(1024, 0, 2, 0, 2));
+                    if (flushConsolidation > 0) {
+                        // Requests written by other threads are flushed together by the event loop.
+                        pipeline.addLast(new FlushConsolidationHandler(flushConsolidation, true));
+                    }
+                    pipeline.addLast(new LengthFieldBasedFrameDecoder(maxFrameLength, 0, 2, 0, 2));
                     pipeline.addLast(new NettyResponseDecoder());
                     pipeline.addLast(new LengthFieldPrepender(2));
                     pipeline.addLast(new NettyRequestEncoder());
                     pipeline.addLast(clientHandler);
                 }
             });
+        if (ClusterClientConfigManager.getSendBufferSize() > 0) {
+            b.option(ChannelOption.SO_SNDBUF, ClusterClientConfigManager.getSendBufferSize());
+        }
+        if (ClusterClientConfigManager.getReceiveBufferSize() > 0) {
+            b.option(ChannelOption.SO_RCVBUF, ClusterClientConfigManager.getReceiveBufferSize());
+        }
 
         return b;
     }
@@ -213,28 +261,91 @@ public class NettyTransportClient implements ClusterTransportClient {
         if (!validRequest(request)) {
             throw new SentinelClusterException(ClusterErrorMessages.BAD_REQUEST);
         }
-        int xid = getCurrentId();
-        try {
-            request.setId(xid);
+        SyncResponseCallback callback = new SyncResponseCallback();
+        int xid = dispatchRequest(request, callback);
+        if (!callback.latch.await(ClusterClientConfigManager.getRequestTimeout(), TimeUnit.MILLISECONDS)) {
+            if (xid > 0) {
+                promiseHolder.remove(xid);
+            }
+            throw new SentinelClusterException(ClusterErrorMessages.REQUEST_TIME_OUT);
+        }
+        if (callback.cause != null) {
+            if (callback.cause instanceof Exception) {
+                throw (Exception)callback.cause;
+            }
+            throw new SentinelClusterException(callback.cause.getMessage());
+        }
+        if (callback.response == null) {
+            // Should not go through here.
+            throw new SentinelClusterException(ClusterErrorMessages.UNEXPECTED_STATUS);
+        }
+        return callback.response;
+    }
+
+    @Override
+    public void sendRequestAsync(ClusterRequest request, ClusterResponseCallback callback) {
+        AssertUtil.notNull(callback, "callback cannot be null");
+        if (!isReady()) {
+            callback.onFailure(new SentinelClusterException(ClusterErrorMessages.CLIENT_NOT_READY));
+            return;
+        }
+        if (!validRequest(request)) {
+            callback.onFailure(new SentinelClusterException(ClusterErrorMessages.BAD_REQUEST));
+            return;
+        }
+        dispatchRequest(request, callback);
+    }
 
-            channel.writeAndFlush(request);
+    /**
+     * Queue flow requests to the batcher if batching is enabled, otherwise send the request directly.
+     *
+     * @return xid of the request, or -1 if the request is queued for batching
+     */
+    private int dispatchRequest(ClusterRequest request, ClusterResponseCallback callback) {
+        Channel ch = this.channel;
+        if (batcher != null && ch != null && request.getType() == ClusterConstants.MSG_TYPE_FLOW) {
+            batcher.add((FlowRequestData)request.getData(), callback, ch.eventLoop());
+            return -1;
+        }
+        return doSendRequest(request, callback);
+    }
 
-            ChannelPromise promise = channel.newPromise();
-            TokenClientPromiseHolder.putPromise(xid, promise);
+    /**
+     * Register the request and write it without waiting for the response, so requests are pipelined
+     * over the connection. The request will be failed by the timer wheel if no response is received
+     * within the request timeout.
+     */
+    private int doSendRequest(ClusterRequest request, ClusterResponseCallback callback) {
+        final int xid = getCurrentId();
+        request.setId(xid);
 
-            if (!promise.await(ClusterClientConfigManager.getRequestTimeout())) {
-                throw new SentinelClusterException(ClusterErrorMessages.REQUEST_TIME_OUT);
+        TokenClientPromise promise = new TokenClientPromise(callback);
+        promiseHolder.putPromise(xid, promise);
+        promise.setTimeout(TIMEOUT_TIMER.newTimeout(new TimerTask() {
+            @Override
+            public void run(Timeout timeout) {
+                promiseHolder.failPromise(xid,
+                    new SentinelClusterException(ClusterErrorMessages.REQUEST_TIME_OUT));
             }
+        }, ClusterClientConfigManager.getRequestTimeout(), TimeUnit.MILLISECONDS));
 
-            SimpleEntry<ChannelPromise, ClusterResponse> entry = TokenClientPromiseHolder.getEntry(xid);
-            if (entry == null || entry.getValue() == null) {
-                // Should not go through here.
-                throw new SentinelClusterException(ClusterErrorMessages.UNEXPECTED_STATUS);
-            }
-            return entry.getValue();
-        } finally {
-            TokenClientPromiseHolder.remove(xid);
+        Channel ch = this.channel;
+        if (ch == null) {
+            promiseHolder.failPromise(xid,
+                new SentinelClusterException(ClusterErrorMessages.CLIENT_NOT_READY));
+            return xid;
         }
+        ch.writeAndFlush(request).addListener(new GenericFutureListener<ChannelFuture>() {
+            @Override
+            public void operationComplete(ChannelFuture future) {
+                if (!future.isSuccess()) {
+                    Throwable cause = future.cause() != null ? future.cause()
+                        : new SentinelClusterException(ClusterErrorMessages.UNEXPECTED_STATUS);
+                    promiseHolder.failPromise(xid, cause);
+                }
+            }
+        });
+        return xid;
     }
 
     private int getCurrentId() {
@@ -244,27 +355,24 @@ public class NettyTransportClient implements ClusterTransportClient {
         return idGenerator.incrementAndGet();
     }
 
-    /*public CompletableFuture<ClusterResponse> sendRequestAsync(ClusterRequest request) {
-        // Uncomment this when min target JDK is 1.8.
-        if (!validRequest(request)) {
-            return CompletableFuture.failedFuture(new IllegalArgumentException("Bad request"));
+    private static class SyncResponseCallback implements ClusterResponseCallback {
+
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private volatile ClusterResponse response;
+        private volatile Throwable cause;
+
+        @Override
+        public void onResponse(ClusterResponse response) {
+            this.response = response;
+            latch.countDown();
         }
-        int xid = getCurrentId();
-        request.setId(xid);
 
-        CompletableFuture<ClusterResponse> future = new CompletableFuture<>();
-        channel.writeAndFlush(request)
-            .addListener(f -> {
-                if (f.isSuccess()) {
-                    future.complete(someResult);
-                } else if (f.cause() != null) {
-                    future.completeExceptionally(f.cause());
-                } else {
-                    future.cancel(false);
-                }
-            });
-        return future;
-    }*/
+        @Override
+        public void onFailure(Throwable cause) {
+            this.cause = cause;
+            latch.countDown();
+        }
+    }
 
     private static final int MAX_ID = 999_999_999;
 }
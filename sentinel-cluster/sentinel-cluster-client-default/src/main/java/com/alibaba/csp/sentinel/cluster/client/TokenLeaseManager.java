@@ -0,0 +1,285 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.csp.sentinel.cluster.AsyncClusterTransportClient;
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.ClusterResponseCallback;
+import com.alibaba.csp.sentinel.cluster.ClusterTransportClient;
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultCallback;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowLeaseRequestData;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.data.FlowTokenResponseData;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * <p>Manager of token leases of a transport client. A lease is a slice of the global threshold of a flow
+ * granted by the token server, so flow requests could be served locally until the tokens run out or the
+ * lease expires:</p>
+ * <ol>
+ * <li>a request that misses the lease renews it synchronously, where only one thread of each flow talks
+ * to the server and the others reuse the new lease;</li>
+ * <li>the lease is renewed in the background when less than a quarter of the tokens or of the duration
+ * is left, so hot flows rarely wait for the server (only if the transport client is an
+ * {@link AsyncClusterTransportClient});</li>
+ * <li>tokens left in a replaced lease are returned to the server with the next renewal, along with the time
+ * elapsed since their grant, so the server only credits grants still counted in its window.</li>
+ * </ol>
+ *
+ * <p>As granted tokens are counted as passed by the server, the error of each client is bounded by the tokens
+ * of one lease, which is its share of the threshold within the lease duration.</p>
+ *
+ * @since 1.7.1
+ */
+final class TokenLeaseManager {
+
+    private final ClusterTransportClient transportClient;
+    /**
+     * The transport client if it supports asynchronous requests, otherwise null.
+     */
+    private final AsyncClusterTransportClient asyncTransportClient;
+    private final int leaseMs;
+
+    private final ConcurrentMap<Long, FlowTokenLease> leases = new ConcurrentHashMap<>();
+
+    TokenLeaseManager(ClusterTransportClient transportClient, int leaseMs) {
+        this.transportClient = transportClient;
+        this.asyncTransportClient = transportClient instanceof AsyncClusterTransportClient
+            ? (AsyncClusterTransportClient)transportClient : null;
+        this.leaseMs = leaseMs;
+    }
+
+    /**
+     * Acquire tokens from the lease of the flow, and renew the lease synchronously if needed.
+     *
+     * @param flowId       the flow ID
+     * @param acquireCount tokens to acquire
+     * @return the token result
+     * @throws Exception if failed to renew the lease
+     */
+    TokenResult acquire(long flowId, int acquireCount) throws Exception {
+        FlowTokenLease lease = getLease(flowId);
+        if (tryAcquire(flowId, lease, acquireCount)) {
+            return okResult(lease);
+        }
+        synchronized (lease) {
+            // Another thread may have renewed the lease.
+            if (tryAcquire(flowId, lease, acquireCount)) {
+                return okResult(lease);
+            }
+            ClusterResponse response = transportClient.sendRequest(leaseRequest(flowId, acquireCount, lease));
+            return onLeaseResponse(lease, response, acquireCount);
+        }
+    }
+
+    /**
+     * Acquire tokens from the lease of the flow, and renew the lease asynchronously if needed.
+     * If the transport client does not support asynchronous requests, the lease is renewed synchronously
+     * in the calling thread.
+     *
+     * @param flowId       the flow ID
+     * @param acquireCount tokens to acquire
+     * @param callback     callback of the result, which may be invoked in the calling thread
+     */
+    void acquireAsync(long flowId, final int acquireCount, final TokenResultCallback callback) {
+        if (asyncTransportClient == null) {
+            TokenResult result;
+            try {
+                result = acquire(flowId, acquireCount);
+            } catch (Exception ex) {
+                result = new TokenResult(TokenResultStatus.FAIL);
+            }
+            callback.onComplete(result);
+            return;
+        }
+        final FlowTokenLease lease = getLease(flowId);
+        if (tryAcquire(flowId, lease, acquireCount)) {
+            callback.onComplete(okResult(lease));
+            return;
+        }
+        asyncTransportClient.sendRequestAsync(leaseRequest(flowId, acquireCount, lease), new ClusterResponseCallback() {
+            @Override
+            public void onResponse(ClusterResponse response) {
+                callback.onComplete(onLeaseResponse(lease, response, acquireCount));
+            }
+
+            @Override
+            public void onFailure(Throwable cause) {
+                callback.onComplete(new TokenResult(TokenResultStatus.FAIL));
+            }
+        });
+    }
+
+    int remaining(long flowId) {
+        FlowTokenLease lease = leases.get(flowId);
+        return lease == null ? 0 : lease.remaining.get();
+    }
+
+    private FlowTokenLease getLease(long flowId) {
+        FlowTokenLease lease = leases.get(flowId);
+        if (lease == null) {
+            FlowTokenLease newLease = new FlowTokenLease();
+            lease = leases.putIfAbsent(flowId, newLease);
+            if (lease == null) {
+                lease = newLease;
+            }
+        }
+        return lease;
+    }
+
+    private boolean tryAcquire(long flowId, FlowTokenLease lease, int acquireCount) {
+        long now = TimeUtil.currentTimeMillis();
+        if (!lease.tryAcquire(acquireCount, now)) {
+            return false;
+        }
+        if (asyncTransportClient != null && lease.shouldRenew(now, leaseMs)
+            && lease.renewing.compareAndSet(false, true)) {
+            renewInBackground(flowId, lease);
+        }
+        return true;
+    }
+
+    private void renewInBackground(long flowId, final FlowTokenLease lease) {
+        asyncTransportClient.sendRequestAsync(leaseRequest(flowId, 1, lease), new ClusterResponseCallback() {
+            @Override
+            public void onResponse(ClusterResponse response) {
+                lease.renewing.set(false);
+                onLeaseResponse(lease, response, 0);
+            }
+
+            @Override
+            public void onFailure(Throwable cause) {
+                lease.renewing.set(false);
+            }
+        });
+    }
+
+    private ClusterRequest<FlowLeaseRequestData> leaseRequest(long flowId, int acquireCount, FlowTokenLease lease) {
+        FlowLeaseRequestData data = new FlowLeaseRequestData()
+            .setFlowId(flowId)
+            .setCount(acquireCount)
+            .setLeaseMs(leaseMs);
+        lease.drainReturned(data, TimeUtil.currentTimeMillis());
+        return new ClusterRequest<>(ClusterConstants.MSG_TYPE_FLOW_LEASE, data);
+    }
+
+    /**
+     * Install the lease granted by the server, where {@code acquireCount} tokens are consumed at once.
+     */
+    private TokenResult onLeaseResponse(FlowTokenLease lease, ClusterResponse response, int acquireCount) {
+        FlowTokenResponseData data = (FlowTokenResponseData)response.getData();
+        if (response.getStatus() != TokenResultStatus.OK || data == null) {
+            if (data == null) {
+                return new TokenResult(response.getStatus());
+            }
+            return new TokenResult(response.getStatus())
+                .setRemaining(data.getRemainingCount())
+                .setWaitInMs(data.getWaitInMs());
+        }
+        int granted = data.getRemainingCount();
+        long now = TimeUtil.currentTimeMillis();
+        lease.renew(granted, granted - acquireCount, now, now + data.getWaitInMs());
+        return new TokenResult(TokenResultStatus.OK).setRemaining(granted - acquireCount).setWaitInMs(0);
+    }
+
+    private static TokenResult okResult(FlowTokenLease lease) {
+        return new TokenResult(TokenResultStatus.OK)
+            .setRemaining(Math.max(0, lease.remaining.get()))
+            .setWaitInMs(0);
+    }
+
+    static final class FlowTokenLease {
+
+        final AtomicInteger remaining = new AtomicInteger(0);
+        final AtomicBoolean renewing = new AtomicBoolean(false);
+
+        volatile int granted;
+        volatile long grantedAt;
+        volatile long expireAt;
+
+        /**
+         * Tokens left in replaced leases, and the grant time of the oldest one, guarded by {@code returnLock}.
+         * A dedicated lock is used as the lease itself is locked during synchronous renewal.
+         */
+        private final Object returnLock = new Object();
+        private int pendingReturn;
+        private long pendingReturnGrantedAt;
+
+        boolean tryAcquire(int count, long now) {
+            if (now >= expireAt) {
+                return false;
+            }
+            while (true) {
+                int current = remaining.get();
+                if (current < count) {
+                    return false;
+                }
+                if (remaining.compareAndSet(current, current - count)) {
+                    return true;
+                }
+            }
+        }
+
+        boolean shouldRenew(long now, int leaseMs) {
+            return remaining.get() < granted / 4 || expireAt - now < leaseMs / 4;
+        }
+
+        /**
+         * Replace the lease. The new tokens are published before the expiry, so readers either see the old
+         * (maybe expired) lease or the new tokens.
+         */
+        void renew(int granted, int remaining, long grantedAt, long expireAt) {
+            int left = this.remaining.getAndSet(remaining);
+            if (left > 0 && grantedAt < this.expireAt) {
+                addReturned(left, this.grantedAt);
+            }
+            this.granted = granted;
+            this.grantedAt = grantedAt;
+            this.expireAt = expireAt;
+        }
+
+        private void addReturned(int count, long grantedAt) {
+            synchronized (returnLock) {
+                if (pendingReturn == 0 || grantedAt < pendingReturnGrantedAt) {
+                    pendingReturnGrantedAt = grantedAt;
+                }
+                pendingReturn += count;
+            }
+        }
+
+        /**
+         * Move the pending returned tokens to the lease request. The age of the oldest grant is reported,
+         * so the server never credits tokens whose grant has left its window.
+         */
+        void drainReturned(FlowLeaseRequestData data, long now) {
+            synchronized (returnLock) {
+                if (pendingReturn > 0) {
+                    data.setReturnedCount(pendingReturn)
+                        .setReturnedAgeMs((int)Math.min(Integer.MAX_VALUE, Math.max(0, now - pendingReturnGrantedAt)));
+                    pendingReturn = 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.alibaba.csp.sentinel.cluster.ClusterTransportClient;
+import com.alibaba.csp.sentinel.cluster.ConsistentHashRing;
+import com.alibaba.csp.sentinel.cluster.TokenServerDescriptor;
+
+/**
+ * <p>Connections to the token servers assigned to current client. When there are multiple token servers,
+ * flows are sharded among the servers via consistent hashing of flow IDs, which is the same as what the
+ * servers do (see {@link ConsistentHashRing}), so every request is sent to the server that owns the flow.</p>
+ *
+ * <p>A group is immutable, and is replaced as a whole when the assigned servers change.</p>
+ *
+ * @since 1.7.1
+ */
+final class TokenServerGroup {
+
+    private final Map<String, ServerConnection> connections;
+    private final ServerConnection primary;
+    /**
+     * The ring of server addresses, which is null if there is only one server.
+     */
+    private final ConsistentHashRing ring;
+
+    /**
+     * @param connections connections to the servers, where the first one is the primary server
+     */
+    TokenServerGroup(List<ServerConnection> connections) {
+        if (connections == null || connections.isEmpty()) {
+            throw new IllegalArgumentException("token server group should not be empty");
+        }
+        Map<String, ServerConnection> map = new LinkedHashMap<>();
+        for (ServerConnection connection : connections) {
+            map.put(addressOf(connection.getDescriptor()), connection);
+        }
+        this.connections = Collections.unmodifiableMap(map);
+        this.primary = connections.get(0);
+        this.ring = map.size() > 1 ? new ConsistentHashRing(map.keySet()) : null;
+    }
+
+    static String addressOf(TokenServerDescriptor descriptor) {
+        return descriptor.getHost() + ":" + descriptor.getPort();
+    }
+
+    /**
+     * Get the connection to the server that owns the flow.
+     *
+     * @param flowId the flow ID
+     * @return the connection, never null
+     */
+    ServerConnection route(long flowId) {
+        if (ring == null) {
+            return primary;
+        }
+        return connections.get(ring.route(flowId));
+    }
+
+    ServerConnection getPrimary() {
+        return primary;
+    }
+
+    ServerConnection get(String address) {
+        return connections.get(address);
+    }
+
+    Collection<ServerConnection> getConnections() {
+        return connections.values();
+    }
+
+    /**
+     * @param servers the assigned servers, where the first one is the primary server
+     * @return true if the group is made up of exactly the given servers
+     */
+    boolean hasServers(List<TokenServerDescriptor> servers) {
+        if (servers.isEmpty() || !addressOf(primary.getDescriptor()).equals(addressOf(servers.get(0)))) {
+            return false;
+        }
+        List<String> addresses = new ArrayList<>(servers.size());
+        for (TokenServerDescriptor server : servers) {
+            if (!connections.containsKey(addressOf(server))) {
+                return false;
+            }
+            if (!addresses.contains(addressOf(server))) {
+                addresses.add(addressOf(server));
+            }
+        }
+        return addresses.size() == connections.size();
+    }
+
+    static final class ServerConnection {
+
+        private final TokenServerDescriptor descriptor;
+        private final ClusterTransportClient transportClient;
+        /**
+         * Leases of the flows owned by the server, which is null if token leasing is disabled.
+         */
+        private final TokenLeaseManager leaseManager;
+
+        ServerConnection(TokenServerDescriptor descriptor, ClusterTransportClient transportClient,
+                         TokenLeaseManager leaseManager) {
+            this.descriptor = descriptor;
+            this.transportClient = transportClient;
+            this.leaseManager = leaseManager;
+        }
+
+        TokenServerDescriptor getDescriptor() {
+            return descriptor;
+        }
+
+        ClusterTransportClient getTransportClient() {
+            return transportClient;
+        }
+
+        TokenLeaseManager getLeaseManager() {
+            return leaseManager;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client.codec.data;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.codec.EntityDecoder;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.data.BatchFlowTokenResponseData;
+import com.alibaba.csp.sentinel.cluster.response.data.FlowTokenResponseData;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * +----------------+----------------+-------------------+------------------+-----+
+ * | Amount(2 byte) | Status(1 byte) | Remaining(4 byte) | WaitInMs(4 byte) | ... |
+ * +----------------+----------------+-------------------+------------------+-----+
+ *
+ * @since 1.7.1
+ */
+public class BatchFlowResponseDataDecoder implements EntityDecoder<ByteBuf, BatchFlowTokenResponseData> {
+
+    private static final int RESPONSE_SIZE = 9;
+
+    @Override
+    public BatchFlowTokenResponseData decode(ByteBuf source) {
+        BatchFlowTokenResponseData data = new BatchFlowTokenResponseData();
+        if (source.readableBytes() < 2) {
+            return data;
+        }
+        int amount = source.readUnsignedShort();
+        if (source.readableBytes() < amount * RESPONSE_SIZE) {
+            return data;
+        }
+        for (int i = 0; i < amount; i++) {
+            int status = source.readByte();
+            FlowTokenResponseData responseData = new FlowTokenResponseData()
+                .setRemainingCount(source.readInt())
+                .setWaitInMs(source.readInt());
+            data.addResponse(new ClusterResponse<>(0, ClusterConstants.MSG_TYPE_FLOW, status, responseData));
+        }
+        return data;
+    }
+}
@@ -15,6 +15,8 @@
  */
 package com.alibaba.csp.sentinel.cluster.client.config;
 
+import java.util.List;
+
 /**
  * @author Eric Zhao
  * @since 1.4.1
@@ -23,6 +25,14 @@ public class ClusterClientAssignConfig {
 
     private String serverHost;
     private Integer serverPort;
+    /**
+     * Addresses ({@code host:port}) of all token servers in a multi-server token cluster, where flows are
+     * sharded among the servers via consistent hashing. If present, {@code serverHost:serverPort} is
+     * the primary server. If absent, the client connects to {@code serverHost:serverPort} only.
+     *
+     * @since 1.7.1
+     */
+    private List<String> serverList;
 
     public ClusterClientAssignConfig() {}
 
@@ -49,11 +59,21 @@ public class ClusterClientAssignConfig {
         return this;
     }
 
+    public List<String> getServerList() {
+        return serverList;
+    }
+
+    public ClusterClientAssignConfig setServerList(List<String> serverList) {
+        this.serverList = serverList;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "ClusterClientAssignConfig{" +
             "serverHost='" + serverHost + '\'' +
             ", serverPort=" + serverPort +
+            ", serverList=" + serverList +
             '}';
     }
 }
@@ -23,6 +23,19 @@ public class ClusterClientConfig {
 
     private Integer requestTimeout;
 
+    /**
+     * Transport options, which take effect when the client (re)connects. Options that are not set
+     * keep their current values.
+     *
+     * @since 1.7.1
+     */
+    private Boolean nativeTransport;
+    private Integer ioThreads;
+    private Integer maxFrameLength;
+    private Integer sendBufferSize;
+    private Integer receiveBufferSize;
+    private Integer flushConsolidation;
+
     public Integer getRequestTimeout() {
         return requestTimeout;
     }
@@ -32,10 +45,70 @@ public class ClusterClientConfig {
         return this;
     }
 
+    public Boolean getNativeTransport() {
+        return nativeTransport;
+    }
+
+    public ClusterClientConfig setNativeTransport(Boolean nativeTransport) {
+        this.nativeTransport = nativeTransport;
+        return this;
+    }
+
+    public Integer getIoThreads() {
+        return ioThreads;
+    }
+
+    public ClusterClientConfig setIoThreads(Integer ioThreads) {
+        this.ioThreads = ioThreads;
+        return this;
+    }
+
+    public Integer getMaxFrameLength() {
+        return maxFrameLength;
+    }
+
+    public ClusterClientConfig setMaxFrameLength(Integer maxFrameLength) {
+        this.maxFrameLength = maxFrameLength;
+        return this;
+    }
+
+    public Integer getSendBufferSize() {
+        return sendBufferSize;
+    }
+
+    public ClusterClientConfig setSendBufferSize(Integer sendBufferSize) {
+        this.sendBufferSize = sendBufferSize;
+        return this;
+    }
+
+    public Integer getReceiveBufferSize() {
+        return receiveBufferSize;
+    }
+
+    public ClusterClientConfig setReceiveBufferSize(Integer receiveBufferSize) {
+        this.receiveBufferSize = receiveBufferSize;
+        return this;
+    }
+
+    public Integer getFlushConsolidation() {
+        return flushConsolidation;
+    }
+
+    public ClusterClientConfig setFlushConsolidation(Integer flushConsolidation) {
+        this.flushConsolidation = flushConsolidation;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "ClusterClientConfig{" +
             "requestTimeout=" + requestTimeout +
+            ", nativeTransport=" + nativeTransport +
+            ", ioThreads=" + ioThreads +
+            ", maxFrameLength=" + maxFrameLength +
+            ", sendBufferSize=" + sendBufferSize +
+            ", receiveBufferSize=" + receiveBufferSize +
+            ", flushConsolidation=" + flushConsolidation +
             '}';
     }
 }
@@ -16,9 +16,11 @@
 package com.alibaba.csp.sentinel.cluster.client.config;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.TokenServerDescriptor;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.property.DynamicSentinelProperty;
 import com.alibaba.csp.sentinel.property.PropertyListener;
@@ -37,10 +39,24 @@ public final class ClusterClientConfigManager {
      */
     private static volatile String serverHost = null;
     private static volatile int serverPort = ClusterConstants.DEFAULT_CLUSTER_SERVER_PORT;
+    /**
+     * Addresses of all token servers in a multi-server token cluster, which is empty in single-server mode.
+     */
+    private static volatile List<String> serverList = Collections.emptyList();
 
     private static volatile int requestTimeout = ClusterConstants.DEFAULT_REQUEST_TIMEOUT;
     private static volatile int connectTimeout = ClusterConstants.DEFAULT_CONNECT_TIMEOUT_MILLIS;
 
+    /**
+     * Transport options, where 0 indicates the default of Netty or the OS.
+     */
+    private static volatile boolean nativeTransport = false;
+    private static volatile int ioThreads = 0;
+    private static volatile int maxFrameLength = ClusterConstants.DEFAULT_MAX_FRAME_LENGTH;
+    private static volatile int sendBufferSize = 0;
+    private static volatile int receiveBufferSize = 0;
+    private static volatile int flushConsolidation = 0;
+
     private static final PropertyListener<ClusterClientConfig> CONFIG_PROPERTY_LISTENER
         = new ClientConfigPropertyListener();
     private static final PropertyListener<ClusterClientAssignConfig> ASSIGN_PROPERTY_LISTENER
@@ -127,7 +143,9 @@ public final class ClusterClientConfigManager {
                     "[ClusterClientConfigManager] Invalid cluster client assign config, ignoring: " + config);
                 return;
             }
-            if (serverPort == config.getServerPort() && config.getServerHost().equals(serverHost)) {
+            config = normalizeAssignConfig(config);
+            if (serverPort == config.getServerPort() && config.getServerHost().equals(serverHost)
+                && serverList.equals(config.getServerList())) {
                 return;
             }
 
@@ -170,6 +188,24 @@ public final class ClusterClientConfigManager {
         if (config.getRequestTimeout() != requestTimeout) {
             requestTimeout = config.getRequestTimeout();
         }
+        if (config.getNativeTransport() != null) {
+            nativeTransport = config.getNativeTransport();
+        }
+        if (config.getIoThreads() != null) {
+            ioThreads = config.getIoThreads();
+        }
+        if (config.getMaxFrameLength() != null) {
+            maxFrameLength = config.getMaxFrameLength();
+        }
+        if (config.getSendBufferSize() != null) {
+            sendBufferSize = config.getSendBufferSize();
+        }
+        if (config.getReceiveBufferSize() != null) {
+            receiveBufferSize = config.getReceiveBufferSize();
+        }
+        if (config.getFlushConsolidation() != null) {
+            flushConsolidation = config.getFlushConsolidation();
+        }
     }
 
     private static void updateServerAssignment(/*@Valid*/ ClusterClientAssignConfig config) {
@@ -182,16 +218,91 @@ public final class ClusterClientConfigManager {
 
         serverHost = host;
         serverPort = port;
+        serverList = config.getServerList();
+    }
+
+    /**
+     * Pick the primary server from the server list if absent, and normalize the server list.
+     */
+    private static ClusterClientAssignConfig normalizeAssignConfig(/*@Valid*/ ClusterClientAssignConfig config) {
+        List<String> list = new ArrayList<>();
+        if (config.getServerList() != null) {
+            for (String address : config.getServerList()) {
+                TokenServerDescriptor server = parseServerAddress(address);
+                String normalized = server.getHost() + ":" + server.getPort();
+                if (!list.contains(normalized)) {
+                    list.add(normalized);
+                }
+            }
+        }
+        String host = config.getServerHost();
+        Integer port = config.getServerPort();
+        if (!isValidServer(host, port) || (!list.isEmpty() && !list.contains(host.trim() + ":" + port))) {
+            // The server list is the whole cluster, so the primary server should be in the list.
+            TokenServerDescriptor primary = parseServerAddress(list.get(0));
+            host = primary.getHost();
+            port = primary.getPort();
+        }
+        return new ClusterClientAssignConfig(host.trim(), port)
+            .setServerList(Collections.unmodifiableList(list));
     }
 
     public static boolean isValidAssignConfig(ClusterClientAssignConfig config) {
-        return config != null && StringUtil.isNotBlank(config.getServerHost())
-            && config.getServerPort() > 0
-            && config.getServerPort() <= 65535;
+        if (config == null) {
+            return false;
+        }
+        List<String> list = config.getServerList();
+        if (list == null || list.isEmpty()) {
+            return isValidServer(config.getServerHost(), config.getServerPort());
+        }
+        for (String address : list) {
+            if (parseServerAddress(address) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isValidServer(String host, Integer port) {
+        return StringUtil.isNotBlank(host) && port != null && port > 0 && port <= 65535;
+    }
+
+    /**
+     * Parse the token server address like {@code host:port}.
+     *
+     * @param address the server address
+     * @return the server, or null if the address is invalid
+     * @since 1.7.1
+     */
+    public static TokenServerDescriptor parseServerAddress(String address) {
+        if (StringUtil.isBlank(address)) {
+            return null;
+        }
+        address = address.trim();
+        int idx = address.lastIndexOf(':');
+        if (idx <= 0) {
+            return null;
+        }
+        try {
+            int port = Integer.parseInt(address.substring(idx + 1));
+            return isValidServer(address.substring(0, idx), port)
+                ? new TokenServerDescriptor(address.substring(0, idx), port) : null;
+        } catch (NumberFormatException ex) {
+            return null;
+        }
     }
 
     public static boolean isValidClientConfig(ClusterClientConfig config) {
-        return config != null && config.getRequestTimeout() > 0;
+        return config != null && config.getRequestTimeout() > 0
+            && isNullOrInRange(config.getIoThreads(), 0, Integer.MAX_VALUE)
+            && isNullOrInRange(config.getMaxFrameLength(), 1, ClusterConstants.MAX_FRAME_LENGTH)
+            && isNullOrInRange(config.getSendBufferSize(), 0, Integer.MAX_VALUE)
+            && isNullOrInRange(config.getReceiveBufferSize(), 0, Integer.MAX_VALUE)
+            && isNullOrInRange(config.getFlushConsolidation(), 0, Integer.MAX_VALUE);
+    }
+
+    private static boolean isNullOrInRange(Integer value, int min, int max) {
+        return value == null || (value >= min && value <= max);
     }
 
     public static String getServerHost() {
@@ -202,6 +313,15 @@ public final class ClusterClientConfigManager {
         return serverPort;
     }
 
+    /**
+     * @return addresses of all token servers, which is empty if there is only the server of
+     * {@link #getServerHost()} and {@link #getServerPort()}
+     * @since 1.7.1
+     */
+    public static List<String> getServerList() {
+        return serverList;
+    }
+
     public static int getRequestTimeout() {
         return requestTimeout;
     }
@@ -210,5 +330,29 @@ public final class ClusterClientConfigManager {
         return connectTimeout;
     }
 
+    public static boolean isNativeTransport() {
+        return nativeTransport;
+    }
+
+    public static int getIoThreads() {
+        return ioThreads;
+    }
+
+    public static int getMaxFrameLength() {
+        return maxFrameLength;
+    }
+
+    public static int getSendBufferSize() {
+        return sendBufferSize;
+    }
+
+    public static int getReceiveBufferSize() {
+        return receiveBufferSize;
+    }
+
+    public static int getFlushConsolidation() {
+        return flushConsolidation;
+    }
+
     private ClusterClientConfigManager() {}
 }
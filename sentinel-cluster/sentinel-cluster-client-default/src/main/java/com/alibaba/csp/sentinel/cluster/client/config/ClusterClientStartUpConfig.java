@@ -15,6 +15,7 @@
  */
 package com.alibaba.csp.sentinel.cluster.client.config;
 
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
 import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.log.RecordLog;
 
@@ -29,6 +30,11 @@ import com.alibaba.csp.sentinel.log.RecordLog;
 public class ClusterClientStartUpConfig {
 
     private static final String MAX_PARAM_BYTE_SIZE = "csp.sentinel.cluster.max.param.byte.size";
+    private static final String BATCH_MAX_SIZE = "csp.sentinel.cluster.client.batch.max.size";
+    private static final String BATCH_WINDOW_MICROS = "csp.sentinel.cluster.client.batch.window.us";
+    private static final String LEASE_MS = "csp.sentinel.cluster.client.lease.ms";
+
+    private static final long DEFAULT_BATCH_WINDOW_MICROS = 200;
 
     /**
      * Get the max bytes params can be serialized
@@ -45,5 +51,58 @@ public class ClusterClientStartUpConfig {
         }
     }
 
+    /**
+     * Get the max count of flow requests that are coalesced into one batch request. Batching is disabled
+     * when the value is not greater than 1, which is the default, as the token server should support batch
+     * requests (since 1.7.1).
+     *
+     * @return the max count of flow requests in a batch
+     * @since 1.7.1
+     */
+    public static int getBatchMaxSize() {
+        String batchMaxSize = SentinelConfig.getConfig(BATCH_MAX_SIZE);
+        try {
+            int size = batchMaxSize == null ? 0 : Integer.parseInt(batchMaxSize);
+            return Math.min(size, ClusterConstants.MAX_BATCH_FLOW_REQUEST_COUNT);
+        } catch (Exception ex) {
+            RecordLog.warn("[ClusterClientStartUpConfig] Failed to parse batchMaxSize: " + batchMaxSize);
+            return 0;
+        }
+    }
 
+    /**
+     * Get the time window (in microseconds) for coalescing flow requests. When the window is 0, flow requests
+     * that arrive before the I/O thread flushes are coalesced, which adds no extra latency.
+     *
+     * @return the time window in microseconds
+     * @since 1.7.1
+     */
+    public static long getBatchWindowMicros() {
+        String windowMicros = SentinelConfig.getConfig(BATCH_WINDOW_MICROS);
+        try {
+            return windowMicros == null ? DEFAULT_BATCH_WINDOW_MICROS : Math.max(0, Long.parseLong(windowMicros));
+        } catch (Exception ex) {
+            RecordLog.warn("[ClusterClientStartUpConfig] Failed to parse batchWindowMicros: " + windowMicros);
+            return DEFAULT_BATCH_WINDOW_MICROS;
+        }
+    }
+
+    /**
+     * Get the duration (in milliseconds) of token leases. When the value is greater than 0, the client leases
+     * a share of the global threshold of each flow and serves non-prioritized flow requests locally, which
+     * requires the token server to support leases (since 1.7.1). Leasing is disabled by default.
+     *
+     * @return the lease duration in milliseconds, or 0 if leasing is disabled
+     * @since 1.7.1
+     */
+    public static int getLeaseMs() {
+        String leaseMs = SentinelConfig.getConfig(LEASE_MS);
+        try {
+            int value = leaseMs == null ? 0 : Integer.parseInt(leaseMs);
+            return Math.max(0, Math.min(value, ClusterConstants.MAX_LEASE_MS));
+        } catch (Exception ex) {
+            RecordLog.warn("[ClusterClientStartUpConfig] Failed to parse leaseMs: " + leaseMs);
+            return 0;
+        }
+    }
 }
@@ -38,10 +38,13 @@ public class TokenClientHandler extends ChannelInboundHandlerAdapter {
 
     private final AtomicInteger currentState;
     private final Runnable disconnectCallback;
+    private final TokenClientPromiseHolder promiseHolder;
 
-    public TokenClientHandler(AtomicInteger currentState, Runnable disconnectCallback) {
+    public TokenClientHandler(AtomicInteger currentState, Runnable disconnectCallback,
+                              TokenClientPromiseHolder promiseHolder) {
         this.currentState = currentState;
         this.disconnectCallback = disconnectCallback;
+        this.promiseHolder = promiseHolder;
     }
 
     @Override
@@ -61,7 +64,7 @@ public class TokenClientHandler extends ChannelInboundHandlerAdapter {
                 return;
             }
 
-            TokenClientPromiseHolder.completePromise(response.getId(), response);
+            promiseHolder.completePromise(response.getId(), response);
         }
     }
 
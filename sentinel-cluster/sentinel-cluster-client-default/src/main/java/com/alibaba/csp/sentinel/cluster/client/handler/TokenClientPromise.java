@@ -0,0 +1,85 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client.handler;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.alibaba.csp.sentinel.cluster.ClusterResponseCallback;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.log.RecordLog;
+
+import io.netty.util.Timeout;
+
+/**
+ * A request that is waiting for its response. It will be completed exactly once, by the response,
+ * the timeout or a write failure, whichever comes first.
+ *
+ * @since 1.7.1
+ */
+public class TokenClientPromise {
+
+    private final ClusterResponseCallback callback;
+    private final AtomicBoolean done = new AtomicBoolean(false);
+    private volatile Timeout timeout;
+
+    public TokenClientPromise(ClusterResponseCallback callback) {
+        this.callback = callback;
+    }
+
+    public void setTimeout(Timeout timeout) {
+        this.timeout = timeout;
+        if (done.get()) {
+            timeout.cancel();
+        }
+    }
+
+    public boolean isDone() {
+        return done.get();
+    }
+
+    public boolean complete(ClusterResponse response) {
+        if (!done.compareAndSet(false, true)) {
+            return false;
+        }
+        cancelTimeout();
+        try {
+            callback.onResponse(response);
+        } catch (Throwable ex) {
+            RecordLog.warn("[TokenClientPromise] Error in response callback", ex);
+        }
+        return true;
+    }
+
+    public boolean fail(Throwable cause) {
+        if (!done.compareAndSet(false, true)) {
+            return false;
+        }
+        cancelTimeout();
+        try {
+            callback.onFailure(cause);
+        } catch (Throwable ex) {
+            RecordLog.warn("[TokenClientPromise] Error in failure callback", ex);
+        }
+        return true;
+    }
+
+    private void cancelTimeout() {
+        Timeout t = this.timeout;
+        if (t != null) {
+            t.cancel();
+        }
+    }
+}
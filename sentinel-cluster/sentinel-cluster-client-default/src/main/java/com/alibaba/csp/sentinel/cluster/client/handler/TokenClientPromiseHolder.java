@@ -15,50 +15,42 @@
  */
 package com.alibaba.csp.sentinel.cluster.client.handler;
 
-import java.util.AbstractMap.SimpleEntry;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
 
-import io.netty.channel.ChannelPromise;
-
 /**
+ * Pending requests of one token client, keyed by the xid of the request. Each transport client numbers
+ * its requests independently, so every client owns its own holder, which is shared with the handler of
+ * its connection.
+ *
  * @author Eric Zhao
  * @since 1.4.0
  */
 public final class TokenClientPromiseHolder {
 
-    private static final Map<Integer, SimpleEntry<ChannelPromise, ClusterResponse>> PROMISE_MAP = new ConcurrentHashMap<>();
+    private final Map<Integer, TokenClientPromise> promiseMap = new ConcurrentHashMap<>();
 
-    public static void putPromise(int xid, ChannelPromise promise) {
-        PROMISE_MAP.put(xid, new SimpleEntry<ChannelPromise, ClusterResponse>(promise, null));
+    public void putPromise(int xid, TokenClientPromise promise) {
+        promiseMap.put(xid, promise);
     }
 
-    public static SimpleEntry<ChannelPromise, ClusterResponse> getEntry(int xid) {
-        return PROMISE_MAP.get(xid);
+    public TokenClientPromise remove(int xid) {
+        return promiseMap.remove(xid);
     }
 
-    public static void remove(int xid) {
-        PROMISE_MAP.remove(xid);
+    public int pendingCount() {
+        return promiseMap.size();
     }
 
-    public static <T> boolean completePromise(int xid, ClusterResponse<T> response) {
-        if (!PROMISE_MAP.containsKey(xid)) {
-            return false;
-        }
-        SimpleEntry<ChannelPromise, ClusterResponse> entry = PROMISE_MAP.get(xid);
-        if (entry != null) {
-            ChannelPromise promise = entry.getKey();
-            if (promise.isDone() || promise.isCancelled()) {
-                return false;
-            }
-            entry.setValue(response);
-            promise.setSuccess();
-            return true;
-        }
-        return false;
+    public <T> boolean completePromise(int xid, ClusterResponse<T> response) {
+        TokenClientPromise promise = promiseMap.remove(xid);
+        return promise != null && promise.complete(response);
     }
 
-    private TokenClientPromiseHolder() {}
+    public boolean failPromise(int xid, Throwable cause) {
+        TokenClientPromise promise = promiseMap.remove(xid);
+        return promise != null && promise.fail(cause);
+    }
 }
@@ -15,6 +15,8 @@
  */
 package com.alibaba.csp.sentinel.command.entity;
 
+import java.util.List;
+
 import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientAssignConfig;
 import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientConfig;
 
@@ -26,6 +28,10 @@ public class ClusterClientStateEntity {
 
     private String serverHost;
     private Integer serverPort;
+    /**
+     * @since 1.7.1
+     */
+    private List<String> serverList;
 
     private Integer clientState;
 
@@ -49,6 +55,15 @@ public class ClusterClientStateEntity {
         return this;
     }
 
+    public List<String> getServerList() {
+        return serverList;
+    }
+
+    public ClusterClientStateEntity setServerList(List<String> serverList) {
+        this.serverList = serverList;
+        return this;
+    }
+
     public Integer getRequestTimeout() {
         return requestTimeout;
     }
@@ -74,7 +89,8 @@ public class ClusterClientStateEntity {
     public ClusterClientAssignConfig toAssignConfig() {
         return new ClusterClientAssignConfig()
             .setServerHost(serverHost)
-            .setServerPort(serverPort);
+            .setServerPort(serverPort)
+            .setServerList(serverList);
     }
 
     @Override
@@ -82,6 +98,7 @@ public class ClusterClientStateEntity {
         return "ClusterClientStateEntity{" +
             "serverHost='" + serverHost + '\'' +
             ", serverPort=" + serverPort +
+            ", serverList=" + serverList +
             ", clientState=" + clientState +
             ", requestTimeout=" + requestTimeout +
             '}';
@@ -0,0 +1,131 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.ClusterResponseCallback;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.BatchFlowRequestData;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.data.BatchFlowTokenResponseData;
+import com.alibaba.csp.sentinel.cluster.response.data.FlowTokenResponseData;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FlowRequestBatcherTest {
+
+    private ScheduledExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testCoalesceRequests() throws Exception {
+        final List<ClusterRequest> sent = new ArrayList<>();
+        // The server answers each flow request with its flow ID as the remaining count.
+        FlowRequestBatcher batcher = new FlowRequestBatcher(4, 1000 * 1000, new FlowRequestBatcher.Sender() {
+            @Override
+            public void send(ClusterRequest request, ClusterResponseCallback callback) {
+                sent.add(request);
+                assertEquals(ClusterConstants.MSG_TYPE_BATCH_FLOW, request.getType());
+                BatchFlowTokenResponseData data = new BatchFlowTokenResponseData();
+                for (FlowRequestData flowRequest : ((BatchFlowRequestData)request.getData()).getRequests()) {
+                    data.addResponse(new ClusterResponse<>(0, ClusterConstants.MSG_TYPE_FLOW,
+                        ClusterConstants.RESPONSE_STATUS_OK,
+                        new FlowTokenResponseData().setRemainingCount((int)flowRequest.getFlowId())));
+                }
+                callback.onResponse(new ClusterResponse<>(request.getId(), request.getType(),
+                    ClusterConstants.RESPONSE_STATUS_OK, data));
+            }
+        });
+
+        final CountDownLatch latch = new CountDownLatch(8);
+        final int[] remaining = new int[8];
+        for (int i = 0; i < 8; i++) {
+            final int index = i;
+            batcher.add(new FlowRequestData().setFlowId(i).setCount(1), new ClusterResponseCallback() {
+                @Override
+                public void onResponse(ClusterResponse response) {
+                    remaining[index] = ((FlowTokenResponseData)response.getData()).getRemainingCount();
+                    latch.countDown();
+                }
+
+                @Override
+                public void onFailure(Throwable cause) {
+                    fail(cause.getMessage());
+                }
+            }, executor);
+        }
+        // Batches are flushed once they are full, without waiting for the window.
+        assertTrue(latch.await(500, TimeUnit.MILLISECONDS));
+        for (int i = 0; i < 8; i++) {
+            assertEquals(i, remaining[i]);
+        }
+        for (ClusterRequest request : sent) {
+            assertTrue(((BatchFlowRequestData)request.getData()).getRequests().size() <= 4);
+        }
+    }
+
+    @Test
+    public void testSingleRequestAndFailure() throws Exception {
+        final List<ClusterRequest> sent = new ArrayList<>();
+        FlowRequestBatcher batcher = new FlowRequestBatcher(4, 0, new FlowRequestBatcher.Sender() {
+            @Override
+            public void send(ClusterRequest request, ClusterResponseCallback callback) {
+                sent.add(request);
+                callback.onFailure(new RuntimeException("broken"));
+            }
+        });
+        final CountDownLatch latch = new CountDownLatch(1);
+        final List<Throwable> failures = new ArrayList<>();
+        batcher.add(new FlowRequestData().setFlowId(1).setCount(1), new ClusterResponseCallback() {
+            @Override
+            public void onResponse(ClusterResponse response) {
+                fail("unexpected response");
+            }
+
+            @Override
+            public void onFailure(Throwable cause) {
+                failures.add(cause);
+                latch.countDown();
+            }
+        }, executor);
+        assertTrue(latch.await(500, TimeUnit.MILLISECONDS));
+        // A single request is sent as a normal flow request.
+        assertEquals(1, sent.size());
+        assertEquals(ClusterConstants.MSG_TYPE_FLOW, sent.get(0).getType());
+        assertEquals("broken", failures.get(0).getMessage());
+    }
+}
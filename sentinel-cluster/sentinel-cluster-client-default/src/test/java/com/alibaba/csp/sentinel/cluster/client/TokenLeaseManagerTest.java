@@ -0,0 +1,180 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.cluster.AsyncClusterTransportClient;
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.ClusterResponseCallback;
+import com.alibaba.csp.sentinel.cluster.ClusterTransportClient;
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultCallback;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowLeaseRequestData;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.data.FlowTokenResponseData;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TokenLeaseManagerTest {
+
+    @Test
+    public void testServeFromLease() throws Exception {
+        FakeLessor lessor = new FakeLessor(10);
+        TokenLeaseManager manager = new TokenLeaseManager(lessor, 500);
+
+        TokenResult result = manager.acquire(1L, 2);
+        assertEquals(TokenResultStatus.OK, (int)result.getStatus());
+        assertEquals(8, (int)result.getRemaining());
+        assertEquals(1, lessor.requests.size());
+        assertEquals(2, lessor.requests.get(0).getCount());
+        assertEquals(500, lessor.requests.get(0).getLeaseMs());
+
+        // Served locally until the tokens are almost used up.
+        for (int i = 0; i < 6; i++) {
+            assertEquals(TokenResultStatus.OK, (int)manager.acquire(1L, 1).getStatus());
+        }
+        assertEquals(1, lessor.requests.size());
+        // Less than a quarter of the tokens is left, so the lease is renewed in the background.
+        assertEquals(TokenResultStatus.OK, (int)manager.acquire(1L, 1).getStatus());
+        assertEquals(2, lessor.requests.size());
+        assertEquals(10, manager.remaining(1L));
+        // The token left in the replaced lease is returned with the next renewal.
+        lessor.granted = 0;
+        for (int i = 0; i < 10; i++) {
+            manager.acquire(1L, 1);
+        }
+        assertEquals(TokenResultStatus.BLOCKED, (int)manager.acquire(1L, 1).getStatus());
+        int returned = 0;
+        for (FlowLeaseRequestData data : lessor.requests) {
+            returned += data.getReturnedCount();
+            if (data.getReturnedCount() > 0) {
+                // The age of the grant is reported along with the returned tokens.
+                assertTrue(data.getReturnedAgeMs() >= 0 && data.getReturnedAgeMs() < 500);
+            } else {
+                assertEquals(0, data.getReturnedAgeMs());
+            }
+        }
+        assertEquals(1, returned);
+    }
+
+    @Test
+    public void testAcquireAsync() {
+        FakeLessor lessor = new FakeLessor(4);
+        TokenLeaseManager manager = new TokenLeaseManager(lessor, 500);
+        final List<TokenResult> results = new ArrayList<>();
+        TokenResultCallback callback = new TokenResultCallback() {
+            @Override
+            public void onComplete(TokenResult result) {
+                results.add(result);
+            }
+        };
+        manager.acquireAsync(2L, 1, callback);
+        manager.acquireAsync(2L, 1, callback);
+        assertEquals(2, results.size());
+        assertEquals(TokenResultStatus.OK, (int)results.get(1).getStatus());
+        assertEquals(2, (int)results.get(1).getRemaining());
+        assertEquals(1, lessor.requests.size());
+
+        lessor.fail = true;
+        manager.acquireAsync(3L, 1, callback);
+        assertEquals(TokenResultStatus.FAIL, (int)results.get(2).getStatus());
+    }
+
+    @Test
+    public void testSyncOnlyClient() throws Exception {
+        SyncFakeLessor lessor = new SyncFakeLessor(4);
+        TokenLeaseManager manager = new TokenLeaseManager(lessor, 500);
+        final List<TokenResult> results = new ArrayList<>();
+        TokenResultCallback callback = new TokenResultCallback() {
+            @Override
+            public void onComplete(TokenResult result) {
+                results.add(result);
+            }
+        };
+        // The lease is renewed synchronously for asynchronous acquisition.
+        manager.acquireAsync(2L, 1, callback);
+        assertEquals(1, results.size());
+        assertEquals(TokenResultStatus.OK, (int)results.get(0).getStatus());
+        assertEquals(1, lessor.requests.size());
+
+        // No background renewal, the lease is served until the tokens run out.
+        for (int i = 0; i < 3; i++) {
+            assertEquals(TokenResultStatus.OK, (int)manager.acquire(2L, 1).getStatus());
+        }
+        assertEquals(1, lessor.requests.size());
+        assertEquals(0, manager.remaining(2L));
+        assertEquals(TokenResultStatus.OK, (int)manager.acquire(2L, 1).getStatus());
+        assertEquals(2, lessor.requests.size());
+    }
+
+    private static class FakeLessor extends SyncFakeLessor implements AsyncClusterTransportClient {
+
+        boolean fail;
+
+        FakeLessor(int granted) {
+            super(granted);
+        }
+
+        @Override
+        public void sendRequestAsync(ClusterRequest request, ClusterResponseCallback callback) {
+            assertEquals(ClusterConstants.MSG_TYPE_FLOW_LEASE, request.getType());
+            if (fail) {
+                callback.onFailure(new RuntimeException("broken"));
+            } else {
+                callback.onResponse(sendRequest(request));
+            }
+        }
+    }
+
+    private static class SyncFakeLessor implements ClusterTransportClient {
+
+        final List<FlowLeaseRequestData> requests = new ArrayList<>();
+        int granted;
+
+        SyncFakeLessor(int granted) {
+            this.granted = granted;
+        }
+
+        @Override
+        public void start() {}
+
+        @Override
+        public void stop() {}
+
+        @Override
+        public ClusterResponse sendRequest(ClusterRequest request) {
+            FlowLeaseRequestData data = (FlowLeaseRequestData)request.getData();
+            requests.add(data);
+            if (granted < data.getCount()) {
+                return new ClusterResponse<>(request.getId(), request.getType(), TokenResultStatus.BLOCKED,
+                    new FlowTokenResponseData().setRemainingCount(0).setWaitInMs(0));
+            }
+            return new ClusterResponse<>(request.getId(), request.getType(), TokenResultStatus.OK,
+                new FlowTokenResponseData().setRemainingCount(granted).setWaitInMs(data.getLeaseMs()));
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.alibaba.csp.sentinel.cluster.ConsistentHashRing;
+import com.alibaba.csp.sentinel.cluster.TokenServerDescriptor;
+import com.alibaba.csp.sentinel.cluster.client.TokenServerGroup.ServerConnection;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TokenServerGroupTest {
+
+    private static final int FLOW_COUNT = 30000;
+
+    @Test
+    public void testSingleServer() {
+        TokenServerGroup group = newGroup("10.0.0.1:18730");
+        for (long flowId = 1; flowId <= 100; flowId++) {
+            assertSame(group.getPrimary(), group.route(flowId));
+        }
+        assertTrue(group.hasServers(descriptors("10.0.0.1:18730")));
+        assertFalse(group.hasServers(descriptors("10.0.0.1:18731")));
+    }
+
+    @Test
+    public void testRouteAsServers() {
+        TokenServerGroup group = newGroup("10.0.0.2:18730", "10.0.0.1:18730", "10.0.0.3:18730");
+        // Servers build the ring from the same server list, regardless of the order.
+        ConsistentHashRing ring = new ConsistentHashRing(
+            Arrays.asList("10.0.0.1:18730", "10.0.0.3:18730", "10.0.0.2:18730"));
+        Map<String, Integer> counts = new HashMap<>();
+        for (long flowId = 1; flowId <= FLOW_COUNT; flowId++) {
+            String address = TokenServerGroup.addressOf(group.route(flowId).getDescriptor());
+            assertEquals(ring.route(flowId), address);
+            Integer count = counts.get(address);
+            counts.put(address, count == null ? 1 : count + 1);
+        }
+        assertEquals(3, counts.size());
+        for (int count : counts.values()) {
+            assertTrue("unbalanced: " + counts, count > FLOW_COUNT / 5 && count < FLOW_COUNT / 2);
+        }
+        assertEquals("10.0.0.2:18730", TokenServerGroup.addressOf(group.getPrimary().getDescriptor()));
+        assertTrue(group.hasServers(descriptors("10.0.0.2:18730", "10.0.0.3:18730", "10.0.0.1:18730")));
+        assertFalse(group.hasServers(descriptors("10.0.0.1:18730", "10.0.0.2:18730", "10.0.0.3:18730")));
+        assertFalse(group.hasServers(descriptors("10.0.0.2:18730", "10.0.0.3:18730")));
+    }
+
+    @Test
+    public void testOnlyFlowsOfNewServerMove() {
+        TokenServerGroup oldGroup = newGroup("10.0.0.1:18730", "10.0.0.2:18730", "10.0.0.3:18730");
+        TokenServerGroup newGroup = newGroup("10.0.0.1:18730", "10.0.0.2:18730", "10.0.0.3:18730",
+            "10.0.0.4:18730");
+        int moved = 0;
+        for (long flowId = 1; flowId <= FLOW_COUNT; flowId++) {
+            String oldOwner = TokenServerGroup.addressOf(oldGroup.route(flowId).getDescriptor());
+            String newOwner = TokenServerGroup.addressOf(newGroup.route(flowId).getDescriptor());
+            if (!oldOwner.equals(newOwner)) {
+                assertEquals("10.0.0.4:18730", newOwner);
+                moved++;
+            }
+        }
+        assertTrue("moved: " + moved, moved > FLOW_COUNT / 6 && moved < FLOW_COUNT / 3);
+    }
+
+    private static TokenServerGroup newGroup(String... addresses) {
+        List<ServerConnection> connections = new ArrayList<>();
+        for (TokenServerDescriptor server : descriptors(addresses)) {
+            connections.add(new ServerConnection(server, null, null));
+        }
+        return new TokenServerGroup(connections);
+    }
+
+    private static List<TokenServerDescriptor> descriptors(String... addresses) {
+        List<TokenServerDescriptor> list = new ArrayList<>();
+        for (String address : addresses) {
+            int idx = address.lastIndexOf(':');
+            list.add(new TokenServerDescriptor(address.substring(0, idx), Integer.parseInt(address.substring(idx + 1))));
+        }
+        return list;
+    }
+}
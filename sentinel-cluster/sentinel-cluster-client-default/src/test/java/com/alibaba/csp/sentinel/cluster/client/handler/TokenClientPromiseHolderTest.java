@@ -0,0 +1,165 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client.handler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.ClusterResponseCallback;
+import com.alibaba.csp.sentinel.cluster.client.ClientConstants;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TokenClientPromiseHolderTest {
+
+    @Test
+    public void testCompleteOnlyOnce() {
+        TokenClientPromiseHolder holder = new TokenClientPromiseHolder();
+        RecordingCallback callback = new RecordingCallback();
+        holder.putPromise(1, new TokenClientPromise(callback));
+        holder.putPromise(2, new TokenClientPromise(callback));
+
+        ClusterResponse<Void> response = new ClusterResponse<>(1, 0, 0, null);
+        assertTrue(holder.completePromise(1, response));
+        // Late failure (e.g. time out) after the response is ignored.
+        assertFalse(holder.failPromise(1, new RuntimeException("timeout")));
+        assertFalse(holder.completePromise(1, response));
+
+        assertTrue(holder.failPromise(2, new RuntimeException("broken")));
+        assertFalse(holder.completePromise(2, response));
+
+        assertEquals(1, callback.responses.size());
+        assertSame(response, callback.responses.get(0));
+        assertEquals(1, callback.failures.size());
+        assertEquals("broken", callback.failures.get(0).getMessage());
+        assertNull(holder.remove(1));
+        assertNull(holder.remove(2));
+    }
+
+    @Test
+    public void testTimeoutByTimerWheel() throws Exception {
+        final TokenClientPromiseHolder holder = new TokenClientPromiseHolder();
+        HashedWheelTimer timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS);
+        try {
+            final CountDownLatch latch = new CountDownLatch(2);
+            final RecordingCallback callback = new RecordingCallback() {
+                @Override
+                public void onFailure(Throwable cause) {
+                    super.onFailure(cause);
+                    latch.countDown();
+                }
+
+                @Override
+                public void onResponse(ClusterResponse response) {
+                    super.onResponse(response);
+                    latch.countDown();
+                }
+            };
+            for (int i = 3; i <= 4; i++) {
+                final int xid = i;
+                TokenClientPromise promise = new TokenClientPromise(callback);
+                holder.putPromise(xid, promise);
+                promise.setTimeout(timer.newTimeout(new TimerTask() {
+                    @Override
+                    public void run(Timeout timeout) {
+                        holder.failPromise(xid, new RuntimeException("timeout"));
+                    }
+                }, 50, TimeUnit.MILLISECONDS));
+            }
+            // The response of xid 3 comes in time, while xid 4 times out.
+            assertTrue(holder.completePromise(3, new ClusterResponse<Void>(3, 0, 0, null)));
+            assertTrue(latch.await(2, TimeUnit.SECONDS));
+            assertEquals(1, callback.responses.size());
+            assertEquals(1, callback.failures.size());
+            assertEquals("timeout", callback.failures.get(0).getMessage());
+        } finally {
+            timer.stop();
+        }
+    }
+
+    @Test
+    public void testClientsWithSameXidInFlight() {
+        // Two clients (e.g. connected to two token servers of a group) number their requests independently.
+        TokenClientPromiseHolder holderA = new TokenClientPromiseHolder();
+        TokenClientPromiseHolder holderB = new TokenClientPromiseHolder();
+        EmbeddedChannel channelA = new EmbeddedChannel(new TokenClientHandler(
+            new AtomicInteger(ClientConstants.CLIENT_STATUS_OFF), NO_OP, holderA));
+        EmbeddedChannel channelB = new EmbeddedChannel(new TokenClientHandler(
+            new AtomicInteger(ClientConstants.CLIENT_STATUS_OFF), NO_OP, holderB));
+        try {
+            RecordingCallback callbackA = new RecordingCallback();
+            RecordingCallback callbackB = new RecordingCallback();
+            holderA.putPromise(1, new TokenClientPromise(callbackA));
+            holderB.putPromise(1, new TokenClientPromise(callbackB));
+            holderA.putPromise(2, new TokenClientPromise(callbackA));
+            holderB.putPromise(2, new TokenClientPromise(callbackB));
+
+            ClusterResponse<Void> responseA = new ClusterResponse<>(1, ClusterConstants.MSG_TYPE_FLOW, 0, null);
+            channelA.writeInbound(responseA);
+            // The response from server A only completes the request sent to server A.
+            assertEquals(1, callbackA.responses.size());
+            assertSame(responseA, callbackA.responses.get(0));
+            assertTrue(callbackB.responses.isEmpty());
+            assertEquals(2, holderB.pendingCount());
+
+            // A time out of a request to server B does not fail the request to server A with the same xid.
+            assertTrue(holderB.failPromise(2, new RuntimeException("timeout")));
+            assertTrue(callbackA.failures.isEmpty());
+            assertEquals(1, holderA.pendingCount());
+
+            ClusterResponse<Void> responseB = new ClusterResponse<>(1, ClusterConstants.MSG_TYPE_FLOW, 0, null);
+            channelB.writeInbound(responseB);
+            assertEquals(1, callbackB.responses.size());
+            assertSame(responseB, callbackB.responses.get(0));
+            assertEquals(1, callbackA.responses.size());
+        } finally {
+            channelA.finishAndReleaseAll();
+            channelB.finishAndReleaseAll();
+        }
+    }
+
+    private static final Runnable NO_OP = new Runnable() {
+        @Override
+        public void run() {}
+    };
+
+    private static class RecordingCallback implements ClusterResponseCallback {
+
+        final List<ClusterResponse> responses = new ArrayList<>();
+        final List<Throwable> failures = new ArrayList<>();
+
+        @Override
+        public synchronized void onResponse(ClusterResponse response) {
+            responses.add(response);
+        }
+
+        @Override
+        public synchronized void onFailure(Throwable cause) {
+            failures.add(cause);
+        }
+    }
+}
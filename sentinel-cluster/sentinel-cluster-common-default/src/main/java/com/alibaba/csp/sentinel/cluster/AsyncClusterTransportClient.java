@@ -0,0 +1,35 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster;
+
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+
+/**
+ * Transport client that could send requests without waiting for the responses.
+ *
+ * @since 1.7.1
+ */
+public interface AsyncClusterTransportClient extends ClusterTransportClient {
+
+    /**
+     * Send request to remote server without waiting for the response. Many requests could be in flight
+     * at the same time, and exactly one method of the callback will be invoked for each request.
+     *
+     * @param request  Sentinel cluster request
+     * @param callback callback of the response
+     */
+    void sendRequestAsync(ClusterRequest request, ClusterResponseCallback callback);
+}
@@ -24,6 +24,8 @@ public final class ClusterConstants {
     public static final int MSG_TYPE_PING = 0;
     public static final int MSG_TYPE_FLOW = 1;
     public static final int MSG_TYPE_PARAM_FLOW = 2;
+    public static final int MSG_TYPE_BATCH_FLOW = 3;
+    public static final int MSG_TYPE_FLOW_LEASE = 4;
 
     public static final int RESPONSE_STATUS_BAD = -1;
     public static final int RESPONSE_STATUS_OK = 0;
@@ -41,5 +43,23 @@ public final class ClusterConstants {
     public static final int DEFAULT_REQUEST_TIMEOUT = 20;
     public static final int DEFAULT_CONNECT_TIMEOUT_MILLIS = 10 * 1000;
 
+    /**
+     * Default max length of a frame, including the 2-byte length field.
+     */
+    public static final int DEFAULT_MAX_FRAME_LENGTH = 1024;
+    /**
+     * Frames are prefixed with a 2-byte length field, so the length could not be larger.
+     */
+    public static final int MAX_FRAME_LENGTH = 0xFFFF;
+
+    /**
+     * Max count of flow requests in a batch, which keeps the frame within 1024 bytes.
+     */
+    public static final int MAX_BATCH_FLOW_REQUEST_COUNT = 64;
+    /**
+     * Max duration of a token lease, as thresholds of flow rules are per second.
+     */
+    public static final int MAX_LEASE_MS = 1000;
+
     private ClusterConstants() {}
 }
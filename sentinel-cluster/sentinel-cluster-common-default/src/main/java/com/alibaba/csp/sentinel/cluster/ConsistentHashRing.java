@@ -0,0 +1,149 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.StringUtil;
+
+/**
+ * <p>Immutable consistent hash ring of token servers, which maps a flow ID to the server (node) that owns it.
+ * Nodes are identified by their address (e.g. {@code host:port}), and every node is placed on the ring as
+ * a number of virtual nodes, so flows are evenly spread and only about {@code 1/n} of the flows move
+ * when a node joins or leaves.</p>
+ *
+ * <p>Clients and servers build the ring from the same server list, so they agree on the owner of each flow
+ * without any coordination.</p>
+ *
+ * @since 1.7.1
+ */
+public final class ConsistentHashRing {
+
+    public static final int DEFAULT_VIRTUAL_NODES = 160;
+
+    private final List<String> nodes;
+    private final long[] points;
+    private final String[] owners;
+
+    public ConsistentHashRing(Collection<String> nodes) {
+        this(nodes, DEFAULT_VIRTUAL_NODES);
+    }
+
+    public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        AssertUtil.isTrue(virtualNodes > 0, "virtualNodes should be positive");
+        // Sorted, so the ring does not depend on the order of the server list.
+        TreeSet<String> nodeSet = new TreeSet<>();
+        if (nodes != null) {
+            for (String node : nodes) {
+                if (StringUtil.isNotBlank(node)) {
+                    nodeSet.add(node.trim());
+                }
+            }
+        }
+        TreeMap<Long, String> ring = new TreeMap<>();
+        for (String node : nodeSet) {
+            for (int i = 0; i < virtualNodes; i++) {
+                Long point = hash(node + "#" + i);
+                // Collisions are resolved in favor of the smaller node, which is deterministic.
+                if (!ring.containsKey(point)) {
+                    ring.put(point, node);
+                }
+            }
+        }
+        this.nodes = Collections.unmodifiableList(new ArrayList<>(nodeSet));
+        this.points = new long[ring.size()];
+        this.owners = new String[ring.size()];
+        int i = 0;
+        for (Map.Entry<Long, String> e : ring.entrySet()) {
+            points[i] = e.getKey();
+            owners[i] = e.getValue();
+            i++;
+        }
+    }
+
+    /**
+     * Get the node that owns the flow.
+     *
+     * @param flowId the flow ID
+     * @return address of the owner node, or null if the ring is empty
+     */
+    public String route(long flowId) {
+        if (points.length == 0) {
+            return null;
+        }
+        long point = mix(flowId);
+        // Find the first virtual node clockwise.
+        int low = 0;
+        int high = points.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (points[mid] < point) {
+                low = mid + 1;
+            } else if (points[mid] > point) {
+                high = mid - 1;
+            } else {
+                return owners[mid];
+            }
+        }
+        return owners[low == points.length ? 0 : low];
+    }
+
+    /**
+     * @return sorted addresses of the nodes
+     */
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    public boolean isEmpty() {
+        return nodes.isEmpty();
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    static long hash(String key) {
+        // 64-bit FNV-1a, with the bits mixed afterwards.
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    @Override
+    public String toString() {
+        return "ConsistentHashRing{" +
+            "nodes=" + nodes +
+            ", virtualNodes=" + points.length +
+            '}';
+    }
+}
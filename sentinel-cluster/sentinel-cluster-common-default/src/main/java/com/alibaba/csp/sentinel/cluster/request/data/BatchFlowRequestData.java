@@ -0,0 +1,50 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.request.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Flow requests that are coalesced into one frame, which could be of the same or different flows.
+ *
+ * @since 1.7.1
+ */
+public class BatchFlowRequestData {
+
+    private List<FlowRequestData> requests = new ArrayList<>();
+
+    public List<FlowRequestData> getRequests() {
+        return requests;
+    }
+
+    public BatchFlowRequestData setRequests(List<FlowRequestData> requests) {
+        this.requests = requests;
+        return this;
+    }
+
+    public BatchFlowRequestData addRequest(FlowRequestData request) {
+        this.requests.add(request);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchFlowRequestData{" +
+            "requests=" + requests +
+            '}';
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.request.data;
+
+/**
+ * Request to lease a slice of the global threshold of a flow, so the client could serve its requests
+ * locally until the lease expires. The response is a {@link com.alibaba.csp.sentinel.cluster.response.data.FlowTokenResponseData},
+ * where the remaining count is the granted tokens and the wait time is the lease duration in milliseconds.
+ *
+ * @since 1.7.1
+ */
+public class FlowLeaseRequestData {
+
+    private long flowId;
+    /**
+     * Tokens needed by the current request, which is the minimum to grant.
+     */
+    private int count;
+    /**
+     * Unused tokens of previous leases that are returned to the server.
+     */
+    private int returnedCount;
+    /**
+     * Milliseconds elapsed since the returned tokens were granted, so the server could tell whether
+     * the grant is still counted in its window.
+     */
+    private int returnedAgeMs;
+    private int leaseMs;
+
+    public long getFlowId() {
+        return flowId;
+    }
+
+    public FlowLeaseRequestData setFlowId(long flowId) {
+        this.flowId = flowId;
+        return this;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public FlowLeaseRequestData setCount(int count) {
+        this.count = count;
+        return this;
+    }
+
+    public int getReturnedCount() {
+        return returnedCount;
+    }
+
+    public FlowLeaseRequestData setReturnedCount(int returnedCount) {
+        this.returnedCount = returnedCount;
+        return this;
+    }
+
+    public int getReturnedAgeMs() {
+        return returnedAgeMs;
+    }
+
+    public FlowLeaseRequestData setReturnedAgeMs(int returnedAgeMs) {
+        this.returnedAgeMs = returnedAgeMs;
+        return this;
+    }
+
+    public int getLeaseMs() {
+        return leaseMs;
+    }
+
+    public FlowLeaseRequestData setLeaseMs(int leaseMs) {
+        this.leaseMs = leaseMs;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "FlowLeaseRequestData{" +
+            "flowId=" + flowId +
+            ", count=" + count +
+            ", returnedCount=" + returnedCount +
+            ", returnedAgeMs=" + returnedAgeMs +
+            ", leaseMs=" + leaseMs +
+            '}';
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.response.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+
+/**
+ * Results of a batch of flow requests, in the same order as the requests. Each result carries
+ * its own status, while the id of the results is not used.
+ *
+ * @since 1.7.1
+ */
+public class BatchFlowTokenResponseData {
+
+    private List<ClusterResponse<FlowTokenResponseData>> responses = new ArrayList<>();
+
+    public List<ClusterResponse<FlowTokenResponseData>> getResponses() {
+        return responses;
+    }
+
+    public BatchFlowTokenResponseData setResponses(List<ClusterResponse<FlowTokenResponseData>> responses) {
+        this.responses = responses;
+        return this;
+    }
+
+    public BatchFlowTokenResponseData addResponse(ClusterResponse<FlowTokenResponseData> response) {
+        this.responses.add(response);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchFlowTokenResponseData{" +
+            "responses=" + responses +
+            '}';
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.alibaba.csp.sentinel.cluster.flow;
 
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
 import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
 import com.alibaba.csp.sentinel.cluster.TokenResult;
 import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterFlowRuleManager;
@@ -111,10 +112,64 @@ final class ClusterFlowChecker {
         }
     }
 
+    /**
+     * Grant a lease of tokens to a client, which serves its requests locally until the lease expires.
+     * The tokens are counted as passed once granted, and a fair share of the threshold within the lease
+     * duration is granted to each connected client, so the total error is bounded by the tokens of a lease.
+     *
+     * @param rule          the cluster flow rule
+     * @param acquireCount  tokens needed by the current request, which is the minimum to grant
+     * @param returnedCount unused tokens of previous leases, which are credited back to the passed tokens
+     *                      if they were granted within the current window
+     * @param returnedAgeMs milliseconds elapsed since the returned tokens were granted
+     * @param leaseMs       the expected lease duration
+     * @return the result, where the remaining count is the granted tokens and the wait time is the lease duration
+     * @since 1.7.1
+     */
+    static TokenResult acquireClusterLease(/*@Valid*/ FlowRule rule, int acquireCount, int returnedCount,
+                                           int returnedAgeMs, int leaseMs) {
+        Long id = rule.getClusterConfig().getFlowId();
+
+        if (!allowProceed(id)) {
+            return new TokenResult(TokenResultStatus.TOO_MANY_REQUEST);
+        }
+
+        ClusterMetric metric = ClusterMetricStatistics.getMetric(id);
+        if (metric == null) {
+            return new TokenResult(TokenResultStatus.FAIL);
+        }
+        if (returnedCount > 0 && returnedAgeMs < metric.getIntervalInMs() - metric.getWindowLengthInMs()) {
+            // Unused tokens were counted as passed when they were granted, so they are credited back only if
+            // the bucket of the grant is surely still in the window, and never more than the passed tokens.
+            long credit = Math.min(returnedCount, metric.getSum(ClusterFlowEvent.PASS));
+            if (credit > 0) {
+                metric.add(ClusterFlowEvent.PASS, -credit);
+            }
+        }
+
+        leaseMs = Math.max(1, Math.min(leaseMs, ClusterConstants.MAX_LEASE_MS));
+        double globalThreshold = calcGlobalThreshold(rule) * ClusterServerConfigManager.getExceedCount();
+        double available = globalThreshold - metric.getAvg(ClusterFlowEvent.PASS);
+        int connectedCount = Math.max(1, ClusterFlowRuleManager.getConnectedCount(id));
+        double share = globalThreshold * leaseMs / 1000 / connectedCount;
+        int granted = (int)Math.min(available, Math.max(acquireCount, share));
+
+        if (granted < acquireCount) {
+            metric.add(ClusterFlowEvent.BLOCK, acquireCount);
+            metric.add(ClusterFlowEvent.BLOCK_REQUEST, 1);
+            ClusterServerStatLogUtil.log("flow|block|" + id, acquireCount);
+            ClusterServerStatLogUtil.log("flow|block_request|" + id, 1);
+            return blockedResult();
+        }
+        metric.add(ClusterFlowEvent.PASS, granted);
+        metric.add(ClusterFlowEvent.PASS_REQUEST, 1);
+        return new TokenResult(TokenResultStatus.OK)
+            .setRemaining(granted)
+            .setWaitInMs(leaseMs);
+    }
+
     private static TokenResult blockedResult() {
-        return new TokenResult(TokenResultStatus.BLOCKED)
-            .setRemaining(0)
-            .setWaitInMs(0);
+        return new TokenResult(TokenResultStatus.BLOCKED);
     }
 
     private ClusterFlowChecker() {}
@@ -22,7 +22,7 @@ import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
 import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterParamFlowRuleManager;
 import com.alibaba.csp.sentinel.cluster.flow.statistic.ClusterParamMetricStatistics;
 import com.alibaba.csp.sentinel.cluster.flow.statistic.limit.GlobalRequestLimiter;
-import com.alibaba.csp.sentinel.cluster.flow.statistic.metric.ClusterParamMetric;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.metric.ParamMetric;
 import com.alibaba.csp.sentinel.cluster.server.log.ClusterServerStatLogUtil;
 import com.alibaba.csp.sentinel.slots.block.ClusterRuleConstant;
 import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRule;
@@ -46,7 +46,7 @@ public final class ClusterParamFlowChecker {
             return new TokenResult(TokenResultStatus.TOO_MANY_REQUEST);
         }
 
-        ClusterParamMetric metric = ClusterParamMetricStatistics.getMetric(id);
+        ParamMetric metric = ClusterParamMetricStatistics.getMetric(id);
         if (metric == null) {
             // Unexpected state, return FAIL.
             return new TokenResult(TokenResultStatus.FAIL);
@@ -93,9 +93,7 @@ public final class ClusterParamFlowChecker {
     }
 
     private static TokenResult newBlockResponse() {
-        return new TokenResult(TokenResultStatus.BLOCKED)
-            .setRemaining(0)
-            .setWaitInMs(0);
+        return new TokenResult(TokenResultStatus.BLOCKED);
     }
 
     private static double calcGlobalThreshold(ParamFlowRule rule, Object value) {
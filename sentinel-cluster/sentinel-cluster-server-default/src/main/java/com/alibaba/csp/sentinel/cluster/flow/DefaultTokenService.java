@@ -22,6 +22,7 @@ import com.alibaba.csp.sentinel.cluster.TokenResult;
 import com.alibaba.csp.sentinel.cluster.TokenService;
 import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterFlowRuleManager;
 import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterParamFlowRuleManager;
+import com.alibaba.csp.sentinel.cluster.server.config.ClusterServerConfigManager;
 import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
 import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRule;
 
@@ -38,6 +39,9 @@ public class DefaultTokenService implements TokenService {
         if (notValidRequest(ruleId, acquireCount)) {
             return badRequest();
         }
+        if (!ClusterServerConfigManager.isOwnedFlow(ruleId)) {
+            return new TokenResult(TokenResultStatus.NOT_OWNER);
+        }
         // The rule should be valid.
         FlowRule rule = ClusterFlowRuleManager.getFlowRuleById(ruleId);
         if (rule == null) {
@@ -47,11 +51,41 @@ public class DefaultTokenService implements TokenService {
         return ClusterFlowChecker.acquireClusterToken(rule, acquireCount, prioritized);
     }
 
+    /**
+     * Lease a slice of the global threshold of a flow to the client.
+     *
+     * @param ruleId        the unique rule ID
+     * @param acquireCount  tokens needed by the current request, which is the minimum to grant
+     * @param returnedCount unused tokens of previous leases
+     * @param returnedAgeMs milliseconds elapsed since the returned tokens were granted
+     * @param leaseMs       the expected lease duration
+     * @return the result, where the remaining count is the granted tokens and the wait time is the lease duration
+     * @since 1.7.1
+     */
+    public TokenResult requestTokenLease(Long ruleId, int acquireCount, int returnedCount, int returnedAgeMs,
+                                         int leaseMs) {
+        if (notValidRequest(ruleId, acquireCount) || returnedCount < 0 || returnedAgeMs < 0 || leaseMs <= 0) {
+            return badRequest();
+        }
+        if (!ClusterServerConfigManager.isOwnedFlow(ruleId)) {
+            return new TokenResult(TokenResultStatus.NOT_OWNER);
+        }
+        FlowRule rule = ClusterFlowRuleManager.getFlowRuleById(ruleId);
+        if (rule == null) {
+            return new TokenResult(TokenResultStatus.NO_RULE_EXISTS);
+        }
+
+        return ClusterFlowChecker.acquireClusterLease(rule, acquireCount, returnedCount, returnedAgeMs, leaseMs);
+    }
+
     @Override
     public TokenResult requestParamToken(Long ruleId, int acquireCount, Collection<Object> params) {
         if (notValidRequest(ruleId, acquireCount) || params == null || params.isEmpty()) {
             return badRequest();
         }
+        if (!ClusterServerConfigManager.isOwnedFlow(ruleId)) {
+            return new TokenResult(TokenResultStatus.NOT_OWNER);
+        }
         // The rule should be valid.
         ParamFlowRule rule = ClusterParamFlowRuleManager.getParamRuleById(ruleId);
         if (rule == null) {
@@ -210,6 +210,26 @@ public final class ClusterFlowRuleManager {
         return FLOW_RULES.get(id);
     }
 
+    /**
+     * Rebalance the cluster metrics after the membership of the token cluster changes: metrics are created for
+     * the flows newly owned by current token server, and removed for the flows that are no longer owned.
+     * Rules of all flows are always kept, so no rule has to be reloaded when the ownership changes.
+     *
+     * @since 1.7.1
+     */
+    public static void rebalanceMetrics() {
+        for (Map.Entry<Long, FlowRule> entry : FLOW_RULES.entrySet()) {
+            Long flowId = entry.getKey();
+            if (ClusterServerConfigManager.isOwnedFlow(flowId)) {
+                ClusterFlowConfig clusterConfig = entry.getValue().getClusterConfig();
+                ClusterMetricStatistics.putMetricIfAbsent(flowId,
+                    new ClusterMetric(clusterConfig.getSampleCount(), clusterConfig.getWindowIntervalMs()));
+            } else {
+                ClusterMetricStatistics.removeMetric(flowId);
+            }
+        }
+    }
+
     public static Set<Long> getFlowIdSet(String namespace) {
         if (StringUtil.isEmpty(namespace)) {
             return new HashSet<>();
@@ -352,9 +372,11 @@ public final class ClusterFlowRuleManager {
             FLOW_NAMESPACE_MAP.put(flowId, namespace);
             flowIdSet.add(flowId);
 
-            // Prepare cluster metric from valid flow ID.
-            ClusterMetricStatistics.putMetricIfAbsent(flowId,
-                new ClusterMetric(clusterConfig.getSampleCount(), clusterConfig.getWindowIntervalMs()));
+            // Prepare cluster metric from valid flow ID, if the flow is owned by current token server.
+            if (ClusterServerConfigManager.isOwnedFlow(flowId)) {
+                ClusterMetricStatistics.putMetricIfAbsent(flowId,
+                    new ClusterMetric(clusterConfig.getSampleCount(), clusterConfig.getWindowIntervalMs()));
+            }
         }
 
         // Cleanup unused cluster metrics.
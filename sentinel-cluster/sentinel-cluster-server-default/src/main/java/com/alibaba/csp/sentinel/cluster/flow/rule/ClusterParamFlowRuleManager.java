@@ -24,13 +24,17 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import com.alibaba.csp.sentinel.cluster.flow.statistic.ClusterParamMetricStatistics;
 import com.alibaba.csp.sentinel.cluster.flow.statistic.metric.ClusterParamMetric;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.metric.ClusterParamSketchMetric;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.metric.ParamMetric;
 import com.alibaba.csp.sentinel.cluster.server.ServerConstants;
+import com.alibaba.csp.sentinel.cluster.server.config.ClusterServerConfigManager;
 import com.alibaba.csp.sentinel.cluster.server.connection.ConnectionManager;
 import com.alibaba.csp.sentinel.cluster.server.util.ClusterRuleUtil;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.property.DynamicSentinelProperty;
 import com.alibaba.csp.sentinel.property.PropertyListener;
 import com.alibaba.csp.sentinel.property.SentinelProperty;
+import com.alibaba.csp.sentinel.slots.block.ClusterRuleConstant;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowClusterConfig;
 import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRule;
@@ -222,6 +226,24 @@ public final class ClusterParamFlowRuleManager {
         return PARAM_RULES.get(id);
     }
 
+    /**
+     * Rebalance the cluster parameter metrics after the membership of the token cluster changes.
+     *
+     * @see ClusterFlowRuleManager#rebalanceMetrics()
+     * @since 1.7.1
+     */
+    public static void rebalanceMetrics() {
+        for (Map.Entry<Long, ParamFlowRule> entry : PARAM_RULES.entrySet()) {
+            Long flowId = entry.getKey();
+            if (ClusterServerConfigManager.isOwnedFlow(flowId)) {
+                ParamFlowClusterConfig clusterConfig = entry.getValue().getClusterConfig();
+                ClusterParamMetricStatistics.putMetricIfAbsent(flowId, newMetric(clusterConfig));
+            } else {
+                ClusterParamMetricStatistics.removeMetric(flowId);
+            }
+        }
+    }
+
     public static Set<Long> getFlowIdSet(String namespace) {
         if (StringUtil.isEmpty(namespace)) {
             return new HashSet<>();
@@ -350,9 +372,10 @@ public final class ClusterParamFlowRuleManager {
             FLOW_NAMESPACE_MAP.put(flowId, namespace);
             flowIdSet.add(flowId);
 
-            // Prepare cluster parameter metric from valid rule ID.
-            ClusterParamMetricStatistics.putMetricIfAbsent(flowId,
-                new ClusterParamMetric(clusterConfig.getSampleCount(), clusterConfig.getWindowIntervalMs()));
+            // Prepare cluster parameter metric from valid rule ID, if the flow is owned by current token server.
+            if (ClusterServerConfigManager.isOwnedFlow(flowId)) {
+                ClusterParamMetricStatistics.putMetricIfAbsent(flowId, newMetric(clusterConfig));
+            }
         }
 
         // Cleanup unused cluster parameter metrics.
@@ -367,5 +390,13 @@ public final class ClusterParamFlowRuleManager {
         NAMESPACE_FLOW_ID_MAP.put(namespace, flowIdSet);
     }
 
+    private static ParamMetric newMetric(ParamFlowClusterConfig clusterConfig) {
+        if (clusterConfig.getStatisticMode() == ClusterRuleConstant.PARAM_STATISTIC_MODE_SKETCH) {
+            return new ClusterParamSketchMetric(clusterConfig.getSampleCount(), clusterConfig.getWindowIntervalMs(),
+                clusterConfig.getSketchWidth(), clusterConfig.getSketchDepth(), clusterConfig.getHotKeyCapacity());
+        }
+        return new ClusterParamMetric(clusterConfig.getSampleCount(), clusterConfig.getWindowIntervalMs());
+    }
+
     private ClusterParamFlowRuleManager() {}
 }
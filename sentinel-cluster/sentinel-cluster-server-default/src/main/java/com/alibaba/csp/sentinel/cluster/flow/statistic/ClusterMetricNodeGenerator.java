@@ -25,7 +25,7 @@ import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterFlowRuleManager;
 import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterParamFlowRuleManager;
 import com.alibaba.csp.sentinel.cluster.flow.statistic.data.ClusterFlowEvent;
 import com.alibaba.csp.sentinel.cluster.flow.statistic.metric.ClusterMetric;
-import com.alibaba.csp.sentinel.cluster.flow.statistic.metric.ClusterParamMetric;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.metric.ParamMetric;
 import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
 import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRule;
 import com.alibaba.csp.sentinel.util.TimeUtil;
@@ -90,7 +90,7 @@ public class ClusterMetricNodeGenerator {
         if (rule == null) {
             return null;
         }
-        ClusterParamMetric metric = ClusterParamMetricStatistics.getMetric(flowId);
+        ParamMetric metric = ClusterParamMetricStatistics.getMetric(flowId);
         if (metric == null) {
             return new ClusterMetricNode().setFlowId(flowId)
                 .setResourceName(rule.getResource())
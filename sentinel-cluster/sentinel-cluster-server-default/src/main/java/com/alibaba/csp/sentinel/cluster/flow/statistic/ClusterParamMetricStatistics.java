@@ -16,10 +16,11 @@
 package com.alibaba.csp.sentinel.cluster.flow.statistic;
 
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import com.alibaba.csp.sentinel.cluster.flow.statistic.metric.ClusterParamMetric;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.metric.ClusterParamSketchMetric;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.metric.ParamMetric;
 import com.alibaba.csp.sentinel.cluster.server.config.ClusterServerConfigManager;
 import com.alibaba.csp.sentinel.util.AssertUtil;
 
@@ -29,18 +30,18 @@ import com.alibaba.csp.sentinel.util.AssertUtil;
  */
 public final class ClusterParamMetricStatistics {
 
-    private static final Map<Long, ClusterParamMetric> METRIC_MAP = new ConcurrentHashMap<>();
+    private static final Map<Long, ParamMetric> METRIC_MAP = new ConcurrentHashMap<>();
 
     public static void clear() {
         METRIC_MAP.clear();
     }
 
-    public static void putMetric(long id, ClusterParamMetric metric) {
+    public static void putMetric(long id, ParamMetric metric) {
         AssertUtil.notNull(metric, "metric cannot be null");
         METRIC_MAP.put(id, metric);
     }
 
-    public static boolean putMetricIfAbsent(long id, ClusterParamMetric metric) {
+    public static boolean putMetricIfAbsent(long id, ParamMetric metric) {
         AssertUtil.notNull(metric, "metric cannot be null");
         if (METRIC_MAP.containsKey(id)) {
             return false;
@@ -53,15 +54,23 @@ public final class ClusterParamMetricStatistics {
         METRIC_MAP.remove(id);
     }
 
-    public static ClusterParamMetric getMetric(long id) {
+    public static ParamMetric getMetric(long id) {
         return METRIC_MAP.get(id);
     }
 
     public static void resetFlowMetrics() {
-        Set<Long> keySet = METRIC_MAP.keySet();
-        for (Long id : keySet) {
-            METRIC_MAP.put(id, new ClusterParamMetric(ClusterServerConfigManager.getSampleCount(),
-                ClusterServerConfigManager.getIntervalMs()));
+        int sampleCount = ClusterServerConfigManager.getSampleCount();
+        int intervalMs = ClusterServerConfigManager.getIntervalMs();
+        for (Map.Entry<Long, ParamMetric> entry : METRIC_MAP.entrySet()) {
+            ParamMetric metric = entry.getValue();
+            if (metric instanceof ClusterParamSketchMetric) {
+                // Keep the statistic mode of the rule.
+                ClusterParamSketchMetric sketchMetric = (ClusterParamSketchMetric)metric;
+                METRIC_MAP.put(entry.getKey(), new ClusterParamSketchMetric(sampleCount, intervalMs,
+                    sketchMetric.getSketchWidth(), sketchMetric.getSketchDepth(), sketchMetric.getHotKeyCapacity()));
+            } else {
+                METRIC_MAP.put(entry.getKey(), new ClusterParamMetric(sampleCount, intervalMs));
+            }
         }
     }
 
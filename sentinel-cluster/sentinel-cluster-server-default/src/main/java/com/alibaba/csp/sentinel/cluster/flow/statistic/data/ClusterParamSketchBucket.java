@@ -0,0 +1,54 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.flow.statistic.data;
+
+import java.util.List;
+
+/**
+ * Bucket of sketch-based parameter statistics, which costs fixed memory regardless of the cardinality
+ * of parameter values. Updates of a bucket are serialized, which is cheap as requests of a flow are
+ * processed on the same shard of the token server in most cases.
+ *
+ * @since 1.7.1
+ */
+public class ClusterParamSketchBucket {
+
+    private final CountMinSketch sketch;
+    private final HeavyHitters hotKeys;
+
+    public ClusterParamSketchBucket(int sketchWidth, int sketchDepth, int hotKeyCapacity) {
+        this.sketch = new CountMinSketch(sketchWidth, sketchDepth);
+        this.hotKeys = new HeavyHitters(hotKeyCapacity);
+    }
+
+    public synchronized void add(Object value, int count) {
+        long estimation = sketch.add(value, count);
+        hotKeys.offer(value, estimation);
+    }
+
+    public synchronized long estimate(Object value) {
+        return sketch.estimate(value);
+    }
+
+    public synchronized List<Object> hotKeys() {
+        return hotKeys.keys();
+    }
+
+    public synchronized void reset() {
+        sketch.reset();
+        hotKeys.reset();
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.flow.statistic.data;
+
+import java.util.Arrays;
+
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>A Count-Min Sketch of {@code depth} rows and {@code width} counters per row, which estimates the count
+ * of any key with fixed memory. The estimation never under-counts, and over-counts by at most about
+ * {@code e / width} of the total count with a probability of {@code 1 - e^-depth}.</p>
+ *
+ * <p>Counters are updated conservatively (only the counters below the new estimation are raised), which
+ * reduces the over-counting of cold keys a lot. The sketch is not thread-safe.</p>
+ *
+ * @since 1.7.1
+ */
+public class CountMinSketch {
+
+    private final int depth;
+    private final int mask;
+    private final int[] counters;
+
+    /**
+     * @param width counters per row, which will be rounded up to a power of 2
+     * @param depth count of rows
+     */
+    public CountMinSketch(int width, int depth) {
+        AssertUtil.isTrue(width > 0 && width <= 1 << 24, "width should be in (0, 2^24]");
+        AssertUtil.isTrue(depth > 0 && depth <= 16, "depth should be in (0, 16]");
+        int realWidth = Integer.highestOneBit(width);
+        if (realWidth < width) {
+            realWidth <<= 1;
+        }
+        this.depth = depth;
+        this.mask = realWidth - 1;
+        this.counters = new int[realWidth * depth];
+    }
+
+    /**
+     * Add count for given key.
+     *
+     * @param key   the key
+     * @param count count to add, which should be positive
+     * @return estimated count of the key after adding
+     */
+    public long add(Object key, int count) {
+        long hash = hash(key);
+        int estimation = estimate(hash);
+        if (count <= 0) {
+            return estimation;
+        }
+        int target = (int)Math.min((long)estimation + count, Integer.MAX_VALUE);
+        for (int row = 0; row < depth; row++) {
+            int idx = index(hash, row);
+            if (counters[idx] < target) {
+                counters[idx] = target;
+            }
+        }
+        return target;
+    }
+
+    /**
+     * Estimate the count of given key.
+     *
+     * @param key the key
+     * @return estimated count, which is never less than the real count
+     */
+    public long estimate(Object key) {
+        return estimate(hash(key));
+    }
+
+    public void reset() {
+        Arrays.fill(counters, 0);
+    }
+
+    public int getWidth() {
+        return mask + 1;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    private int estimate(long hash) {
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters[index(hash, row)]);
+        }
+        return min;
+    }
+
+    /**
+     * Pick the counter of each row by double hashing.
+     */
+    private int index(long hash, int row) {
+        int h1 = (int)hash;
+        int h2 = (int)(hash >>> 32) | 1;
+        return row * (mask + 1) + ((h1 + row * h2) & mask);
+    }
+
+    private static long hash(Object key) {
+        long h = key == null ? 0 : key.hashCode();
+        // Spread the hash code (the finalizer of MurmurHash3).
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.flow.statistic.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>Tracks the hottest keys with a fixed capacity, in the manner of the Space-Saving algorithm:
+ * when the table is full, a new key replaces the coldest key only if its count is larger.
+ * The counts are provided by the caller (e.g. estimated by a {@link CountMinSketch}),
+ * so a key replacing another one carries its own count rather than the evicted count.</p>
+ *
+ * <p>The keys are kept in a min-heap indexed by a hash map, so each update costs {@code O(log capacity)}.
+ * The table is not thread-safe.</p>
+ *
+ * @since 1.7.1
+ */
+public class HeavyHitters {
+
+    private final Object[] keys;
+    private final long[] counts;
+    private final Map<Object, Integer> indexMap;
+    private int size = 0;
+
+    public HeavyHitters(int capacity) {
+        AssertUtil.isTrue(capacity > 0, "capacity should be positive");
+        this.keys = new Object[capacity];
+        this.counts = new long[capacity];
+        this.indexMap = new HashMap<>(capacity * 4 / 3 + 1);
+    }
+
+    /**
+     * Offer the latest count of given key.
+     *
+     * @param key   the key
+     * @param count latest count of the key, which never decreases before reset
+     */
+    public void offer(Object key, long count) {
+        Integer idx = indexMap.get(key);
+        if (idx != null) {
+            if (count > counts[idx]) {
+                counts[idx] = count;
+                siftDown(idx);
+            }
+            return;
+        }
+        if (size < keys.length) {
+            set(size, key, count);
+            siftUp(size++);
+            return;
+        }
+        if (count <= counts[0]) {
+            return;
+        }
+        // Replace the coldest key.
+        indexMap.remove(keys[0]);
+        set(0, key, count);
+        siftDown(0);
+    }
+
+    /**
+     * @return the tracked keys, in no particular order
+     */
+    public List<Object> keys() {
+        List<Object> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(keys[i]);
+        }
+        return list;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void reset() {
+        Arrays.fill(keys, null);
+        indexMap.clear();
+        size = 0;
+    }
+
+    private void set(int idx, Object key, long count) {
+        keys[idx] = key;
+        counts[idx] = count;
+        indexMap.put(key, idx);
+    }
+
+    private void siftUp(int idx) {
+        while (idx > 0) {
+            int parent = (idx - 1) >>> 1;
+            if (counts[parent] <= counts[idx]) {
+                break;
+            }
+            swap(idx, parent);
+            idx = parent;
+        }
+    }
+
+    private void siftDown(int idx) {
+        while (true) {
+            int child = 2 * idx + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && counts[child + 1] < counts[child]) {
+                child++;
+            }
+            if (counts[idx] <= counts[child]) {
+                break;
+            }
+            swap(idx, child);
+            idx = child;
+        }
+    }
+
+    private void swap(int i, int j) {
+        Object key = keys[i];
+        long count = counts[i];
+        set(i, keys[j], counts[j]);
+        set(j, key, count);
+    }
+}
@@ -15,54 +15,46 @@
  */
 package com.alibaba.csp.sentinel.cluster.flow.statistic.limit;
 
-import java.util.List;
-
-import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
-import com.alibaba.csp.sentinel.slots.statistic.base.LongAdder;
-import com.alibaba.csp.sentinel.slots.statistic.base.UnaryLeapArray;
 import com.alibaba.csp.sentinel.util.AssertUtil;
 
 /**
+ * Namespace-level QPS limiter of the token server, which is checked on every token request.
+ *
  * @author Eric Zhao
  * @since 1.4.1
  */
 public class RequestLimiter {
 
-    private double qpsAllowed;
+    private static final int INTERVAL_IN_MS = 1000;
 
-    private final LeapArray<LongAdder> data;
+    private volatile double qpsAllowed;
+
+    private final SlidingWindowCounter counter;
 
     public RequestLimiter(double qpsAllowed) {
-        this(new UnaryLeapArray(10, 1000), qpsAllowed);
+        this(new SlidingWindowCounter(INTERVAL_IN_MS), qpsAllowed);
     }
 
-    RequestLimiter(LeapArray<LongAdder> data, double qpsAllowed) {
+    RequestLimiter(SlidingWindowCounter counter, double qpsAllowed) {
         AssertUtil.isTrue(qpsAllowed >= 0, "max allowed QPS should > 0");
-        this.data = data;
+        this.counter = counter;
         this.qpsAllowed = qpsAllowed;
     }
 
     public void increment() {
-        data.currentWindow().value().increment();
+        counter.add(1);
     }
 
     public void add(int x) {
-        data.currentWindow().value().add(x);
+        counter.add(x);
     }
 
     public long getSum() {
-        data.currentWindow();
-        long success = 0;
-
-        List<LongAdder> list = data.values();
-        for (LongAdder window : list) {
-            success += window.sum();
-        }
-        return success;
+        return counter.getCount();
     }
 
     public double getQps() {
-        return getSum() / data.getIntervalInSecond();
+        return getSum() / getIntervalInSecond();
     }
 
     public double getQpsAllowed() {
@@ -78,11 +70,22 @@ public class RequestLimiter {
         return this;
     }
 
+    /**
+     * Check and count the request atomically, so concurrent requests never exceed the limit together.
+     *
+     * @return true if the request passes
+     */
     public boolean tryPass() {
-        if (canPass()) {
-            add(1);
-            return true;
-        }
-        return false;
+        return counter.tryAdd(1, maxCount());
+    }
+
+    private long maxCount() {
+        double max = qpsAllowed * getIntervalInSecond();
+        // The count saturates at the max value, so requests always pass if the limit is higher.
+        return max >= SlidingWindowCounter.MAX_COUNT ? Long.MAX_VALUE : (long)max;
+    }
+
+    private double getIntervalInSecond() {
+        return counter.getIntervalInMs() / 1000.0;
     }
 }
@@ -0,0 +1,161 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.flow.statistic.limit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * <p>Lock-free sliding window counter, where the whole state is packed into a single {@code long}:</p>
+ * <pre>
+ * | window index (16 bits) | count of previous window (24 bits) | count of current window (24 bits) |
+ * </pre>
+ *
+ * <p>The count in the sliding window is estimated as the count of current window plus the count of previous
+ * window weighted by its overlap with the sliding window, which is accurate enough for admission control.
+ * Every update is a single CAS, and nothing is allocated, so the counter is cheap enough for the hot path
+ * of every token request.</p>
+ *
+ * <p>A request whose timestamp falls behind the stored window (e.g. a thread that read the clock before
+ * another one rolled the state) is counted in the current window, so a stale timestamp never wipes the
+ * live window.</p>
+ *
+ * <p>The count of a window saturates at {@link #MAX_COUNT}. The window index wraps after 65536 windows,
+ * which may only mislead the estimation if no request comes for about that long.</p>
+ *
+ * @since 1.7.1
+ */
+public final class SlidingWindowCounter {
+
+    public static final long MAX_COUNT = (1L << 24) - 1;
+
+    private static final int COUNT_BITS = 24;
+    private static final long INDEX_MASK = (1L << 16) - 1;
+    /**
+     * Max number of windows a timestamp may fall behind the stored window to be treated as stale.
+     */
+    private static final long MAX_STALE_WINDOWS = 16;
+
+    private final int intervalInMs;
+    private final AtomicLong state = new AtomicLong();
+
+    public SlidingWindowCounter(int intervalInMs) {
+        AssertUtil.isTrue(intervalInMs > 0, "intervalInMs should be positive");
+        this.intervalInMs = intervalInMs;
+    }
+
+    /**
+     * Add the count only if the estimated count after adding would not exceed the limit.
+     *
+     * @param count count to add
+     * @param limit max count allowed in the sliding window
+     * @return true if the count is added
+     */
+    public boolean tryAdd(int count, long limit) {
+        return tryAdd(TimeUtil.currentTimeMillis(), count, limit);
+    }
+
+    boolean tryAdd(long now, int count, long limit) {
+        long windowIndex = now / intervalInMs;
+        while (true) {
+            long current = state.get();
+            long rolled = roll(current, windowIndex);
+            if (estimate(rolled, now) + count > limit) {
+                return false;
+            }
+            if (state.compareAndSet(current, increase(rolled, count))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Add the count unconditionally.
+     *
+     * @param count count to add
+     */
+    public void add(int count) {
+        add(TimeUtil.currentTimeMillis(), count);
+    }
+
+    void add(long now, int count) {
+        long windowIndex = now / intervalInMs;
+        while (true) {
+            long current = state.get();
+            if (state.compareAndSet(current, increase(roll(current, windowIndex), count))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return estimated count in the sliding window
+     */
+    public long getCount() {
+        return getCount(TimeUtil.currentTimeMillis());
+    }
+
+    long getCount(long now) {
+        return estimate(roll(state.get(), now / intervalInMs), now);
+    }
+
+    public int getIntervalInMs() {
+        return intervalInMs;
+    }
+
+    /**
+     * Move the state to given window, where the current window becomes the previous one.
+     * The state is kept as is if given window is behind the stored one.
+     */
+    private static long roll(long state, long windowIndex) {
+        long index = windowIndex & INDEX_MASK;
+        long stateIndex = state >>> (COUNT_BITS * 2);
+        if (stateIndex == index || isStale(stateIndex, index)) {
+            return state;
+        }
+        long previous = stateIndex == ((index - 1) & INDEX_MASK) ? currentCount(state) : 0;
+        return (index << (COUNT_BITS * 2)) | (previous << COUNT_BITS);
+    }
+
+    private static boolean isStale(long stateIndex, long index) {
+        long lag = (stateIndex - index) & INDEX_MASK;
+        return lag > 0 && lag <= MAX_STALE_WINDOWS;
+    }
+
+    private long estimate(/*@Rolled*/ long state, long now) {
+        long stateIndex = state >>> (COUNT_BITS * 2);
+        // A stale timestamp is estimated at the start of the stored window, where the previous window
+        // weighs the most.
+        long remaining = stateIndex == ((now / intervalInMs) & INDEX_MASK)
+            ? intervalInMs - now % intervalInMs : intervalInMs;
+        return previousCount(state) * remaining / intervalInMs + currentCount(state);
+    }
+
+    private static long increase(long state, int count) {
+        long sum = Math.max(0, Math.min(currentCount(state) + count, MAX_COUNT));
+        return (state & ~MAX_COUNT) | sum;
+    }
+
+    private static long currentCount(long state) {
+        return state & MAX_COUNT;
+    }
+
+    private static long previousCount(long state) {
+        return (state >>> COUNT_BITS) & MAX_COUNT;
+    }
+}
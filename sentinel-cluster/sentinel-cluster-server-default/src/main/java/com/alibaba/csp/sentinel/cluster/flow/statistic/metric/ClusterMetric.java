@@ -15,11 +15,9 @@
  */
 package com.alibaba.csp.sentinel.cluster.flow.statistic.metric;
 
-import java.util.List;
-
 import com.alibaba.csp.sentinel.cluster.flow.statistic.data.ClusterFlowEvent;
-import com.alibaba.csp.sentinel.cluster.flow.statistic.data.ClusterMetricBucket;
 import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.TimeUtil;
 
 /**
  * @author Eric Zhao
@@ -51,14 +49,9 @@ public class ClusterMetric {
      * @return total sum for event
      */
     public long getSum(ClusterFlowEvent event) {
-        metric.currentWindow();
-        long sum = 0;
-
-        List<ClusterMetricBucket> buckets = metric.values();
-        for (ClusterMetricBucket bucket : buckets) {
-            sum += bucket.get(event);
-        }
-        return sum;
+        long now = TimeUtil.currentTimeMillis();
+        metric.currentWindow(now);
+        return metric.getSum(event, now);
     }
 
     /**
@@ -71,6 +64,22 @@ public class ClusterMetric {
         return getSum(event) / metric.getIntervalInSecond();
     }
 
+    /**
+     * @return time span of the sliding window (in ms)
+     * @since 1.7.1
+     */
+    public int getIntervalInMs() {
+        return metric.getIntervalInMs();
+    }
+
+    /**
+     * @return time span of each bucket (in ms)
+     * @since 1.7.1
+     */
+    public int getWindowLengthInMs() {
+        return metric.getIntervalInMs() / metric.getSampleCount();
+    }
+
     /**
      * Try to pre-occupy upcoming buckets.
      *
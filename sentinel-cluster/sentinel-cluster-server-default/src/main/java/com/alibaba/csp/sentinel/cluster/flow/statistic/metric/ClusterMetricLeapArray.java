@@ -79,6 +79,26 @@ public class ClusterMetricLeapArray extends LeapArray<ClusterMetricBucket> {
         return occupyCounter[event.ordinal()].sum();
     }
 
+    /**
+     * Get the sum of provided event in all valid buckets, without building the bucket list.
+     *
+     * @param event event to calculate
+     * @param timeMillis current timestamp in milliseconds
+     * @return total sum for event
+     * @since 1.7.1
+     */
+    public long getSum(ClusterFlowEvent event, long timeMillis) {
+        long sum = 0;
+        for (int i = 0; i < array.length(); i++) {
+            WindowWrap<ClusterMetricBucket> windowWrap = array.get(i);
+            if (windowWrap == null || isWindowDeprecated(timeMillis, windowWrap)) {
+                continue;
+            }
+            sum += windowWrap.value().get(event);
+        }
+        return sum;
+    }
+
     public long getFirstCountOfWindow(ClusterFlowEvent event) {
         if (event == null) {
             return 0;
@@ -33,7 +33,7 @@ import com.alibaba.csp.sentinel.util.AssertUtil;
  * @author Eric Zhao
  * @since 1.4.0
  */
-public class ClusterParamMetric {
+public class ClusterParamMetric implements ParamMetric {
 
     public static final int DEFAULT_CLUSTER_MAX_CAPACITY = 4000;
 
@@ -50,6 +50,7 @@ public class ClusterParamMetric {
         this.metric = new ClusterParameterLeapArray<>(sampleCount, intervalInMs, maxCapacity);
     }
 
+    @Override
     public long getSum(Object value) {
         if (value == null) {
             return 0;
@@ -70,6 +71,7 @@ public class ClusterParamMetric {
         return adder == null ? 0 : adder.sum();
     }
 
+    @Override
     public void addValue(Object value, int count) {
         if (value == null) {
             return;
@@ -84,10 +86,12 @@ public class ClusterParamMetric {
         }
     }
 
+    @Override
     public double getAvg(Object value) {
         return getSum(value) / metric.getIntervalInSecond();
     }
 
+    @Override
     public Map<Object, Double> getTopValues(int number) {
         metric.currentWindow();
         List<CacheMap<Object, LongAdder>> buckets = metric.values();
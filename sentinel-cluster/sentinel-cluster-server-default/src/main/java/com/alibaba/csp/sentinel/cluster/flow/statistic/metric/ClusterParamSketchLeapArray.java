@@ -0,0 +1,54 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.flow.statistic.metric;
+
+import com.alibaba.csp.sentinel.cluster.flow.statistic.data.ClusterParamSketchBucket;
+import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
+import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
+
+/**
+ * Sliding window of sketch-based parameter statistics. Buckets are reset in place, so the memory
+ * of the window is allocated only once.
+ *
+ * @since 1.7.1
+ */
+public class ClusterParamSketchLeapArray extends LeapArray<ClusterParamSketchBucket> {
+
+    private final int sketchWidth;
+    private final int sketchDepth;
+    private final int hotKeyCapacity;
+
+    public ClusterParamSketchLeapArray(int sampleCount, int intervalInMs, int sketchWidth, int sketchDepth,
+                                       int hotKeyCapacity) {
+        super(sampleCount, intervalInMs);
+        this.sketchWidth = sketchWidth;
+        this.sketchDepth = sketchDepth;
+        this.hotKeyCapacity = hotKeyCapacity;
+    }
+
+    @Override
+    public ClusterParamSketchBucket newEmptyBucket(long timeMillis) {
+        return new ClusterParamSketchBucket(sketchWidth, sketchDepth, hotKeyCapacity);
+    }
+
+    @Override
+    protected WindowWrap<ClusterParamSketchBucket> resetWindowTo(WindowWrap<ClusterParamSketchBucket> w,
+                                                                 long startTime) {
+        w.resetTo(startTime);
+        w.value().reset();
+        return w;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.flow.statistic.metric;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.alibaba.csp.sentinel.cluster.flow.statistic.data.ClusterParamSketchBucket;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>Cluster parameter metric backed by a Count-Min Sketch and a table of hot values in each bucket,
+ * rather than exact counters in LRU maps. The memory of a rule is bounded by the sketch size and the
+ * hot key capacity, and high-cardinality values (e.g. user IDs) never evict the state of hot values.</p>
+ *
+ * <p>The count of a value may be over-estimated but is never under-estimated, so limits of hot values
+ * are always enforced. Cold values could be blocked early only if the sketch is too narrow for the
+ * total traffic of the rule.</p>
+ *
+ * @since 1.7.1
+ */
+public class ClusterParamSketchMetric implements ParamMetric {
+
+    private final ClusterParamSketchLeapArray metric;
+
+    private final int sketchWidth;
+    private final int sketchDepth;
+    private final int hotKeyCapacity;
+
+    public ClusterParamSketchMetric(int sampleCount, int intervalInMs, int sketchWidth, int sketchDepth,
+                                    int hotKeyCapacity) {
+        AssertUtil.isTrue(sampleCount > 0, "sampleCount should be positive");
+        AssertUtil.isTrue(intervalInMs > 0, "interval should be positive");
+        AssertUtil.isTrue(intervalInMs % sampleCount == 0, "time span needs to be evenly divided");
+        this.metric = new ClusterParamSketchLeapArray(sampleCount, intervalInMs, sketchWidth, sketchDepth,
+            hotKeyCapacity);
+        this.sketchWidth = sketchWidth;
+        this.sketchDepth = sketchDepth;
+        this.hotKeyCapacity = hotKeyCapacity;
+    }
+
+    @Override
+    public long getSum(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        metric.currentWindow();
+        long sum = 0;
+        for (ClusterParamSketchBucket bucket : metric.values()) {
+            sum += bucket.estimate(value);
+        }
+        return sum;
+    }
+
+    @Override
+    public void addValue(Object value, int count) {
+        if (value == null) {
+            return;
+        }
+        metric.currentWindow().value().add(value, count);
+    }
+
+    @Override
+    public double getAvg(Object value) {
+        return getSum(value) / metric.getIntervalInSecond();
+    }
+
+    @Override
+    public Map<Object, Double> getTopValues(int number) {
+        metric.currentWindow();
+        List<ClusterParamSketchBucket> buckets = metric.values();
+        Set<Object> candidates = new HashSet<>();
+        for (ClusterParamSketchBucket bucket : buckets) {
+            candidates.addAll(bucket.hotKeys());
+        }
+
+        final Map<Object, Long> counts = new HashMap<>(candidates.size());
+        for (Object value : candidates) {
+            long sum = 0;
+            for (ClusterParamSketchBucket bucket : buckets) {
+                sum += bucket.estimate(value);
+            }
+            counts.put(value, sum);
+        }
+        List<Object> list = new ArrayList<>(candidates);
+        Collections.sort(list, new Comparator<Object>() {
+            @Override
+            public int compare(Object a, Object b) {
+                return Long.compare(counts.get(b), counts.get(a));
+            }
+        });
+
+        Map<Object, Double> result = new HashMap<>();
+        int size = Math.min(number, list.size());
+        for (int i = 0; i < size; i++) {
+            long count = counts.get(list.get(i));
+            if (count == 0) {
+                break;
+            }
+            result.put(list.get(i), count / metric.getIntervalInSecond());
+        }
+        return result;
+    }
+
+    public int getSketchWidth() {
+        return sketchWidth;
+    }
+
+    public int getSketchDepth() {
+        return sketchDepth;
+    }
+
+    public int getHotKeyCapacity() {
+        return hotKeyCapacity;
+    }
+}
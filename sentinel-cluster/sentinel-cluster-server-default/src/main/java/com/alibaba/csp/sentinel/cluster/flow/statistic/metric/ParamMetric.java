@@ -0,0 +1,58 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.flow.statistic.metric;
+
+import java.util.Map;
+
+/**
+ * Statistics of parameter values of a cluster parameter flow rule within the sliding window.
+ *
+ * @since 1.7.1
+ */
+public interface ParamMetric {
+
+    /**
+     * Get total count of given value in the sliding window.
+     *
+     * @param value the parameter value
+     * @return total count of the value, or 0 if the value is null
+     */
+    long getSum(Object value);
+
+    /**
+     * Add count of given value to current bucket.
+     *
+     * @param value the parameter value, which is ignored if null
+     * @param count count to add
+     */
+    void addValue(Object value, int count);
+
+    /**
+     * Get average count of given value per second.
+     *
+     * @param value the parameter value
+     * @return average count of the value per second
+     */
+    double getAvg(Object value);
+
+    /**
+     * Get the values with the most counts in the sliding window.
+     *
+     * @param number max amount of values
+     * @return values and their average counts per second
+     */
+    Map<Object, Double> getTopValues(int number);
+}
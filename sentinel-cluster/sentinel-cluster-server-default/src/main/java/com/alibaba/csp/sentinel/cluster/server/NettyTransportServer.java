@@ -21,8 +21,11 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import com.alibaba.csp.sentinel.cluster.server.codec.netty.NettyRequestDecoder;
 import com.alibaba.csp.sentinel.cluster.server.codec.netty.NettyResponseEncoder;
+import com.alibaba.csp.sentinel.cluster.server.config.ClusterServerConfigManager;
+import com.alibaba.csp.sentinel.cluster.server.config.ServerTransportConfig;
 import com.alibaba.csp.sentinel.cluster.server.connection.Connection;
 import com.alibaba.csp.sentinel.cluster.server.connection.ConnectionPool;
+import com.alibaba.csp.sentinel.cluster.server.handler.ShardedRequestExecutor;
 import com.alibaba.csp.sentinel.cluster.server.handler.TokenServerHandler;
 import com.alibaba.csp.sentinel.log.RecordLog;
 
@@ -32,11 +35,11 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 import io.netty.handler.codec.LengthFieldPrepender;
+import io.netty.handler.flush.FlushConsolidationHandler;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
 import io.netty.util.concurrent.GenericFutureListener;
@@ -57,8 +60,9 @@ public class NettyTransportServer implements ClusterTokenServer {
 
     private final int port;
 
-    private NioEventLoopGroup bossGroup;
-    private NioEventLoopGroup workerGroup;
+    private EventLoopGroup bossGroup;
+    private EventLoopGroup workerGroup;
+    private ShardedRequestExecutor requestExecutor;
 
     private final ConnectionPool connectionPool = new ConnectionPool();
 
@@ -76,29 +80,41 @@ public class NettyTransportServer implements ClusterTokenServer {
         }
 
         ServerBootstrap b = new ServerBootstrap();
-        this.bossGroup = new NioEventLoopGroup(1);
-        this.workerGroup = new NioEventLoopGroup(DEFAULT_EVENT_LOOP_THREADS);
+        final ServerTransportConfig config = ClusterServerConfigManager.getTransportConfig();
+        ServerTransportSupport transport = new ServerTransportSupport(config.isNativeTransport());
+        this.bossGroup = transport.newEventLoopGroup(1);
+        this.workerGroup = transport.newEventLoopGroup(
+            config.getIoThreads() > 0 ? config.getIoThreads() : DEFAULT_EVENT_LOOP_THREADS);
+        int processingShards = config.getProcessingShards();
+        this.requestExecutor = processingShards > 0 ? new ShardedRequestExecutor(processingShards) : null;
+        final ShardedRequestExecutor executor = requestExecutor;
         b.group(bossGroup, workerGroup)
-            .channel(NioServerSocketChannel.class)
+            .channel(transport.serverChannelClass())
             .option(ChannelOption.SO_BACKLOG, 128)
             .handler(new LoggingHandler(LogLevel.INFO))
             .childHandler(new ChannelInitializer<SocketChannel>() {
                 @Override
                 public void initChannel(SocketChannel ch) throws Exception {
                     ChannelPipeline p = ch.pipeline();
-                    p.addLast(new LengthFieldBasedFrameDecoder(1024, 0, 2, 0, 2));
+                    if (config.getFlushConsolidation() > 0) {
+                        // Responses written while reading are flushed together when the read is complete.
+                        p.addLast(new FlushConsolidationHandler(config.getFlushConsolidation(), true));
+                    }
+                    p.addLast(new LengthFieldBasedFrameDecoder(config.getMaxFrameLength(), 0, 2, 0, 2));
                     p.addLast(new NettyRequestDecoder());
                     p.addLast(new LengthFieldPrepender(2));
                     p.addLast(new NettyResponseEncoder());
-                    p.addLast(new TokenServerHandler(connectionPool));
+                    p.addLast(new TokenServerHandler(connectionPool, executor));
                 }
             })
             .childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
-            .childOption(ChannelOption.SO_SNDBUF, 32 * 1024)
+            .childOption(ChannelOption.SO_SNDBUF, config.getSendBufferSize())
             .childOption(ChannelOption.CONNECT_TIMEOUT_MILLIS, 10000)
             .childOption(ChannelOption.SO_TIMEOUT, 10)
             .childOption(ChannelOption.TCP_NODELAY, true)
-            .childOption(ChannelOption.SO_RCVBUF, 32 * 1024);
+            .childOption(ChannelOption.SO_RCVBUF, config.getReceiveBufferSize());
+        RecordLog.info("[NettyTransportServer] Starting token server with " + (transport.isEpoll() ? "epoll" : "NIO")
+            + " transport: " + config);
         b.bind(port).addListener(new GenericFutureListener<ChannelFuture>() {
             @Override
             public void operationComplete(ChannelFuture future) {
@@ -106,6 +122,7 @@ public class NettyTransportServer implements ClusterTokenServer {
                     RecordLog.info("[NettyTransportServer] Token server start failed (port=" + port + "), failedTimes: " + failedTimes.get(),
                         future.cause());
                     currentState.compareAndSet(SERVER_STATUS_STARTING, SERVER_STATUS_OFF);
+                    shutdownRequestExecutor();
                     int failCount = failedTimes.incrementAndGet();
                     if (failCount > MAX_RETRY_TIMES) {
                         return;
@@ -140,6 +157,7 @@ public class NettyTransportServer implements ClusterTokenServer {
             try {
                 bossGroup.shutdownGracefully();
                 workerGroup.shutdownGracefully();
+                shutdownRequestExecutor();
                 connectionPool.shutdownAll();
 
                 failedTimes.set(0);
@@ -151,6 +169,13 @@ public class NettyTransportServer implements ClusterTokenServer {
         }
     }
 
+    private void shutdownRequestExecutor() {
+        if (requestExecutor != null) {
+            requestExecutor.shutdown();
+            requestExecutor = null;
+        }
+    }
+
     public void refreshRunningServer() {
         connectionPool.refreshIdleTask();
     }
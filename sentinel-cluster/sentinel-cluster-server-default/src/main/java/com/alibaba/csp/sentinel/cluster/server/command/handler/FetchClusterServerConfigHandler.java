@@ -17,6 +17,7 @@ package com.alibaba.csp.sentinel.cluster.server.command.handler;
 
 import com.alibaba.csp.sentinel.cluster.server.config.ClusterServerConfigManager;
 import com.alibaba.csp.sentinel.cluster.server.config.ServerFlowConfig;
+import com.alibaba.csp.sentinel.cluster.server.config.ServerMembershipConfig;
 import com.alibaba.csp.sentinel.cluster.server.config.ServerTransportConfig;
 import com.alibaba.csp.sentinel.command.CommandHandler;
 import com.alibaba.csp.sentinel.command.CommandRequest;
@@ -64,7 +65,9 @@ public class FetchClusterServerConfigHandler implements CommandHandler<String> {
         JSONObject config = new JSONObject()
             .fluentPut("transport", transportConfig)
             .fluentPut("flow", flowConfig)
-            .fluentPut("namespaceSet", ClusterServerConfigManager.getNamespaceSet());
+            .fluentPut("namespaceSet", ClusterServerConfigManager.getNamespaceSet())
+            .fluentPut("membership", new ServerMembershipConfig(ClusterServerConfigManager.getServerList(),
+                ClusterServerConfigManager.getSelfAddress()));
         return CommandResponse.ofSuccess(config.toJSONString());
     }
 }
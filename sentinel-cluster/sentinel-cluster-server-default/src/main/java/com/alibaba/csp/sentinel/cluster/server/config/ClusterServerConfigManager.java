@@ -24,6 +24,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.ConsistentHashRing;
 import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterFlowRuleManager;
 import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterParamFlowRuleManager;
 import com.alibaba.csp.sentinel.cluster.flow.statistic.ClusterMetricStatistics;
@@ -37,6 +38,8 @@ import com.alibaba.csp.sentinel.property.PropertyListener;
 import com.alibaba.csp.sentinel.property.SentinelProperty;
 import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleUtil;
 import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.HostNameUtil;
+import com.alibaba.csp.sentinel.util.StringUtil;
 
 /**
  * @author Eric Zhao
@@ -51,8 +54,27 @@ public final class ClusterServerConfigManager {
      */
     private static volatile int port = ClusterConstants.DEFAULT_CLUSTER_SERVER_PORT;
     private static volatile int idleSeconds = ServerTransportConfig.DEFAULT_IDLE_SECONDS;
+    /**
+     * Latest transport config, where the tuning options take effect when the token server is (re)started.
+     */
+    private static volatile ServerTransportConfig transportConfig = new ServerTransportConfig();
     private static volatile Set<String> namespaceSet = Collections.singleton(ServerConstants.DEFAULT_NAMESPACE);
 
+    /**
+     * Membership of the token cluster, where the flows are sharded among the servers on the ring.
+     * The ring is empty in single-server mode.
+     */
+    private static volatile ConsistentHashRing shardRing = new ConsistentHashRing(Collections.<String>emptyList());
+    /**
+     * Address of current token server in the membership config, or null if absent.
+     */
+    private static volatile String configuredSelfAddress = null;
+    /**
+     * Resolved address of current token server, which is computed only when the membership or the port changes,
+     * as it is read on every token request.
+     */
+    private static volatile String selfAddress = resolveSelfAddress();
+
     /**
      * Server global flow config.
      */
@@ -82,6 +104,10 @@ public final class ClusterServerConfigManager {
      * Property for cluster server global flow control configuration.
      */
     private static SentinelProperty<ServerFlowConfig> globalFlowProperty = new DynamicSentinelProperty<>();
+    /**
+     * Property for membership of the token cluster.
+     */
+    private static SentinelProperty<ServerMembershipConfig> membershipProperty = new DynamicSentinelProperty<>();
 
     private static final PropertyListener<ServerTransportConfig> TRANSPORT_PROPERTY_LISTENER
         = new ServerGlobalTransportPropertyListener();
@@ -89,11 +115,14 @@ public final class ClusterServerConfigManager {
         = new ServerGlobalFlowPropertyListener();
     private static final PropertyListener<Set<String>> NAMESPACE_SET_PROPERTY_LISTENER
         = new ServerNamespaceSetPropertyListener();
+    private static final PropertyListener<ServerMembershipConfig> MEMBERSHIP_PROPERTY_LISTENER
+        = new ServerMembershipPropertyListener();
 
     static {
         transportConfigProperty.addListener(TRANSPORT_PROPERTY_LISTENER);
         globalFlowProperty.addListener(GLOBAL_FLOW_PROPERTY_LISTENER);
         namespaceSetProperty.addListener(NAMESPACE_SET_PROPERTY_LISTENER);
+        membershipProperty.addListener(MEMBERSHIP_PROPERTY_LISTENER);
     }
 
     /**
@@ -147,6 +176,24 @@ public final class ClusterServerConfigManager {
         }
     }
 
+    /**
+     * Register membership dynamic property of the token cluster.
+     *
+     * @param property membership dynamic property
+     * @since 1.7.1
+     */
+    public static void registerServerMembershipProperty(SentinelProperty<ServerMembershipConfig> property) {
+        AssertUtil.notNull(property, "cluster server membership dynamic property cannot be null");
+        synchronized (MEMBERSHIP_PROPERTY_LISTENER) {
+            RecordLog.info(
+                "[ClusterServerConfigManager] Registering new server membership dynamic property to Sentinel server "
+                    + "config manager");
+            membershipProperty.removeListener(MEMBERSHIP_PROPERTY_LISTENER);
+            property.addListener(MEMBERSHIP_PROPERTY_LISTENER);
+            membershipProperty = property;
+        }
+    }
+
     /**
      * Load provided server namespace set to property in memory.
      *
@@ -174,6 +221,16 @@ public final class ClusterServerConfigManager {
         globalFlowProperty.updateValue(config);
     }
 
+    /**
+     * Load provided membership of the token cluster to property in memory.
+     *
+     * @param config valid membership configuration
+     * @since 1.7.1
+     */
+    public static void loadServerMembershipConfig(ServerMembershipConfig config) {
+        membershipProperty.updateValue(config);
+    }
+
     /**
      * Load server flow config for a specific namespace.
      *
@@ -257,6 +314,45 @@ public final class ClusterServerConfigManager {
         }
     }
 
+    private static class ServerMembershipPropertyListener implements PropertyListener<ServerMembershipConfig> {
+
+        @Override
+        public void configLoad(ServerMembershipConfig config) {
+            if (config == null) {
+                RecordLog.warn("[ClusterServerConfigManager] Empty initial server membership config");
+                return;
+            }
+            applyConfig(config);
+        }
+
+        @Override
+        public void configUpdate(ServerMembershipConfig config) {
+            applyConfig(config);
+        }
+
+        private synchronized void applyConfig(ServerMembershipConfig config) {
+            if (!isValidMembershipConfig(config)) {
+                RecordLog.warn(
+                    "[ClusterServerConfigManager] Invalid cluster server membership config, ignoring: " + config);
+                return;
+            }
+            RecordLog.info("[ClusterServerConfigManager] Updating new server membership config: " + config);
+            configuredSelfAddress = StringUtil.isBlank(config.getSelfAddress()) ? null : config.getSelfAddress().trim();
+            selfAddress = resolveSelfAddress();
+            shardRing = new ConsistentHashRing(config.getServers());
+            if (!shardRing.isEmpty() && !shardRing.getNodes().contains(getSelfAddress())) {
+                RecordLog.warn("[ClusterServerConfigManager] Current token server <{0}> is not in the server list,"
+                    + " so it owns no flow", getSelfAddress());
+            }
+            rebalanceMetrics();
+        }
+    }
+
+    private static void rebalanceMetrics() {
+        ClusterFlowRuleManager.rebalanceMetrics();
+        ClusterParamFlowRuleManager.rebalanceMetrics();
+    }
+
     private static class ServerGlobalTransportPropertyListener implements PropertyListener<ServerTransportConfig> {
 
         @Override
@@ -283,6 +379,7 @@ public final class ClusterServerConfigManager {
             if (config.getIdleSeconds() != idleSeconds) {
                 idleSeconds = config.getIdleSeconds();
             }
+            transportConfig = config;
             updateTokenServer(config);
         }
     }
@@ -294,6 +391,11 @@ public final class ClusterServerConfigManager {
             return;
         }
         ClusterServerConfigManager.port = newPort;
+        selfAddress = resolveSelfAddress();
+        if (configuredSelfAddress == null && !shardRing.isEmpty()) {
+            // The address of current token server is changed as well.
+            rebalanceMetrics();
+        }
 
         for (ServerTransportConfigObserver observer : TRANSPORT_CONFIG_OBSERVERS) {
             observer.onTransportConfigChange(config);
@@ -346,7 +448,39 @@ public final class ClusterServerConfigManager {
     }
 
     public static boolean isValidTransportConfig(ServerTransportConfig config) {
-        return config != null && config.getPort() > 0 && config.getPort() <= 65535;
+        return config != null && config.getPort() > 0 && config.getPort() <= 65535
+            && config.getIoThreads() >= 0 && config.getFlushConsolidation() >= 0
+            && config.getMaxFrameLength() > 0 && config.getMaxFrameLength() <= ClusterConstants.MAX_FRAME_LENGTH
+            && config.getSendBufferSize() > 0 && config.getReceiveBufferSize() > 0;
+    }
+
+    public static boolean isValidMembershipConfig(ServerMembershipConfig config) {
+        if (config == null || config.getServers() == null) {
+            return false;
+        }
+        for (String server : config.getServers()) {
+            if (!isValidAddress(server)) {
+                return false;
+            }
+        }
+        return StringUtil.isBlank(config.getSelfAddress()) || isValidAddress(config.getSelfAddress());
+    }
+
+    private static boolean isValidAddress(String address) {
+        if (StringUtil.isBlank(address)) {
+            return false;
+        }
+        address = address.trim();
+        int idx = address.lastIndexOf(':');
+        if (idx <= 0) {
+            return false;
+        }
+        try {
+            int port = Integer.parseInt(address.substring(idx + 1));
+            return port > 0 && port <= 65535;
+        } catch (NumberFormatException ex) {
+            return false;
+        }
     }
 
     public static boolean isValidFlowConfig(ServerFlowConfig config) {
@@ -418,6 +552,39 @@ public final class ClusterServerConfigManager {
         return maxOccupyRatio;
     }
 
+    /**
+     * Check whether the flow is owned by current token server. All flows are owned in single-server mode.
+     *
+     * @param flowId the flow ID
+     * @return true if the flow is owned by current token server
+     * @since 1.7.1
+     */
+    public static boolean isOwnedFlow(long flowId) {
+        ConsistentHashRing ring = shardRing;
+        return ring.isEmpty() || getSelfAddress().equals(ring.route(flowId));
+    }
+
+    /**
+     * @return sorted addresses of the token servers in the cluster, which is empty in single-server mode
+     * @since 1.7.1
+     */
+    public static List<String> getServerList() {
+        return shardRing.getNodes();
+    }
+
+    /**
+     * @return address of current token server in the server list
+     * @since 1.7.1
+     */
+    public static String getSelfAddress() {
+        return selfAddress;
+    }
+
+    private static String resolveSelfAddress() {
+        String address = configuredSelfAddress;
+        return address != null ? address : HostNameUtil.getIp() + ":" + port;
+    }
+
     public static Set<String> getNamespaceSet() {
         return namespaceSet;
     }
@@ -430,6 +597,16 @@ public final class ClusterServerConfigManager {
         return idleSeconds;
     }
 
+    /**
+     * Get the latest transport config, which carries the tuning options of the transport server.
+     *
+     * @return the transport config
+     * @since 1.7.1
+     */
+    public static ServerTransportConfig getTransportConfig() {
+        return transportConfig;
+    }
+
     public static int getIntervalMs() {
         return intervalMs;
     }
@@ -0,0 +1,74 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.config;
+
+import java.util.List;
+
+/**
+ * <p>Membership of a multi-server token cluster. Flows are sharded among the servers via consistent hashing
+ * of flow IDs (see {@link com.alibaba.csp.sentinel.cluster.ConsistentHashRing}), and every server only keeps
+ * the statistics of the flows it owns.</p>
+ *
+ * <p>The same server list should be pushed to all token servers and clients. An empty server list means
+ * the server owns all flows, which is the single-server mode.</p>
+ *
+ * @since 1.7.1
+ */
+public class ServerMembershipConfig {
+
+    /**
+     * Addresses ({@code host:port}) of all token servers in the cluster.
+     */
+    private List<String> servers;
+    /**
+     * Address of the current token server in the server list. If absent, {@code ip:port} of current machine
+     * will be used.
+     */
+    private String selfAddress;
+
+    public ServerMembershipConfig() {}
+
+    public ServerMembershipConfig(List<String> servers, String selfAddress) {
+        this.servers = servers;
+        this.selfAddress = selfAddress;
+    }
+
+    public List<String> getServers() {
+        return servers;
+    }
+
+    public ServerMembershipConfig setServers(List<String> servers) {
+        this.servers = servers;
+        return this;
+    }
+
+    public String getSelfAddress() {
+        return selfAddress;
+    }
+
+    public ServerMembershipConfig setSelfAddress(String selfAddress) {
+        this.selfAddress = selfAddress;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "ServerMembershipConfig{" +
+            "servers=" + servers +
+            ", selfAddress='" + selfAddress + '\'' +
+            '}';
+    }
+}
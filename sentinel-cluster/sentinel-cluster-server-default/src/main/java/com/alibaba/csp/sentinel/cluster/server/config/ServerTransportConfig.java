@@ -24,9 +24,49 @@ import com.alibaba.csp.sentinel.cluster.ClusterConstants;
 public class ServerTransportConfig {
 
     public static final int DEFAULT_IDLE_SECONDS = 600;
+    public static final int DEFAULT_SOCKET_BUFFER_SIZE = 32 * 1024;
 
     private int port;
     private int idleSeconds;
+    /**
+     * Count of shards that process requests off the I/O threads, where requests are hashed onto the shards
+     * by flow ID. Requests are processed on the I/O threads if the value is not positive.
+     *
+     * @since 1.7.1
+     */
+    private int processingShards = 0;
+    /**
+     * Whether to use the native epoll transport if available (Linux only), which requires
+     * {@code netty-transport-native-epoll} on the classpath.
+     *
+     * @since 1.7.1
+     */
+    private boolean nativeTransport = false;
+    /**
+     * Count of I/O threads, where 0 indicates the default count of Netty.
+     *
+     * @since 1.7.1
+     */
+    private int ioThreads = 0;
+    /**
+     * @since 1.7.1
+     */
+    private int maxFrameLength = ClusterConstants.DEFAULT_MAX_FRAME_LENGTH;
+    /**
+     * @since 1.7.1
+     */
+    private int sendBufferSize = DEFAULT_SOCKET_BUFFER_SIZE;
+    /**
+     * @since 1.7.1
+     */
+    private int receiveBufferSize = DEFAULT_SOCKET_BUFFER_SIZE;
+    /**
+     * Max count of responses whose flushes are consolidated into one syscall, where 0 indicates every response
+     * is flushed at once. Pending responses are always flushed when there is nothing more to read.
+     *
+     * @since 1.7.1
+     */
+    private int flushConsolidation = 0;
 
     public ServerTransportConfig() {
         this(ClusterConstants.DEFAULT_CLUSTER_SERVER_PORT, DEFAULT_IDLE_SECONDS);
@@ -55,11 +95,81 @@ public class ServerTransportConfig {
         return this;
     }
 
+    public int getProcessingShards() {
+        return processingShards;
+    }
+
+    public ServerTransportConfig setProcessingShards(int processingShards) {
+        this.processingShards = processingShards;
+        return this;
+    }
+
+    public boolean isNativeTransport() {
+        return nativeTransport;
+    }
+
+    public ServerTransportConfig setNativeTransport(boolean nativeTransport) {
+        this.nativeTransport = nativeTransport;
+        return this;
+    }
+
+    public int getIoThreads() {
+        return ioThreads;
+    }
+
+    public ServerTransportConfig setIoThreads(int ioThreads) {
+        this.ioThreads = ioThreads;
+        return this;
+    }
+
+    public int getMaxFrameLength() {
+        return maxFrameLength;
+    }
+
+    public ServerTransportConfig setMaxFrameLength(int maxFrameLength) {
+        this.maxFrameLength = maxFrameLength;
+        return this;
+    }
+
+    public int getSendBufferSize() {
+        return sendBufferSize;
+    }
+
+    public ServerTransportConfig setSendBufferSize(int sendBufferSize) {
+        this.sendBufferSize = sendBufferSize;
+        return this;
+    }
+
+    public int getReceiveBufferSize() {
+        return receiveBufferSize;
+    }
+
+    public ServerTransportConfig setReceiveBufferSize(int receiveBufferSize) {
+        this.receiveBufferSize = receiveBufferSize;
+        return this;
+    }
+
+    public int getFlushConsolidation() {
+        return flushConsolidation;
+    }
+
+    public ServerTransportConfig setFlushConsolidation(int flushConsolidation) {
+        this.flushConsolidation = flushConsolidation;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "ServerTransportConfig{" +
             "port=" + port +
             ", idleSeconds=" + idleSeconds +
+            ", processingShards=" + processingShards +
+            ", nativeTransport=" + nativeTransport +
+            ", ioThreads=" + ioThreads +
+            ", maxFrameLength=" + maxFrameLength +
+            ", sendBufferSize=" + sendBufferSize +
+            ", receiveBufferSize=" + receiveBufferSize +
+            ", flushConsolidation=" + flushConsolidation +
             '}';
     }
 }
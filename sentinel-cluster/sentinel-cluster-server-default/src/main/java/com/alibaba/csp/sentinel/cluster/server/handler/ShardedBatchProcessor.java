@@ -0,0 +1,174 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.handler;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.ClusterResponseCallback;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.BatchFlowRequestData;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.data.BatchFlowTokenResponseData;
+import com.alibaba.csp.sentinel.cluster.response.data.FlowTokenResponseData;
+import com.alibaba.csp.sentinel.cluster.server.processor.RequestProcessor;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>Processes a batch of flow requests on the shards of their flows, so every flow is still processed by
+ * a single thread. The batch is split into one sub-batch per shard, and the results of the sub-batches are
+ * merged in the original order before the single response is completed.</p>
+ *
+ * <p>Requests of an overloaded shard are answered with {@link TokenResultStatus#TOO_MANY_REQUEST}, while
+ * the other requests of the batch are still processed.</p>
+ *
+ * @since 1.7.1
+ */
+final class ShardedBatchProcessor {
+
+    private final ShardedRequestExecutor executor;
+
+    ShardedBatchProcessor(ShardedRequestExecutor executor) {
+        AssertUtil.notNull(executor, "executor cannot be null");
+        this.executor = executor;
+    }
+
+    /**
+     * Process the batch request. Exactly one response is completed via
+     * {@link ClusterResponseCallback#onResponse(ClusterResponse)}, which may be invoked in a shard thread
+     * or in the calling thread.
+     *
+     * @param processor processor of the batch requests
+     * @param request   the batch request
+     * @param callback  callback of the merged response
+     */
+    void process(final RequestProcessor<BatchFlowRequestData, BatchFlowTokenResponseData> processor,
+                 ClusterRequest<BatchFlowRequestData> request, ClusterResponseCallback callback) {
+        List<FlowRequestData> requests = request.getData().getRequests();
+        // Indexes of the requests of each shard.
+        Map<Integer, List<Integer>> shardRequests = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            int shard = executor.shardIndex(requests.get(i).getFlowId());
+            List<Integer> indexes = shardRequests.get(shard);
+            if (indexes == null) {
+                indexes = new ArrayList<>();
+                shardRequests.put(shard, indexes);
+            }
+            indexes.add(i);
+        }
+        if (shardRequests.isEmpty()) {
+            callback.onResponse(new ClusterResponse<>(request.getId(), request.getType(),
+                ClusterConstants.RESPONSE_STATUS_OK, new BatchFlowTokenResponseData()));
+            return;
+        }
+
+        final BatchResponseMerger merger = new BatchResponseMerger(request, shardRequests.size(), callback);
+        for (Map.Entry<Integer, List<Integer>> entry : shardRequests.entrySet()) {
+            final List<Integer> indexes = entry.getValue();
+            final ClusterRequest<BatchFlowRequestData> subRequest = subRequest(request, indexes);
+            try {
+                executor.executeOnShard(entry.getKey(), new Runnable() {
+                    @Override
+                    public void run() {
+                        ClusterResponse<BatchFlowTokenResponseData> response = null;
+                        try {
+                            response = processor.processRequest(subRequest);
+                        } catch (Throwable ex) {
+                            RecordLog.warn("[ShardedBatchProcessor] Failed to process request: " + subRequest, ex);
+                        }
+                        merger.complete(indexes, response);
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                // The shard is overloaded.
+                merger.fail(indexes, TokenResultStatus.TOO_MANY_REQUEST);
+            }
+        }
+    }
+
+    private static ClusterRequest<BatchFlowRequestData> subRequest(ClusterRequest<BatchFlowRequestData> request,
+                                                                   List<Integer> indexes) {
+        List<FlowRequestData> requests = request.getData().getRequests();
+        if (indexes.size() == requests.size()) {
+            return request;
+        }
+        BatchFlowRequestData data = new BatchFlowRequestData();
+        for (int index : indexes) {
+            data.addRequest(requests.get(index));
+        }
+        return new ClusterRequest<>(request.getId(), request.getType(), data);
+    }
+
+    private static final class BatchResponseMerger {
+
+        private final ClusterRequest<BatchFlowRequestData> request;
+        private final ClusterResponseCallback callback;
+        /**
+         * Each slot is written by one shard before the counter is decremented, so the merged results are
+         * visible to the shard that completes the last sub-batch.
+         */
+        private final ClusterResponse<FlowTokenResponseData>[] results;
+        private final AtomicInteger pendingShards;
+
+        @SuppressWarnings("unchecked")
+        BatchResponseMerger(ClusterRequest<BatchFlowRequestData> request, int shards,
+                            ClusterResponseCallback callback) {
+            this.request = request;
+            this.callback = callback;
+            this.results = new ClusterResponse[request.getData().getRequests().size()];
+            this.pendingShards = new AtomicInteger(shards);
+        }
+
+        void complete(List<Integer> indexes, ClusterResponse<BatchFlowTokenResponseData> response) {
+            BatchFlowTokenResponseData data = response == null ? null : response.getData();
+            if (data == null || data.getResponses().size() != indexes.size()) {
+                fail(indexes, TokenResultStatus.FAIL);
+                return;
+            }
+            for (int i = 0; i < indexes.size(); i++) {
+                results[indexes.get(i)] = data.getResponses().get(i);
+            }
+            completeShard();
+        }
+
+        void fail(List<Integer> indexes, int status) {
+            for (int index : indexes) {
+                results[index] = new ClusterResponse<>(0, ClusterConstants.MSG_TYPE_FLOW, status, null);
+            }
+            completeShard();
+        }
+
+        private void completeShard() {
+            if (pendingShards.decrementAndGet() > 0) {
+                return;
+            }
+            BatchFlowTokenResponseData data = new BatchFlowTokenResponseData();
+            for (ClusterResponse<FlowTokenResponseData> result : results) {
+                data.addResponse(result);
+            }
+            callback.onResponse(new ClusterResponse<>(request.getId(), request.getType(),
+                ClusterConstants.RESPONSE_STATUS_OK, data));
+        }
+    }
+}
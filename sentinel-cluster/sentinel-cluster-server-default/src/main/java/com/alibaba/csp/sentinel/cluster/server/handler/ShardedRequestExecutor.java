@@ -0,0 +1,88 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.handler;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>Executor that processes token requests on a fixed set of single-thread shards, where requests are
+ * hashed onto the shards by flow ID. So all requests of a flow are processed by one thread in order,
+ * and the metrics of a hot flow are no longer contended by all Netty I/O threads.</p>
+ *
+ * <p>Each shard has a bounded queue, and tasks are rejected when the queue is full, so a slow shard
+ * could not exhaust the heap.</p>
+ *
+ * @since 1.7.1
+ */
+public final class ShardedRequestExecutor {
+
+    public static final int DEFAULT_QUEUE_SIZE = 8192;
+
+    private final ThreadPoolExecutor[] shards;
+
+    public ShardedRequestExecutor(int shardCount) {
+        this(shardCount, DEFAULT_QUEUE_SIZE);
+    }
+
+    public ShardedRequestExecutor(int shardCount, int queueSize) {
+        AssertUtil.isTrue(shardCount > 0, "shardCount should be positive");
+        AssertUtil.isTrue(queueSize > 0, "queueSize should be positive");
+        this.shards = new ThreadPoolExecutor[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(queueSize),
+                new NamedThreadFactory("sentinel-token-server-shard-" + i, true));
+        }
+    }
+
+    /**
+     * Execute the task on the shard of given key.
+     *
+     * @param key  the shard key (e.g. flow ID)
+     * @param task the task
+     * @throws java.util.concurrent.RejectedExecutionException if the queue of the shard is full or
+     *                                                         the executor has been shut down
+     */
+    public void execute(long key, Runnable task) {
+        executeOnShard(shardIndex(key), task);
+    }
+
+    void executeOnShard(int shardIndex, Runnable task) {
+        shards[shardIndex].execute(task);
+    }
+
+    int shardIndex(long key) {
+        // Spread the bits, as flow IDs are often sequential or share the same low bits.
+        long h = key * 0x9E3779B97F4A7C15L;
+        int hash = (int)(h ^ (h >>> 32));
+        return (hash & Integer.MAX_VALUE) % shards.length;
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    public void shutdown() {
+        for (ThreadPoolExecutor shard : shards) {
+            shard.shutdown();
+        }
+    }
+}
@@ -16,9 +16,16 @@
 package com.alibaba.csp.sentinel.cluster.server.handler;
 
 import java.net.InetSocketAddress;
+import java.util.concurrent.RejectedExecutionException;
 
 import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.ClusterResponseCallback;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
 import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.BatchFlowRequestData;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowLeaseRequestData;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
+import com.alibaba.csp.sentinel.cluster.request.data.ParamFlowRequestData;
 import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
 import com.alibaba.csp.sentinel.cluster.server.connection.ConnectionManager;
 import com.alibaba.csp.sentinel.cluster.server.connection.ConnectionPool;
@@ -39,9 +46,25 @@ import io.netty.channel.ChannelInboundHandlerAdapter;
 public class TokenServerHandler extends ChannelInboundHandlerAdapter {
 
     private final ConnectionPool globalConnectionPool;
+    /**
+     * Executor for processing requests off the I/O threads, or null if requests are processed inline.
+     */
+    private final ShardedRequestExecutor requestExecutor;
+    private final ShardedBatchProcessor batchProcessor;
 
     public TokenServerHandler(ConnectionPool globalConnectionPool) {
+        this(globalConnectionPool, null);
+    }
+
+    /**
+     * @param globalConnectionPool the connection pool
+     * @param requestExecutor      executor for processing requests, null for processing on the I/O threads
+     * @since 1.7.1
+     */
+    public TokenServerHandler(ConnectionPool globalConnectionPool, ShardedRequestExecutor requestExecutor) {
         this.globalConnectionPool = globalConnectionPool;
+        this.requestExecutor = requestExecutor;
+        this.batchProcessor = requestExecutor == null ? null : new ShardedBatchProcessor(requestExecutor);
     }
 
     @Override
@@ -75,13 +98,81 @@ public class TokenServerHandler extends ChannelInboundHandlerAdapter {
             if (processor == null) {
                 RecordLog.warn("[TokenServerHandler] No processor for request type: " + request.getType());
                 writeBadResponse(ctx, request);
-            } else {
+            } else if (requestExecutor == null) {
                 ClusterResponse<?> response = processor.processRequest(request);
                 writeResponse(ctx, response);
+            } else if (request.getData() instanceof BatchFlowRequestData) {
+                processBatchOnShards(ctx, processor, request);
+            } else {
+                processOnShard(ctx, processor, request);
             }
         }
     }
 
+    private void processOnShard(final ChannelHandlerContext ctx, final RequestProcessor processor,
+                                final ClusterRequest request) {
+        try {
+            requestExecutor.execute(shardKey(request), new Runnable() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public void run() {
+                    ClusterResponse<?> response;
+                    try {
+                        response = processor.processRequest(request);
+                    } catch (Throwable ex) {
+                        RecordLog.warn("[TokenServerHandler] Failed to process request: " + request, ex);
+                        response = new ClusterResponse<>(request.getId(), request.getType(),
+                            ClusterConstants.RESPONSE_STATUS_BAD, null);
+                    }
+                    // Writing outside the I/O thread is handed over to the event loop of the channel.
+                    writeResponse(ctx, response);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            // The shard is overloaded.
+            ClusterResponse<?> response = new ClusterResponse<>(request.getId(), request.getType(),
+                TokenResultStatus.TOO_MANY_REQUEST, null);
+            writeResponse(ctx, response);
+        }
+    }
+
+    /**
+     * A batch may cover flows of different shards, so it is split per shard and the results are merged
+     * into one response, where each flow is still processed by its own shard.
+     */
+    @SuppressWarnings("unchecked")
+    private void processBatchOnShards(final ChannelHandlerContext ctx, RequestProcessor processor,
+                                      ClusterRequest request) {
+        batchProcessor.process(processor, request, new ClusterResponseCallback() {
+            @Override
+            public void onResponse(ClusterResponse response) {
+                writeResponse(ctx, response);
+            }
+
+            @Override
+            public void onFailure(Throwable cause) {
+                // Failures are carried by the status of each result in the response.
+            }
+        });
+    }
+
+    /**
+     * Requests of the same flow share the same key, so they are processed by the same shard.
+     */
+    private static long shardKey(ClusterRequest request) {
+        Object data = request.getData();
+        if (data instanceof FlowRequestData) {
+            return ((FlowRequestData)data).getFlowId();
+        }
+        if (data instanceof ParamFlowRequestData) {
+            return ((ParamFlowRequestData)data).getFlowId();
+        }
+        if (data instanceof FlowLeaseRequestData) {
+            return ((FlowLeaseRequestData)data).getFlowId();
+        }
+        return request.getType();
+    }
+
     private void writeBadResponse(ChannelHandlerContext ctx, ClusterRequest request) {
         ClusterResponse<?> response = new ClusterResponse<>(request.getId(), request.getType(),
             ClusterConstants.RESPONSE_STATUS_BAD, null);
@@ -46,9 +46,12 @@ public class FlowRequestProcessor implements RequestProcessor<FlowRequestData, F
 
     private ClusterResponse<FlowTokenResponseData> toResponse(TokenResult result, ClusterRequest request) {
         return new ClusterResponse<>(request.getId(), request.getType(), result.getStatus(),
-            new FlowTokenResponseData()
-                .setRemainingCount(result.getRemaining())
-                .setWaitInMs(result.getWaitInMs())
-        );
+            toResponseData(result));
+    }
+
+    static FlowTokenResponseData toResponseData(TokenResult result) {
+        return new FlowTokenResponseData()
+            .setRemainingCount(result.getRemaining())
+            .setWaitInMs(result.getWaitInMs());
     }
 }
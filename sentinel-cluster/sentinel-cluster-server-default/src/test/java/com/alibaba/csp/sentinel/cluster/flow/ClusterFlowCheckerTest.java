@@ -15,8 +15,13 @@
  */
 package com.alibaba.csp.sentinel.cluster.flow;
 
+import java.util.Collections;
+
 import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterFlowRuleManager;
 import com.alibaba.csp.sentinel.cluster.flow.statistic.ClusterMetricStatistics;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.data.ClusterFlowEvent;
 import com.alibaba.csp.sentinel.cluster.flow.statistic.metric.ClusterMetric;
 import com.alibaba.csp.sentinel.slots.block.ClusterRuleConstant;
 import com.alibaba.csp.sentinel.slots.block.flow.ClusterFlowConfig;
@@ -72,6 +77,55 @@ public class ClusterFlowCheckerTest {
         ClusterMetricStatistics.removeMetric(flowId);
     }
 
+    @Test
+    public void testAcquireClusterLease() {
+        long flowId = 98766L;
+        String namespace = "lease-test";
+        FlowRule clusterRule = new FlowRule("def")
+            .setCount(100)
+            .setClusterMode(true)
+            .setClusterConfig(new ClusterFlowConfig()
+                .setFlowId(flowId)
+                .setThresholdType(ClusterRuleConstant.FLOW_THRESHOLD_GLOBAL));
+        ClusterFlowRuleManager.register2Property(namespace);
+        ClusterFlowRuleManager.loadRules(namespace, Collections.singletonList(clusterRule));
+        ClusterMetricStatistics.putMetric(flowId, new ClusterMetric(10, 1000));
+        try {
+            // A share of the threshold within the lease duration is granted.
+            TokenResult result = ClusterFlowChecker.acquireClusterLease(clusterRule, 1, 0, 0, 200);
+            assertEquals(TokenResultStatus.OK, (int)result.getStatus());
+            assertEquals(20, (int)result.getRemaining());
+            assertEquals(200, (int)result.getWaitInMs());
+
+            // The lease duration is capped, and no more than the available tokens are granted.
+            result = ClusterFlowChecker.acquireClusterLease(clusterRule, 1, 0, 0, 60 * 1000);
+            assertEquals(80, (int)result.getRemaining());
+            assertEquals(1000, (int)result.getWaitInMs());
+            TokenResult blocked = ClusterFlowChecker.acquireClusterLease(clusterRule, 1, 0, 0, 200);
+            assertResultBlock(blocked);
+            // Results are returned via the public token service, so callers should be able to modify them.
+            blocked.setRemaining(1);
+            assertNotSame(blocked, ClusterFlowChecker.acquireClusterLease(clusterRule, 1, 0, 0, 200));
+
+            // Returned tokens could be leased again.
+            result = ClusterFlowChecker.acquireClusterLease(clusterRule, 5, 10, 100, 200);
+            assertEquals(TokenResultStatus.OK, (int)result.getStatus());
+            assertEquals(10, (int)result.getRemaining());
+            // Returned tokens granted before the window are not credited, even if others have passed since.
+            assertResultBlock(ClusterFlowChecker.acquireClusterLease(clusterRule, 5, 10, 1000, 200));
+
+            // The grants of the returned tokens have left the window, so nothing is credited.
+            ClusterMetric metric = new ClusterMetric(10, 1000);
+            ClusterMetricStatistics.putMetric(flowId, metric);
+            result = ClusterFlowChecker.acquireClusterLease(clusterRule, 1, 50, 0, 200);
+            assertEquals(20, (int)result.getRemaining());
+            assertEquals(20, metric.getSum(ClusterFlowEvent.PASS));
+        } finally {
+            ClusterMetricStatistics.removeMetric(flowId);
+            ClusterFlowRuleManager.removeProperty(namespace);
+        }
+    }
+
     private TokenResult tryAcquire(FlowRule clusterRule, boolean occupy) {
         return ClusterFlowChecker.acquireClusterToken(clusterRule, 1, occupy);
     }
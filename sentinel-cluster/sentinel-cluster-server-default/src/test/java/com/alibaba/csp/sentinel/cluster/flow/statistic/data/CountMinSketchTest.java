@@ -0,0 +1,77 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.flow.statistic.data;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CountMinSketchTest {
+
+    @Test
+    public void testEstimateNeverUnderCounts() {
+        CountMinSketch sketch = new CountMinSketch(1000, 4);
+        assertEquals(1024, sketch.getWidth());
+        for (int i = 0; i < 10000; i++) {
+            sketch.add("user-" + i, 1);
+        }
+        sketch.add("hot", 500);
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(sketch.estimate("user-" + i) >= 1);
+        }
+        long hot = sketch.estimate("hot");
+        assertTrue(hot >= 500);
+        // Error is bounded by about e / width of the total count.
+        assertTrue(hot <= 500 + 10500 * 3 / 1024);
+
+        sketch.reset();
+        assertEquals(0, sketch.estimate("hot"));
+    }
+
+    @Test
+    public void testHeavyHittersKeepHottestKeys() {
+        HeavyHitters hotKeys = new HeavyHitters(3);
+        hotKeys.offer("a", 10);
+        hotKeys.offer("b", 1);
+        hotKeys.offer("c", 5);
+        // Cold keys could not replace any tracked key.
+        hotKeys.offer("d", 1);
+        assertEquals(3, hotKeys.size());
+        assertFalse(hotKeys.keys().contains("d"));
+
+        // A hotter key replaces the coldest one.
+        hotKeys.offer("d", 6);
+        assertEquals(set("a", "c", "d"), new HashSet<>(hotKeys.keys()));
+        hotKeys.offer("c", 20);
+        hotKeys.offer("e", 7);
+        assertEquals(set("a", "c", "e"), new HashSet<>(hotKeys.keys()));
+
+        hotKeys.reset();
+        assertEquals(0, hotKeys.size());
+        assertTrue(hotKeys.keys().isEmpty());
+    }
+
+    private static Set<Object> set(Object... keys) {
+        Set<Object> set = new HashSet<>();
+        for (Object key : keys) {
+            set.add(key);
+        }
+        return set;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.flow.statistic.limit;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SlidingWindowCounterTest {
+
+    @Test
+    public void testTryAddUpToLimit() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(1000);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(counter.tryAdd(5100, 1, 10));
+        }
+        assertFalse(counter.tryAdd(5200, 1, 10));
+        assertFalse(counter.tryAdd(5999, 1, 10));
+        assertEquals(10, counter.getCount(5999));
+
+        counter.add(5999, 5);
+        assertEquals(15, counter.getCount(5999));
+    }
+
+    @Test
+    public void testSlidingWindow() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(1000);
+        counter.add(5500, 10);
+        // The previous window is weighted by its overlap with the sliding window.
+        assertEquals(10, counter.getCount(6000));
+        assertEquals(5, counter.getCount(6500));
+        assertEquals(1, counter.getCount(6900));
+        assertTrue(counter.tryAdd(6500, 5, 10));
+        assertFalse(counter.tryAdd(6500, 1, 10));
+        assertEquals(5, counter.getCount(7000));
+        // Windows before the previous one are dropped.
+        assertEquals(0, counter.getCount(8000));
+        assertTrue(counter.tryAdd(9000, 10, 10));
+    }
+
+    @Test
+    public void testStaleTimestamp() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(1000);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(counter.tryAdd(1000, 1, 10));
+        }
+        // A request stamped one window behind must not reset the live window.
+        assertFalse(counter.tryAdd(999, 1, 10));
+        counter.add(999, 1);
+        assertEquals(11, counter.getCount(1000));
+        assertEquals(11, counter.getCount(999));
+        assertFalse(counter.tryAdd(1000, 1, 10));
+        // The stored window still rolls forward as usual.
+        assertEquals(11, counter.getCount(2000));
+        assertEquals(0, counter.getCount(3000));
+    }
+
+    @Test
+    public void testSaturate() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(1000);
+        counter.add(1000, Integer.MAX_VALUE);
+        counter.add(1000, 1);
+        assertEquals(SlidingWindowCounter.MAX_COUNT, counter.getCount(1000));
+        assertEquals(SlidingWindowCounter.MAX_COUNT, counter.getCount(2000));
+    }
+
+    @Test
+    public void testConcurrentTryAdd() throws Exception {
+        final SlidingWindowCounter counter = new SlidingWindowCounter(1000);
+        final int threads = 8;
+        final AtomicInteger passed = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 1000; i++) {
+                        if (counter.tryAdd(3000, 1, 3000)) {
+                            passed.incrementAndGet();
+                        }
+                    }
+                    latch.countDown();
+                }
+            }).start();
+        }
+        latch.await();
+        assertEquals(3000, passed.get());
+        assertEquals(3000, counter.getCount(3000));
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.flow.statistic.metric;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ClusterParamSketchMetricTest {
+
+    @Test
+    public void testHighCardinalityValues() {
+        ClusterParamSketchMetric metric = new ClusterParamSketchMetric(1, 60000, 1024, 4, 8);
+        metric.addValue(1L, 300);
+        metric.addValue(2L, 200);
+        for (long userId = 100; userId < 20100; userId++) {
+            metric.addValue(userId, 1);
+        }
+        metric.addValue(1L, 300);
+
+        // State of hot values is never evicted by cold values.
+        assertTrue(metric.getSum(1L) >= 600);
+        assertTrue(metric.getSum(1L) < 700);
+        assertTrue(metric.getSum(2L) >= 200);
+        assertTrue(metric.getSum(12345L) >= 1);
+        assertEquals(0, metric.getSum(null));
+
+        Map<Object, Double> top = metric.getTopValues(2);
+        assertEquals(2, top.size());
+        assertTrue(top.containsKey(1L));
+        assertTrue(top.containsKey(2L));
+    }
+}
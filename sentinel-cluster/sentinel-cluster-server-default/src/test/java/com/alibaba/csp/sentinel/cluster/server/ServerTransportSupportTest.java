@@ -0,0 +1,40 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ServerTransportSupportTest {
+
+    @Test
+    public void testFallbackToNio() {
+        // The native epoll transport is not on the test classpath.
+        ServerTransportSupport transport = new ServerTransportSupport(true);
+        assertFalse(transport.isEpoll());
+        assertEquals(NioServerSocketChannel.class, transport.serverChannelClass());
+        EventLoopGroup group = transport.newEventLoopGroup(1);
+        try {
+            assertTrue(group instanceof NioEventLoopGroup);
+        } finally {
+            group.shutdownGracefully();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 1999-2019 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.codec.data;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.request.data.BatchFlowRequestData;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.data.BatchFlowTokenResponseData;
+import com.alibaba.csp.sentinel.cluster.response.data.FlowTokenResponseData;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test cases for {@link BatchFlowRequestDataDecoder} and {@link BatchFlowResponseDataWriter}.
+ */
+public class BatchFlowDataCodecTest {
+
+    @Test
+    public void testDecodeBatchFlowRequest() {
+        ByteBuf buf = Unpooled.buffer();
+        buf.writeShort(2);
+        buf.writeLong(11L).writeInt(1).writeBoolean(false);
+        buf.writeLong(22L).writeInt(3).writeBoolean(true);
+
+        BatchFlowRequestData data = new BatchFlowRequestDataDecoder().decode(buf);
+        assertThat(data.getRequests()).hasSize(2);
+        assertThat(data.getRequests().get(0).getFlowId()).isEqualTo(11L);
+        assertThat(data.getRequests().get(1).getCount()).isEqualTo(3);
+        assertThat(data.getRequests().get(1).isPriority()).isTrue();
+        buf.release();
+
+        // Truncated or oversized batches are rejected.
+        buf = Unpooled.buffer();
+        buf.writeShort(2);
+        buf.writeLong(11L).writeInt(1).writeBoolean(false);
+        assertThat(new BatchFlowRequestDataDecoder().decode(buf)).isNull();
+        buf.release();
+        buf = Unpooled.buffer();
+        buf.writeShort(ClusterConstants.MAX_BATCH_FLOW_REQUEST_COUNT + 1);
+        assertThat(new BatchFlowRequestDataDecoder().decode(buf)).isNull();
+        buf.release();
+    }
+
+    @Test
+    public void testWriteBatchFlowResponse() {
+        BatchFlowTokenResponseData data = new BatchFlowTokenResponseData()
+            .addResponse(new ClusterResponse<>(0, ClusterConstants.MSG_TYPE_FLOW, 0,
+                new FlowTokenResponseData().setRemainingCount(5)))
+            .addResponse(new ClusterResponse<>(0, ClusterConstants.MSG_TYPE_FLOW, 2,
+                new FlowTokenResponseData().setWaitInMs(40)));
+        ByteBuf buf = Unpooled.buffer();
+        new BatchFlowResponseDataWriter().writeTo(data, buf);
+
+        assertThat(buf.readableBytes()).isEqualTo(2 + 2 * 9);
+        assertThat(buf.readShort()).isEqualTo((short)2);
+        assertThat(buf.readByte()).isEqualTo((byte)0);
+        assertThat(buf.readInt()).isEqualTo(5);
+        assertThat(buf.readInt()).isEqualTo(0);
+        assertThat(buf.readByte()).isEqualTo((byte)2);
+        assertThat(buf.readInt()).isEqualTo(0);
+        assertThat(buf.readInt()).isEqualTo(40);
+        buf.release();
+    }
+}
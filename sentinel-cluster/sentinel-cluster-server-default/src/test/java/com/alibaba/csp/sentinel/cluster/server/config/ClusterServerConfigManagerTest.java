@@ -1,5 +1,14 @@
 package com.alibaba.csp.sentinel.cluster.server.config;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.flow.DefaultTokenService;
+import com.alibaba.csp.sentinel.util.HostNameUtil;
+
 import org.junit.Test;
 
 import static org.junit.Assert.*;
@@ -17,6 +26,12 @@ public class ClusterServerConfigManagerTest {
         assertFalse(ClusterServerConfigManager.isValidTransportConfig(badConfig1));
         assertFalse(ClusterServerConfigManager.isValidTransportConfig(badConfig2));
         assertTrue(ClusterServerConfigManager.isValidTransportConfig(goodConfig1));
+        assertFalse(ClusterServerConfigManager.isValidTransportConfig(
+            new ServerTransportConfig().setMaxFrameLength(ClusterConstants.MAX_FRAME_LENGTH + 1)));
+        assertFalse(ClusterServerConfigManager.isValidTransportConfig(new ServerTransportConfig().setIoThreads(-1)));
+        assertFalse(ClusterServerConfigManager.isValidTransportConfig(new ServerTransportConfig().setSendBufferSize(0)));
+        assertTrue(ClusterServerConfigManager.isValidTransportConfig(new ServerTransportConfig()
+            .setNativeTransport(true).setIoThreads(4).setMaxFrameLength(4096).setFlushConsolidation(16)));
     }
 
     @Test
@@ -28,4 +43,60 @@ public class ClusterServerConfigManagerTest {
         assertFalse(ClusterServerConfigManager.isValidFlowConfig(badConfig2));
         assertFalse(ClusterServerConfigManager.isValidFlowConfig(badConfig3));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testIsValidMembershipConfig() {
+        assertFalse(ClusterServerConfigManager.isValidMembershipConfig(new ServerMembershipConfig()));
+        assertFalse(ClusterServerConfigManager.isValidMembershipConfig(
+            new ServerMembershipConfig(Arrays.asList("10.0.0.1:18730", "10.0.0.2"), null)));
+        assertFalse(ClusterServerConfigManager.isValidMembershipConfig(
+            new ServerMembershipConfig(Arrays.asList("10.0.0.1:18730"), "10.0.0.1:0")));
+        assertTrue(ClusterServerConfigManager.isValidMembershipConfig(
+            new ServerMembershipConfig(Collections.<String>emptyList(), null)));
+        assertTrue(ClusterServerConfigManager.isValidMembershipConfig(
+            new ServerMembershipConfig(Arrays.asList("10.0.0.1:18730", "10.0.0.2:18730"), "10.0.0.2:18730")));
+    }
+
+    @Test
+    public void testShardFlowsAmongServers() {
+        List<String> servers = Arrays.asList("10.0.0.1:18730", "10.0.0.2:18730", "10.0.0.3:18730");
+        try {
+            int owned = 0;
+            for (String self : servers) {
+                ClusterServerConfigManager.loadServerMembershipConfig(new ServerMembershipConfig(servers, self));
+                assertEquals(self, ClusterServerConfigManager.getSelfAddress());
+                for (long flowId = 1; flowId <= 3000; flowId++) {
+                    if (ClusterServerConfigManager.isOwnedFlow(flowId)) {
+                        owned++;
+                    }
+                }
+            }
+            // Every flow is owned by exactly one server.
+            assertEquals(3000, owned);
+
+            ClusterServerConfigManager.loadServerMembershipConfig(
+                new ServerMembershipConfig(servers, "10.0.0.4:18730"));
+            assertFalse(ClusterServerConfigManager.isOwnedFlow(1L));
+            assertEquals(TokenResultStatus.NOT_OWNER,
+                (int)new DefaultTokenService().requestToken(1L, 1, false).getStatus());
+        } finally {
+            ClusterServerConfigManager.loadServerMembershipConfig(
+                new ServerMembershipConfig(Collections.<String>emptyList(), null));
+        }
+        assertTrue(ClusterServerConfigManager.getServerList().isEmpty());
+        assertTrue(ClusterServerConfigManager.isOwnedFlow(1L));
+    }
+
+    @Test
+    public void testSelfAddressFollowsPort() {
+        int port = ClusterServerConfigManager.getPort();
+        assertEquals(HostNameUtil.getIp() + ":" + port, ClusterServerConfigManager.getSelfAddress());
+        try {
+            ClusterServerConfigManager.loadGlobalTransportConfig(new ServerTransportConfig().setPort(port + 1));
+            assertEquals(HostNameUtil.getIp() + ":" + (port + 1), ClusterServerConfigManager.getSelfAddress());
+        } finally {
+            ClusterServerConfigManager.loadGlobalTransportConfig(new ServerTransportConfig().setPort(port));
+        }
+        assertEquals(HostNameUtil.getIp() + ":" + port, ClusterServerConfigManager.getSelfAddress());
+    }
+}
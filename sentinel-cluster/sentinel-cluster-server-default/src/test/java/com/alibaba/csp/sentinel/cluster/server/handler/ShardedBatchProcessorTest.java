@@ -0,0 +1,150 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.handler;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.ClusterResponseCallback;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.BatchFlowRequestData;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.data.BatchFlowTokenResponseData;
+import com.alibaba.csp.sentinel.cluster.response.data.FlowTokenResponseData;
+import com.alibaba.csp.sentinel.cluster.server.processor.RequestProcessor;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ShardedBatchProcessorTest {
+
+    @Test
+    public void testSplitAndMergeByShard() throws Exception {
+        ShardedRequestExecutor executor = new ShardedRequestExecutor(4);
+        try {
+            final Map<Long, String> flowThreads = new ConcurrentHashMap<>();
+            RequestProcessor<BatchFlowRequestData, BatchFlowTokenResponseData> processor =
+                new RequestProcessor<BatchFlowRequestData, BatchFlowTokenResponseData>() {
+                    @Override
+                    public ClusterResponse<BatchFlowTokenResponseData> processRequest(
+                        ClusterRequest<BatchFlowRequestData> request) {
+                        BatchFlowTokenResponseData data = new BatchFlowTokenResponseData();
+                        for (FlowRequestData flow : request.getData().getRequests()) {
+                            flowThreads.put(flow.getFlowId(), Thread.currentThread().getName());
+                            data.addResponse(new ClusterResponse<>(0, ClusterConstants.MSG_TYPE_FLOW,
+                                TokenResultStatus.OK,
+                                new FlowTokenResponseData().setRemainingCount((int)flow.getFlowId())));
+                        }
+                        return new ClusterResponse<>(request.getId(), request.getType(),
+                            ClusterConstants.RESPONSE_STATUS_OK, data);
+                    }
+                };
+            BatchFlowRequestData batch = new BatchFlowRequestData();
+            for (long flowId = 1; flowId <= 32; flowId++) {
+                batch.addRequest(new FlowRequestData().setFlowId(flowId).setCount(1));
+            }
+            ClusterResponse<BatchFlowTokenResponseData> response = process(executor, processor,
+                new ClusterRequest<>(7, ClusterConstants.MSG_TYPE_BATCH_FLOW, batch));
+
+            assertEquals(7, response.getId());
+            assertEquals(ClusterConstants.RESPONSE_STATUS_OK, (int)response.getStatus());
+            List<ClusterResponse<FlowTokenResponseData>> results = response.getData().getResponses();
+            assertEquals(32, results.size());
+            for (int i = 0; i < 32; i++) {
+                assertEquals(i + 1, (int)results.get(i).getData().getRemainingCount());
+            }
+            // Each flow is processed by its own shard.
+            for (long flowId = 1; flowId <= 32; flowId++) {
+                assertTrue(flowThreads.get(flowId).startsWith(
+                    "sentinel-token-server-shard-" + executor.shardIndex(flowId) + "-"));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailedShard() throws Exception {
+        ShardedRequestExecutor executor = new ShardedRequestExecutor(2);
+        try {
+            long failedFlow = 1;
+            long otherFlow = 2;
+            while (executor.shardIndex(otherFlow) == executor.shardIndex(failedFlow)) {
+                otherFlow++;
+            }
+            final long flowToFail = failedFlow;
+            RequestProcessor<BatchFlowRequestData, BatchFlowTokenResponseData> processor =
+                new RequestProcessor<BatchFlowRequestData, BatchFlowTokenResponseData>() {
+                    @Override
+                    public ClusterResponse<BatchFlowTokenResponseData> processRequest(
+                        ClusterRequest<BatchFlowRequestData> request) {
+                        BatchFlowTokenResponseData data = new BatchFlowTokenResponseData();
+                        for (FlowRequestData flow : request.getData().getRequests()) {
+                            if (flow.getFlowId() == flowToFail) {
+                                throw new IllegalStateException("broken");
+                            }
+                            data.addResponse(new ClusterResponse<>(0, ClusterConstants.MSG_TYPE_FLOW,
+                                TokenResultStatus.OK, new FlowTokenResponseData()));
+                        }
+                        return new ClusterResponse<>(request.getId(), request.getType(),
+                            ClusterConstants.RESPONSE_STATUS_OK, data);
+                    }
+                };
+            BatchFlowRequestData batch = new BatchFlowRequestData()
+                .addRequest(new FlowRequestData().setFlowId(otherFlow).setCount(1))
+                .addRequest(new FlowRequestData().setFlowId(failedFlow).setCount(1));
+            ClusterResponse<BatchFlowTokenResponseData> response = process(executor, processor,
+                new ClusterRequest<>(8, ClusterConstants.MSG_TYPE_BATCH_FLOW, batch));
+
+            List<ClusterResponse<FlowTokenResponseData>> results = response.getData().getResponses();
+            assertEquals(2, results.size());
+            assertEquals(TokenResultStatus.OK, (int)results.get(0).getStatus());
+            assertEquals(TokenResultStatus.FAIL, (int)results.get(1).getStatus());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ClusterResponse<BatchFlowTokenResponseData> process(ShardedRequestExecutor executor,
+        RequestProcessor<BatchFlowRequestData, BatchFlowTokenResponseData> processor,
+        ClusterRequest<BatchFlowRequestData> request) throws Exception {
+        final AtomicReference<ClusterResponse> result = new AtomicReference<>();
+        final CountDownLatch latch = new CountDownLatch(1);
+        new ShardedBatchProcessor(executor).process(processor, request, new ClusterResponseCallback() {
+            @Override
+            public void onResponse(ClusterResponse response) {
+                assertTrue(result.compareAndSet(null, response));
+                latch.countDown();
+            }
+
+            @Override
+            public void onFailure(Throwable cause) {
+                fail("unexpected failure");
+            }
+        });
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        return (ClusterResponse<BatchFlowTokenResponseData>)result.get();
+    }
+}
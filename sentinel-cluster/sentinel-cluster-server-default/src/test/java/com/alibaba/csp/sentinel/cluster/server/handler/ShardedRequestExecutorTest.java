@@ -0,0 +1,85 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.handler;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ShardedRequestExecutorTest {
+
+    @Test
+    public void testSameKeyOnSameThread() throws Exception {
+        ShardedRequestExecutor executor = new ShardedRequestExecutor(4);
+        try {
+            final Set<String> threads = Collections.synchronizedSet(new HashSet<String>());
+            final CountDownLatch latch = new CountDownLatch(100);
+            for (int i = 0; i < 100; i++) {
+                executor.execute(42L, new Runnable() {
+                    @Override
+                    public void run() {
+                        threads.add(Thread.currentThread().getName());
+                        latch.countDown();
+                    }
+                });
+            }
+            assertTrue(latch.await(1, TimeUnit.SECONDS));
+            assertEquals(1, threads.size());
+
+            // Sequential flow IDs are spread over all shards.
+            Set<Integer> shards = new HashSet<>();
+            for (long flowId = 1; flowId <= 64; flowId++) {
+                int index = executor.shardIndex(flowId);
+                assertTrue(index >= 0 && index < 4);
+                shards.add(index);
+            }
+            assertEquals(4, shards.size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void testRejectWhenQueueIsFull() throws Exception {
+        ShardedRequestExecutor executor = new ShardedRequestExecutor(1, 1);
+        final CountDownLatch blocker = new CountDownLatch(1);
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    blocker.await();
+                } catch (InterruptedException ignore) {
+                }
+            }
+        };
+        try {
+            // One task is running, and another is queued.
+            executor.execute(1L, task);
+            executor.execute(1L, task);
+            executor.execute(1L, task);
+        } finally {
+            blocker.countDown();
+            executor.shutdown();
+        }
+    }
+}
@@ -20,6 +20,7 @@ import com.alibaba.csp.sentinel.context.NullContext;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.slotchain.ProcessorSlot;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.util.TimeUtil;
 
 /**
  * The entry for asynchronous resources.
@@ -31,8 +32,58 @@ public class AsyncEntry extends CtEntry {
 
     private Context asyncContext;
 
+    /**
+     * Whether paced rules should reserve the pass time for this entry rather than wait in the caller thread.
+     */
+    private final boolean nonBlockingPacing;
+    private volatile long scheduledPassTime = -1;
+
     AsyncEntry(ResourceWrapper resourceWrapper, ProcessorSlot<Object> chain, Context context) {
+        this(resourceWrapper, chain, context, false);
+    }
+
+    AsyncEntry(ResourceWrapper resourceWrapper, ProcessorSlot<Object> chain, Context context,
+               boolean nonBlockingPacing) {
         super(resourceWrapper, chain, context);
+        this.nonBlockingPacing = nonBlockingPacing;
+    }
+
+    public boolean isNonBlockingPacing() {
+        return nonBlockingPacing;
+    }
+
+    /**
+     * Record the pass time reserved by a paced rule. The latest one of all paced rules will be kept.
+     *
+     * @param passTime the reserved pass time in ms
+     */
+    public void schedulePassAt(long passTime) {
+        if (passTime > scheduledPassTime) {
+            this.scheduledPassTime = passTime;
+        }
+    }
+
+    /**
+     * Get the pass time reserved by paced rules for this entry.
+     *
+     * @return the scheduled pass time in ms, or -1 if no pass time has been reserved
+     */
+    public long getScheduledPassTime() {
+        return scheduledPassTime;
+    }
+
+    /**
+     * Get how long the caller should delay the asynchronous invocation before it proceeds,
+     * which is only meaningful for entries created with non-blocking pacing.
+     *
+     * @return the remaining wait time in ms, or 0 if the invocation could proceed immediately
+     */
+    public long getPassWaitInMs() {
+        long passTime = scheduledPassTime;
+        if (passTime < 0) {
+            return 0;
+        }
+        return Math.max(0, passTime - TimeUtil.currentTimeMillis());
     }
 
     /**
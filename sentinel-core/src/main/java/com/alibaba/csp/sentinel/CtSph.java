@@ -16,9 +16,12 @@
 package com.alibaba.csp.sentinel;
 
 import java.lang.reflect.Method;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import com.alibaba.csp.sentinel.concurrent.ResourceRegistry;
+import com.alibaba.csp.sentinel.concurrent.ResourceRegistry.EvictionListener;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.context.Context;
 import com.alibaba.csp.sentinel.context.ContextUtil;
@@ -31,6 +34,9 @@ import com.alibaba.csp.sentinel.slotchain.SlotChainProvider;
 import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
 import com.alibaba.csp.sentinel.slots.block.Rule;
+import com.alibaba.csp.sentinel.slots.block.RulePresenceRegistry;
+import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+import com.alibaba.csp.sentinel.util.function.Function;
 
 /**
  * {@inheritDoc}
@@ -40,7 +46,7 @@ import com.alibaba.csp.sentinel.slots.block.Rule;
  * @author Eric Zhao
  * @see Sph
  */
-public class CtSph implements Sph {
+public class CtSph implements Sph, SphPacingSupport {
 
     private static final Object[] OBJECTS0 = new Object[0];
 
@@ -48,10 +54,40 @@ public class CtSph implements Sph {
      * Same resource({@link ResourceWrapper#equals(Object)}) will share the same
      * {@link ProcessorSlotChain}, no matter in which {@link Context}.
      */
-    private static volatile Map<ResourceWrapper, ProcessorSlotChain> chainMap
-        = new HashMap<ResourceWrapper, ProcessorSlotChain>();
+    private static final ResourceRegistry<ResourceWrapper, ProcessorSlotChain> chainRegistry
+        = new ResourceRegistry<ResourceWrapper, ProcessorSlotChain>("slotChain", Constants.MAX_SLOT_CHAIN_SIZE,
+        SentinelConfig.resourceIdleReaperEnabled() ? 0 : SentinelConfig.resourceIdleEvictionMs(),
+        SentinelConfig.resourceIdleReaperEnabled(),
+        IdleResourceReaper.NO_RULE_AND_IDLE, new EvictionListener<ResourceWrapper, ProcessorSlotChain>() {
+            @Override
+            public void onEvicted(ResourceWrapper resourceWrapper, ProcessorSlotChain chain) {
+                passThroughEntryMap.remove(resourceWrapper);
+                ClusterBuilderSlot.removeClusterNode(resourceWrapper);
+                IdleResourceReaper.detachDefaultNodes(resourceWrapper);
+                RecordLog.info("[CtSph] Idle slot chain evicted: " + resourceWrapper.getName());
+            }
+        });
+
+    private static final Function<ResourceWrapper, ProcessorSlotChain> CHAIN_FACTORY
+        = new Function<ResourceWrapper, ProcessorSlotChain>() {
+        @Override
+        public ProcessorSlotChain apply(ResourceWrapper resourceWrapper) {
+            return SlotChainProvider.newSlotChain();
+        }
+    };
 
-    private static final Object LOCK = new Object();
+    /**
+     * Immutable entries shared by all invocations of resources that have no rules.
+     * Only used when the rule-aware fast path is enabled.
+     */
+    private static final ConcurrentHashMap<ResourceWrapper, Entry> passThroughEntryMap
+        = new ConcurrentHashMap<ResourceWrapper, Entry>();
+
+    private static volatile boolean fastPathEnabled = SentinelConfig.entryFastPathEnabled();
+
+    static {
+        IdleResourceReaper.startIfEnabled();
+    }
 
     private AsyncEntry asyncEntryWithNoChain(ResourceWrapper resourceWrapper, Context context) {
         AsyncEntry entry = new AsyncEntry(resourceWrapper, null, context);
@@ -63,6 +99,12 @@ public class CtSph implements Sph {
 
     private AsyncEntry asyncEntryWithPriorityInternal(ResourceWrapper resourceWrapper, int count, boolean prioritized,
                                                       Object... args) throws BlockException {
+        return asyncEntryWithPriorityInternal(resourceWrapper, count, prioritized, false, args);
+    }
+
+    private AsyncEntry asyncEntryWithPriorityInternal(ResourceWrapper resourceWrapper, int count, boolean prioritized,
+                                                      boolean nonBlockingPacing, Object... args)
+        throws BlockException {
         Context context = ContextUtil.getContext();
         if (context instanceof NullContext) {
             // The {@link NullContext} indicates that the amount of context has exceeded the threshold,
@@ -86,7 +128,7 @@ public class CtSph implements Sph {
             return asyncEntryWithNoChain(resourceWrapper, context);
         }
 
-        AsyncEntry asyncEntry = new AsyncEntry(resourceWrapper, chain, context);
+        AsyncEntry asyncEntry = new AsyncEntry(resourceWrapper, chain, context, nonBlockingPacing);
         try {
             chain.entry(context, resourceWrapper, null, count, prioritized, args);
             // Initiate the async context only when the entry successfully passed the slot chain.
@@ -117,6 +159,14 @@ public class CtSph implements Sph {
     private Entry entryWithPriority(ResourceWrapper resourceWrapper, int count, boolean prioritized, Object... args)
         throws BlockException {
         Context context = ContextUtil.getContext();
+        // Rule-aware fast path: resources without any rule bypass the context and the slot chain.
+        // The pass-through entry is never pushed to the context, so it is only taken when there is
+        // no enclosing entry that SphO.exit() or Tracer could otherwise mistake for this one.
+        if (fastPathEnabled && Constants.ON && (context == null || context.getCurEntry() == null)
+            && !RulePresenceRegistry.hasRules(resourceWrapper)) {
+            return passThroughEntry(resourceWrapper);
+        }
+
         if (context instanceof NullContext) {
             // The {@link NullContext} indicates that the amount of context has exceeded the threshold,
             // so here init the entry only. No rule checking will be done.
@@ -156,6 +206,22 @@ public class CtSph implements Sph {
         return e;
     }
 
+    private Entry passThroughEntry(ResourceWrapper resourceWrapper) {
+        Entry entry = passThroughEntryMap.get(resourceWrapper);
+        if (entry != null && entry.getResourceWrapper().getEntryType() == resourceWrapper.getEntryType()) {
+            return entry;
+        }
+        entry = new PassThroughEntry(resourceWrapper);
+        // Share the immutable entry, with the same size limit as slot chains.
+        if (passThroughEntryMap.size() < Constants.MAX_SLOT_CHAIN_SIZE) {
+            Entry previous = passThroughEntryMap.putIfAbsent(resourceWrapper, entry);
+            if (previous != null && previous.getResourceWrapper().getEntryType() == resourceWrapper.getEntryType()) {
+                return previous;
+            }
+        }
+        return entry;
+    }
+
     /**
      * Do all {@link Rule}s checking about the resource.
      *
@@ -185,33 +251,15 @@ public class CtSph implements Sph {
      *
      * <p>
      * Note that total {@link ProcessorSlot} count must not exceed {@link Constants#MAX_SLOT_CHAIN_SIZE},
-     * otherwise null will return.
+     * otherwise null will return, unless an idle slot chain could be evicted
+     * (see {@link SentinelConfig#resourceIdleEvictionMs()}).
      * </p>
      *
      * @param resourceWrapper target resource
      * @return {@link ProcessorSlotChain} of the resource
      */
     ProcessorSlot<Object> lookProcessChain(ResourceWrapper resourceWrapper) {
-        ProcessorSlotChain chain = chainMap.get(resourceWrapper);
-        if (chain == null) {
-            synchronized (LOCK) {
-                chain = chainMap.get(resourceWrapper);
-                if (chain == null) {
-                    // Entry size limit.
-                    if (chainMap.size() >= Constants.MAX_SLOT_CHAIN_SIZE) {
-                        return null;
-                    }
-
-                    chain = SlotChainProvider.newSlotChain();
-                    Map<ResourceWrapper, ProcessorSlotChain> newMap = new HashMap<ResourceWrapper, ProcessorSlotChain>(
-                        chainMap.size() + 1);
-                    newMap.putAll(chainMap);
-                    newMap.put(resourceWrapper, chain);
-                    chainMap = newMap;
-                }
-            }
-        }
-        return chain;
+        return chainRegistry.computeIfAbsent(resourceWrapper, CHAIN_FACTORY);
     }
 
     /**
@@ -221,7 +269,7 @@ public class CtSph implements Sph {
      * @since 0.2.0
      */
     public static int entrySize() {
-        return chainMap.size();
+        return chainRegistry.size();
     }
 
     /**
@@ -230,7 +278,18 @@ public class CtSph implements Sph {
      * @since 0.2.0
      */
     static void resetChainMap() {
-        chainMap.clear();
+        chainRegistry.clear();
+        passThroughEntryMap.clear();
+    }
+
+    /**
+     * Enable or disable the rule-aware fast path. Only for internal test.
+     *
+     * @param enabled whether the fast path is enabled
+     * @since 1.7.1
+     */
+    static void setFastPathEnabled(boolean enabled) {
+        fastPathEnabled = enabled;
     }
 
     /**
@@ -239,7 +298,11 @@ public class CtSph implements Sph {
      * @since 0.2.0
      */
     static Map<ResourceWrapper, ProcessorSlotChain> getChainMap() {
-        return chainMap;
+        return chainRegistry.asMap();
+    }
+
+    static ResourceRegistry<ResourceWrapper, ProcessorSlotChain> getChainRegistry() {
+        return chainRegistry;
     }
 
     /**
@@ -353,4 +416,11 @@ public class CtSph implements Sph {
         StringResourceWrapper resource = new StringResourceWrapper(name, entryType, resourceType);
         return asyncEntryWithPriorityInternal(resource, count, prioritized, args);
     }
+
+    @Override
+    public AsyncEntry asyncEntryWithPacing(String name, int resourceType, EntryType entryType, int count,
+                                           Object[] args) throws BlockException {
+        StringResourceWrapper resource = new StringResourceWrapper(name, entryType, resourceType);
+        return asyncEntryWithPriorityInternal(resource, count, false, true, args);
+    }
 }
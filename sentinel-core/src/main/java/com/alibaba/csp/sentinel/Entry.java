@@ -59,11 +59,16 @@ public abstract class Entry implements AutoCloseable {
      */
     private Node originNode;
     private Throwable error;
+    private Throwable tracedError;
     protected ResourceWrapper resourceWrapper;
 
     public Entry(ResourceWrapper resourceWrapper) {
+        this(resourceWrapper, TimeUtil.currentTimeMillis());
+    }
+
+    protected Entry(ResourceWrapper resourceWrapper, long createTime) {
         this.resourceWrapper = resourceWrapper;
-        this.createTime = TimeUtil.currentTimeMillis();
+        this.createTime = createTime;
     }
 
     public ResourceWrapper getResourceWrapper() {
@@ -139,6 +144,21 @@ public abstract class Entry implements AutoCloseable {
         this.error = error;
     }
 
+    /**
+     * Get the business exception traced via {@link Tracer}, which is different from {@link #getError()}
+     * (the error that blocked this entry).
+     *
+     * @return the latest traced exception of this entry, or null if nothing has been traced
+     * @since 1.7.1
+     */
+    public Throwable getTracedError() {
+        return tracedError;
+    }
+
+    public void setTracedError(Throwable tracedError) {
+        this.tracedError = tracedError;
+    }
+
     /**
      * Get origin {@link Node} of the this {@link Entry}.
      *
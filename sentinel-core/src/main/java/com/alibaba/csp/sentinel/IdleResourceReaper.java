@@ -0,0 +1,153 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
+import com.alibaba.csp.sentinel.concurrent.ResourceRegistry;
+import com.alibaba.csp.sentinel.concurrent.ResourceRegistry.EvictionFilter;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.node.ClusterNode;
+import com.alibaba.csp.sentinel.node.DefaultNode;
+import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.slotchain.ProcessorSlotChain;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.RulePresenceRegistry;
+import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+
+/**
+ * <p>Reaper of idle resources, which periodically evicts the slot chains of resources that have no rules
+ * and have not been accessed for {@link SentinelConfig#resourceIdleEvictionMs()}, if the reaper mode is
+ * selected (see {@link SentinelConfig#resourceIdleReaperEnabled()}). The cluster node of
+ * an evicted resource is removed from {@link ClusterBuilderSlot}, and its default nodes are detached from
+ * the invocation tree under {@link Constants#ROOT}, so that the statistic structures could be collected.
+ * They will be created again if the resource is accessed later.</p>
+ *
+ * <p>Resources with in-flight invocations are never reaped.</p>
+ *
+ * @since 1.7.1
+ */
+final class IdleResourceReaper {
+
+    /**
+     * Accepts resources that have no rules and no in-flight invocations, which is also used when
+     * the slot chain registry is full.
+     */
+    static final EvictionFilter<ResourceWrapper, ProcessorSlotChain> NO_RULE_AND_IDLE
+        = new EvictionFilter<ResourceWrapper, ProcessorSlotChain>() {
+        @Override
+        public boolean canEvict(ResourceWrapper resourceWrapper, ProcessorSlotChain chain) {
+            if (RulePresenceRegistry.hasRules(resourceWrapper)) {
+                return false;
+            }
+            ClusterNode clusterNode = ClusterBuilderSlot.getClusterNode(resourceWrapper.getName(),
+                resourceWrapper.getEntryType());
+            return clusterNode == null || clusterNode.curThreadNum() <= 0;
+        }
+    };
+
+    private static volatile ScheduledExecutorService scheduler = null;
+
+    /**
+     * Start the periodic reaping if {@link SentinelConfig#resourceIdleReaperEnabled()}.
+     */
+    static synchronized void startIfEnabled() {
+        if (!SentinelConfig.resourceIdleReaperEnabled() || scheduler != null) {
+            return;
+        }
+        final long idleMs = SentinelConfig.resourceIdleEvictionMs();
+        // Check at least once per second, and at least twice within an idle period.
+        long intervalMs = Math.max(1000, idleMs / 2);
+        @SuppressWarnings("PMD.ThreadPoolCreationRule")
+        ScheduledExecutorService executor = Executors.newScheduledThreadPool(1,
+            new NamedThreadFactory("sentinel-idle-resource-reaper", true));
+        executor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    reap(idleMs);
+                } catch (Throwable ex) {
+                    RecordLog.warn("[IdleResourceReaper] Unexpected error when reaping idle resources", ex);
+                }
+            }
+        }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        scheduler = executor;
+        RecordLog.info("[IdleResourceReaper] Idle resource reaper started, idleMs=" + idleMs);
+    }
+
+    /**
+     * Reap the resources that have no rules and have been idle for given time.
+     *
+     * @param idleMs min idle time (in ms) of resources to reap
+     * @return names of the reaped resources
+     */
+    static List<String> reap(long idleMs) {
+        return reap(CtSph.getChainRegistry(), idleMs);
+    }
+
+    static List<String> reap(ResourceRegistry<ResourceWrapper, ProcessorSlotChain> registry, long idleMs) {
+        List<ResourceWrapper> evicted = registry.evictIdle(idleMs, NO_RULE_AND_IDLE);
+        if (evicted.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> names = new ArrayList<String>(evicted.size());
+        for (ResourceWrapper resourceWrapper : evicted) {
+            names.add(resourceWrapper.getName());
+        }
+        RecordLog.info("[IdleResourceReaper] Idle resources reaped: " + names);
+        return names;
+    }
+
+    /**
+     * Detach the default nodes of the evicted resource from the invocation tree under {@link Constants#ROOT},
+     * so that they will not pile up when the resource is accessed again. The slot chain registry invokes
+     * this for every evicted resource, either reaped or evicted when the registry is full.
+     *
+     * @param resourceWrapper the evicted resource
+     */
+    static void detachDefaultNodes(ResourceWrapper resourceWrapper) {
+        detachDefaultNodes(Constants.ROOT, Collections.singleton(resourceWrapper),
+            Collections.newSetFromMap(new IdentityHashMap<Node, Boolean>()));
+    }
+
+    private static void detachDefaultNodes(DefaultNode parent, Set<ResourceWrapper> evicted, Set<Node> visited) {
+        if (!visited.add(parent)) {
+            return;
+        }
+        for (Node child : parent.getChildList()) {
+            if (!(child instanceof DefaultNode)) {
+                continue;
+            }
+            DefaultNode node = (DefaultNode)child;
+            if (evicted.contains(node.getId())) {
+                parent.removeChild(node);
+            } else {
+                detachDefaultNodes(node, evicted, visited);
+            }
+        }
+    }
+
+    private IdleResourceReaper() {}
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel;
+
+import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+
+/**
+ * <p>An immutable entry for resources that have no rules, returned by the rule-aware fast path.</p>
+ *
+ * <p>The entry does not go through the slot chain and is not linked to any context, so exiting it
+ * is a no-op and all mutators are ignored. This makes it safe to share one instance of the entry
+ * between threads and invocations of the same resource.</p>
+ *
+ * @since 1.7.1
+ */
+final class PassThroughEntry extends Entry {
+
+    PassThroughEntry(ResourceWrapper resourceWrapper) {
+        super(resourceWrapper, 0);
+    }
+
+    @Override
+    public void exit(int count, Object... args) throws ErrorEntryFreeException {
+        // Nothing was entered, so there is nothing to exit.
+    }
+
+    @Override
+    protected Entry trueExit(int count, Object... args) throws ErrorEntryFreeException {
+        return null;
+    }
+
+    @Override
+    public Node getLastNode() {
+        return null;
+    }
+
+    @Override
+    public void setCurNode(Node node) {
+        // Immutable entry.
+    }
+
+    @Override
+    public void setOriginNode(Node originNode) {
+        // Immutable entry.
+    }
+
+    @Override
+    public void setError(Throwable error) {
+        // Immutable entry.
+    }
+
+    @Override
+    public void setTracedError(Throwable tracedError) {
+        // Immutable entry.
+    }
+}
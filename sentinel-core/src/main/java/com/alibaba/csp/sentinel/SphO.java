@@ -19,6 +19,7 @@ import java.lang.reflect.Method;
 import java.util.List;
 
 import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.context.Context;
 import com.alibaba.csp.sentinel.context.ContextUtil;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
 import com.alibaba.csp.sentinel.slots.block.Rule;
@@ -212,11 +213,16 @@ public class SphO {
     }
 
     public static void exit(int count, Object... args) {
-        ContextUtil.getContext().getCurEntry().exit(count, args);
+        Context context = ContextUtil.getContext();
+        // Entries of resources without rules are not linked to the context, so there may be nothing to exit.
+        if (context == null || context.getCurEntry() == null) {
+            return;
+        }
+        context.getCurEntry().exit(count, args);
     }
 
     public static void exit(int count) {
-        ContextUtil.getContext().getCurEntry().exit(count, OBJECTS0);
+        exit(count, OBJECTS0);
     }
 
     public static void exit() {
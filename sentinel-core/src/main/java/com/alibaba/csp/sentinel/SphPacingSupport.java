@@ -0,0 +1,44 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel;
+
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+
+/**
+ * Optional extension of {@link Sph} for entries of which paced rules (e.g. rate limiter) will not wait
+ * in the caller thread. {@link SphU#asyncEntryWithPacing} falls back to the blocking
+ * {@link SphResourceTypeSupport#asyncEntryWithType} if the current {@link Sph} does not implement it.
+ *
+ * @since 1.7.1
+ */
+public interface SphPacingSupport {
+
+    /**
+     * Create an asynchronous resource with provided classification. Paced rules (e.g. rate limiter) will not
+     * wait in the caller thread, but reserve the pass time for the entry instead. The caller should delay
+     * the asynchronous invocation for {@link AsyncEntry#getPassWaitInMs()} before it proceeds.
+     *
+     * @param name the unique name of the protected resource
+     * @param resourceType the classification of the resource
+     * @param entryType the traffic entry type (IN/OUT) of the resource
+     * @param count tokens required
+     * @param args  extra parameters
+     * @return new entry of the resource
+     * @throws BlockException if the block criteria is met
+     */
+    AsyncEntry asyncEntryWithPacing(String name, int resourceType, EntryType entryType, int count, Object[] args)
+        throws BlockException;
+}
@@ -352,4 +352,28 @@ public class SphU {
                                         Object[] args) throws BlockException {
         return Env.sph.asyncEntryWithType(name, resourceType, type, acquireCount, false, args);
     }
+
+    /**
+     * Record statistics and check all rules of the resource, without waiting in the caller thread for paced rules
+     * (e.g. rate limiter). Instead, the pass time is reserved for the entry, and the caller should delay
+     * the asynchronous invocation for {@link AsyncEntry#getPassWaitInMs()} (e.g. via
+     * {@link com.alibaba.csp.sentinel.concurrent.TimerWheel}) before it proceeds. If the current {@link Sph}
+     * does not support pacing (see {@link SphPacingSupport}), paced rules will wait in the caller thread as
+     * {@link #asyncEntry(String, int, EntryType, int, Object[])} does.
+     *
+     * @param name         the unique name for the protected resource
+     * @param resourceType classification of the resource (e.g. Web or RPC)
+     * @param type         the resource is an inbound or an outbound method
+     * @param acquireCount tokens required
+     * @param args         extra parameters
+     * @throws BlockException if the block criteria is met, eg. when any rule's threshold is exceeded
+     * @since 1.7.1
+     */
+    public static AsyncEntry asyncEntryWithPacing(String name, int resourceType, EntryType type, int acquireCount,
+                                                  Object[] args) throws BlockException {
+        if (Env.sph instanceof SphPacingSupport) {
+            return ((SphPacingSupport)Env.sph).asyncEntryWithPacing(name, resourceType, type, acquireCount, args);
+        }
+        return Env.sph.asyncEntryWithType(name, resourceType, type, acquireCount, false, args);
+    }
 }
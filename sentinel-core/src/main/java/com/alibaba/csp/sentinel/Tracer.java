@@ -118,6 +118,10 @@ public class Tracer {
         if (curNode == null) {
             return;
         }
+        if (entry != null) {
+            // Circuit breakers check the traced exception when the entry exits.
+            entry.setTracedError(t);
+        }
         for (MetricExtension m : MetricExtensionProvider.getMetricExtensions()) {
             m.addException(entry.getResourceWrapper().getName(), count, t);
         }
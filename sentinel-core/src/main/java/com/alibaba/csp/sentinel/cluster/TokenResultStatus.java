@@ -59,6 +59,12 @@ public final class TokenResultStatus {
      * Token acquire failed (strategy not available).
      */
     public static final int NOT_AVAILABLE = 5;
+    /**
+     * The token server does not own the flow (e.g. token servers are rebalancing).
+     *
+     * @since 1.7.1
+     */
+    public static final int NOT_OWNER = 6;
 
     private TokenResultStatus() {}
 }
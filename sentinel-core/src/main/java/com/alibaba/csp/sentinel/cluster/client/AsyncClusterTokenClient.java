@@ -0,0 +1,50 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client;
+
+import java.util.Collection;
+
+import com.alibaba.csp.sentinel.cluster.TokenResultCallback;
+
+/**
+ * Token client that supports requesting tokens without blocking the caller, so many requests could be
+ * in flight over the same connection.
+ *
+ * @since 1.7.1
+ */
+public interface AsyncClusterTokenClient extends ClusterTokenClient {
+
+    /**
+     * Request tokens from remote token server asynchronously.
+     *
+     * @param ruleId       the unique rule ID
+     * @param acquireCount token count to acquire
+     * @param prioritized  whether the request is prioritized
+     * @param callback     callback of the result, which is invoked exactly once
+     */
+    void requestTokenAsync(Long ruleId, int acquireCount, boolean prioritized, TokenResultCallback callback);
+
+    /**
+     * Request tokens for a specific parameter from remote token server asynchronously.
+     *
+     * @param ruleId       the unique rule ID
+     * @param acquireCount token count to acquire
+     * @param params       parameter list
+     * @param callback     callback of the result, which is invoked exactly once
+     */
+    void requestParamTokenAsync(Long ruleId, int acquireCount, Collection<Object> params,
+                                TokenResultCallback callback);
+}
@@ -0,0 +1,528 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.concurrent;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+import com.alibaba.csp.sentinel.util.function.Function;
+
+/**
+ * <p>A concurrent and bounded registry for per-resource structures (e.g. slot chains, cluster nodes,
+ * entrance nodes and origin nodes), which are read on every invocation but created only once.</p>
+ *
+ * <p>Reads are lock-free. Values are created at most once per key under one of the striped locks,
+ * so creation of different keys seldom contends, and no copy of the whole map is needed.
+ * When the registry is full, a value that has been idle longer than the idle eviction time (if enabled)
+ * and is accepted by the eviction filter (if any) will be evicted to make room, otherwise the creation
+ * is rejected. The evicted value is the least recently accessed one among a small sample of values,
+ * which is taken by a cursor rotating over the registry, so the cost of eviction does not grow with
+ * the size of the registry.
+ * The size limit may be slightly exceeded when values are created concurrently in different stripes.</p>
+ *
+ * @param <K> type of the key
+ * @param <V> type of the value
+ * @since 1.7.1
+ */
+public final class ResourceRegistry<K, V> {
+
+    private static final int DEFAULT_STRIPES = 16;
+
+    /**
+     * Count of eligible values to sample for an eviction.
+     */
+    private static final int EVICTION_SAMPLE_SIZE = 8;
+    /**
+     * Max count of values to scan for an eviction, in case most of the sampled values are not eligible.
+     */
+    private static final int EVICTION_MAX_SCAN = 64;
+
+    private static final ConcurrentMap<String, ResourceRegistry<?, ?>> NAMED_REGISTRIES
+        = new ConcurrentHashMap<String, ResourceRegistry<?, ?>>();
+
+    private final String name;
+    private final int maxSize;
+    private final long idleEvictionMs;
+    private final boolean accessTracked;
+    private final EvictionFilter<K, V> evictionFilter;
+    private final EvictionListener<K, V> evictionListener;
+
+    private final ConcurrentHashMap<K, Holder<V>> map;
+    private final Object[] locks;
+    private final Map<K, V> view = new MapView();
+
+    private final Object evictionLock = new Object();
+    /**
+     * Cursor for sampling values to evict, guarded by {@link #evictionLock}.
+     */
+    private Iterator<Map.Entry<K, Holder<V>>> evictionCursor;
+
+    private final AtomicLong evictedCount = new AtomicLong(0);
+    private final AtomicLong rejectedCount = new AtomicLong(0);
+
+    /**
+     * Create an anonymous registry without size limit, which will not be listed in {@link #getNamedRegistries()}.
+     *
+     * @param stripes count of striped locks for creation
+     */
+    public ResourceRegistry(int stripes) {
+        this(null, Integer.MAX_VALUE, 0, false, stripes, null, null);
+    }
+
+    /**
+     * Create an anonymous registry, which will not be listed in {@link #getNamedRegistries()}.
+     *
+     * @param maxSize        max count of values
+     * @param idleEvictionMs min idle time (in ms) for a value to be evicted when the registry is full,
+     *                       or non-positive to disable eviction
+     * @param stripes        count of striped locks for creation
+     * @param evictionFilter filter of the values that could be evicted when the registry is full,
+     *                       could be null to accept all idle values
+     * @since 1.7.1
+     */
+    public ResourceRegistry(int maxSize, long idleEvictionMs, int stripes, EvictionFilter<K, V> evictionFilter) {
+        this(null, maxSize, idleEvictionMs, false, stripes, evictionFilter, null);
+    }
+
+    /**
+     * Create a registry.
+     *
+     * @param name             name of the registry, which will be listed in {@link #getNamedRegistries()}
+     *                         if not null
+     * @param maxSize          max count of values
+     * @param idleEvictionMs   min idle time (in ms) for a value to be evicted when the registry is full,
+     *                         or non-positive to disable eviction
+     * @param evictionListener listener for evicted values, could be null
+     */
+    public ResourceRegistry(String name, int maxSize, long idleEvictionMs, EvictionListener<K, V> evictionListener) {
+        this(name, maxSize, idleEvictionMs, false, DEFAULT_STRIPES, null, evictionListener);
+    }
+
+    /**
+     * Create a registry.
+     *
+     * @param name             name of the registry, which will be listed in {@link #getNamedRegistries()}
+     *                         if not null
+     * @param maxSize          max count of values
+     * @param idleEvictionMs   min idle time (in ms) for a value to be evicted when the registry is full,
+     *                         or non-positive to disable eviction
+     * @param trackAccess      whether to track the last access time even if eviction on full is disabled,
+     *                         which is required by {@link #evictIdle(long, EvictionFilter)}
+     * @param evictionListener listener for evicted values, could be null
+     * @since 1.7.1
+     */
+    public ResourceRegistry(String name, int maxSize, long idleEvictionMs, boolean trackAccess,
+                            EvictionListener<K, V> evictionListener) {
+        this(name, maxSize, idleEvictionMs, trackAccess, DEFAULT_STRIPES, null, evictionListener);
+    }
+
+    /**
+     * Create a registry.
+     *
+     * @param name             name of the registry, which will be listed in {@link #getNamedRegistries()}
+     *                         if not null
+     * @param maxSize          max count of values
+     * @param idleEvictionMs   min idle time (in ms) for a value to be evicted when the registry is full,
+     *                         or non-positive to disable eviction
+     * @param trackAccess      whether to track the last access time even if eviction on full is disabled,
+     *                         which is required by {@link #evictIdle(long, EvictionFilter)}
+     * @param evictionFilter   filter of the values that could be evicted when the registry is full,
+     *                         could be null to accept all idle values
+     * @param evictionListener listener for evicted values, could be null
+     * @since 1.7.1
+     */
+    public ResourceRegistry(String name, int maxSize, long idleEvictionMs, boolean trackAccess,
+                            EvictionFilter<K, V> evictionFilter, EvictionListener<K, V> evictionListener) {
+        this(name, maxSize, idleEvictionMs, trackAccess, DEFAULT_STRIPES, evictionFilter, evictionListener);
+    }
+
+    private ResourceRegistry(String name, int maxSize, long idleEvictionMs, boolean trackAccess, int stripes,
+                             EvictionFilter<K, V> evictionFilter, EvictionListener<K, V> evictionListener) {
+        AssertUtil.isTrue(maxSize > 0, "maxSize should be positive");
+        AssertUtil.isTrue(stripes > 0, "stripes should be positive");
+        this.name = name;
+        this.maxSize = maxSize;
+        this.idleEvictionMs = idleEvictionMs;
+        this.accessTracked = trackAccess || idleEvictionMs > 0;
+        this.evictionFilter = evictionFilter;
+        this.evictionListener = evictionListener;
+        this.map = new ConcurrentHashMap<K, Holder<V>>(16, 0.75f, stripes);
+        this.locks = new Object[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new Object();
+        }
+        if (name != null) {
+            NAMED_REGISTRIES.put(name, this);
+        }
+    }
+
+    /**
+     * Get the value of the key.
+     *
+     * @param key the key
+     * @return the value, or null if absent
+     */
+    public V get(K key) {
+        Holder<V> holder = map.get(key);
+        if (holder == null) {
+            return null;
+        }
+        if (accessTracked) {
+            holder.touch();
+        }
+        return holder.value;
+    }
+
+    /**
+     * Get the value of the key, or create one via the factory if absent. The factory will be invoked
+     * at most once for the key (unless the value has been removed or evicted).
+     *
+     * @param key     the key
+     * @param factory factory of the value
+     * @return the value, or null if the registry is full and no value could be evicted
+     */
+    public V computeIfAbsent(K key, Function<K, V> factory) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        synchronized (lockOf(key)) {
+            Holder<V> holder = map.get(key);
+            if (holder != null) {
+                return holder.value;
+            }
+            if (map.size() >= maxSize && !evictColdest()) {
+                rejectedCount.incrementAndGet();
+                return null;
+            }
+            value = factory.apply(key);
+            if (value != null) {
+                map.put(key, new Holder<V>(value));
+            }
+            return value;
+        }
+    }
+
+    public V put(K key, V value) {
+        AssertUtil.notNull(value, "value cannot be null");
+        Holder<V> old = map.put(key, new Holder<V>(value));
+        return old == null ? null : old.value;
+    }
+
+    public V remove(K key) {
+        Holder<V> old = map.remove(key);
+        return old == null ? null : old.value;
+    }
+
+    public void clear() {
+        map.clear();
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getIdleEvictionMs() {
+        return idleEvictionMs;
+    }
+
+    public boolean isAccessTracked() {
+        return accessTracked;
+    }
+
+    public long getEvictedCount() {
+        return evictedCount.get();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * Get the time (in ms) when the value of the key was accessed last time,
+     * which is only tracked when idle eviction or access tracking is enabled.
+     *
+     * @param key the key
+     * @return last access time, or -1 if absent
+     */
+    public long getLastAccessTime(K key) {
+        Holder<V> holder = map.get(key);
+        return holder == null ? -1 : holder.lastAccessTime;
+    }
+
+    /**
+     * Evict all values that have not been accessed for given time and are accepted by the filter.
+     * The eviction listener will be notified of each evicted value. This requires access tracking,
+     * otherwise nothing will be evicted.
+     *
+     * @param idleMs min idle time (in ms) of the values to evict
+     * @param filter filter of the values to evict, could be null to evict all idle values
+     * @return keys of the evicted values
+     * @since 1.7.1
+     */
+    public List<K> evictIdle(long idleMs, EvictionFilter<K, V> filter) {
+        if (!accessTracked || idleMs <= 0) {
+            return Collections.emptyList();
+        }
+        List<K> evicted = new ArrayList<K>();
+        long now = TimeUtil.currentTimeMillis();
+        for (Map.Entry<K, Holder<V>> e : map.entrySet()) {
+            K key = e.getKey();
+            Holder<V> holder = e.getValue();
+            if (now - holder.lastAccessTime < idleMs) {
+                continue;
+            }
+            if (filter != null && !filter.canEvict(key, holder.value)) {
+                continue;
+            }
+            if (map.remove(key, holder)) {
+                evicted.add(key);
+                onEvicted(key, holder.value);
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Get a live map view of the registry. Modification via the view is supported.
+     *
+     * @return map view of the registry
+     */
+    public Map<K, V> asMap() {
+        return view;
+    }
+
+    /**
+     * Get all named registries.
+     *
+     * @return all named registries
+     */
+    public static Map<String, ResourceRegistry<?, ?>> getNamedRegistries() {
+        return Collections.unmodifiableMap(NAMED_REGISTRIES);
+    }
+
+    private Object lockOf(K key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return locks[(h & 0x7fffffff) % locks.length];
+    }
+
+    /**
+     * Evict the least recently accessed value among sampled values that have been idle long enough and
+     * are accepted by the eviction filter. At most {@link #EVICTION_MAX_SCAN} values are scanned, so a full
+     * registry does not make every new key pay for a scan of the whole registry.
+     *
+     * @return true if a value has been evicted
+     */
+    private boolean evictColdest() {
+        if (idleEvictionMs <= 0) {
+            return false;
+        }
+        long idleBefore = TimeUtil.currentTimeMillis() - idleEvictionMs;
+        K coldestKey = null;
+        Holder<V> coldest = null;
+        synchronized (evictionLock) {
+            int scanned = 0;
+            int sampled = 0;
+            boolean restarted = false;
+            while (scanned < EVICTION_MAX_SCAN && sampled < EVICTION_SAMPLE_SIZE) {
+                if (evictionCursor == null || !evictionCursor.hasNext()) {
+                    if (restarted) {
+                        // The whole registry has been scanned.
+                        break;
+                    }
+                    evictionCursor = map.entrySet().iterator();
+                    restarted = true;
+                    continue;
+                }
+                Map.Entry<K, Holder<V>> e = evictionCursor.next();
+                scanned++;
+                Holder<V> holder = e.getValue();
+                if (holder.lastAccessTime > idleBefore || map.get(e.getKey()) != holder) {
+                    continue;
+                }
+                if (evictionFilter != null && !evictionFilter.canEvict(e.getKey(), holder.value)) {
+                    continue;
+                }
+                sampled++;
+                if (coldest == null || holder.lastAccessTime < coldest.lastAccessTime) {
+                    coldestKey = e.getKey();
+                    coldest = holder;
+                }
+            }
+        }
+        if (coldest == null) {
+            return false;
+        }
+        if (!map.remove(coldestKey, coldest)) {
+            return false;
+        }
+        onEvicted(coldestKey, coldest.value);
+        return true;
+    }
+
+    private void onEvicted(K key, V value) {
+        evictedCount.incrementAndGet();
+        if (evictionListener != null) {
+            try {
+                evictionListener.onEvicted(key, value);
+            } catch (Throwable ex) {
+                RecordLog.warn("[ResourceRegistry] Error when handling evicted value in registry: " + name, ex);
+            }
+        }
+    }
+
+    /**
+     * Listener for values evicted from the registry.
+     */
+    public interface EvictionListener<K, V> {
+
+        /**
+         * Invoked after the value has been evicted.
+         *
+         * @param key   the key
+         * @param value the evicted value
+         */
+        void onEvicted(K key, V value);
+    }
+
+    /**
+     * Filter of idle values to evict.
+     */
+    public interface EvictionFilter<K, V> {
+
+        /**
+         * Check whether the idle value could be evicted.
+         *
+         * @param key   the key
+         * @param value the idle value
+         * @return true if the value could be evicted
+         */
+        boolean canEvict(K key, V value);
+    }
+
+    private static final class Holder<V> {
+
+        private final V value;
+        private volatile long lastAccessTime = TimeUtil.currentTimeMillis();
+
+        private Holder(V value) {
+            this.value = value;
+        }
+
+        private void touch() {
+            long now = TimeUtil.currentTimeMillis();
+            // Write at most once per millisecond to avoid cache line bouncing on hot keys.
+            if (lastAccessTime != now) {
+                lastAccessTime = now;
+            }
+        }
+    }
+
+    private final class MapView extends AbstractMap<K, V> {
+
+        private final Set<Map.Entry<K, V>> entrySet = new AbstractSet<Map.Entry<K, V>>() {
+            @Override
+            public Iterator<Map.Entry<K, V>> iterator() {
+                final Iterator<Map.Entry<K, Holder<V>>> it = map.entrySet().iterator();
+                return new Iterator<Map.Entry<K, V>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return it.hasNext();
+                    }
+
+                    @Override
+                    public Map.Entry<K, V> next() {
+                        Map.Entry<K, Holder<V>> e = it.next();
+                        return new SimpleImmutableEntry<K, V>(e.getKey(), e.getValue().value);
+                    }
+
+                    @Override
+                    public void remove() {
+                        it.remove();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return map.size();
+            }
+
+            @Override
+            public void clear() {
+                map.clear();
+            }
+        };
+
+        @Override
+        public Set<Map.Entry<K, V>> entrySet() {
+            return entrySet;
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return map.containsKey(key);
+        }
+
+        @Override
+        public V get(Object key) {
+            Holder<V> holder = map.get(key);
+            return holder == null ? null : holder.value;
+        }
+
+        @Override
+        public V put(K key, V value) {
+            return ResourceRegistry.this.put(key, value);
+        }
+
+        @Override
+        public V remove(Object key) {
+            Holder<V> old = map.remove(key);
+            return old == null ? null : old.value;
+        }
+
+        @Override
+        public void clear() {
+            map.clear();
+        }
+    }
+}
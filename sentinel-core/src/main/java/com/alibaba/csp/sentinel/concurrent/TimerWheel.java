@@ -0,0 +1,242 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.concurrent;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>A hashed timer wheel for delayed tasks that do not need precise timing, e.g. pacing of
+ * asynchronous requests or timeouts of pending requests.</p>
+ *
+ * <p>Tasks are executed on the single worker thread of the wheel no earlier than their deadline,
+ * and at most one tick later. Tasks should be short or hand their work over to other executors.
+ * The worker thread is started on the first scheduled task and parks while no task is pending.</p>
+ *
+ * @since 1.7.1
+ */
+public final class TimerWheel {
+
+    private static final int STATE_INIT = 0;
+    private static final int STATE_CANCELLED = 1;
+    private static final int STATE_EXPIRED = 2;
+
+    private final long tickNanos;
+    private final int mask;
+    private final Bucket[] wheel;
+
+    private final Queue<Timeout> incoming = new ConcurrentLinkedQueue<Timeout>();
+    private final AtomicInteger pending = new AtomicInteger(0);
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private final Thread worker;
+
+    private volatile boolean stopped = false;
+
+    /**
+     * Create a timer wheel.
+     *
+     * @param name          name of the worker thread
+     * @param tickDuration  duration of one tick
+     * @param unit          time unit of the tick duration
+     * @param ticksPerWheel ticks of one round, which will be normalized to power of 2
+     */
+    public TimerWheel(String name, long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        AssertUtil.notEmpty(name, "name cannot be empty");
+        AssertUtil.notNull(unit, "unit cannot be null");
+        AssertUtil.isTrue(tickDuration > 0, "tickDuration should be positive");
+        AssertUtil.isTrue(ticksPerWheel > 0 && ticksPerWheel <= (1 << 30), "ticksPerWheel out of range");
+        int size = 1;
+        while (size < ticksPerWheel) {
+            size <<= 1;
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.mask = size - 1;
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.worker = new Thread(new Worker(), name);
+        this.worker.setDaemon(true);
+    }
+
+    /**
+     * Get the shared timer wheel with 1 ms tick.
+     *
+     * @return the shared timer wheel
+     */
+    public static TimerWheel getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * Schedule the task to run once after the given delay.
+     *
+     * @param task  the task
+     * @param delay delay of the task, non-positive delay means the next tick
+     * @param unit  time unit of the delay
+     * @return the handle of the scheduled task
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        AssertUtil.notNull(task, "task cannot be null");
+        AssertUtil.notNull(unit, "unit cannot be null");
+        if (stopped) {
+            throw new IllegalStateException("Timer wheel has been stopped");
+        }
+        if (started.compareAndSet(false, true)) {
+            worker.start();
+        }
+        Timeout timeout = new Timeout(task, System.nanoTime() + unit.toNanos(Math.max(delay, 0)));
+        incoming.offer(timeout);
+        if (pending.getAndIncrement() == 0) {
+            LockSupport.unpark(worker);
+        }
+        return timeout;
+    }
+
+    /**
+     * Stop the worker thread. Pending tasks will be dropped.
+     */
+    public void stop() {
+        stopped = true;
+        LockSupport.unpark(worker);
+    }
+
+    int pendingTimeouts() {
+        return pending.get();
+    }
+
+    private final class Worker implements Runnable {
+
+        private final long startTime = System.nanoTime();
+        private long tick = 0;
+
+        @Override
+        public void run() {
+            while (!stopped) {
+                if (pending.get() == 0) {
+                    // No task in the wheel, so no bucket will be missed by skipping ticks.
+                    LockSupport.park(this);
+                    tick = Math.max(tick, (System.nanoTime() - startTime) / tickNanos);
+                    continue;
+                }
+                long sleepNanos = startTime + (tick + 1) * tickNanos - System.nanoTime();
+                if (sleepNanos > 0) {
+                    LockSupport.parkNanos(this, sleepNanos);
+                    continue;
+                }
+                transferIncoming();
+                expire(wheel[(int)(tick & mask)]);
+                tick++;
+            }
+        }
+
+        private void transferIncoming() {
+            Timeout timeout;
+            while ((timeout = incoming.poll()) != null) {
+                long expiredTick = Math.max((timeout.deadline - startTime) / tickNanos, tick);
+                timeout.remainingRounds = (expiredTick - tick) / wheel.length;
+                wheel[(int)(expiredTick & mask)].timeouts.add(timeout);
+            }
+        }
+
+        private void expire(Bucket bucket) {
+            Iterator<Timeout> it = bucket.timeouts.iterator();
+            while (it.hasNext()) {
+                Timeout timeout = it.next();
+                if (timeout.isCancelled()) {
+                    it.remove();
+                    pending.decrementAndGet();
+                } else if (timeout.remainingRounds <= 0) {
+                    it.remove();
+                    pending.decrementAndGet();
+                    timeout.expire();
+                } else {
+                    timeout.remainingRounds--;
+                }
+            }
+        }
+    }
+
+    /**
+     * Tasks expiring at the same tick of a round, only accessed by the worker thread.
+     */
+    private static final class Bucket {
+
+        private final LinkedList<Timeout> timeouts = new LinkedList<Timeout>();
+    }
+
+    /**
+     * Handle of a scheduled task.
+     */
+    public static final class Timeout {
+
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(STATE_INIT);
+
+        /**
+         * Only accessed by the worker thread.
+         */
+        private long remainingRounds;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancel the task if it has not been executed.
+         *
+         * @return true if the task is cancelled by this call, otherwise false
+         */
+        public boolean cancel() {
+            return state.compareAndSet(STATE_INIT, STATE_CANCELLED);
+        }
+
+        public boolean isCancelled() {
+            return state.get() == STATE_CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == STATE_EXPIRED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(STATE_INIT, STATE_EXPIRED)) {
+                return;
+            }
+            try {
+                task.run();
+            } catch (Throwable ex) {
+                RecordLog.warn("[TimerWheel] Unexpected error when running the timer task", ex);
+            }
+        }
+    }
+
+    private static final class DefaultHolder {
+        private static final TimerWheel INSTANCE = new TimerWheel("sentinel-timer-wheel", 1,
+            TimeUnit.MILLISECONDS, 512);
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.alibaba.csp.sentinel.config;
 
+import com.alibaba.csp.sentinel.Constants;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.util.AppNameUtil;
 import com.alibaba.csp.sentinel.util.AssertUtil;
@@ -47,17 +48,78 @@ public final class SentinelConfig {
     public static final String CHARSET = "csp.sentinel.charset";
     public static final String SINGLE_METRIC_FILE_SIZE = "csp.sentinel.metric.file.single.size";
     public static final String TOTAL_METRIC_FILE_COUNT = "csp.sentinel.metric.file.total.count";
+    public static final String METRIC_FILE_FORMAT = "csp.sentinel.metric.file.format";
     public static final String COLD_FACTOR = "csp.sentinel.flow.cold.factor";
     public static final String STATISTIC_MAX_RT = "csp.sentinel.statistic.max.rt";
     public static final String SPI_CLASSLOADER = "csp.sentinel.spi.classloader";
+    public static final String ENTRY_FAST_PATH_ENABLED = "csp.sentinel.entry.fast.path.enabled";
+    public static final String STATISTIC_BUCKET_TYPE = "csp.sentinel.statistic.bucket.type";
+    public static final String TIME_SOURCE = "csp.sentinel.time.source";
+    public static final String RESOURCE_IDLE_EVICTION_MS = "csp.sentinel.resource.idle.eviction.ms";
+    public static final String RESOURCE_IDLE_EVICTION_MODE = "csp.sentinel.resource.idle.eviction.mode";
+    public static final String FLOW_WAIT_STRATEGY = "csp.sentinel.flow.wait.strategy";
+    public static final String STATISTIC_RT_HISTOGRAM_RESOURCES = "csp.sentinel.statistic.rt.histogram.resources";
+    public static final String STATISTIC_MAX_CLUSTER_NODE_SIZE = "csp.sentinel.statistic.max.cluster.node.size";
+    public static final String STATISTIC_MAX_ORIGIN_NODE_SIZE = "csp.sentinel.statistic.max.origin.node.size";
 
     static final String DEFAULT_CHARSET = "UTF-8";
     static final long DEFAULT_SINGLE_METRIC_FILE_SIZE = 1024 * 1024 * 50;
     static final int DEFAULT_TOTAL_METRIC_FILE_COUNT = 6;
     static final int DEFAULT_COLD_FACTOR = 3;
+    static final int DEFAULT_STATISTIC_MAX_CLUSTER_NODE_SIZE = Constants.MAX_SLOT_CHAIN_SIZE;
+    static final int DEFAULT_STATISTIC_MAX_ORIGIN_NODE_SIZE = Constants.MAX_CONTEXT_NAME_SIZE;
 
     public static final int DEFAULT_STATISTIC_MAX_RT = 4900;
 
+    /**
+     * Metric buckets backed by one {@code LongAdder} per event.
+     */
+    public static final String STATISTIC_BUCKET_TYPE_ADDER = "adder";
+    /**
+     * Metric buckets backed by one striped and padded counter array.
+     */
+    public static final String STATISTIC_BUCKET_TYPE_STRIPED = "striped";
+
+    /**
+     * Metric files of text lines, which is readable by human.
+     */
+    public static final String METRIC_FILE_FORMAT_TEXT = "text";
+    /**
+     * Metric files of fixed-width binary records in a memory-mapped ring.
+     */
+    public static final String METRIC_FILE_FORMAT_BINARY = "binary";
+
+    /**
+     * Time refreshed by a daemon thread every millisecond.
+     */
+    public static final String TIME_SOURCE_TICK = "tick";
+    /**
+     * Time read from {@link System#currentTimeMillis()} on every call.
+     */
+    public static final String TIME_SOURCE_SYSTEM = "system";
+    /**
+     * Time read directly while rarely used and refreshed by a daemon thread while frequently used.
+     */
+    public static final String TIME_SOURCE_ADAPTIVE = "adaptive";
+
+    /**
+     * Idle resources are evicted only when the registry is full and a new resource arrives.
+     */
+    public static final String RESOURCE_IDLE_EVICTION_MODE_ON_FULL = "on-full";
+    /**
+     * Idle resources are reaped periodically by a background thread.
+     */
+    public static final String RESOURCE_IDLE_EVICTION_MODE_REAPER = "reaper";
+
+    /**
+     * Queueing flow requests wait via {@link Thread#sleep(long)}.
+     */
+    public static final String FLOW_WAIT_STRATEGY_SLEEP = "sleep";
+    /**
+     * Queueing flow requests park until a deadline on {@link System#nanoTime()}.
+     */
+    public static final String FLOW_WAIT_STRATEGY_PARK = "park";
+
     static {
         try {
             initialize();
@@ -171,6 +233,21 @@ public final class SentinelConfig {
         }
     }
 
+    /**
+     * Get the format of metric files, which could be {@link #METRIC_FILE_FORMAT_TEXT} (by default)
+     * or {@link #METRIC_FILE_FORMAT_BINARY}.
+     *
+     * @return the format of metric files
+     * @since 1.7.1
+     */
+    public static String metricFileFormat() {
+        String v = props.get(METRIC_FILE_FORMAT);
+        if (METRIC_FILE_FORMAT_BINARY.equalsIgnoreCase(v)) {
+            return METRIC_FILE_FORMAT_BINARY;
+        }
+        return METRIC_FILE_FORMAT_TEXT;
+    }
+
     public static int coldFactor() {
         try {
             int coldFactor = Integer.parseInt(props.get(COLD_FACTOR));
@@ -211,5 +288,189 @@ public final class SentinelConfig {
         }
     }
 
+    /**
+     * <p>Whether the rule-aware fast path of entries is enabled.</p>
+     * <p>When enabled, resources that have no rules will bypass the slot chain entirely,
+     * so no statistics will be recorded for them. The fast path is disabled by default.</p>
+     *
+     * @return whether the rule-aware fast path is enabled
+     * @since 1.7.1
+     */
+    public static boolean entryFastPathEnabled() {
+        return Boolean.parseBoolean(props.get(ENTRY_FAST_PATH_ENABLED));
+    }
+
+    /**
+     * Get the type of metric buckets for resource statistics, which could be
+     * {@link #STATISTIC_BUCKET_TYPE_ADDER} (by default) or {@link #STATISTIC_BUCKET_TYPE_STRIPED}.
+     *
+     * @return the type of metric buckets
+     * @since 1.7.1
+     */
+    public static String statisticBucketType() {
+        String v = props.get(STATISTIC_BUCKET_TYPE);
+        if (STATISTIC_BUCKET_TYPE_STRIPED.equalsIgnoreCase(v)) {
+            return STATISTIC_BUCKET_TYPE_STRIPED;
+        }
+        return STATISTIC_BUCKET_TYPE_ADDER;
+    }
+
+    /**
+     * Get the mode of the time source used by {@link com.alibaba.csp.sentinel.util.TimeUtil}, which could be
+     * {@link #TIME_SOURCE_TICK} (by default), {@link #TIME_SOURCE_SYSTEM} or {@link #TIME_SOURCE_ADAPTIVE}.
+     * The mode is resolved only once when the time util is loaded.
+     *
+     * @return the mode of the time source
+     * @since 1.7.1
+     */
+    public static String timeSourceMode() {
+        String v = props.get(TIME_SOURCE);
+        if (TIME_SOURCE_SYSTEM.equalsIgnoreCase(v)) {
+            return TIME_SOURCE_SYSTEM;
+        }
+        if (TIME_SOURCE_ADAPTIVE.equalsIgnoreCase(v)) {
+            return TIME_SOURCE_ADAPTIVE;
+        }
+        return TIME_SOURCE_TICK;
+    }
+
+    /**
+     * <p>Get the wait strategy of queueing flow requests, which could be {@link #FLOW_WAIT_STRATEGY_SLEEP}
+     * or {@link #FLOW_WAIT_STRATEGY_PARK}.</p>
+     * <p>If not configured (or invalid), the strategy will be resolved via SPI, which is
+     * {@link #FLOW_WAIT_STRATEGY_SLEEP} by default.</p>
+     *
+     * @return the wait strategy, or null if not configured
+     * @since 1.7.1
+     */
+    public static String flowWaitStrategy() {
+        String v = props.get(FLOW_WAIT_STRATEGY);
+        if (FLOW_WAIT_STRATEGY_SLEEP.equalsIgnoreCase(v)) {
+            return FLOW_WAIT_STRATEGY_SLEEP;
+        }
+        if (FLOW_WAIT_STRATEGY_PARK.equalsIgnoreCase(v)) {
+            return FLOW_WAIT_STRATEGY_PARK;
+        }
+        return null;
+    }
+
+    /**
+     * <p>Get the min idle time (in ms) for resources to be evicted, or 0 (by default) to disable eviction.
+     * Only resources that have no rules and no in-flight invocations are evicted, together with their
+     * statistic nodes, which will be created again if the resource is accessed later.</p>
+     * <p>When to evict is decided by {@link #RESOURCE_IDLE_EVICTION_MODE}:</p>
+     * <ul>
+     * <li>{@link #RESOURCE_IDLE_EVICTION_MODE_ON_FULL} (by default): the coldest idle resource is evicted only
+     * when the amount of slot chains reaches {@link com.alibaba.csp.sentinel.Constants#MAX_SLOT_CHAIN_SIZE}
+     * and a new resource arrives;</li>
+     * <li>{@link #RESOURCE_IDLE_EVICTION_MODE_REAPER}: all idle resources are reaped periodically by
+     * a background thread.</li>
+     * </ul>
+     * <p>In both modes, idle context entrance nodes are evicted when the amount of them reaches
+     * {@link com.alibaba.csp.sentinel.Constants#MAX_CONTEXT_NAME_SIZE}, and idle cluster nodes and origin nodes
+     * are evicted when the amount of them reaches {@link #statisticMaxClusterNodeSize()} and
+     * {@link #statisticMaxOriginNodeSize()}. Without eviction, new resources or
+     * contexts will not take effect when the limit is reached.</p>
+     *
+     * @return the min idle time for eviction, or 0 if disabled
+     * @since 1.7.1
+     */
+    public static long resourceIdleEvictionMs() {
+        String v = props.get(RESOURCE_IDLE_EVICTION_MS);
+        if (StringUtil.isBlank(v)) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Long.parseLong(v.trim()));
+        } catch (Throwable throwable) {
+            RecordLog.warn("[SentinelConfig] Parse resourceIdleEvictionMs fail, use default value 0.", throwable);
+            return 0;
+        }
+    }
+
+    /**
+     * Whether idle resources are reaped periodically, i.e. idle eviction is enabled (see
+     * {@link #resourceIdleEvictionMs()}) and {@link #RESOURCE_IDLE_EVICTION_MODE} is
+     * {@link #RESOURCE_IDLE_EVICTION_MODE_REAPER}.
+     *
+     * @return true if the idle resource reaper is enabled, or false if idle resources are evicted only
+     * when full (or not evicted at all)
+     * @since 1.7.1
+     */
+    public static boolean resourceIdleReaperEnabled() {
+        return RESOURCE_IDLE_EVICTION_MODE_REAPER.equalsIgnoreCase(props.get(RESOURCE_IDLE_EVICTION_MODE))
+            && resourceIdleEvictionMs() > 0;
+    }
+
+    /**
+     * <p>Get the max amount of cluster nodes (i.e. statistics of resources), which is
+     * {@link com.alibaba.csp.sentinel.Constants#MAX_SLOT_CHAIN_SIZE} by default.</p>
+     * <p>When the limit is reached, an idle cluster node of a resource without rules will be evicted
+     * if idle eviction is enabled (see {@link #resourceIdleEvictionMs()}), otherwise the statistics of
+     * new resources will not be registered (e.g. not shown in metric logs).</p>
+     *
+     * @return the max amount of cluster nodes
+     * @since 1.7.1
+     */
+    public static int statisticMaxClusterNodeSize() {
+        return positiveIntConfig(STATISTIC_MAX_CLUSTER_NODE_SIZE, DEFAULT_STATISTIC_MAX_CLUSTER_NODE_SIZE);
+    }
+
+    /**
+     * <p>Get the max amount of origin nodes of each resource, which is
+     * {@link com.alibaba.csp.sentinel.Constants#MAX_CONTEXT_NAME_SIZE} by default.</p>
+     * <p>When the limit is reached, an idle origin node will be evicted if idle eviction is enabled
+     * (see {@link #resourceIdleEvictionMs()}), otherwise invocations from new origins will not be
+     * counted by origin (and rules limiting specific origins will not apply to them).</p>
+     *
+     * @return the max amount of origin nodes of each resource
+     * @since 1.7.1
+     */
+    public static int statisticMaxOriginNodeSize() {
+        return positiveIntConfig(STATISTIC_MAX_ORIGIN_NODE_SIZE, DEFAULT_STATISTIC_MAX_ORIGIN_NODE_SIZE);
+    }
+
+    private static int positiveIntConfig(String key, int defaultValue) {
+        String v = props.get(key);
+        if (StringUtil.isBlank(v)) {
+            return defaultValue;
+        }
+        try {
+            int size = Integer.parseInt(v.trim());
+            return size > 0 ? size : defaultValue;
+        } catch (Throwable throwable) {
+            RecordLog.warn("[SentinelConfig] Parse " + key + " fail, use default value " + defaultValue, throwable);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * <p>Whether the RT histogram (for latency percentiles) is enabled for given resource.</p>
+     * <p>The histogram is enabled for the resources listed in {@link #STATISTIC_RT_HISTOGRAM_RESOURCES}
+     * (separated by comma, or {@code *} for all resources), and disabled by default.
+     * Resources added to the list at runtime get their histograms on the next metric log round, while
+     * removing a resource from the list does not disable an existing histogram.</p>
+     * <p>Metric lines of resources with the histogram carry 4 extra columns of RT percentiles
+     * (see {@link com.alibaba.csp.sentinel.node.metric.MetricNode#toThinString()}), which parsers before 1.7.1
+     * do not expect, so consumers of the metrics should be upgraded before enabling it.</p>
+     *
+     * @param resourceName the resource name
+     * @return whether the RT histogram is enabled for the resource
+     * @since 1.7.1
+     */
+    public static boolean statisticRtHistogramEnabled(String resourceName) {
+        String v = props.get(STATISTIC_RT_HISTOGRAM_RESOURCES);
+        if (StringUtil.isBlank(v) || resourceName == null) {
+            return false;
+        }
+        for (String name : v.split(",")) {
+            name = name.trim();
+            if ("*".equals(name) || resourceName.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private SentinelConfig() {}
 }
@@ -15,20 +15,21 @@
  */
 package com.alibaba.csp.sentinel.context;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.locks.ReentrantLock;
-
 import com.alibaba.csp.sentinel.Constants;
 import com.alibaba.csp.sentinel.EntryType;
 import com.alibaba.csp.sentinel.SphO;
 import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.concurrent.ResourceRegistry;
+import com.alibaba.csp.sentinel.concurrent.ResourceRegistry.EvictionFilter;
+import com.alibaba.csp.sentinel.concurrent.ResourceRegistry.EvictionListener;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.node.DefaultNode;
 import com.alibaba.csp.sentinel.node.EntranceNode;
 import com.alibaba.csp.sentinel.node.Node;
 import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
 import com.alibaba.csp.sentinel.slots.nodeselector.NodeSelectorSlot;
+import com.alibaba.csp.sentinel.util.function.Function;
 
 /**
  * Utility class to get or create {@link Context} in current thread.
@@ -51,10 +52,32 @@ public class ContextUtil {
 
     /**
      * Holds all {@link EntranceNode}. Each {@link EntranceNode} is associated with a distinct context name.
+     * The entrance node of the default context and entrance nodes with in-flight invocations are never evicted.
      */
-    private static volatile Map<String, DefaultNode> contextNameNodeMap = new HashMap<>();
+    private static final ResourceRegistry<String, DefaultNode> contextNameNodeRegistry = new ResourceRegistry<>(
+        "contextEntranceNode", Constants.MAX_CONTEXT_NAME_SIZE + 1, SentinelConfig.resourceIdleEvictionMs(), false,
+        new EvictionFilter<String, DefaultNode>() {
+            @Override
+            public boolean canEvict(String name, DefaultNode node) {
+                return !Constants.CONTEXT_DEFAULT_NAME.equals(name) && node.curThreadNum() <= 0;
+            }
+        }, new EvictionListener<String, DefaultNode>() {
+            @Override
+            public void onEvicted(String name, DefaultNode node) {
+                Constants.ROOT.removeChild(node);
+                RecordLog.info("[ContextUtil] Idle context entrance node evicted: " + name);
+            }
+        });
 
-    private static final ReentrantLock LOCK = new ReentrantLock();
+    private static final Function<String, DefaultNode> ENTRANCE_NODE_FACTORY = new Function<String, DefaultNode>() {
+        @Override
+        public DefaultNode apply(String name) {
+            EntranceNode node = new EntranceNode(new StringResourceWrapper(name, EntryType.IN), null);
+            // Add entrance node.
+            Constants.ROOT.addChild(node);
+            return node;
+        }
+    };
     private static final Context NULL_CONTEXT = new NullContext();
 
     static {
@@ -66,18 +89,16 @@ public class ContextUtil {
         String defaultContextName = Constants.CONTEXT_DEFAULT_NAME;
         EntranceNode node = new EntranceNode(new StringResourceWrapper(defaultContextName, EntryType.IN), null);
         Constants.ROOT.addChild(node);
-        contextNameNodeMap.put(defaultContextName, node);
+        contextNameNodeRegistry.put(defaultContextName, node);
     }
 
     /**
      * Not thread-safe, only for test.
      */
     static void resetContextMap() {
-        if (contextNameNodeMap != null) {
-            RecordLog.warn("Context map cleared and reset to initial state");
-            contextNameNodeMap.clear();
-            initDefaultContext();
-        }
+        RecordLog.warn("Context map cleared and reset to initial state");
+        contextNameNodeRegistry.clear();
+        initDefaultContext();
     }
 
     /**
@@ -120,35 +141,11 @@ public class ContextUtil {
     protected static Context trueEnter(String name, String origin) {
         Context context = contextHolder.get();
         if (context == null) {
-            Map<String, DefaultNode> localCacheNameMap = contextNameNodeMap;
-            DefaultNode node = localCacheNameMap.get(name);
+            // The size of the registry includes the default context.
+            DefaultNode node = contextNameNodeRegistry.computeIfAbsent(name, ENTRANCE_NODE_FACTORY);
             if (node == null) {
-                if (localCacheNameMap.size() > Constants.MAX_CONTEXT_NAME_SIZE) {
-                    setNullContext();
-                    return NULL_CONTEXT;
-                } else {
-                    try {
-                        LOCK.lock();
-                        node = contextNameNodeMap.get(name);
-                        if (node == null) {
-                            if (contextNameNodeMap.size() > Constants.MAX_CONTEXT_NAME_SIZE) {
-                                setNullContext();
-                                return NULL_CONTEXT;
-                            } else {
-                                node = new EntranceNode(new StringResourceWrapper(name, EntryType.IN), null);
-                                // Add entrance node.
-                                Constants.ROOT.addChild(node);
-
-                                Map<String, DefaultNode> newMap = new HashMap<>(contextNameNodeMap.size() + 1);
-                                newMap.putAll(contextNameNodeMap);
-                                newMap.put(name, node);
-                                contextNameNodeMap = newMap;
-                            }
-                        }
-                    } finally {
-                        LOCK.unlock();
-                    }
-                }
+                setNullContext();
+                return NULL_CONTEXT;
             }
             context = new Context(node, name);
             context.setOrigin(origin);
@@ -211,7 +208,7 @@ public class ContextUtil {
      * @since 0.2.0
      */
     public static int contextSize() {
-        return contextNameNodeMap.size();
+        return contextNameNodeRegistry.size();
     }
 
     /**
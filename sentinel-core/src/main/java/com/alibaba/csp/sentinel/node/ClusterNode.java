@@ -15,14 +15,17 @@
  */
 package com.alibaba.csp.sentinel.node;
 
-import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.locks.ReentrantLock;
 
 import com.alibaba.csp.sentinel.ResourceTypeConstants;
+import com.alibaba.csp.sentinel.concurrent.ResourceRegistry;
+import com.alibaba.csp.sentinel.concurrent.ResourceRegistry.EvictionFilter;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.context.ContextUtil;
+import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
 import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.function.Function;
 
 /**
  * <p>
@@ -44,6 +47,25 @@ import com.alibaba.csp.sentinel.util.AssertUtil;
  */
 public class ClusterNode extends StatisticNode {
 
+    private static final Function<String, StatisticNode> ORIGIN_NODE_FACTORY = new Function<String, StatisticNode>() {
+        @Override
+        public StatisticNode apply(String origin) {
+            // The node is absent, create a new node for the origin.
+            return new StatisticNode();
+        }
+    };
+
+    /**
+     * Origin nodes with in-flight invocations are never evicted.
+     */
+    private static final EvictionFilter<String, StatisticNode> ORIGIN_NODE_EVICTION_FILTER
+        = new EvictionFilter<String, StatisticNode>() {
+        @Override
+        public boolean canEvict(String origin, StatisticNode node) {
+            return node.curThreadNum() <= 0;
+        }
+    };
+
     private final String name;
     private final int resourceType;
 
@@ -55,19 +77,28 @@ public class ClusterNode extends StatisticNode {
         AssertUtil.notEmpty(name, "name cannot be empty");
         this.name = name;
         this.resourceType = resourceType;
+        if (SentinelConfig.statisticRtHistogramEnabled(name)) {
+            enableRtHistogram();
+        }
     }
 
     /**
-     * <p>The origin map holds the pair: (origin, originNode) for one specific resource.</p>
+     * <p>The origin registry holds the pair: (origin, originNode) for one specific resource.</p>
      * <p>
-     * The longer the application runs, the more stable this mapping will become.
-     * So we didn't use concurrent map here, but a lock, as this lock only happens
-     * at the very beginning while concurrent map will hold the lock all the time.
+     * Origin nodes are read on every invocation with origin but created only once, so reads are lock-free
+     * while creation is guarded by a lock. The amount of origin nodes is limited by
+     * {@link SentinelConfig#statisticMaxOriginNodeSize()}, and idle ones are evicted when the limit
+     * is reached (see {@link SentinelConfig#resourceIdleEvictionMs()}).
      * </p>
      */
-    private Map<String, StatisticNode> originCountMap = new HashMap<>();
+    private final ResourceRegistry<String, StatisticNode> originCountRegistry = new ResourceRegistry<>(
+        SentinelConfig.statisticMaxOriginNodeSize(), SentinelConfig.resourceIdleEvictionMs(), 1,
+        ORIGIN_NODE_EVICTION_FILTER);
 
-    private final ReentrantLock lock = new ReentrantLock();
+    /**
+     * Unregistered node shared by all origins that could not be registered because the origin registry is full.
+     */
+    private volatile StatisticNode overflowOriginNode;
 
     /**
      * Get resource name of the resource node.
@@ -93,34 +124,54 @@ public class ClusterNode extends StatisticNode {
      * <p>Get {@link Node} of the specific origin. Usually the origin is the Service Consumer's app name.</p>
      * <p>If the origin node for given origin is absent, then a new {@link StatisticNode}
      * for the origin will be created and returned.</p>
+     * <p>If the amount of origin nodes exceeds {@link SentinelConfig#statisticMaxOriginNodeSize()} and no idle
+     * one could be evicted, an unregistered node shared by all such origins is returned, so that origin-specific
+     * rules are still enforced (conservatively, against the sum of these origins).</p>
      *
      * @param origin The caller's name, which is designated in the {@code parameter} parameter
      *               {@link ContextUtil#enter(String name, String origin)}.
      * @return the {@link Node} of the specific origin
      */
     public Node getOrCreateOriginNode(String origin) {
-        StatisticNode statisticNode = originCountMap.get(origin);
-        if (statisticNode == null) {
-            try {
-                lock.lock();
-                statisticNode = originCountMap.get(origin);
-                if (statisticNode == null) {
-                    // The node is absent, create a new node for the origin.
-                    statisticNode = new StatisticNode();
-                    HashMap<String, StatisticNode> newMap = new HashMap<>(originCountMap.size() + 1);
-                    newMap.putAll(originCountMap);
-                    newMap.put(origin, statisticNode);
-                    originCountMap = newMap;
+        StatisticNode originNode = originCountRegistry.computeIfAbsent(origin, ORIGIN_NODE_FACTORY);
+        if (originNode != null) {
+            return originNode;
+        }
+        return getOverflowOriginNode();
+    }
+
+    private StatisticNode getOverflowOriginNode() {
+        StatisticNode node = overflowOriginNode;
+        if (node == null) {
+            synchronized (this) {
+                node = overflowOriginNode;
+                if (node == null) {
+                    RecordLog.warn("[ClusterNode] Amount of origin nodes exceeds the threshold "
+                        + originCountRegistry.getMaxSize() + ", statistics of new origins of resource <"
+                        + name + "> will be shared and not registered");
+                    node = new StatisticNode();
+                    overflowOriginNode = node;
                 }
-            } finally {
-                lock.unlock();
             }
         }
-        return statisticNode;
+        return node;
     }
 
     public Map<String, StatisticNode> getOriginCountMap() {
-        return originCountMap;
+        return originCountRegistry.asMap();
+    }
+
+    /**
+     * Enable the RT histogram if it has been configured for the resource after the node was created
+     * (see {@link SentinelConfig#statisticRtHistogramEnabled(String)}). This is called before every metric
+     * log round. Once enabled, the histogram stays enabled until the node is recreated.
+     *
+     * @since 1.7.1
+     */
+    public void refreshRtHistogramConfig() {
+        if (!isRtHistogramEnabled() && SentinelConfig.statisticRtHistogramEnabled(name)) {
+            enableRtHistogram();
+        }
     }
 
     /**
@@ -95,6 +95,25 @@ public class DefaultNode extends StatisticNode {
         }
     }
 
+    /**
+     * Remove the child node from current node.
+     *
+     * @param node the child node
+     * @since 1.7.1
+     */
+    public void removeChild(Node node) {
+        if (node == null || !childList.contains(node)) {
+            return;
+        }
+        synchronized (this) {
+            if (childList.contains(node)) {
+                Set<Node> newSet = new HashSet<>(childList);
+                newSet.remove(node);
+                childList = newSet;
+            }
+        }
+    }
+
     /**
      * Reset the child node list.
      */
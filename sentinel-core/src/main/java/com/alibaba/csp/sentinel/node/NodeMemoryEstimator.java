@@ -0,0 +1,112 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.alibaba.csp.sentinel.Constants;
+import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucketProvider;
+
+/**
+ * <p>Estimator of the retained heap size of statistic nodes, which helps to find out the resources
+ * that occupy the most memory.</p>
+ *
+ * <p>The estimation assumes a 64-bit JVM with compressed references and all buckets of the sliding
+ * windows having been created, so it is an upper bound for resources that are rarely accessed.
+ * Cells of contended adders are not included.</p>
+ *
+ * @since 1.7.1
+ */
+public final class NodeMemoryEstimator {
+
+    /**
+     * Buckets of the second-level window, where occupiable windows keep the same amount of future buckets.
+     */
+    private static final int SECOND_WINDOW_ARRAYS = 2;
+    private static final int MINUTE_SAMPLE_COUNT = 60;
+
+    private static final long STATISTIC_NODE_SHALLOW = 32;
+    private static final long THREAD_NUM_ADDER = 32;
+    private static final long ARRAY_METRIC_SHALLOW = 16;
+    private static final long LEAP_ARRAY_SHALLOW = 48;
+    private static final long REFERENCE_ARRAY_SHALLOW = 32;
+    private static final long REFERENCE = 4;
+    private static final long WINDOW_WRAP = 32;
+    /**
+     * Map entry, registry holder and the key of an origin node.
+     */
+    private static final long ORIGIN_ENTRY = 96;
+
+    /**
+     * Estimate the retained heap size of a {@link StatisticNode}.
+     *
+     * @return estimated size in bytes
+     */
+    public static long estimateStatisticNodeBytes() {
+        long bucket = WINDOW_WRAP + MetricBucketProvider.estimateEmptyBucketBytes();
+        int secondSampleCount = SampleCountProperty.SAMPLE_COUNT;
+        long second = SECOND_WINDOW_ARRAYS
+            * (LEAP_ARRAY_SHALLOW + REFERENCE_ARRAY_SHALLOW + secondSampleCount * (REFERENCE + bucket));
+        long minute = LEAP_ARRAY_SHALLOW + REFERENCE_ARRAY_SHALLOW + MINUTE_SAMPLE_COUNT * (REFERENCE + bucket);
+        return STATISTIC_NODE_SHALLOW + THREAD_NUM_ADDER + 2 * ARRAY_METRIC_SHALLOW + second + minute;
+    }
+
+    /**
+     * Estimate the retained heap size of a {@link ClusterNode}, including its origin nodes.
+     *
+     * @param clusterNode the cluster node
+     * @return estimated size in bytes
+     */
+    public static long estimateClusterNodeBytes(ClusterNode clusterNode) {
+        if (clusterNode == null) {
+            return 0;
+        }
+        long nodeBytes = estimateStatisticNodeBytes();
+        return nodeBytes + clusterNode.getOriginCountMap().size() * (ORIGIN_ENTRY + nodeBytes);
+    }
+
+    /**
+     * Count the {@link DefaultNode}s of each resource in the invocation tree under {@link Constants#ROOT}.
+     *
+     * @return count of default nodes of each resource name
+     */
+    public static Map<String, Integer> countDefaultNodes() {
+        Map<String, Integer> counts = new HashMap<String, Integer>();
+        countDefaultNodes(Constants.ROOT, counts, Collections.newSetFromMap(new IdentityHashMap<Node, Boolean>()));
+        return counts;
+    }
+
+    private static void countDefaultNodes(DefaultNode parent, Map<String, Integer> counts, Set<Node> visited) {
+        for (Node child : parent.getChildList()) {
+            if (!(child instanceof DefaultNode) || !visited.add(child)) {
+                continue;
+            }
+            DefaultNode node = (DefaultNode)child;
+            if (!(node instanceof EntranceNode) && node.getId() != null) {
+                String name = node.getId().getName();
+                Integer count = counts.get(name);
+                counts.put(name, count == null ? 1 : count + 1);
+            }
+            countDefaultNodes(node, counts, visited);
+        }
+    }
+
+    private NodeMemoryEstimator() {}
+}
@@ -18,7 +18,6 @@ package com.alibaba.csp.sentinel.node;
 import com.alibaba.csp.sentinel.node.metric.MetricNode;
 import com.alibaba.csp.sentinel.slots.statistic.base.LongAdder;
 import com.alibaba.csp.sentinel.slots.statistic.metric.ArrayMetric;
-import com.alibaba.csp.sentinel.slots.statistic.metric.Metric;
 import com.alibaba.csp.sentinel.util.TimeUtil;
 import com.alibaba.csp.sentinel.util.function.Predicate;
 
@@ -93,14 +92,19 @@ public class StatisticNode implements Node {
      * Holds statistics of the recent {@code INTERVAL} seconds. The {@code INTERVAL} is divided into time spans
      * by given {@code sampleCount}.
      */
-    private transient volatile Metric rollingCounterInSecond = new ArrayMetric(SampleCountProperty.SAMPLE_COUNT,
+    private transient volatile ArrayMetric rollingCounterInSecond = new ArrayMetric(SampleCountProperty.SAMPLE_COUNT,
         IntervalProperty.INTERVAL);
 
     /**
      * Holds statistics of the recent 60 seconds. The windowLengthInMs is deliberately set to 1000 milliseconds,
      * meaning each bucket per second, in this way we can get accurate statistics of each second.
      */
-    private transient Metric rollingCounterInMinute = new ArrayMetric(60, 60 * 1000, false);
+    private transient ArrayMetric rollingCounterInMinute = new ArrayMetric(60, 60 * 1000, false);
+
+    /**
+     * Whether the RT histogram is enabled for latency percentiles.
+     */
+    private volatile boolean rtHistogramEnabled = false;
 
     /**
      * The counter for thread count.
@@ -148,7 +152,40 @@ public class StatisticNode implements Node {
 
     @Override
     public void reset() {
-        rollingCounterInSecond = new ArrayMetric(SampleCountProperty.SAMPLE_COUNT, IntervalProperty.INTERVAL);
+        ArrayMetric newCounter = new ArrayMetric(SampleCountProperty.SAMPLE_COUNT, IntervalProperty.INTERVAL);
+        if (rtHistogramEnabled) {
+            newCounter.enableRtHistogram();
+        }
+        rollingCounterInSecond = newCounter;
+    }
+
+    /**
+     * <p>Enable the RT histogram of this node, so latency percentiles are available via
+     * {@link #rtPercentile(double)} and in the metric nodes of every second.</p>
+     * <p>Each bucket of the sliding windows keeps a histogram of fixed size (about 2KB under
+     * the default {@code statisticMaxRt}), so it should be enabled only for resources of interest.</p>
+     *
+     * @since 1.7.1
+     */
+    public void enableRtHistogram() {
+        this.rtHistogramEnabled = true;
+        rollingCounterInSecond.enableRtHistogram();
+        rollingCounterInMinute.enableRtHistogram();
+    }
+
+    public boolean isRtHistogramEnabled() {
+        return rtHistogramEnabled;
+    }
+
+    /**
+     * Get the RT at given percentile in the recent {@code INTERVAL} seconds.
+     *
+     * @param percentile the percentile in (0, 100], e.g. 99 for p99
+     * @return the RT at given percentile, or 0 if the RT histogram is disabled or there are no RT records
+     * @since 1.7.1
+     */
+    public long rtPercentile(double percentile) {
+        return rollingCounterInSecond.rtPercentile(percentile);
     }
 
     @Override
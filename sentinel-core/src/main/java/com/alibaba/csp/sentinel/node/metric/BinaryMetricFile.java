@@ -0,0 +1,191 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Layout of a binary metric file, which is one slot of the memory-mapped ring written by
+ * {@link BinaryMetricWriter}. The file name is like {@code ${baseFileName}.bin.${slot}}, and the file is
+ * made up of three regions:</p>
+ * <ol>
+ * <li>the header: magic, version, epoch, record count, dictionary size and dictionary capacity;</li>
+ * <li>the resource dictionary: entries of {@code [unsigned short length][UTF-8 bytes]}, where the id of
+ * a resource is the ordinal of its entry;</li>
+ * <li>the records: fixed-width {@link #RECORD_SIZE}-byte records in ascending order of timestamp.</li>
+ * </ol>
+ *
+ * <p>The writer publishes the dictionary entries and records before the sizes in the header, and increases
+ * the epoch before a slot is reused, so readers can detect a slot that is overwritten while being read.</p>
+ *
+ * @since 1.7.1
+ */
+final class BinaryMetricFile {
+
+    static final Charset CHARSET = Charset.forName("UTF-8");
+
+    static final String FILE_SUFFIX = ".bin.";
+
+    static final int MAGIC = 0x534D4554;
+    static final int VERSION = 2;
+
+    static final int OFFSET_MAGIC = 0;
+    static final int OFFSET_VERSION = 4;
+    static final int OFFSET_EPOCH = 8;
+    static final int OFFSET_RECORD_COUNT = 16;
+    static final int OFFSET_DICT_SIZE = 20;
+    static final int OFFSET_DICT_CAPACITY = 24;
+    static final int HEADER_SIZE = 64;
+
+    static final int MIN_DICT_CAPACITY = 16 * 1024;
+    static final int MAX_NAME_LENGTH = 4096;
+
+    /**
+     * Layout of a record: timestamp (8), resource id (4), classification (4), concurrency (4), reserved (4),
+     * pass, block, success, exception, rt and occupied pass (8 each), and RT percentiles p50, p90, p99
+     * and p999 (4 each, as RT never exceeds {@code statisticMaxRt}).
+     */
+    static final int RECORD_SIZE = 88;
+    static final int RECORD_TIMESTAMP = 0;
+    static final int RECORD_RESOURCE_ID = 8;
+    static final int RECORD_CLASSIFICATION = 12;
+    static final int RECORD_CONCURRENCY = 16;
+    static final int RECORD_PASS = 24;
+    static final int RECORD_BLOCK = 32;
+    static final int RECORD_SUCCESS = 40;
+    static final int RECORD_EXCEPTION = 48;
+    static final int RECORD_RT = 56;
+    static final int RECORD_OCCUPIED_PASS = 64;
+    static final int RECORD_RT_P50 = 72;
+    static final int RECORD_RT_P90 = 76;
+    static final int RECORD_RT_P99 = 80;
+    static final int RECORD_RT_P999 = 84;
+
+    static String formFileName(String baseDir, String baseFileName, int slot) {
+        return baseDir + baseFileName + FILE_SUFFIX + slot;
+    }
+
+    /**
+     * List the binary metric files of given base file name.
+     *
+     * @param baseDir      the directory to search, ends with the file separator
+     * @param baseFileName the base file name
+     * @return absolute path of the files
+     */
+    static List<String> listFiles(String baseDir, String baseFileName) {
+        List<String> list = new ArrayList<String>();
+        File[] files = new File(baseDir).listFiles();
+        if (files == null) {
+            return list;
+        }
+        String prefix = baseFileName + FILE_SUFFIX;
+        for (File file : files) {
+            String name = file.getName();
+            if (file.isFile() && name.startsWith(prefix) && name.substring(prefix.length()).matches("[0-9]{1,10}")) {
+                list.add(file.getAbsolutePath());
+            }
+        }
+        return list;
+    }
+
+    static int dictCapacity(int fileSize) {
+        int capacity = Math.max(MIN_DICT_CAPACITY, fileSize / 16);
+        return Math.min(capacity, fileSize - HEADER_SIZE - RECORD_SIZE);
+    }
+
+    static boolean isValid(ByteBuffer buffer) {
+        return buffer.capacity() >= HEADER_SIZE && buffer.getInt(OFFSET_MAGIC) == MAGIC
+            && buffer.getInt(OFFSET_VERSION) == VERSION;
+    }
+
+    static int recordStart(ByteBuffer buffer) {
+        return HEADER_SIZE + buffer.getInt(OFFSET_DICT_CAPACITY);
+    }
+
+    static long timestampAt(ByteBuffer buffer, int recordStart, int index) {
+        return buffer.getLong(recordStart + index * RECORD_SIZE + RECORD_TIMESTAMP);
+    }
+
+    /**
+     * Decode the resource dictionary entries in {@code [fromSize, toSize)} of the dictionary region.
+     *
+     * @param buffer   the mapped file
+     * @param fromSize bytes of the dictionary that have been decoded
+     * @param toSize   bytes of the dictionary to decode
+     * @param names    resource names indexed by id, where the decoded names will be appended
+     * @return bytes of the dictionary that have been decoded after this call
+     */
+    static int readDictionary(ByteBuffer buffer, int fromSize, int toSize, List<String> names) {
+        int pos = HEADER_SIZE + fromSize;
+        int end = HEADER_SIZE + toSize;
+        while (pos + 2 <= end) {
+            int length = buffer.getShort(pos) & 0xFFFF;
+            if (pos + 2 + length > end) {
+                break;
+            }
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = buffer.get(pos + 2 + i);
+            }
+            names.add(new String(bytes, CHARSET));
+            pos += 2 + length;
+        }
+        return pos - HEADER_SIZE;
+    }
+
+    static MetricNode readRecord(ByteBuffer buffer, int offset, String resource) {
+        MetricNode node = new MetricNode();
+        node.setTimestamp(buffer.getLong(offset + RECORD_TIMESTAMP));
+        node.setResource(resource);
+        node.setClassification(buffer.getInt(offset + RECORD_CLASSIFICATION));
+        node.setConcurrency(buffer.getInt(offset + RECORD_CONCURRENCY));
+        node.setPassQps(buffer.getLong(offset + RECORD_PASS));
+        node.setBlockQps(buffer.getLong(offset + RECORD_BLOCK));
+        node.setSuccessQps(buffer.getLong(offset + RECORD_SUCCESS));
+        node.setExceptionQps(buffer.getLong(offset + RECORD_EXCEPTION));
+        node.setRt(buffer.getLong(offset + RECORD_RT));
+        node.setOccupiedPassQps(buffer.getLong(offset + RECORD_OCCUPIED_PASS));
+        node.setRtP50(buffer.getInt(offset + RECORD_RT_P50));
+        node.setRtP90(buffer.getInt(offset + RECORD_RT_P90));
+        node.setRtP99(buffer.getInt(offset + RECORD_RT_P99));
+        node.setRtP999(buffer.getInt(offset + RECORD_RT_P999));
+        return node;
+    }
+
+    static void writeRecord(ByteBuffer buffer, int offset, MetricNode node, int resourceId) {
+        buffer.putLong(offset + RECORD_TIMESTAMP, node.getTimestamp());
+        buffer.putInt(offset + RECORD_RESOURCE_ID, resourceId);
+        buffer.putInt(offset + RECORD_CLASSIFICATION, node.getClassification());
+        buffer.putInt(offset + RECORD_CONCURRENCY, node.getConcurrency());
+        buffer.putInt(offset + RECORD_CONCURRENCY + 4, 0);
+        buffer.putLong(offset + RECORD_PASS, node.getPassQps());
+        buffer.putLong(offset + RECORD_BLOCK, node.getBlockQps());
+        buffer.putLong(offset + RECORD_SUCCESS, node.getSuccessQps());
+        buffer.putLong(offset + RECORD_EXCEPTION, node.getExceptionQps());
+        buffer.putLong(offset + RECORD_RT, node.getRt());
+        buffer.putLong(offset + RECORD_OCCUPIED_PASS, node.getOccupiedPassQps());
+        buffer.putInt(offset + RECORD_RT_P50, (int)node.getRtP50());
+        buffer.putInt(offset + RECORD_RT_P90, (int)node.getRtP90());
+        buffer.putInt(offset + RECORD_RT_P99, (int)node.getRtP99());
+        buffer.putInt(offset + RECORD_RT_P999, (int)node.getRtP999());
+    }
+
+    private BinaryMetricFile() {}
+}
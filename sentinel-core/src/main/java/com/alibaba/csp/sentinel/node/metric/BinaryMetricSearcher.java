@@ -0,0 +1,443 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static com.alibaba.csp.sentinel.node.metric.BinaryMetricFile.*;
+
+/**
+ * <p>Searches the binary metric files written by {@link BinaryMetricWriter}.</p>
+ *
+ * <p>The files are mapped once and kept mapped between searches. Files are visited in the order of their epochs,
+ * the first record of the given second is located via binary search, and records are read directly from
+ * the mapped files. Records of other resources are skipped by comparing the resource id,
+ * so no object is created for them.</p>
+ *
+ * <p>The files are written without any fence (see {@link BinaryMetricWriter}), so the header is only a hint:
+ * every record is validated before it is returned, and reading a file stops at the first record that refers
+ * to an undecoded resource, goes back in time, or was read after the file has been overwritten.</p>
+ *
+ * @since 1.7.1
+ */
+public class BinaryMetricSearcher extends MetricSearcher {
+
+    /**
+     * Avoid OOM in any cases.
+     */
+    private static final int MAX_LINES_RETURN = 100000;
+
+    private static final Comparator<MappedMetricFile> EPOCH_ORDER = new Comparator<MappedMetricFile>() {
+        @Override
+        public int compare(MappedMetricFile o1, MappedMetricFile o2) {
+            return o1.epoch < o2.epoch ? -1 : (o1.epoch == o2.epoch ? 0 : 1);
+        }
+    };
+
+    private final String baseDir;
+    private final String baseFileName;
+
+    private final Map<String, MappedMetricFile> files = new HashMap<String, MappedMetricFile>();
+
+    /**
+     * @param baseDir      directory of the metric files
+     * @param baseFileName base name of the metric files, e.g. {@code app-metrics.log}
+     */
+    public BinaryMetricSearcher(String baseDir, String baseFileName) {
+        super(baseDir, baseFileName);
+        this.baseDir = baseDir.endsWith(File.separator) ? baseDir : baseDir + File.separator;
+        this.baseFileName = baseFileName;
+    }
+
+    @Override
+    public synchronized List<MetricNode> find(long beginTimeMs, int recommendLines) throws Exception {
+        long beginSecond = beginTimeMs / 1000;
+        List<MetricNode> list = null;
+        long lastSecond = -1;
+        for (MappedMetricFile file : snapshotFiles()) {
+            int i = file.lowerBound(beginSecond);
+            if (i >= file.count) {
+                continue;
+            }
+            if (list == null) {
+                list = new ArrayList<MetricNode>(Math.min(recommendLines, MAX_LINES_RETURN));
+            }
+            int mark = list.size();
+            boolean done = false;
+            long minTimestamp = 1;
+            for (; i < file.count; i++) {
+                long timestamp = file.timestampAt(i);
+                long second = timestamp / 1000;
+                if (list.size() >= recommendLines && second != lastSecond) {
+                    done = true;
+                    break;
+                }
+                MetricNode node = file.read(i);
+                if (!file.isValidRecord(i, minTimestamp)) {
+                    break;
+                }
+                list.add(node);
+                lastSecond = second;
+                minTimestamp = timestamp;
+            }
+            if (!file.isStable()) {
+                // The slot has been overwritten while reading.
+                truncate(list, mark);
+                continue;
+            }
+            if (done) {
+                break;
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public synchronized List<MetricNode> findByTimeAndResource(long beginTimeMs, long endTimeMs, String identity)
+        throws Exception {
+        long beginSecond = beginTimeMs / 1000;
+        long endSecond = endTimeMs / 1000;
+        List<MetricNode> list = null;
+        for (MappedMetricFile file : snapshotFiles()) {
+            int i = file.lowerBound(beginSecond);
+            if (i >= file.count) {
+                continue;
+            }
+            if (list == null) {
+                list = new ArrayList<MetricNode>(1024);
+            }
+            int id = identity == null ? -1 : file.names.indexOf(identity);
+            if (identity != null && id < 0) {
+                continue;
+            }
+            int mark = list.size();
+            boolean done = false;
+            long minTimestamp = 1;
+            for (; i < file.count; i++) {
+                long timestamp = file.timestampAt(i);
+                if (timestamp / 1000 > endSecond || list.size() >= MAX_LINES_RETURN) {
+                    done = true;
+                    break;
+                }
+                if (id < 0 || file.resourceIdAt(i) == id) {
+                    MetricNode node = file.read(i);
+                    if (!file.isValidRecord(i, minTimestamp)) {
+                        break;
+                    }
+                    list.add(node);
+                    minTimestamp = timestamp;
+                }
+            }
+            if (!file.isStable()) {
+                truncate(list, mark);
+                continue;
+            }
+            if (done) {
+                break;
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public synchronized long writeMetrics(long beginTimeMs, long endTimeMs, String identity, int maxLines,
+                                          OutputStream out) throws Exception {
+        long beginSecond = beginTimeMs / 1000;
+        long endSecond = endTimeMs / 1000;
+        LineBuffer line = new LineBuffer();
+        int lines = 0;
+        long lastSecond = -1;
+        scan:
+        for (MappedMetricFile file : snapshotFiles()) {
+            int i = file.lowerBound(beginSecond);
+            int id = identity == null ? -1 : file.names.indexOf(identity);
+            if (identity != null && id < 0) {
+                continue;
+            }
+            long minTimestamp = 1;
+            for (; i < file.count; i++) {
+                long timestamp = file.timestampAt(i);
+                long second = timestamp / 1000;
+                if (second > endSecond || (lines >= maxLines && second != lastSecond)) {
+                    break scan;
+                }
+                if (id >= 0 && file.resourceIdAt(i) != id) {
+                    continue;
+                }
+                file.encodeThinLine(i, line);
+                if (!file.isValidRecord(i, minTimestamp)) {
+                    // The record is not published yet, or the slot has been overwritten.
+                    break;
+                }
+                out.write(line.bytes, 0, line.length);
+                lines++;
+                lastSecond = second;
+                minTimestamp = timestamp;
+            }
+        }
+        return lastSecond < 0 ? -1 : lastSecond * 1000;
+    }
+
+    private static void truncate(List<MetricNode> list, int size) {
+        while (list.size() > size) {
+            list.remove(list.size() - 1);
+        }
+    }
+
+    /**
+     * Map the files that are not mapped yet and take a snapshot of the header of each file.
+     *
+     * @return files that have records, in ascending order of epoch
+     */
+    private List<MappedMetricFile> snapshotFiles() throws IOException {
+        List<String> fileNames = listFiles(baseDir, baseFileName);
+        for (Iterator<String> it = files.keySet().iterator(); it.hasNext(); ) {
+            if (!fileNames.contains(it.next())) {
+                it.remove();
+            }
+        }
+        List<MappedMetricFile> list = new ArrayList<MappedMetricFile>(fileNames.size());
+        for (String fileName : fileNames) {
+            MappedMetricFile file = files.get(fileName);
+            long length = new File(fileName).length();
+            if (file == null || file.buffer.capacity() != length) {
+                file = MappedMetricFile.map(fileName, length);
+                if (file == null) {
+                    files.remove(fileName);
+                    continue;
+                }
+                files.put(fileName, file);
+            }
+            if (file.snapshot()) {
+                list.add(file);
+            }
+        }
+        Collections.sort(list, EPOCH_ORDER);
+        return list;
+    }
+
+    private static final class MappedMetricFile {
+
+        private final MappedByteBuffer buffer;
+
+        private long epoch = -1;
+        private int count;
+        private int recordStart;
+
+        /**
+         * Decoded resource names, which are kept as long as the epoch does not change.
+         */
+        private final List<String> names = new ArrayList<String>();
+        /**
+         * Resource names in thin format (see {@link MetricNode#toThinString()}).
+         */
+        private final List<byte[]> thinNames = new ArrayList<byte[]>();
+        private int decodedDictSize;
+
+        private MappedMetricFile(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        static MappedMetricFile map(String fileName, long length) throws IOException {
+            if (length < HEADER_SIZE || length > Integer.MAX_VALUE) {
+                return null;
+            }
+            RandomAccessFile file = new RandomAccessFile(fileName, "r");
+            try {
+                return new MappedMetricFile(file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, length));
+            } finally {
+                file.close();
+            }
+        }
+
+        /**
+         * Read the header of the file.
+         *
+         * @return true if the file has records
+         */
+        boolean snapshot() {
+            if (!isValid(buffer)) {
+                return false;
+            }
+            long currentEpoch = buffer.getLong(OFFSET_EPOCH);
+            // The record count is read before the dictionary size, though without a fence the order
+            // is not guaranteed, so records are validated when read.
+            int currentCount = buffer.getInt(OFFSET_RECORD_COUNT);
+            int dictSize = buffer.getInt(OFFSET_DICT_SIZE);
+            if (currentEpoch != epoch) {
+                names.clear();
+                thinNames.clear();
+                decodedDictSize = 0;
+                epoch = currentEpoch;
+            }
+            if (dictSize > decodedDictSize) {
+                decodedDictSize = readDictionary(buffer, decodedDictSize, dictSize, names);
+                for (int i = thinNames.size(); i < names.size(); i++) {
+                    thinNames.add(names.get(i).replace('|', '_').getBytes(CHARSET));
+                }
+            }
+            recordStart = recordStart(buffer);
+            int capacity = (buffer.capacity() - recordStart) / RECORD_SIZE;
+            count = Math.max(0, Math.min(currentCount, capacity));
+            return count > 0 && isStable();
+        }
+
+        boolean isStable() {
+            return buffer.getLong(OFFSET_EPOCH) == epoch;
+        }
+
+        /**
+         * Validate the record after it has been read, as the header may be seen before the records
+         * and the dictionary, and the slot may be overwritten at any time.
+         *
+         * @param index        index of the record
+         * @param minTimestamp timestamp of the previous valid record, as records are in time order
+         * @return true if the record refers to a decoded resource, is in time order and the file has not been
+         * overwritten since the snapshot
+         */
+        boolean isValidRecord(int index, long minTimestamp) {
+            int id = resourceIdAt(index);
+            return id >= 0 && id < names.size() && timestampAt(index) >= minTimestamp && isStable();
+        }
+
+        /**
+         * Find the index of the first record whose second is not less than given second.
+         */
+        int lowerBound(long second) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (timestampAt(mid) / 1000 < second) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        long timestampAt(int index) {
+            return BinaryMetricFile.timestampAt(buffer, recordStart, index);
+        }
+
+        int resourceIdAt(int index) {
+            return buffer.getInt(recordStart + index * RECORD_SIZE + RECORD_RESOURCE_ID);
+        }
+
+        /**
+         * Encode the record as a line in thin format, see {@link MetricNode#toThinString()}.
+         */
+        void encodeThinLine(int index, LineBuffer line) {
+            int offset = recordStart + index * RECORD_SIZE;
+            int id = buffer.getInt(offset + RECORD_RESOURCE_ID);
+            line.length = 0;
+            line.appendLong(buffer.getLong(offset + RECORD_TIMESTAMP)).append('|');
+            if (id >= 0 && id < thinNames.size()) {
+                line.append(thinNames.get(id));
+            }
+            line.append('|')
+                .appendLong(buffer.getLong(offset + RECORD_PASS)).append('|')
+                .appendLong(buffer.getLong(offset + RECORD_BLOCK)).append('|')
+                .appendLong(buffer.getLong(offset + RECORD_SUCCESS)).append('|')
+                .appendLong(buffer.getLong(offset + RECORD_EXCEPTION)).append('|')
+                .appendLong(buffer.getLong(offset + RECORD_RT)).append('|')
+                .appendLong(buffer.getLong(offset + RECORD_OCCUPIED_PASS)).append('|')
+                .appendLong(buffer.getInt(offset + RECORD_CONCURRENCY)).append('|')
+                .appendLong(buffer.getInt(offset + RECORD_CLASSIFICATION));
+            int p50 = buffer.getInt(offset + RECORD_RT_P50);
+            int p90 = buffer.getInt(offset + RECORD_RT_P90);
+            int p99 = buffer.getInt(offset + RECORD_RT_P99);
+            int p999 = buffer.getInt(offset + RECORD_RT_P999);
+            if (p50 > 0 || p90 > 0 || p99 > 0 || p999 > 0) {
+                line.append('|').appendLong(p50)
+                    .append('|').appendLong(p90)
+                    .append('|').appendLong(p99)
+                    .append('|').appendLong(p999);
+            }
+            line.append('\n');
+        }
+
+        MetricNode read(int index) {
+            int id = resourceIdAt(index);
+            String resource = id >= 0 && id < names.size() ? names.get(id) : "";
+            return readRecord(buffer, recordStart + index * RECORD_SIZE, resource);
+        }
+    }
+
+    /**
+     * Reusable buffer of a line.
+     */
+    private static final class LineBuffer {
+
+        private byte[] bytes = new byte[256];
+        private int length;
+        private final byte[] digits = new byte[20];
+
+        LineBuffer append(char c) {
+            ensureCapacity(1);
+            bytes[length++] = (byte)c;
+            return this;
+        }
+
+        LineBuffer append(byte[] b) {
+            ensureCapacity(b.length);
+            System.arraycopy(b, 0, bytes, length, b.length);
+            length += b.length;
+            return this;
+        }
+
+        LineBuffer appendLong(long v) {
+            if (v < 0) {
+                if (v == Long.MIN_VALUE) {
+                    return append(String.valueOf(v).getBytes(CHARSET));
+                }
+                append('-');
+                v = -v;
+            }
+            int n = 0;
+            do {
+                digits[n++] = (byte)('0' + v % 10);
+                v /= 10;
+            } while (v > 0);
+            ensureCapacity(n);
+            while (n > 0) {
+                bytes[length++] = digits[--n];
+            }
+            return this;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (length + extra > bytes.length) {
+                byte[] newBytes = new byte[Math.max(bytes.length * 2, length + extra)];
+                System.arraycopy(bytes, 0, newBytes, 0, length);
+                bytes = newBytes;
+            }
+        }
+    }
+}
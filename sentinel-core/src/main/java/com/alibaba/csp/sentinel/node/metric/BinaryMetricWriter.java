@@ -0,0 +1,234 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.util.PidUtil;
+
+import static com.alibaba.csp.sentinel.node.metric.BinaryMetricFile.*;
+
+/**
+ * <p>Writes {@link MetricNode}s as fixed-width binary records into a ring of memory-mapped files
+ * (see {@link BinaryMetricFile} for the layout), which is enabled when {@link SentinelConfig#METRIC_FILE_FORMAT}
+ * is {@link SentinelConfig#METRIC_FILE_FORMAT_BINARY}:</p>
+ * <ol>
+ * <li>there are {@code totalFileCount} files of {@code singleFileSize} bytes, which are created only once;</li>
+ * <li>when the current file is full, the writer moves on to the next slot and overwrites the oldest metrics;</li>
+ * <li>every file carries its own resource dictionary, so records refer to resources by a 4-byte id.</li>
+ * </ol>
+ *
+ * <p>Compared with the text format, no string is formatted or parsed per metric, the directory is never listed
+ * while writing, and {@link BinaryMetricSearcher} could locate a second via binary search.</p>
+ *
+ * @since 1.7.1
+ */
+public class BinaryMetricWriter extends MetricWriter {
+
+    private final String baseDir;
+    private String baseFileName;
+    private final int fileSize;
+    private final int totalFileCount;
+
+    private MappedByteBuffer buffer;
+    private int slot = -1;
+    private long epoch = 0;
+
+    private final Map<String, Integer> dictionary = new HashMap<String, Integer>();
+    private int dictSize;
+    private int dictCapacity;
+    private int recordStart;
+    private int recordCount;
+    private int recordCapacity;
+
+    private long lastSecond = -1;
+
+    public BinaryMetricWriter(long singleFileSize, int totalFileCount) {
+        this(METRIC_BASE_DIR, null, singleFileSize, totalFileCount);
+    }
+
+    BinaryMetricWriter(String baseDir, String baseFileName, long singleFileSize, int totalFileCount) {
+        super(singleFileSize, totalFileCount);
+        this.baseDir = baseDir.endsWith(File.separator) ? baseDir : baseDir + File.separator;
+        this.baseFileName = baseFileName;
+        // A mapped file could not be larger than 2GB.
+        this.fileSize = (int)Math.min(singleFileSize, Integer.MAX_VALUE);
+        if (fileSize < HEADER_SIZE + MIN_DICT_CAPACITY + RECORD_SIZE) {
+            throw new IllegalArgumentException("singleFileSize is too small for binary metric files");
+        }
+        this.totalFileCount = totalFileCount;
+        File dir = new File(this.baseDir);
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+    }
+
+    @Override
+    public synchronized void write(long time, List<MetricNode> nodes) throws Exception {
+        if (nodes == null) {
+            return;
+        }
+        long second = time / 1000;
+        if (second < lastSecond) {
+            // Metrics of earlier seconds are ignored, which should not happen.
+            return;
+        }
+        if (buffer == null) {
+            openRing();
+        }
+        for (MetricNode node : nodes) {
+            node.setTimestamp(time);
+            int id = resourceId(node.getResource());
+            if (id < 0 || recordCount >= recordCapacity) {
+                publish();
+                nextSlot();
+                id = resourceId(node.getResource());
+            }
+            writeRecord(buffer, recordStart + recordCount * RECORD_SIZE, node, id);
+            recordCount++;
+        }
+        publish();
+        lastSecond = second;
+    }
+
+    @Override
+    public synchronized void close() throws Exception {
+        if (buffer != null) {
+            buffer.force();
+            buffer = null;
+        }
+    }
+
+    /**
+     * Publish the dictionary and the records, where the record count is written last. Puts into a mapped
+     * buffer are not ordered for readers in other threads or processes, so the publication is best effort:
+     * a reader may see the count before the records or the dictionary, and has to validate every record
+     * (see {@link BinaryMetricSearcher}).
+     */
+    private void publish() {
+        buffer.putInt(OFFSET_DICT_SIZE, dictSize);
+        buffer.putInt(OFFSET_RECORD_COUNT, recordCount);
+    }
+
+    private int resourceId(String resource) {
+        if (resource == null) {
+            resource = "";
+        }
+        Integer id = dictionary.get(resource);
+        if (id != null) {
+            return id;
+        }
+        byte[] bytes = resource.getBytes(CHARSET);
+        int length = Math.min(bytes.length, MAX_NAME_LENGTH);
+        if (dictSize + 2 + length > dictCapacity) {
+            return -1;
+        }
+        int pos = HEADER_SIZE + dictSize;
+        buffer.putShort(pos, (short)length);
+        for (int i = 0; i < length; i++) {
+            buffer.put(pos + 2 + i, bytes[i]);
+        }
+        dictSize += 2 + length;
+        id = dictionary.size();
+        dictionary.put(resource, id);
+        return id;
+    }
+
+    /**
+     * Resume the ring after the slot with the latest epoch, so metrics of previous runs are kept.
+     */
+    private void openRing() throws IOException {
+        if (baseFileName == null) {
+            baseFileName = formMetricFileName(SentinelConfig.getAppName(), PidUtil.getPid());
+        }
+        int latestSlot = -1;
+        for (String fileName : listFiles(baseDir, baseFileName)) {
+            int fileSlot = Integer.parseInt(fileName.substring(fileName.lastIndexOf('.') + 1));
+            if (fileSlot >= totalFileCount) {
+                new File(fileName).delete();
+                RecordLog.info("[BinaryMetricWriter] Removing metric file out of the ring: " + fileName);
+                continue;
+            }
+            long fileEpoch = readEpoch(fileName);
+            if (fileEpoch > epoch) {
+                epoch = fileEpoch;
+                latestSlot = fileSlot;
+            }
+        }
+        slot = latestSlot;
+        nextSlot();
+    }
+
+    private long readEpoch(String fileName) {
+        RandomAccessFile file = null;
+        try {
+            file = new RandomAccessFile(fileName, "r");
+            if (file.length() < HEADER_SIZE || file.readInt() != MAGIC || file.readInt() != VERSION) {
+                return 0;
+            }
+            return file.readLong();
+        } catch (IOException e) {
+            return 0;
+        } finally {
+            if (file != null) {
+                try {
+                    file.close();
+                } catch (IOException ignore) {
+                }
+            }
+        }
+    }
+
+    private void nextSlot() throws IOException {
+        if (buffer != null) {
+            buffer.force();
+        }
+        slot = (slot + 1) % totalFileCount;
+        String fileName = formFileName(baseDir, baseFileName, slot);
+        RandomAccessFile file = new RandomAccessFile(fileName, "rw");
+        try {
+            file.setLength(fileSize);
+            buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+        } finally {
+            file.close();
+        }
+        // Reset the sizes before increasing the epoch, so readers will discard what they have read
+        // from this slot once they see the new epoch.
+        buffer.putInt(OFFSET_RECORD_COUNT, 0);
+        buffer.putInt(OFFSET_DICT_SIZE, 0);
+        dictCapacity = dictCapacity(fileSize);
+        buffer.putInt(OFFSET_DICT_CAPACITY, dictCapacity);
+        buffer.putLong(OFFSET_EPOCH, ++epoch);
+        buffer.putInt(OFFSET_VERSION, VERSION);
+        buffer.putInt(OFFSET_MAGIC, MAGIC);
+
+        dictionary.clear();
+        dictSize = 0;
+        recordStart = HEADER_SIZE + dictCapacity;
+        recordCount = 0;
+        recordCapacity = (fileSize - recordStart) / RECORD_SIZE;
+        RecordLog.info("[BinaryMetricWriter] Writing metric file: " + fileName + ", epoch=" + epoch);
+    }
+}
@@ -50,6 +50,16 @@ public class MetricNode {
      */
     private int concurrency;
 
+    /**
+     * RT percentiles, which are present only if the RT histogram is enabled for the resource.
+     *
+     * @since 1.7.1
+     */
+    private long rtP50;
+    private long rtP90;
+    private long rtP99;
+    private long rtP999;
+
     public long getTimestamp() {
         return timestamp;
     }
@@ -132,6 +142,64 @@ public class MetricNode {
         return this;
     }
 
+    public long getRtP50() {
+        return rtP50;
+    }
+
+    public void setRtP50(long rtP50) {
+        this.rtP50 = rtP50;
+    }
+
+    public long getRtP90() {
+        return rtP90;
+    }
+
+    public void setRtP90(long rtP90) {
+        this.rtP90 = rtP90;
+    }
+
+    public long getRtP99() {
+        return rtP99;
+    }
+
+    public void setRtP99(long rtP99) {
+        this.rtP99 = rtP99;
+    }
+
+    public long getRtP999() {
+        return rtP999;
+    }
+
+    public void setRtP999(long rtP999) {
+        this.rtP999 = rtP999;
+    }
+
+    /**
+     * @return whether any of the RT percentiles is present
+     * @since 1.7.1
+     */
+    public boolean hasRtPercentiles() {
+        return rtP50 > 0 || rtP90 > 0 || rtP99 > 0 || rtP999 > 0;
+    }
+
+    private void appendRtPercentiles(StringBuilder sb) {
+        if (hasRtPercentiles()) {
+            sb.append("|").append(rtP50);
+            sb.append("|").append(rtP90);
+            sb.append("|").append(rtP99);
+            sb.append("|").append(rtP999);
+        }
+    }
+
+    private void parseRtPercentiles(String[] strs, int start) {
+        if (strs.length >= start + 4) {
+            setRtP50(Long.parseLong(strs[start]));
+            setRtP90(Long.parseLong(strs[start + 1]));
+            setRtP99(Long.parseLong(strs[start + 2]));
+            setRtP999(Long.parseLong(strs[start + 3]));
+        }
+    }
+
     @Override
     public String toString() {
         return "MetricNode{" +
@@ -145,6 +213,10 @@ public class MetricNode {
             ", rt=" + rt +
             ", concurrency=" + concurrency +
             ", occupiedPassQps=" + occupiedPassQps +
+            ", rtP50=" + rtP50 +
+            ", rtP90=" + rtP90 +
+            ", rtP99=" + rtP99 +
+            ", rtP999=" + rtP999 +
             '}';
     }
 
@@ -152,8 +224,13 @@ public class MetricNode {
      * To formatting string. All "|" in {@link #resource} will be replaced with
      * "_", format is: <br/>
      * <code>
-     * timestamp|resource|passQps|blockQps|successQps|exceptionQps|rt|occupiedPassQps
-     * </code>
+     * timestamp|resource|passQps|blockQps|successQps|exceptionQps|rt|occupiedPassQps|concurrency|classification
+     * </code><br/>
+     * followed by {@code |rtP50|rtP90|rtP99|rtP999} if the RT percentiles are present, which happens only
+     * for resources with the RT histogram enabled (see
+     * {@link com.alibaba.csp.sentinel.config.SentinelConfig#STATISTIC_RT_HISTOGRAM_RESOURCES}).
+     * Parsers before 1.7.1 drop the classification of such lines, so the histogram should be enabled only
+     * once the consumers of the metrics (e.g. the dashboard) have been upgraded.
      *
      * @return string format of this.
      */
@@ -170,6 +247,7 @@ public class MetricNode {
         sb.append(occupiedPassQps).append("|");
         sb.append(concurrency).append("|");
         sb.append(classification);
+        appendRtPercentiles(sb);
         return sb.toString();
     }
 
@@ -195,9 +273,10 @@ public class MetricNode {
         if (strs.length >= 9) {
             node.setConcurrency(Integer.parseInt(strs[8]));
         }
-        if (strs.length == 10) {
+        if (strs.length >= 10) {
             node.setClassification(Integer.parseInt(strs[9]));
         }
+        node.parseRtPercentiles(strs, 10);
         return node;
     }
 
@@ -205,8 +284,10 @@ public class MetricNode {
      * To formatting string. All "|" in {@link MetricNode#resource} will be
      * replaced with "_", format is: <br/>
      * <code>
-     * timestamp|yyyy-MM-dd HH:mm:ss|resource|passQps|blockQps|successQps|exceptionQps|rt|occupiedPassQps\n
-     * </code>
+     * timestamp|yyyy-MM-dd HH:mm:ss|resource|passQps|blockQps|successQps|exceptionQps|rt|occupiedPassQps|concurrency|classification\n
+     * </code><br/>
+     * where {@code |rtP50|rtP90|rtP99|rtP999} follows the classification if the RT percentiles are present
+     * (see {@link #toThinString()} for the compatibility).
      *
      * @return string format of this.
      */
@@ -226,6 +307,7 @@ public class MetricNode {
         sb.append(getOccupiedPassQps()).append("|");
         sb.append(concurrency).append("|");
         sb.append(classification);
+        appendRtPercentiles(sb);
         sb.append('\n');
         return sb.toString();
     }
@@ -253,9 +335,10 @@ public class MetricNode {
         if (strs.length >= 10) {
             node.setConcurrency(Integer.parseInt(strs[9]));
         }
-        if (strs.length == 11) {
+        if (strs.length >= 11) {
             node.setClassification(Integer.parseInt(strs[10]));
         }
+        node.parseRtPercentiles(strs, 11);
         return node;
     }
 
@@ -19,6 +19,7 @@ import java.io.DataInputStream;
 import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.util.List;
 
@@ -140,6 +141,49 @@ public class MetricSearcher {
         return null;
     }
 
+    /**
+     * <p>Write metrics between [beginTimeMs, endTimeMs] (both side inclusive) to the output as lines in thin format
+     * (see {@link MetricNode#toThinString()}), without building any {@link MetricNode}. When identity is null,
+     * metrics of all resources will be written, otherwise only the specific resource will be written.</p>
+     * <p>Like {@link #find(long, int)}, metrics of the same second will not be split, so the count of lines
+     * may exceed {@code maxLines}.</p>
+     *
+     * @param beginTimeMs min timestamp of the metrics
+     * @param endTimeMs   max timestamp of the metrics
+     * @param identity    the resource, could be null
+     * @param maxLines    max count of lines (approximately)
+     * @param out         the output
+     * @return timestamp of the last second written, or -1 if nothing has been written
+     * @since 1.7.1
+     */
+    public synchronized long writeMetrics(long beginTimeMs, long endTimeMs, String identity, int maxLines,
+                                          OutputStream out) throws Exception {
+        List<String> fileNames = MetricWriter.listMetricFiles(baseDir, baseFileName);
+        int i = 0;
+        long offsetInIndex = 0;
+        if (validPosition(beginTimeMs)) {
+            i = fileNames.indexOf(lastPosition.metricFileName);
+            if (i == -1) {
+                i = 0;
+            } else {
+                offsetInIndex = lastPosition.offsetInIndex;
+            }
+        }
+        for (; i < fileNames.size(); i++) {
+            String fileName = fileNames.get(i);
+            long offset = findOffset(beginTimeMs, fileName,
+                MetricWriter.formIndexFileName(fileName), offsetInIndex);
+            offsetInIndex = 0;
+            if (offset != -1) {
+                MetricsReader.StreamState state = metricsReader.newStreamState(beginTimeMs, endTimeMs, maxLines,
+                    identity);
+                metricsReader.streamMetrics(fileNames, i, offset, state, out);
+                return state.lastSecond < 0 ? -1 : state.lastSecond * 1000;
+            }
+        }
+        return -1;
+    }
+
     /**
      * 记录上一次读取的index文件位置和数值
      */
@@ -33,14 +33,22 @@ import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
  */
 public class MetricTimerListener implements Runnable {
 
-    private static final MetricWriter metricWriter = new MetricWriter(SentinelConfig.singleMetricFileSize(),
-        SentinelConfig.totalMetricFileCount());
+    private static final MetricWriter metricWriter = newMetricWriter();
+
+    private static MetricWriter newMetricWriter() {
+        if (SentinelConfig.METRIC_FILE_FORMAT_BINARY.equals(SentinelConfig.metricFileFormat())) {
+            return new BinaryMetricWriter(SentinelConfig.singleMetricFileSize(), SentinelConfig.totalMetricFileCount());
+        }
+        return new MetricWriter(SentinelConfig.singleMetricFileSize(), SentinelConfig.totalMetricFileCount());
+    }
 
     @Override
     public void run() {
         Map<Long, List<MetricNode>> maps = new TreeMap<>();
         for (Entry<ResourceWrapper, ClusterNode> e : ClusterBuilderSlot.getClusterNodeMap().entrySet()) {
             ClusterNode node = e.getValue();
+            // Pick up RT histograms enabled after the node has been created.
+            node.refreshRtHistogramConfig();
             Map<Long, MetricNode> metrics = node.metrics();
             aggregate(maps, metrics, node);
         }
@@ -15,9 +15,12 @@
  */
 package com.alibaba.csp.sentinel.node.metric;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.FileInputStream;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
@@ -52,18 +55,19 @@ class MetricsReader {
             BufferedReader reader = new BufferedReader(new InputStreamReader(in, charset));
             String line;
             while ((line = reader.readLine()) != null) {
-                MetricNode node = MetricNode.fromFatString(line);
-                long currentSecond = node.getTimestamp() / 1000;
+                int timestampEnd = line.indexOf('|');
+                if (timestampEnd < 0) {
+                    continue;
+                }
+                long currentSecond = Long.parseLong(line.substring(0, timestampEnd)) / 1000;
                 // currentSecond should >= beginSecond, otherwise a wrong metric file must occur
                 if (currentSecond < beginSecond) {
                     return false;
                 }
                 if (currentSecond <= endSecond) {
-                    // read all
-                    if (identity == null) {
-                        list.add(node);
-                    } else if (node.getResource().equals(identity)) {
-                        list.add(node);
+                    // Filter by the resource before parsing the whole line.
+                    if (identity == null || resourceMatches(line, timestampEnd, identity)) {
+                        list.add(MetricNode.fromFatString(line));
                     }
                 } else {
                     return false;
@@ -80,6 +84,19 @@ class MetricsReader {
         return true;
     }
 
+    /**
+     * Check whether the resource (the third field) of the fat line is the identity.
+     */
+    private static boolean resourceMatches(String line, int timestampEnd, String identity) {
+        int dateEnd = line.indexOf('|', timestampEnd + 1);
+        if (dateEnd < 0) {
+            return false;
+        }
+        int resourceEnd = dateEnd + 1 + identity.length();
+        return resourceEnd < line.length() && line.charAt(resourceEnd) == '|'
+            && line.regionMatches(dateEnd + 1, identity, 0, identity.length());
+    }
+
     void readMetricsInOneFile(List<MetricNode> list, String fileName,
                               long offset, int recommendLines) throws Exception {
         //if(list.size() >= recommendLines){
@@ -139,4 +156,170 @@ class MetricsReader {
         }
         return list;
     }
-}
\ No newline at end of file
+
+    /**
+     * Create the state of streaming metrics between [beginTimeMs, endTimeMs].
+     *
+     * @param beginTimeMs begin time in ms
+     * @param endTimeMs   end time in ms
+     * @param maxLines    max count of lines to write
+     * @param identity    resource to write, or null for all resources
+     * @return the state of streaming
+     */
+    StreamState newStreamState(long beginTimeMs, long endTimeMs, int maxLines, String identity) {
+        return new StreamState(beginTimeMs / 1000, endTimeMs / 1000, maxLines,
+            identity == null ? null : identity.getBytes(charset));
+    }
+
+    /**
+     * Write the metric lines between [beginSecond, endSecond] to the output in thin format
+     * (see {@link MetricNode#toThinString()}), one line per metric. Lines are never parsed into
+     * {@link MetricNode}: the timestamp is parsed in place, the resource is compared as raw bytes,
+     * and the thin line is the fat line without the date field.
+     *
+     * @param fileNames metric files
+     * @param pos       position of the file to start with
+     * @param offset    offset in the first file
+     * @param state     state of the streaming, which will be updated
+     * @param out       the output
+     * @return true if there may be more metrics to write, otherwise false
+     */
+    boolean streamMetrics(List<String> fileNames, int pos, long offset, StreamState state, OutputStream out)
+        throws Exception {
+        if (!streamMetricsInOneFile(fileNames.get(pos++), offset, state, out)) {
+            return false;
+        }
+        while (pos < fileNames.size()) {
+            if (!streamMetricsInOneFile(fileNames.get(pos++), 0, state, out)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean streamMetricsInOneFile(String fileName, long offset, StreamState state, OutputStream out)
+        throws Exception {
+        FileInputStream fileIn = null;
+        try {
+            fileIn = new FileInputStream(fileName);
+            fileIn.getChannel().position(offset);
+            InputStream in = new BufferedInputStream(fileIn, 64 * 1024);
+            int length;
+            while ((length = state.readLine(in)) >= 0) {
+                byte[] line = state.line;
+                int pipe1 = indexOf(line, 0, length);
+                int pipe2 = pipe1 < 0 ? -1 : indexOf(line, pipe1 + 1, length);
+                int pipe3 = pipe2 < 0 ? -1 : indexOf(line, pipe2 + 1, length);
+                if (pipe3 < 0) {
+                    // Incomplete line.
+                    continue;
+                }
+                long second = parseLong(line, 0, pipe1) / 1000;
+                // currentSecond should >= beginSecond, otherwise a wrong metric file must occur
+                if (second < state.beginSecond || second > state.endSecond) {
+                    return false;
+                }
+                if (state.lines >= state.maxLines && second != state.lastSecond) {
+                    return false;
+                }
+                if (!state.matches(line, pipe2 + 1, pipe3)) {
+                    continue;
+                }
+                out.write(line, 0, pipe1 + 1);
+                out.write(line, pipe2 + 1, length - pipe2 - 1);
+                out.write('\n');
+                state.lines++;
+                state.lastSecond = second;
+            }
+        } finally {
+            if (fileIn != null) {
+                fileIn.close();
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(byte[] line, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (line[i] == '|') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long parseLong(byte[] bytes, int from, int to) {
+        long v = 0;
+        for (int i = from; i < to; i++) {
+            v = v * 10 + (bytes[i] - '0');
+        }
+        return v;
+    }
+
+    /**
+     * State of streaming metric lines across files.
+     */
+    static final class StreamState {
+
+        final long beginSecond;
+        final long endSecond;
+        final int maxLines;
+        final byte[] identity;
+
+        int lines = 0;
+        long lastSecond = -1;
+
+        private byte[] line = new byte[256];
+
+        StreamState(long beginSecond, long endSecond, int maxLines, byte[] identity) {
+            this.beginSecond = beginSecond;
+            this.endSecond = endSecond;
+            this.maxLines = maxLines;
+            this.identity = identity;
+        }
+
+        boolean matches(byte[] bytes, int from, int to) {
+            if (identity == null) {
+                return true;
+            }
+            if (to - from != identity.length) {
+                return false;
+            }
+            for (int i = 0; i < identity.length; i++) {
+                if (bytes[from + i] != identity[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Read a line into the reusable line buffer, without the line separator.
+         *
+         * @return length of the line, or -1 if the end of the stream is reached
+         */
+        int readLine(InputStream in) throws Exception {
+            int length = 0;
+            int b;
+            while ((b = in.read()) != -1) {
+                if (b == '\n') {
+                    break;
+                }
+                if (length == line.length) {
+                    byte[] newLine = new byte[line.length * 2];
+                    System.arraycopy(line, 0, newLine, 0, length);
+                    line = newLine;
+                }
+                line[length++] = (byte)b;
+            }
+            if (b == -1) {
+                // The end of the stream, or an incomplete line that is being written.
+                return -1;
+            }
+            if (length > 0 && line[length - 1] == '\r') {
+                length--;
+            }
+            return length;
+        }
+    }
+}
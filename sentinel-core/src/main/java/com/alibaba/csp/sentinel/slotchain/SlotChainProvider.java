@@ -30,28 +30,38 @@ public final class SlotChainProvider {
     private static volatile SlotChainBuilder slotChainBuilder = null;
 
     /**
-     * The load and pick process is not thread-safe, but it's okay since the method should be only invoked
-     * via {@code lookProcessChain} in {@link com.alibaba.csp.sentinel.CtSph} under lock.
+     * Slot chains of different resources may be created concurrently, so the slot chain builder SPI
+     * is resolved under lock only once.
      *
      * @return new created slot chain
      */
     public static ProcessorSlotChain newSlotChain() {
+        SlotChainBuilder builder = slotChainBuilder;
+        if (builder != null) {
+            return builder.build();
+        }
+        return resolveSlotChainBuilder().build();
+    }
+
+    private static synchronized SlotChainBuilder resolveSlotChainBuilder() {
         if (slotChainBuilder != null) {
-            return slotChainBuilder.build();
+            return slotChainBuilder;
         }
 
         // Resolve the slot chain builder SPI.
-        slotChainBuilder = SpiLoader.loadFirstInstanceOrDefault(SlotChainBuilder.class, DefaultSlotChainBuilder.class);
+        SlotChainBuilder builder = SpiLoader.loadFirstInstanceOrDefault(SlotChainBuilder.class,
+            DefaultSlotChainBuilder.class);
 
-        if (slotChainBuilder == null) {
+        if (builder == null) {
             // Should not go through here.
             RecordLog.warn("[SlotChainProvider] Wrong state when resolving slot chain builder, using default");
-            slotChainBuilder = new DefaultSlotChainBuilder();
+            builder = new DefaultSlotChainBuilder();
         } else {
             RecordLog.info("[SlotChainProvider] Global slot chain builder resolved: "
-                + slotChainBuilder.getClass().getCanonicalName());
+                + builder.getClass().getCanonicalName());
         }
-        return slotChainBuilder.build();
+        slotChainBuilder = builder;
+        return builder;
     }
 
     private SlotChainProvider() {}
@@ -29,5 +29,23 @@ public final class ClusterRuleConstant {
 
     public static final int DEFAULT_CLUSTER_SAMPLE_COUNT = 10;
 
+    /**
+     * Count every parameter value exactly in LRU maps of limited capacity.
+     *
+     * @since 1.7.1
+     */
+    public static final int PARAM_STATISTIC_MODE_EXACT = 0;
+    /**
+     * Estimate the count of parameter values with a Count-Min Sketch, and track the hot values only,
+     * so that the memory of a rule is bounded regardless of the cardinality of parameter values.
+     *
+     * @since 1.7.1
+     */
+    public static final int PARAM_STATISTIC_MODE_SKETCH = 1;
+
+    public static final int DEFAULT_PARAM_SKETCH_WIDTH = 1024;
+    public static final int DEFAULT_PARAM_SKETCH_DEPTH = 4;
+    public static final int DEFAULT_PARAM_HOT_KEY_CAPACITY = 128;
+
     private ClusterRuleConstant() {}
 }
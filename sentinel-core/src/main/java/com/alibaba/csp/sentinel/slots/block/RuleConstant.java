@@ -35,9 +35,16 @@ public final class RuleConstant {
      * Degrade by biz exception count in the last 60 seconds.
      */
     public static final int DEGRADE_GRADE_EXCEPTION_COUNT = 2;
+    /**
+     * Degrade by the ratio of slow requests (whose RT exceeds the threshold) in the last second.
+     *
+     * @since 1.7.1
+     */
+    public static final int DEGRADE_GRADE_SLOW_REQUEST_RATIO = 3;
 
     public static final int DEGRADE_DEFAULT_SLOW_REQUEST_AMOUNT = 5;
     public static final int DEGRADE_DEFAULT_MIN_REQUEST_AMOUNT = 5;
+    public static final double DEGRADE_DEFAULT_SLOW_RATIO_THRESHOLD = 1.0d;
 
     public static final int AUTHORITY_WHITE = 0;
     public static final int AUTHORITY_BLACK = 1;
@@ -0,0 +1,143 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>A compiled index that records which kinds of rules are present for each resource.</p>
+ *
+ * <p>Every rule manager publishes the resources it currently has rules for whenever its property
+ * is updated, and the index compiles them into an immutable {@code resource -> rule type bitmap} map.
+ * The rule-aware fast path of {@link com.alibaba.csp.sentinel.CtSph} consults the index so that
+ * resources without any rule can bypass the slot chain entirely.</p>
+ *
+ * <p>Extensions that provide their own rule-checking slots should publish their resources via
+ * {@link #updateResources(int, Collection)} with a rule type that has not been used yet, otherwise
+ * their slots will be skipped for these resources when the fast path is enabled.</p>
+ *
+ * @since 1.7.1
+ */
+public final class RulePresenceRegistry {
+
+    public static final int FLOW = 1;
+    public static final int DEGRADE = 1 << 1;
+    public static final int AUTHORITY = 1 << 2;
+    public static final int PARAM_FLOW = 1 << 3;
+    public static final int GATEWAY_FLOW = 1 << 4;
+
+    private static final Object LOCK = new Object();
+
+    /**
+     * Source resources of each rule type. Guarded by {@link #LOCK}.
+     */
+    private static final Map<Integer, Set<String>> resourcesOfType = new HashMap<Integer, Set<String>>();
+
+    private static volatile Map<String, Integer> ruleMasks = Collections.emptyMap();
+
+    /**
+     * Whether there are global rules that apply to all inbound resources (e.g. system rules).
+     */
+    private static volatile boolean inboundRulePresent = false;
+
+    /**
+     * Replace the resources that have rules of given type and recompile the index.
+     *
+     * @param ruleType  a single-bit rule type
+     * @param resources resources that currently have rules of the type, may be null or empty
+     */
+    public static void updateResources(int ruleType, Collection<String> resources) {
+        AssertUtil.isTrue(ruleType > 0 && Integer.bitCount(ruleType) == 1, "ruleType should be a single bit");
+        synchronized (LOCK) {
+            if (resources == null || resources.isEmpty()) {
+                resourcesOfType.remove(ruleType);
+            } else {
+                resourcesOfType.put(ruleType, new HashSet<String>(resources));
+            }
+            ruleMasks = compile();
+        }
+    }
+
+    private static Map<String, Integer> compile() {
+        Map<String, Integer> masks = new HashMap<String, Integer>();
+        for (Map.Entry<Integer, Set<String>> e : resourcesOfType.entrySet()) {
+            int type = e.getKey();
+            for (String resource : e.getValue()) {
+                Integer mask = masks.get(resource);
+                masks.put(resource, mask == null ? type : (mask | type));
+            }
+        }
+        return masks;
+    }
+
+    /**
+     * Mark whether there are global rules that apply to all inbound resources.
+     *
+     * @param present whether such rules are present
+     */
+    public static void setInboundRulePresent(boolean present) {
+        inboundRulePresent = present;
+    }
+
+    /**
+     * Get the bitmap of rule types that are present for given resource.
+     *
+     * @param resourceName the resource name
+     * @return bitmap of rule types, or 0 if the resource has no rules
+     */
+    public static int getRuleMask(String resourceName) {
+        if (resourceName == null) {
+            return 0;
+        }
+        Integer mask = ruleMasks.get(resourceName);
+        return mask == null ? 0 : mask;
+    }
+
+    /**
+     * Check whether any rule may apply to the resource.
+     *
+     * @param resourceWrapper the resource
+     * @return true if any rule may apply to the resource, otherwise false
+     */
+    public static boolean hasRules(ResourceWrapper resourceWrapper) {
+        if (inboundRulePresent && resourceWrapper.getEntryType() == EntryType.IN) {
+            return true;
+        }
+        return ruleMasks.containsKey(resourceWrapper.getName());
+    }
+
+    /**
+     * Only for internal test.
+     */
+    static void clear() {
+        synchronized (LOCK) {
+            resourcesOfType.clear();
+            ruleMasks = Collections.emptyMap();
+            inboundRulePresent = false;
+        }
+    }
+
+    private RulePresenceRegistry() {}
+}
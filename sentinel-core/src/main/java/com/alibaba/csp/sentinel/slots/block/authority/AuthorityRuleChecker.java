@@ -28,31 +28,29 @@ import com.alibaba.csp.sentinel.util.StringUtil;
 final class AuthorityRuleChecker {
 
     static boolean passCheck(AuthorityRule rule, Context context) {
+        return passCheck(AuthorityRuleMatcher.compile(rule), context);
+    }
+
+    /**
+     * Check the origin of the context with the compiled rule.
+     *
+     * @param matcher the compiled authority rule
+     * @param context current context
+     * @return true if the origin passes the rule, otherwise false
+     * @since 1.7.1
+     */
+    static boolean passCheck(AuthorityRuleMatcher matcher, Context context) {
         String requester = context.getOrigin();
 
         // Empty origin or empty limitApp will pass.
-        if (StringUtil.isEmpty(requester) || StringUtil.isEmpty(rule.getLimitApp())) {
+        if (StringUtil.isEmpty(requester) || matcher.isEmptyLimitApp()) {
             return true;
         }
 
         // Do exact match with origin name.
-        int pos = rule.getLimitApp().indexOf(requester);
-        boolean contain = pos > -1;
-
-        if (contain) {
-            boolean exactlyMatch = false;
-            String[] appArray = rule.getLimitApp().split(",");
-            for (String app : appArray) {
-                if (requester.equals(app)) {
-                    exactlyMatch = true;
-                    break;
-                }
-            }
-
-            contain = exactlyMatch;
-        }
+        boolean contain = matcher.containsOrigin(requester);
 
-        int strategy = rule.getStrategy();
+        int strategy = matcher.getStrategy();
         if (strategy == RuleConstant.AUTHORITY_BLACK && contain) {
             return false;
         }
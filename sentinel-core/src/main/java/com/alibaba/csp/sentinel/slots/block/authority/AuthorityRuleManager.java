@@ -16,6 +16,7 @@
 package com.alibaba.csp.sentinel.slots.block.authority;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -24,6 +25,7 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.RulePresenceRegistry;
 import com.alibaba.csp.sentinel.util.AssertUtil;
 import com.alibaba.csp.sentinel.util.StringUtil;
 import com.alibaba.csp.sentinel.property.DynamicSentinelProperty;
@@ -40,6 +42,10 @@ import com.alibaba.csp.sentinel.property.SentinelProperty;
 public final class AuthorityRuleManager {
 
     private static Map<String, Set<AuthorityRule>> authorityRules = new ConcurrentHashMap<>();
+    /**
+     * Compiled rules of each resource, which are replaced as a whole when rules are loaded.
+     */
+    private static volatile Map<String, AuthorityRuleMatcher> ruleMatchers = new HashMap<>();
 
     private static final RulePropertyListener LISTENER = new RulePropertyListener();
     private static SentinelProperty<List<AuthorityRule>> currentProperty = new DynamicSentinelProperty<>();
@@ -95,13 +101,26 @@ public final class AuthorityRuleManager {
         public void configUpdate(List<AuthorityRule> conf) {
             Map<String, Set<AuthorityRule>> rules = loadAuthorityConf(conf);
 
+            ruleMatchers = compileRules(rules);
             authorityRules.clear();
             if (rules != null) {
                 authorityRules.putAll(rules);
             }
+            RulePresenceRegistry.updateResources(RulePresenceRegistry.AUTHORITY, authorityRules.keySet());
             RecordLog.info("[AuthorityRuleManager] Authority rules received: " + authorityRules);
         }
 
+        private Map<String, AuthorityRuleMatcher> compileRules(Map<String, Set<AuthorityRule>> rules) {
+            Map<String, AuthorityRuleMatcher> matchers = new HashMap<>(rules.size());
+            for (Map.Entry<String, Set<AuthorityRule>> entry : rules.entrySet()) {
+                // One resource has at most one authority rule.
+                for (AuthorityRule rule : entry.getValue()) {
+                    matchers.put(entry.getKey(), AuthorityRuleMatcher.compile(rule));
+                }
+            }
+            return matchers;
+        }
+
         private Map<String, Set<AuthorityRule>> loadAuthorityConf(List<AuthorityRule> list) {
             Map<String, Set<AuthorityRule>> newRuleMap = new ConcurrentHashMap<>();
 
@@ -139,10 +158,12 @@ public final class AuthorityRuleManager {
         public void configLoad(List<AuthorityRule> value) {
             Map<String, Set<AuthorityRule>> rules = loadAuthorityConf(value);
 
+            ruleMatchers = compileRules(rules);
             authorityRules.clear();
             if (rules != null) {
                 authorityRules.putAll(rules);
             }
+            RulePresenceRegistry.updateResources(RulePresenceRegistry.AUTHORITY, authorityRules.keySet());
             RecordLog.info("[AuthorityRuleManager] Load authority rules: " + authorityRules);
         }
     }
@@ -151,6 +172,17 @@ public final class AuthorityRuleManager {
         return authorityRules;
     }
 
+    /**
+     * Get the compiled authority rule of given resource.
+     *
+     * @param resource the resource name
+     * @return the compiled rule, or null if there is no authority rule for the resource
+     * @since 1.7.1
+     */
+    static AuthorityRuleMatcher getRuleMatcher(String resource) {
+        return resource == null ? null : ruleMatchers.get(resource);
+    }
+
     public static boolean isValidRule(AuthorityRule rule) {
         return rule != null && !StringUtil.isBlank(rule.getResource())
             && rule.getStrategy() >= 0 && StringUtil.isNotBlank(rule.getLimitApp());
@@ -0,0 +1,112 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.authority;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.alibaba.csp.sentinel.util.StringUtil;
+
+/**
+ * <p>Matcher of the origins in {@link AuthorityRule#getLimitApp()}, which is compiled once when the rule is loaded,
+ * so checking an origin is a lookup without splitting the string or any allocation:</p>
+ * <ul>
+ * <li>a few origins are compared one by one, where the cached hash code of the origin is compared first;</li>
+ * <li>more origins are looked up in an immutable hash set.</li>
+ * </ul>
+ *
+ * <p>Same as before, origins are separated by comma and matched exactly (without trimming).
+ * The matcher will not reflect changes to the rule after it is compiled.</p>
+ *
+ * @since 1.7.1
+ */
+final class AuthorityRuleMatcher {
+
+    /**
+     * Max amount of origins that are compared one by one.
+     */
+    static final int MAX_LINEAR_SIZE = 8;
+
+    private final AuthorityRule rule;
+    private final boolean emptyLimitApp;
+
+    private final String[] linearOrigins;
+    private final int[] linearHashes;
+    private final Set<String> hashedOrigins;
+
+    private AuthorityRuleMatcher(AuthorityRule rule, List<String> origins) {
+        this.rule = rule;
+        this.emptyLimitApp = StringUtil.isEmpty(rule.getLimitApp());
+        if (origins.size() <= MAX_LINEAR_SIZE) {
+            this.linearOrigins = origins.toArray(new String[0]);
+            this.linearHashes = new int[linearOrigins.length];
+            for (int i = 0; i < linearOrigins.length; i++) {
+                linearHashes[i] = linearOrigins[i].hashCode();
+            }
+            this.hashedOrigins = null;
+        } else {
+            this.linearOrigins = null;
+            this.linearHashes = null;
+            this.hashedOrigins = Collections.unmodifiableSet(new HashSet<String>(origins));
+        }
+    }
+
+    static AuthorityRuleMatcher compile(AuthorityRule rule) {
+        Set<String> origins = new LinkedHashSet<String>();
+        String limitApp = rule.getLimitApp();
+        if (!StringUtil.isEmpty(limitApp)) {
+            for (String app : limitApp.split(",")) {
+                if (!app.isEmpty()) {
+                    origins.add(app);
+                }
+            }
+        }
+        return new AuthorityRuleMatcher(rule, new ArrayList<String>(origins));
+    }
+
+    AuthorityRule getRule() {
+        return rule;
+    }
+
+    int getStrategy() {
+        return rule.getStrategy();
+    }
+
+    boolean isEmptyLimitApp() {
+        return emptyLimitApp;
+    }
+
+    boolean containsOrigin(String origin) {
+        if (hashedOrigins != null) {
+            return hashedOrigins.contains(origin);
+        }
+        int hash = origin.hashCode();
+        for (int i = 0; i < linearOrigins.length; i++) {
+            if (linearHashes[i] == hash && linearOrigins[i].equals(origin)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int size() {
+        return hashedOrigins != null ? hashedOrigins.size() : linearOrigins.length;
+    }
+}
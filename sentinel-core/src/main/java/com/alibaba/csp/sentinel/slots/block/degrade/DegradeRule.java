@@ -15,19 +15,11 @@
  */
 package com.alibaba.csp.sentinel.slots.block.degrade;
 
-import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
 import com.alibaba.csp.sentinel.context.Context;
-import com.alibaba.csp.sentinel.node.ClusterNode;
 import com.alibaba.csp.sentinel.node.DefaultNode;
 import com.alibaba.csp.sentinel.slots.block.AbstractRule;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
-import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
-
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicLong;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.CircuitBreaker;
 
 /**
  * <p>
@@ -49,16 +41,21 @@ import java.util.concurrent.atomic.AtomicLong;
  * success qps exceeds the threshold, access to the resource will be blocked in
  * the coming window.
  * </li>
+ * <li>
+ * Slow request ratio ({@code DEGRADE_GRADE_SLOW_REQUEST_RATIO}): When the ratio of
+ * requests whose RT exceeds 'count' (in milliseconds) among the requests completed in
+ * the last second exceeds 'slowRatioThreshold', access to the resource will be blocked
+ * in the coming window.
+ * </li>
  * </ul>
  *
+ * <p>Each rule is checked by a {@link CircuitBreaker}, which records completed requests and turns
+ * half-open after the time window, so no scheduled task is needed to recover.</p>
+ *
  * @author jialiang.linjl
  */
 public class DegradeRule extends AbstractRule {
 
-    @SuppressWarnings("PMD.ThreadPoolCreationRule")
-    private static ScheduledExecutorService pool = Executors.newScheduledThreadPool(
-        Runtime.getRuntime().availableProcessors(), new NamedThreadFactory("sentinel-degrade-reset-task", true));
-
     public DegradeRule() {}
 
     public DegradeRule(String resourceName) {
@@ -66,7 +63,7 @@ public class DegradeRule extends AbstractRule {
     }
 
     /**
-     * RT threshold or exception ratio threshold count.
+     * RT threshold (in milliseconds) or exception ratio threshold count.
      */
     private double count;
 
@@ -76,7 +73,7 @@ public class DegradeRule extends AbstractRule {
     private int timeWindow;
 
     /**
-     * Degrade strategy (0: average RT, 1: exception ratio, 2: exception count).
+     * Degrade strategy (0: average RT, 1: exception ratio, 2: exception count, 3: slow request ratio).
      */
     private int grade = RuleConstant.DEGRADE_GRADE_RT;
 
@@ -94,6 +91,14 @@ public class DegradeRule extends AbstractRule {
      */
     private int minRequestAmount = RuleConstant.DEGRADE_DEFAULT_MIN_REQUEST_AMOUNT;
 
+    /**
+     * Threshold of the ratio of slow requests (whose RT exceeds {@code count}) that can trigger circuit breaking,
+     * which is used in slow request ratio mode.
+     *
+     * @since 1.7.1
+     */
+    private double slowRatioThreshold = RuleConstant.DEGRADE_DEFAULT_SLOW_RATIO_THRESHOLD;
+
     public int getGrade() {
         return grade;
     }
@@ -139,6 +144,15 @@ public class DegradeRule extends AbstractRule {
         return this;
     }
 
+    public double getSlowRatioThreshold() {
+        return slowRatioThreshold;
+    }
+
+    public DegradeRule setSlowRatioThreshold(double slowRatioThreshold) {
+        this.slowRatioThreshold = slowRatioThreshold;
+        return this;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) { return true; }
@@ -149,7 +163,8 @@ public class DegradeRule extends AbstractRule {
             timeWindow == that.timeWindow &&
             grade == that.grade &&
             rtSlowRequestAmount == that.rtSlowRequestAmount &&
-            minRequestAmount == that.minRequestAmount;
+            minRequestAmount == that.minRequestAmount &&
+            Double.compare(that.slowRatioThreshold, slowRatioThreshold) == 0;
     }
 
     @Override
@@ -160,6 +175,7 @@ public class DegradeRule extends AbstractRule {
         result = 31 * result + grade;
         result = 31 * result + rtSlowRequestAmount;
         result = 31 * result + minRequestAmount;
+        result = 31 * result + new Double(slowRatioThreshold).hashCode();
         return result;
     }
 
@@ -173,82 +189,19 @@ public class DegradeRule extends AbstractRule {
             ", timeWindow=" + timeWindow +
             ", rtSlowRequestAmount=" + rtSlowRequestAmount +
             ", minRequestAmount=" + minRequestAmount +
+            ", slowRatioThreshold=" + slowRatioThreshold +
             "}";
     }
 
-    // Internal implementation (will be deprecated and moved outside).
-
-    private AtomicLong passCount = new AtomicLong(0);
-    private final AtomicBoolean cut = new AtomicBoolean(false);
-
+    /**
+     * Check whether the circuit breaker of this rule, which is created when the rule is loaded
+     * via {@link DegradeRuleManager}, is closed. The check has no side effect, so it never lets
+     * a probe request through an open circuit breaker: circuit breaking is checked by the circuit
+     * breakers in {@link DegradeSlot} directly.
+     */
     @Override
     public boolean passCheck(Context context, DefaultNode node, int acquireCount, Object... args) {
-        if (cut.get()) {
-            return false;
-        }
-
-        ClusterNode clusterNode = ClusterBuilderSlot.getClusterNode(this.getResource());
-        if (clusterNode == null) {
-            return true;
-        }
-
-        if (grade == RuleConstant.DEGRADE_GRADE_RT) {
-            double rt = clusterNode.avgRt();
-            if (rt < this.count) {
-                passCount.set(0);
-                return true;
-            }
-
-            // Sentinel will degrade the service only if count exceeds.
-            if (passCount.incrementAndGet() < rtSlowRequestAmount) {
-                return true;
-            }
-        } else if (grade == RuleConstant.DEGRADE_GRADE_EXCEPTION_RATIO) {
-            double exception = clusterNode.exceptionQps();
-            double success = clusterNode.successQps();
-            double total = clusterNode.totalQps();
-            // If total amount is less than minRequestAmount, the request will pass.
-            if (total < minRequestAmount) {
-                return true;
-            }
-
-            // In the same aligned statistic time window,
-            // "success" (aka. completed count) = exception count + non-exception count (realSuccess)
-            double realSuccess = success - exception;
-            if (realSuccess <= 0 && exception < minRequestAmount) {
-                return true;
-            }
-
-            if (exception / success < count) {
-                return true;
-            }
-        } else if (grade == RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT) {
-            double exception = clusterNode.totalException();
-            if (exception < count) {
-                return true;
-            }
-        }
-
-        if (cut.compareAndSet(false, true)) {
-            ResetTask resetTask = new ResetTask(this);
-            pool.schedule(resetTask, timeWindow, TimeUnit.SECONDS);
-        }
-
-        return false;
-    }
-
-    private static final class ResetTask implements Runnable {
-
-        private DegradeRule rule;
-
-        ResetTask(DegradeRule rule) {
-            this.rule = rule;
-        }
-
-        @Override
-        public void run() {
-            rule.passCount.set(0);
-            rule.cut.set(false);
-        }
+        CircuitBreaker breaker = DegradeRuleManager.getCircuitBreaker(this);
+        return breaker == null || breaker.currentState() == CircuitBreaker.State.CLOSED;
     }
 }
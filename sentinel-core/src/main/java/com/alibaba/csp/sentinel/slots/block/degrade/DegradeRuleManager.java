@@ -16,6 +16,7 @@
 package com.alibaba.csp.sentinel.slots.block.degrade;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -33,6 +34,11 @@ import com.alibaba.csp.sentinel.property.SentinelProperty;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.RulePresenceRegistry;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.CircuitBreaker;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.ExceptionCircuitBreaker;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.ResponseTimeCircuitBreaker;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.SlowRequestRatioCircuitBreaker;
 import com.alibaba.csp.sentinel.util.AssertUtil;
 import com.alibaba.csp.sentinel.util.StringUtil;
 
@@ -44,6 +50,7 @@ import com.alibaba.csp.sentinel.util.StringUtil;
 public final class DegradeRuleManager {
 
     private static final Map<String, Set<DegradeRule>> degradeRules = new ConcurrentHashMap<>();
+    private static volatile Map<String, List<CircuitBreaker>> circuitBreakers = new HashMap<>();
 
     private static final RulePropertyListener LISTENER = new RulePropertyListener();
     private static SentinelProperty<List<DegradeRule>> currentProperty
@@ -72,18 +79,60 @@ public final class DegradeRuleManager {
     public static void checkDegrade(ResourceWrapper resource, Context context, DefaultNode node, int count)
         throws BlockException {
 
-        Set<DegradeRule> rules = degradeRules.get(resource.getName());
-        if (rules == null) {
+        List<CircuitBreaker> breakers = circuitBreakers.get(resource.getName());
+        if (breakers == null) {
             return;
         }
 
-        for (DegradeRule rule : rules) {
-            if (!rule.passCheck(context, node, count)) {
-                throw new DegradeException(rule.getLimitApp(), rule);
+        for (CircuitBreaker breaker : breakers) {
+            if (!breaker.tryPass(context)) {
+                throw new DegradeException(breaker.getRule().getLimitApp(), breaker.getRule());
             }
         }
     }
 
+    /**
+     * Update the circuit breakers of the resource with the completed request.
+     *
+     * @param resource the resource
+     * @param context  the invocation context
+     * @since 1.7.1
+     */
+    public static void onRequestComplete(ResourceWrapper resource, Context context) {
+        List<CircuitBreaker> breakers = circuitBreakers.get(resource.getName());
+        if (breakers == null) {
+            return;
+        }
+        for (CircuitBreaker breaker : breakers) {
+            breaker.onRequestComplete(context);
+        }
+    }
+
+    /**
+     * Get the circuit breakers of the resource, one for each loaded rule.
+     *
+     * @param resourceName the resource name
+     * @return the circuit breakers, or an empty list if there are no rules for the resource
+     * @since 1.7.1
+     */
+    public static List<CircuitBreaker> getCircuitBreakers(String resourceName) {
+        List<CircuitBreaker> breakers = resourceName == null ? null : circuitBreakers.get(resourceName);
+        return breakers == null ? Collections.<CircuitBreaker>emptyList() : breakers;
+    }
+
+    /**
+     * Get the circuit breaker of given rule. Equal rules share the same circuit breaker,
+     * as the breaker is kept when an unchanged rule is reloaded.
+     */
+    static CircuitBreaker getCircuitBreaker(DegradeRule rule) {
+        for (CircuitBreaker breaker : getCircuitBreakers(rule.getResource())) {
+            if (breaker.getRule() == rule || rule.equals(breaker.getRule())) {
+                return breaker;
+            }
+        }
+        return null;
+    }
+
     public static boolean hasConfig(String resource) {
         if (resource == null) {
             return false;
@@ -158,9 +207,11 @@ public final class DegradeRuleManager {
         public void configUpdate(List<DegradeRule> conf) {
             Map<String, Set<DegradeRule>> rules = loadDegradeConf(conf);
             if (rules != null) {
+                circuitBreakers = buildCircuitBreakers(rules);
                 degradeRules.clear();
                 degradeRules.putAll(rules);
             }
+            RulePresenceRegistry.updateResources(RulePresenceRegistry.DEGRADE, degradeRules.keySet());
             RecordLog.info("[DegradeRuleManager] Degrade rules received: " + degradeRules);
         }
 
@@ -168,12 +219,44 @@ public final class DegradeRuleManager {
         public void configLoad(List<DegradeRule> conf) {
             Map<String, Set<DegradeRule>> rules = loadDegradeConf(conf);
             if (rules != null) {
+                circuitBreakers = buildCircuitBreakers(rules);
                 degradeRules.clear();
                 degradeRules.putAll(rules);
             }
+            RulePresenceRegistry.updateResources(RulePresenceRegistry.DEGRADE, degradeRules.keySet());
             RecordLog.info("[DegradeRuleManager] Degrade rules loaded: " + degradeRules);
         }
 
+        /**
+         * Build the circuit breakers of new rules, where the breaker of an unchanged rule is kept,
+         * so reloading the rules will not reset the state of circuit breakers.
+         */
+        private Map<String, List<CircuitBreaker>> buildCircuitBreakers(Map<String, Set<DegradeRule>> rules) {
+            Map<String, List<CircuitBreaker>> breakerMap = new HashMap<>(rules.size());
+            for (Map.Entry<String, Set<DegradeRule>> entry : rules.entrySet()) {
+                List<CircuitBreaker> oldBreakers = circuitBreakers.get(entry.getKey());
+                List<CircuitBreaker> breakers = new ArrayList<>(entry.getValue().size());
+                for (DegradeRule rule : entry.getValue()) {
+                    CircuitBreaker breaker = findBreakerOfSameRule(oldBreakers, rule);
+                    breakers.add(breaker == null ? newCircuitBreaker(rule) : breaker);
+                }
+                breakerMap.put(entry.getKey(), breakers);
+            }
+            return breakerMap;
+        }
+
+        private CircuitBreaker findBreakerOfSameRule(List<CircuitBreaker> breakers, DegradeRule rule) {
+            if (breakers == null) {
+                return null;
+            }
+            for (CircuitBreaker breaker : breakers) {
+                if (rule.equals(breaker.getRule())) {
+                    return breaker;
+                }
+            }
+            return null;
+        }
+
         private Map<String, Set<DegradeRule>> loadDegradeConf(List<DegradeRule> list) {
             Map<String, Set<DegradeRule>> newRuleMap = new ConcurrentHashMap<>();
 
@@ -205,15 +288,29 @@ public final class DegradeRuleManager {
         }
     }
 
+    private static CircuitBreaker newCircuitBreaker(DegradeRule rule) {
+        switch (rule.getGrade()) {
+            case RuleConstant.DEGRADE_GRADE_RT:
+                return new ResponseTimeCircuitBreaker(rule);
+            case RuleConstant.DEGRADE_GRADE_SLOW_REQUEST_RATIO:
+                return new SlowRequestRatioCircuitBreaker(rule);
+            default:
+                return new ExceptionCircuitBreaker(rule);
+        }
+    }
+
     public static boolean isValidRule(DegradeRule rule) {
         boolean baseValid = rule != null && !StringUtil.isBlank(rule.getResource())
-            && rule.getCount() >= 0 && rule.getTimeWindow() > 0;
+            && rule.getCount() >= 0 && rule.getTimeWindow() > 0
+            && rule.getGrade() >= RuleConstant.DEGRADE_GRADE_RT
+            && rule.getGrade() <= RuleConstant.DEGRADE_GRADE_SLOW_REQUEST_RATIO;
         if (!baseValid) {
             return false;
         }
         int maxAllowedRt = SentinelConfig.statisticMaxRt();
-        if (rule.getGrade() == RuleConstant.DEGRADE_GRADE_RT) {
-            if (rule.getRtSlowRequestAmount() <= 0) {
+        if (rule.getGrade() == RuleConstant.DEGRADE_GRADE_RT
+            || rule.getGrade() == RuleConstant.DEGRADE_GRADE_SLOW_REQUEST_RATIO) {
+            if (rule.getGrade() == RuleConstant.DEGRADE_GRADE_RT && rule.getRtSlowRequestAmount() <= 0) {
                 return false;
             }
             // Warn for RT mode that exceeds the {@code TIME_DROP_VALVE}.
@@ -228,6 +325,11 @@ public final class DegradeRuleManager {
         if (rule.getGrade() == RuleConstant.DEGRADE_GRADE_EXCEPTION_RATIO) {
             return rule.getCount() <= 1 && rule.getMinRequestAmount() > 0;
         }
+        // Check slow request ratio mode.
+        if (rule.getGrade() == RuleConstant.DEGRADE_GRADE_SLOW_REQUEST_RATIO) {
+            return rule.getSlowRatioThreshold() >= 0 && rule.getSlowRatioThreshold() <= 1
+                && rule.getMinRequestAmount() > 0;
+        }
         return true;
     }
 }
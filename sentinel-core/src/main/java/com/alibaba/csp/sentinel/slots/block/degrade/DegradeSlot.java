@@ -15,6 +15,7 @@
  */
 package com.alibaba.csp.sentinel.slots.block.degrade;
 
+import com.alibaba.csp.sentinel.Entry;
 import com.alibaba.csp.sentinel.context.Context;
 import com.alibaba.csp.sentinel.node.DefaultNode;
 import com.alibaba.csp.sentinel.slotchain.AbstractLinkedProcessorSlot;
@@ -37,6 +38,11 @@ public class DegradeSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
 
     @Override
     public void exit(Context context, ResourceWrapper resourceWrapper, int count, Object... args) {
+        Entry curEntry = context.getCurEntry();
+        // Blocked requests are not recorded by the circuit breakers.
+        if (curEntry != null && curEntry.getError() == null) {
+            DegradeRuleManager.onRequestComplete(resourceWrapper, context);
+        }
         fireExit(context, resourceWrapper, count, args);
     }
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRule;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * <p>Base of circuit breakers. The state transition from {@link State#OPEN} to {@link State#HALF_OPEN} is
+ * computed lazily from the retry timestamp when requests arrive, so no scheduled task is needed, and the
+ * check of a closed breaker is a single volatile read.</p>
+ *
+ * <p>If the probe request of the half-open state never completes (e.g. it is blocked by another rule),
+ * another probe will be let through after the recovery timeout.</p>
+ *
+ * @since 1.7.1
+ */
+public abstract class AbstractCircuitBreaker implements CircuitBreaker {
+
+    protected final DegradeRule rule;
+    protected final int recoveryTimeoutMs;
+
+    protected final AtomicReference<State> currentState = new AtomicReference<State>(State.CLOSED);
+    private final AtomicLong nextRetryTimestamp = new AtomicLong(0);
+
+    protected AbstractCircuitBreaker(DegradeRule rule) {
+        AssertUtil.notNull(rule, "rule cannot be null");
+        AssertUtil.isTrue(rule.getTimeWindow() > 0, "timeWindow should be positive");
+        this.rule = rule;
+        this.recoveryTimeoutMs = rule.getTimeWindow() * 1000;
+    }
+
+    @Override
+    public DegradeRule getRule() {
+        return rule;
+    }
+
+    @Override
+    public State currentState() {
+        return currentState.get();
+    }
+
+    @Override
+    public boolean tryPass(Context context) {
+        State state = currentState.get();
+        if (state == State.CLOSED) {
+            return true;
+        }
+        // Open or half-open: let one probe request through once the retry time arrives.
+        long retryTimestamp = nextRetryTimestamp.get();
+        long now = TimeUtil.currentTimeMillis();
+        if (now < retryTimestamp || !nextRetryTimestamp.compareAndSet(retryTimestamp, now + recoveryTimeoutMs)) {
+            return false;
+        }
+        return state == State.HALF_OPEN || currentState.compareAndSet(State.OPEN, State.HALF_OPEN);
+    }
+
+    /**
+     * Reset the statistics when the circuit breaker closes.
+     */
+    protected abstract void resetStat();
+
+    protected boolean fromCloseToOpen() {
+        return transformToOpen(State.CLOSED);
+    }
+
+    protected boolean fromHalfOpenToOpen() {
+        return transformToOpen(State.HALF_OPEN);
+    }
+
+    protected boolean fromHalfOpenToClose() {
+        if (currentState.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+            resetStat();
+            return true;
+        }
+        return false;
+    }
+
+    private boolean transformToOpen(State expected) {
+        if (currentState.get() != expected) {
+            return false;
+        }
+        // Publish the retry timestamp before the state.
+        nextRetryTimestamp.set(TimeUtil.currentTimeMillis() + recoveryTimeoutMs);
+        return currentState.compareAndSet(expected, State.OPEN);
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker;
+
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRule;
+
+/**
+ * <p>Circuit breaker of a {@link DegradeRule}, which is a state machine of three states:</p>
+ * <ul>
+ * <li>{@link State#CLOSED}: all requests pass, and the statistics of completed requests are recorded;</li>
+ * <li>{@link State#OPEN}: all requests are blocked until the recovery timeout ({@code timeWindow}) elapses;</li>
+ * <li>{@link State#HALF_OPEN}: one probe request is let through after the recovery timeout, and the breaker
+ * closes if the probe completes normally, or else opens again.</li>
+ * </ul>
+ *
+ * @since 1.7.1
+ */
+public interface CircuitBreaker {
+
+    /**
+     * Get the associated degrade rule.
+     *
+     * @return the degrade rule
+     */
+    DegradeRule getRule();
+
+    /**
+     * Check whether the request could pass, which is called when the resource is entered.
+     *
+     * @param context the invocation context
+     * @return true if the request could pass, otherwise false
+     */
+    boolean tryPass(Context context);
+
+    /**
+     * Get the current state of the circuit breaker.
+     *
+     * @return the current state
+     */
+    State currentState();
+
+    /**
+     * Record the statistics of the completed request and update the state of the circuit breaker,
+     * which is called when the entry exits without being blocked.
+     *
+     * @param context the invocation context
+     */
+    void onRequestComplete(Context context);
+
+    enum State {
+        OPEN, HALF_OPEN, CLOSED
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker;
+
+import com.alibaba.csp.sentinel.slots.statistic.base.LongAdder;
+
+/**
+ * Counters of completed requests in a bucket of the circuit breaker window.
+ *
+ * @since 1.7.1
+ */
+class CircuitBreakerBucket {
+
+    private final LongAdder total = new LongAdder();
+    private final LongAdder error = new LongAdder();
+    private final LongAdder rt = new LongAdder();
+
+    void add(long rt, boolean error) {
+        total.add(1);
+        this.rt.add(rt);
+        if (error) {
+            this.error.add(1);
+        }
+    }
+
+    long total() {
+        return total.sum();
+    }
+
+    long error() {
+        return error.sum();
+    }
+
+    long rt() {
+        return rt.sum();
+    }
+
+    CircuitBreakerBucket reset() {
+        total.reset();
+        error.reset();
+        rt.reset();
+        return this;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker;
+
+import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
+import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
+
+/**
+ * A compact sliding window owned by a circuit breaker, which is updated only when requests complete.
+ *
+ * @since 1.7.1
+ */
+class CircuitBreakerLeapArray extends LeapArray<CircuitBreakerBucket> {
+
+    CircuitBreakerLeapArray(int sampleCount, int intervalInMs) {
+        super(sampleCount, intervalInMs);
+    }
+
+    @Override
+    public CircuitBreakerBucket newEmptyBucket(long timeMillis) {
+        return new CircuitBreakerBucket();
+    }
+
+    @Override
+    protected WindowWrap<CircuitBreakerBucket> resetWindowTo(WindowWrap<CircuitBreakerBucket> w, long startTime) {
+        w.resetTo(startTime);
+        w.value().reset();
+        return w;
+    }
+
+    long total(long timeMillis) {
+        long sum = 0;
+        for (int i = 0; i < array.length(); i++) {
+            WindowWrap<CircuitBreakerBucket> w = array.get(i);
+            if (w != null && !isWindowDeprecated(timeMillis, w)) {
+                sum += w.value().total();
+            }
+        }
+        return sum;
+    }
+
+    long error(long timeMillis) {
+        long sum = 0;
+        for (int i = 0; i < array.length(); i++) {
+            WindowWrap<CircuitBreakerBucket> w = array.get(i);
+            if (w != null && !isWindowDeprecated(timeMillis, w)) {
+                sum += w.value().error();
+            }
+        }
+        return sum;
+    }
+
+    long rt(long timeMillis) {
+        long sum = 0;
+        for (int i = 0; i < array.length(); i++) {
+            WindowWrap<CircuitBreakerBucket> w = array.get(i);
+            if (w != null && !isWindowDeprecated(timeMillis, w)) {
+                sum += w.value().rt();
+            }
+        }
+        return sum;
+    }
+
+    void reset() {
+        for (int i = 0; i < array.length(); i++) {
+            WindowWrap<CircuitBreakerBucket> w = array.get(i);
+            if (w != null) {
+                w.value().reset();
+            }
+        }
+    }
+}
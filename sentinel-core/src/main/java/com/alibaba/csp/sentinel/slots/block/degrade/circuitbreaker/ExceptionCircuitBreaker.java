@@ -0,0 +1,100 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.Tracer;
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRule;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * <p>Circuit breaker of {@link RuleConstant#DEGRADE_GRADE_EXCEPTION_RATIO} and
+ * {@link RuleConstant#DEGRADE_GRADE_EXCEPTION_COUNT}. A request is counted as an error if an exception
+ * of it has been traced via {@link Tracer}.</p>
+ * <ul>
+ * <li>exception ratio: the breaker opens when the ratio of errors among the requests completed in the
+ * last second reaches the threshold, and at least {@code minRequestAmount} requests have completed;</li>
+ * <li>exception count: the breaker opens when the errors in the last minute reach the threshold.</li>
+ * </ul>
+ *
+ * @since 1.7.1
+ */
+public class ExceptionCircuitBreaker extends AbstractCircuitBreaker {
+
+    private final int grade;
+    private final double threshold;
+    private final int minRequestAmount;
+
+    private final CircuitBreakerLeapArray stat;
+
+    public ExceptionCircuitBreaker(DegradeRule rule) {
+        super(rule);
+        this.grade = rule.getGrade();
+        AssertUtil.isTrue(grade == RuleConstant.DEGRADE_GRADE_EXCEPTION_RATIO
+            || grade == RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT, "rule grade should be exception ratio or count");
+        this.threshold = rule.getCount();
+        this.minRequestAmount = rule.getMinRequestAmount();
+        if (grade == RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT) {
+            this.stat = new CircuitBreakerLeapArray(6, 60 * 1000);
+        } else {
+            this.stat = new CircuitBreakerLeapArray(2, 1000);
+        }
+    }
+
+    @Override
+    public void onRequestComplete(Context context) {
+        Entry entry = context.getCurEntry();
+        if (entry == null) {
+            return;
+        }
+        boolean error = entry.getTracedError() != null;
+        long now = TimeUtil.currentTimeMillis();
+        stat.currentWindow(now).value().add(0, error);
+
+        State state = currentState.get();
+        if (state == State.HALF_OPEN) {
+            if (error) {
+                fromHalfOpenToOpen();
+            } else {
+                fromHalfOpenToClose();
+            }
+            return;
+        }
+        if (state != State.CLOSED || !error) {
+            // Only errors could open the breaker.
+            return;
+        }
+        long errorCount = stat.error(now);
+        if (grade == RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT) {
+            if (errorCount >= threshold) {
+                fromCloseToOpen();
+            }
+            return;
+        }
+        long total = stat.total(now);
+        if (total >= minRequestAmount && (double)errorCount / total >= threshold) {
+            fromCloseToOpen();
+        }
+    }
+
+    @Override
+    protected void resetStat() {
+        stat.reset();
+    }
+}
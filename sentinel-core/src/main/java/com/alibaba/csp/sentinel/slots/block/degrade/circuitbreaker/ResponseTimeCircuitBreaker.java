@@ -0,0 +1,93 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRule;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * Circuit breaker of {@link RuleConstant#DEGRADE_GRADE_RT}: the breaker opens when the average RT of completed
+ * requests in the last second keeps exceeding the threshold for {@code rtSlowRequestAmount} completed requests
+ * in a row.
+ *
+ * @since 1.7.1
+ */
+public class ResponseTimeCircuitBreaker extends AbstractCircuitBreaker {
+
+    private static final int SAMPLE_COUNT = 2;
+    private static final int INTERVAL_MS = 1000;
+
+    private final double maxAllowedRt;
+    private final int slowRequestAmount;
+
+    private final CircuitBreakerLeapArray stat = new CircuitBreakerLeapArray(SAMPLE_COUNT, INTERVAL_MS);
+    private final AtomicInteger slowCount = new AtomicInteger(0);
+
+    public ResponseTimeCircuitBreaker(DegradeRule rule) {
+        super(rule);
+        AssertUtil.isTrue(rule.getGrade() == RuleConstant.DEGRADE_GRADE_RT, "rule grade should be RT");
+        this.maxAllowedRt = rule.getCount();
+        this.slowRequestAmount = rule.getRtSlowRequestAmount();
+    }
+
+    @Override
+    public void onRequestComplete(Context context) {
+        Entry entry = context.getCurEntry();
+        if (entry == null) {
+            return;
+        }
+        long now = TimeUtil.currentTimeMillis();
+        long rt = Math.min(now - entry.getCreateTime(), SentinelConfig.statisticMaxRt());
+        stat.currentWindow(now).value().add(rt, false);
+
+        State state = currentState.get();
+        if (state == State.HALF_OPEN) {
+            if (rt < maxAllowedRt) {
+                fromHalfOpenToClose();
+            } else {
+                fromHalfOpenToOpen();
+            }
+            return;
+        }
+        if (state != State.CLOSED) {
+            return;
+        }
+        long total = stat.total(now);
+        double avgRt = total == 0 ? 0 : (double)stat.rt(now) / total;
+        if (avgRt < maxAllowedRt) {
+            if (slowCount.get() != 0) {
+                slowCount.set(0);
+            }
+            return;
+        }
+        if (slowCount.incrementAndGet() >= slowRequestAmount) {
+            fromCloseToOpen();
+        }
+    }
+
+    @Override
+    protected void resetStat() {
+        stat.reset();
+        slowCount.set(0);
+    }
+}
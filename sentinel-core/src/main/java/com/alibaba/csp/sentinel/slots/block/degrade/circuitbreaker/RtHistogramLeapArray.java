@@ -0,0 +1,82 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker;
+
+import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
+import com.alibaba.csp.sentinel.slots.statistic.base.LogLinearHistogram;
+import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
+
+/**
+ * A sliding window of RT histograms owned by a circuit breaker, which is updated only when requests complete.
+ *
+ * @since 1.7.1
+ */
+class RtHistogramLeapArray extends LeapArray<LogLinearHistogram> {
+
+    private final long maxRt;
+
+    RtHistogramLeapArray(int sampleCount, int intervalInMs, long maxRt) {
+        super(sampleCount, intervalInMs);
+        this.maxRt = maxRt;
+    }
+
+    @Override
+    public LogLinearHistogram newEmptyBucket(long timeMillis) {
+        return new LogLinearHistogram(maxRt);
+    }
+
+    @Override
+    protected WindowWrap<LogLinearHistogram> resetWindowTo(WindowWrap<LogLinearHistogram> w, long startTime) {
+        w.resetTo(startTime);
+        w.value().reset();
+        return w;
+    }
+
+    long total(long timeMillis) {
+        long sum = 0;
+        for (int i = 0; i < array.length(); i++) {
+            WindowWrap<LogLinearHistogram> w = array.get(i);
+            if (w != null && !isWindowDeprecated(timeMillis, w)) {
+                sum += w.value().totalCount();
+            }
+        }
+        return sum;
+    }
+
+    long countAbove(long timeMillis, long rt) {
+        long sum = 0;
+        for (int i = 0; i < array.length(); i++) {
+            WindowWrap<LogLinearHistogram> w = array.get(i);
+            if (w != null && !isWindowDeprecated(timeMillis, w)) {
+                sum += w.value().countAbove(rt);
+            }
+        }
+        return sum;
+    }
+
+    long valueAtPercentile(long timeMillis, double percentile) {
+        return LogLinearHistogram.valueAtPercentile(values(timeMillis), percentile);
+    }
+
+    void reset() {
+        for (int i = 0; i < array.length(); i++) {
+            WindowWrap<LogLinearHistogram> w = array.get(i);
+            if (w != null) {
+                w.value().reset();
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRule;
+import com.alibaba.csp.sentinel.slots.statistic.base.LogLinearHistogram;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * <p>Circuit breaker of {@link RuleConstant#DEGRADE_GRADE_SLOW_REQUEST_RATIO}: a request is slow if its RT
+ * is larger than {@code count} (in milliseconds), and the breaker opens when the ratio of slow requests among
+ * the requests completed in the last second exceeds {@code slowRatioThreshold}, and at least
+ * {@code minRequestAmount} requests have completed.</p>
+ *
+ * <p>The RT of completed requests is recorded in a {@link LogLinearHistogram} of each bucket, so slow requests
+ * are counted at the precision of the histogram (values less than 32ms are exact, and the relative error of
+ * larger values is at most 1/32).</p>
+ *
+ * @since 1.7.1
+ */
+public class SlowRequestRatioCircuitBreaker extends AbstractCircuitBreaker {
+
+    private static final int SAMPLE_COUNT = 2;
+    private static final int INTERVAL_MS = 1000;
+
+    private final long maxAllowedRt;
+    private final double slowRatioThreshold;
+    private final int minRequestAmount;
+
+    private final RtHistogramLeapArray stat;
+
+    public SlowRequestRatioCircuitBreaker(DegradeRule rule) {
+        super(rule);
+        AssertUtil.isTrue(rule.getGrade() == RuleConstant.DEGRADE_GRADE_SLOW_REQUEST_RATIO,
+            "rule grade should be slow request ratio");
+        this.maxAllowedRt = (long)rule.getCount();
+        this.slowRatioThreshold = rule.getSlowRatioThreshold();
+        this.minRequestAmount = rule.getMinRequestAmount();
+        this.stat = new RtHistogramLeapArray(SAMPLE_COUNT, INTERVAL_MS, SentinelConfig.statisticMaxRt());
+    }
+
+    @Override
+    public void onRequestComplete(Context context) {
+        Entry entry = context.getCurEntry();
+        if (entry == null) {
+            return;
+        }
+        long now = TimeUtil.currentTimeMillis();
+        long rt = now - entry.getCreateTime();
+        stat.currentWindow(now).value().record(rt);
+        boolean slow = rt > maxAllowedRt;
+
+        State state = currentState.get();
+        if (state == State.HALF_OPEN) {
+            if (slow) {
+                fromHalfOpenToOpen();
+            } else {
+                fromHalfOpenToClose();
+            }
+            return;
+        }
+        if (state != State.CLOSED || !slow) {
+            // Only slow requests could open the breaker.
+            return;
+        }
+        long total = stat.total(now);
+        if (total < minRequestAmount) {
+            return;
+        }
+        double slowRatio = (double)stat.countAbove(now, maxAllowedRt) / total;
+        if (slowRatio > slowRatioThreshold || (slowRatio == slowRatioThreshold && slowRatioThreshold == 1)) {
+            fromCloseToOpen();
+        }
+    }
+
+    /**
+     * Get the RT at given percentile of the requests completed in the last second.
+     *
+     * @param percentile the percentile in (0, 100]
+     * @return the RT at given percentile (in milliseconds), or 0 if no request has completed
+     */
+    public long getRtPercentile(double percentile) {
+        return stat.valueAtPercentile(TimeUtil.currentTimeMillis(), percentile);
+    }
+
+    @Override
+    protected void resetStat() {
+        stat.reset();
+    }
+}
@@ -17,6 +17,8 @@ package com.alibaba.csp.sentinel.slots.block.flow;
 
 import java.util.Collection;
 
+import com.alibaba.csp.sentinel.AsyncEntry;
+import com.alibaba.csp.sentinel.Entry;
 import com.alibaba.csp.sentinel.cluster.ClusterStateManager;
 import com.alibaba.csp.sentinel.cluster.server.EmbeddedClusterTokenServerProvider;
 import com.alibaba.csp.sentinel.cluster.client.TokenClientProvider;
@@ -32,6 +34,7 @@ import com.alibaba.csp.sentinel.slots.block.BlockException;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
 import com.alibaba.csp.sentinel.util.StringUtil;
+import com.alibaba.csp.sentinel.util.TimeUtil;
 import com.alibaba.csp.sentinel.util.function.Function;
 
 /**
@@ -82,7 +85,28 @@ public class FlowRuleChecker {
             return true;
         }
 
-        return rule.getRater().canPass(selectedNode, acquireCount, prioritized);
+        TrafficShapingController rater = rule.getRater();
+        if (rater instanceof PacedTrafficShapingController) {
+            AsyncEntry pacedEntry = getNonBlockingPacedEntry(context);
+            if (pacedEntry != null) {
+                long passTime = ((PacedTrafficShapingController)rater)
+                    .reservePassTime(selectedNode, acquireCount, prioritized);
+                if (passTime == PacedTrafficShapingController.REJECTED) {
+                    return false;
+                }
+                pacedEntry.schedulePassAt(passTime);
+                return true;
+            }
+        }
+        return rater.canPass(selectedNode, acquireCount, prioritized);
+    }
+
+    private static AsyncEntry getNonBlockingPacedEntry(Context context) {
+        Entry curEntry = context.getCurEntry();
+        if (curEntry instanceof AsyncEntry && ((AsyncEntry)curEntry).isNonBlockingPacing()) {
+            return (AsyncEntry)curEntry;
+        }
+        return null;
     }
 
     static Node selectReferenceNode(FlowRule rule, Context context, DefaultNode node) {
@@ -190,17 +214,20 @@ public class FlowRuleChecker {
             case TokenResultStatus.OK:
                 return true;
             case TokenResultStatus.SHOULD_WAIT:
-                // Wait for next tick.
-                try {
-                    Thread.sleep(result.getWaitInMs());
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
+                AsyncEntry pacedEntry = getNonBlockingPacedEntry(context);
+                if (pacedEntry != null) {
+                    // Let the asynchronous caller wait for next tick.
+                    pacedEntry.schedulePassAt(TimeUtil.currentTimeMillis() + result.getWaitInMs());
+                } else {
+                    // Wait for next tick.
+                    WaitStrategyProvider.getWaitStrategy().await(result.getWaitInMs());
                 }
                 return true;
             case TokenResultStatus.NO_RULE_EXISTS:
             case TokenResultStatus.BAD_REQUEST:
             case TokenResultStatus.FAIL:
             case TokenResultStatus.TOO_MANY_REQUEST:
+            case TokenResultStatus.NOT_OWNER:
                 return fallbackToLocalOrPass(rule, context, node, acquireCount, prioritized);
             case TokenResultStatus.BLOCKED:
             default:
@@ -16,8 +16,10 @@
 package com.alibaba.csp.sentinel.slots.block.flow;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -25,6 +27,8 @@ import java.util.concurrent.TimeUnit;
 
 import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
 import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.RulePresenceRegistry;
 import com.alibaba.csp.sentinel.util.AssertUtil;
 import com.alibaba.csp.sentinel.util.StringUtil;
 import com.alibaba.csp.sentinel.node.metric.MetricTimerListener;
@@ -124,6 +128,22 @@ public class FlowRuleManager {
         return true;
     }
 
+    /**
+     * Publish resources that flow rules depend on to the {@link RulePresenceRegistry}. For rules with
+     * relate strategy, the statistics of the referenced resource are also needed.
+     */
+    private static void publishRuleResources() {
+        Set<String> resources = new HashSet<String>(flowRules.keySet());
+        for (List<FlowRule> rules : flowRules.values()) {
+            for (FlowRule rule : rules) {
+                if (rule.getStrategy() == RuleConstant.STRATEGY_RELATE && StringUtil.isNotBlank(rule.getRefResource())) {
+                    resources.add(rule.getRefResource());
+                }
+            }
+        }
+        RulePresenceRegistry.updateResources(RulePresenceRegistry.FLOW, resources);
+    }
+
     private static final class FlowPropertyListener implements PropertyListener<List<FlowRule>> {
 
         @Override
@@ -133,6 +153,7 @@ public class FlowRuleManager {
                 flowRules.clear();
                 flowRules.putAll(rules);
             }
+            publishRuleResources();
             RecordLog.info("[FlowRuleManager] Flow rules received: " + flowRules);
         }
 
@@ -143,6 +164,7 @@ public class FlowRuleManager {
                 flowRules.clear();
                 flowRules.putAll(rules);
             }
+            publishRuleResources();
             RecordLog.info("[FlowRuleManager] Flow rules loaded: " + flowRules);
         }
     }
@@ -0,0 +1,63 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.AsyncEntry;
+import com.alibaba.csp.sentinel.concurrent.TimerWheel;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>Callback-based continuation for asynchronous entries created with non-blocking pacing
+ * (see {@link com.alibaba.csp.sentinel.SphU#asyncEntryWithPacing}).</p>
+ *
+ * <p>Instead of waiting in the caller thread, the continuation is scheduled on the shared
+ * {@link TimerWheel} and then handed over to the given executor once the reserved pass time arrives,
+ * so event loops or carrier threads of virtual threads will not be occupied while queueing.</p>
+ *
+ * @since 1.7.1
+ */
+public final class PacedContinuation {
+
+    /**
+     * Run the continuation via the executor when the pass time reserved for the entry arrives.
+     * If no wait is needed, the continuation will be handed over to the executor immediately.
+     *
+     * @param entry        the asynchronous entry
+     * @param continuation the continuation of the request
+     * @param executor     the executor to run the continuation
+     */
+    public static void runWhenPassed(AsyncEntry entry, final Runnable continuation, final Executor executor) {
+        AssertUtil.notNull(entry, "entry cannot be null");
+        AssertUtil.notNull(continuation, "continuation cannot be null");
+        AssertUtil.notNull(executor, "executor cannot be null");
+        long waitInMs = entry.getPassWaitInMs();
+        if (waitInMs <= 0) {
+            executor.execute(continuation);
+            return;
+        }
+        TimerWheel.getDefault().schedule(new Runnable() {
+            @Override
+            public void run() {
+                executor.execute(continuation);
+            }
+        }, waitInMs, TimeUnit.MILLISECONDS);
+    }
+
+    private PacedContinuation() {}
+}
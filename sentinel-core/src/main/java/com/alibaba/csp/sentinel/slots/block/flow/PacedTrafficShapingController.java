@@ -0,0 +1,46 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow;
+
+import com.alibaba.csp.sentinel.node.Node;
+
+/**
+ * <p>A traffic shaping controller that paces requests by letting them wait for their turn.</p>
+ *
+ * <p>{@link #canPass(Node, int, boolean)} waits in the caller thread until the pass time. Asynchronous
+ * callers could reserve the pass time via {@link #reservePassTime(Node, int, boolean)} instead,
+ * and delay the request by themselves without blocking the caller thread.</p>
+ *
+ * @since 1.7.1
+ */
+public interface PacedTrafficShapingController extends TrafficShapingController {
+
+    /**
+     * Indicates that the request should be blocked.
+     */
+    long REJECTED = -1;
+
+    /**
+     * Reserve the pass time for given resource entry with provided count, without waiting.
+     *
+     * @param node resource node
+     * @param acquireCount count to acquire
+     * @param prioritized whether the request is prioritized
+     * @return the scheduled pass time (in ms, see {@link com.alibaba.csp.sentinel.util.TimeUtil}),
+     * which may be in the past if the request can pass immediately; or {@link #REJECTED} if it should be blocked
+     */
+    long reservePassTime(Node node, int acquireCount, boolean prioritized);
+}
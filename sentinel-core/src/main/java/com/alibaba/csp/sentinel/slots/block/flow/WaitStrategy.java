@@ -0,0 +1,37 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow;
+
+/**
+ * <p>Strategy of waiting in the caller thread when a request has to queue for its turn,
+ * e.g. in rate limiter controllers or when the cluster token server responds with
+ * {@link com.alibaba.csp.sentinel.cluster.TokenResultStatus#SHOULD_WAIT}.</p>
+ *
+ * <p>The strategy is resolved via SPI, see {@link WaitStrategyProvider}. Asynchronous callers could avoid
+ * waiting in the caller thread at all, see {@link PacedContinuation}.</p>
+ *
+ * @since 1.7.1
+ */
+public interface WaitStrategy {
+
+    /**
+     * Wait in the caller thread for given time.
+     *
+     * @param waitInMs time to wait in ms
+     * @return true if the wait completed, or false if the caller thread has been interrupted
+     */
+    boolean await(long waitInMs);
+}
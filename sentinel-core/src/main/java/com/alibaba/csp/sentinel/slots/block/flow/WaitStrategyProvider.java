@@ -0,0 +1,61 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.slots.block.flow.controller.ParkWaitStrategy;
+import com.alibaba.csp.sentinel.slots.block.flow.controller.SleepWaitStrategy;
+import com.alibaba.csp.sentinel.util.SpiLoader;
+
+/**
+ * A provider for the {@link WaitStrategy}. The built-in strategies could be selected via
+ * {@link SentinelConfig#FLOW_WAIT_STRATEGY}. Otherwise the strategy is resolved via SPI, and if no other
+ * strategy is registered, {@link SleepWaitStrategy} will be used.
+ *
+ * @since 1.7.1
+ */
+public final class WaitStrategyProvider {
+
+    public static WaitStrategy getWaitStrategy() {
+        return WaitStrategyHolder.INSTANCE;
+    }
+
+    static WaitStrategy resolveWaitStrategy() {
+        String type = SentinelConfig.flowWaitStrategy();
+        if (SentinelConfig.FLOW_WAIT_STRATEGY_PARK.equals(type)) {
+            RecordLog.info("[WaitStrategyProvider] Using configured wait strategy: " + type);
+            return new ParkWaitStrategy();
+        }
+        if (SentinelConfig.FLOW_WAIT_STRATEGY_SLEEP.equals(type)) {
+            RecordLog.info("[WaitStrategyProvider] Using configured wait strategy: " + type);
+            return new SleepWaitStrategy();
+        }
+        WaitStrategy strategy = SpiLoader.loadFirstInstanceOrDefault(WaitStrategy.class, SleepWaitStrategy.class);
+        if (strategy == null) {
+            RecordLog.warn("[WaitStrategyProvider] Wrong state when resolving wait strategy, using default");
+            return new SleepWaitStrategy();
+        }
+        RecordLog.info("[WaitStrategyProvider] Wait strategy resolved: " + strategy.getClass().getCanonicalName());
+        return strategy;
+    }
+
+    private static final class WaitStrategyHolder {
+        private static final WaitStrategy INSTANCE = resolveWaitStrategy();
+    }
+
+    private WaitStrategyProvider() {}
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.controller;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import com.alibaba.csp.sentinel.slots.block.flow.WaitStrategy;
+
+/**
+ * <p>Waits via {@link LockSupport#parkNanos(Object, long)} until a deadline on {@link System#nanoTime()}.</p>
+ *
+ * <p>Spurious wake-ups are handled by parking again for the remaining time, so the wait ends
+ * close to the deadline. Virtual threads will be unmounted from their carrier threads while parking.
+ * The interrupt status of the caller thread is kept. It could be selected via
+ * {@link com.alibaba.csp.sentinel.config.SentinelConfig#FLOW_WAIT_STRATEGY}.</p>
+ *
+ * @since 1.7.1
+ */
+public class ParkWaitStrategy implements WaitStrategy {
+
+    @Override
+    public boolean await(long waitInMs) {
+        if (waitInMs <= 0) {
+            return true;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitInMs);
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            LockSupport.parkNanos(this, remaining);
+        }
+        return true;
+    }
+}
@@ -17,7 +17,8 @@ package com.alibaba.csp.sentinel.slots.block.flow.controller;
 
 import java.util.concurrent.atomic.AtomicLong;
 
-import com.alibaba.csp.sentinel.slots.block.flow.TrafficShapingController;
+import com.alibaba.csp.sentinel.slots.block.flow.PacedTrafficShapingController;
+import com.alibaba.csp.sentinel.slots.block.flow.WaitStrategyProvider;
 
 import com.alibaba.csp.sentinel.util.TimeUtil;
 import com.alibaba.csp.sentinel.node.Node;
@@ -25,7 +26,7 @@ import com.alibaba.csp.sentinel.node.Node;
 /**
  * @author jialiang.linjl
  */
-public class RateLimiterController implements TrafficShapingController {
+public class RateLimiterController implements PacedTrafficShapingController {
 
     private final int maxQueueingTimeMs;
     private final double count;
@@ -44,14 +45,25 @@ public class RateLimiterController implements TrafficShapingController {
 
     @Override
     public boolean canPass(Node node, int acquireCount, boolean prioritized) {
+        long passTime = reservePassTime(node, acquireCount, prioritized);
+        if (passTime == REJECTED) {
+            return false;
+        }
+        long waitTime = passTime - TimeUtil.currentTimeMillis();
+        // in race condition waitTime may <= 0
+        return waitTime <= 0 || WaitStrategyProvider.getWaitStrategy().await(waitTime);
+    }
+
+    @Override
+    public long reservePassTime(Node node, int acquireCount, boolean prioritized) {
         // Pass when acquire count is less or equal than 0.
         if (acquireCount <= 0) {
-            return true;
+            return TimeUtil.currentTimeMillis();
         }
         // Reject when count is less or equal than 0.
         // Otherwise,the costTime will be max of long and waitTime will overflow in some cases.
         if (count <= 0) {
-            return false;
+            return REJECTED;
         }
 
         long currentTime = TimeUtil.currentTimeMillis();
@@ -64,30 +76,19 @@ public class RateLimiterController implements TrafficShapingController {
         if (expectedTime <= currentTime) {
             // Contention may exist here, but it's okay.
             latestPassedTime.set(currentTime);
-            return true;
-        } else {
-            // Calculate the time to wait.
-            long waitTime = costTime + latestPassedTime.get() - TimeUtil.currentTimeMillis();
-            if (waitTime > maxQueueingTimeMs) {
-                return false;
-            } else {
-                long oldTime = latestPassedTime.addAndGet(costTime);
-                try {
-                    waitTime = oldTime - TimeUtil.currentTimeMillis();
-                    if (waitTime > maxQueueingTimeMs) {
-                        latestPassedTime.addAndGet(-costTime);
-                        return false;
-                    }
-                    // in race condition waitTime may <= 0
-                    if (waitTime > 0) {
-                        Thread.sleep(waitTime);
-                    }
-                    return true;
-                } catch (InterruptedException e) {
-                }
-            }
+            return currentTime;
+        }
+        // Calculate the time to wait.
+        long waitTime = costTime + latestPassedTime.get() - TimeUtil.currentTimeMillis();
+        if (waitTime > maxQueueingTimeMs) {
+            return REJECTED;
         }
-        return false;
+        long oldTime = latestPassedTime.addAndGet(costTime);
+        waitTime = oldTime - TimeUtil.currentTimeMillis();
+        if (waitTime > maxQueueingTimeMs) {
+            latestPassedTime.addAndGet(-costTime);
+            return REJECTED;
+        }
+        return oldTime;
     }
-
 }
@@ -0,0 +1,39 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.controller;
+
+import com.alibaba.csp.sentinel.slots.block.flow.WaitStrategy;
+
+/**
+ * Waits via {@link Thread#sleep(long)}, which is the default wait strategy.
+ *
+ * @since 1.7.1
+ */
+public class SleepWaitStrategy implements WaitStrategy {
+
+    @Override
+    public boolean await(long waitInMs) {
+        if (waitInMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(waitInMs);
+            return true;
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+}
@@ -18,13 +18,15 @@ package com.alibaba.csp.sentinel.slots.block.flow.controller;
 import java.util.concurrent.atomic.AtomicLong;
 
 import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.slots.block.flow.PacedTrafficShapingController;
+import com.alibaba.csp.sentinel.slots.block.flow.WaitStrategyProvider;
 import com.alibaba.csp.sentinel.util.TimeUtil;
 
 /**
  * @author jialiang.linjl
  * @since 1.4.0
  */
-public class WarmUpRateLimiterController extends WarmUpController {
+public class WarmUpRateLimiterController extends WarmUpController implements PacedTrafficShapingController {
 
     private final int timeoutInMs;
     private final AtomicLong latestPassedTime = new AtomicLong(-1);
@@ -41,6 +43,16 @@ public class WarmUpRateLimiterController extends WarmUpController {
 
     @Override
     public boolean canPass(Node node, int acquireCount, boolean prioritized) {
+        long passTime = reservePassTime(node, acquireCount, prioritized);
+        if (passTime == REJECTED) {
+            return false;
+        }
+        long waitTime = passTime - TimeUtil.currentTimeMillis();
+        return waitTime <= 0 || WaitStrategyProvider.getWaitStrategy().await(waitTime);
+    }
+
+    @Override
+    public long reservePassTime(Node node, int acquireCount, boolean prioritized) {
         long previousQps = (long) node.previousPassQps();
         syncToken(previousQps);
 
@@ -62,27 +74,18 @@ public class WarmUpRateLimiterController extends WarmUpController {
 
         if (expectedTime <= currentTime) {
             latestPassedTime.set(currentTime);
-            return true;
-        } else {
-            long waitTime = costTime + latestPassedTime.get() - currentTime;
-            if (waitTime > timeoutInMs) {
-                return false;
-            } else {
-                long oldTime = latestPassedTime.addAndGet(costTime);
-                try {
-                    waitTime = oldTime - TimeUtil.currentTimeMillis();
-                    if (waitTime > timeoutInMs) {
-                        latestPassedTime.addAndGet(-costTime);
-                        return false;
-                    }
-                    if (waitTime > 0) {
-                        Thread.sleep(waitTime);
-                    }
-                    return true;
-                } catch (InterruptedException e) {
-                }
-            }
+            return currentTime;
+        }
+        long waitTime = costTime + latestPassedTime.get() - currentTime;
+        if (waitTime > timeoutInMs) {
+            return REJECTED;
+        }
+        long oldTime = latestPassedTime.addAndGet(costTime);
+        waitTime = oldTime - TimeUtil.currentTimeMillis();
+        if (waitTime > timeoutInMs) {
+            latestPassedTime.addAndGet(-costTime);
+            return REJECTED;
         }
-        return false;
+        return oldTime;
     }
 }
@@ -15,12 +15,15 @@
  */
 package com.alibaba.csp.sentinel.slots.clusterbuilder;
 
-import java.util.HashMap;
 import java.util.Map;
 
 import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.concurrent.ResourceRegistry;
+import com.alibaba.csp.sentinel.concurrent.ResourceRegistry.EvictionFilter;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.context.Context;
 import com.alibaba.csp.sentinel.context.ContextUtil;
+import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.node.ClusterNode;
 import com.alibaba.csp.sentinel.node.DefaultNode;
 import com.alibaba.csp.sentinel.node.IntervalProperty;
@@ -30,6 +33,8 @@ import com.alibaba.csp.sentinel.slotchain.AbstractLinkedProcessorSlot;
 import com.alibaba.csp.sentinel.slotchain.ProcessorSlotChain;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
 import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.RulePresenceRegistry;
+import com.alibaba.csp.sentinel.util.function.Function;
 
 /**
  * <p>
@@ -56,36 +61,45 @@ public class ClusterBuilderSlot extends AbstractLinkedProcessorSlot<DefaultNode>
      * <p>
      * To get total statistics of the same resource in different context, same resource
      * shares the same {@link ClusterNode} globally. All {@link ClusterNode}s are cached
-     * in this map.
-     * </p>
-     * <p>
-     * The longer the application runs, the more stable this mapping will
-     * become. so we don't concurrent map but a lock. as this lock only happens
-     * at the very beginning while concurrent map will hold the lock all the time.
+     * in this registry, whose size is limited by {@link SentinelConfig#statisticMaxClusterNodeSize()}.
+     * When the limit is reached, the cluster node of an idle resource without rules and in-flight
+     * invocations could be evicted (see {@link SentinelConfig#resourceIdleEvictionMs()}).
      * </p>
      */
-    private static volatile Map<ResourceWrapper, ClusterNode> clusterNodeMap = new HashMap<>();
+    private static final ResourceRegistry<ResourceWrapper, ClusterNode> clusterNodeRegistry
+        = new ResourceRegistry<>("clusterNode", SentinelConfig.statisticMaxClusterNodeSize(),
+        SentinelConfig.resourceIdleEvictionMs(), false, new EvictionFilter<ResourceWrapper, ClusterNode>() {
+            @Override
+            public boolean canEvict(ResourceWrapper resourceWrapper, ClusterNode node) {
+                return !RulePresenceRegistry.hasRules(resourceWrapper) && node.curThreadNum() <= 0;
+            }
+        }, null);
 
-    private static final Object lock = new Object();
+    private static final Function<ResourceWrapper, ClusterNode> CLUSTER_NODE_FACTORY
+        = new Function<ResourceWrapper, ClusterNode>() {
+        @Override
+        public ClusterNode apply(ResourceWrapper resourceWrapper) {
+            return new ClusterNode(resourceWrapper.getName(), resourceWrapper.getResourceType());
+        }
+    };
 
     private volatile ClusterNode clusterNode = null;
+    /**
+     * Evicted count of the registry when the cluster node was resolved. Once any cluster node has been
+     * evicted, the cluster node is resolved again in case it is the evicted one.
+     */
+    private volatile long resolvedEvictedCount = 0;
 
     @Override
     public void entry(Context context, ResourceWrapper resourceWrapper, DefaultNode node, int count,
                       boolean prioritized, Object... args)
         throws Throwable {
-        if (clusterNode == null) {
-            synchronized (lock) {
-                if (clusterNode == null) {
-                    // Create the cluster node.
-                    clusterNode = new ClusterNode(resourceWrapper.getName(), resourceWrapper.getResourceType());
-                    HashMap<ResourceWrapper, ClusterNode> newMap = new HashMap<>(Math.max(clusterNodeMap.size(), 16));
-                    newMap.putAll(clusterNodeMap);
-                    newMap.put(node.getId(), clusterNode);
-
-                    clusterNodeMap = newMap;
-                }
-            }
+        ClusterNode clusterNode = this.clusterNode;
+        long evictedCount = clusterNodeRegistry.getEvictedCount();
+        if (clusterNode == null || evictedCount != resolvedEvictedCount) {
+            clusterNode = resolveClusterNode(node.getId(), clusterNode);
+            this.clusterNode = clusterNode;
+            this.resolvedEvictedCount = evictedCount;
         }
         node.setClusterNode(clusterNode);
 
@@ -101,6 +115,22 @@ public class ClusterBuilderSlot extends AbstractLinkedProcessorSlot<DefaultNode>
         fireEntry(context, resourceWrapper, node, count, prioritized, args);
     }
 
+    private ClusterNode resolveClusterNode(ResourceWrapper resourceWrapper, ClusterNode current) {
+        // Create the cluster node under the striped lock of the resource.
+        ClusterNode clusterNode = clusterNodeRegistry.computeIfAbsent(resourceWrapper, CLUSTER_NODE_FACTORY);
+        if (clusterNode != null) {
+            return clusterNode;
+        }
+        // The registry is full, so keep the statistics in an unregistered node owned by this slot.
+        if (current == null) {
+            RecordLog.warn("[ClusterBuilderSlot] Amount of cluster nodes exceeds the threshold "
+                + clusterNodeRegistry.getMaxSize() + ", statistics of resource will not be registered: "
+                + resourceWrapper.getName());
+            current = CLUSTER_NODE_FACTORY.apply(resourceWrapper);
+        }
+        return current;
+    }
+
     @Override
     public void exit(Context context, ResourceWrapper resourceWrapper, int count, Object... args) {
         fireExit(context, resourceWrapper, count, args);
@@ -114,7 +144,7 @@ public class ClusterBuilderSlot extends AbstractLinkedProcessorSlot<DefaultNode>
      * @return the {@link ClusterNode}
      */
     public static ClusterNode getClusterNode(String id, EntryType type) {
-        return clusterNodeMap.get(new StringResourceWrapper(id, type));
+        return clusterNodeRegistry.get(new StringResourceWrapper(id, type));
     }
 
     /**
@@ -130,7 +160,7 @@ public class ClusterBuilderSlot extends AbstractLinkedProcessorSlot<DefaultNode>
         ClusterNode clusterNode = null;
 
         for (EntryType nodeType : EntryType.values()) {
-            clusterNode = clusterNodeMap.get(new StringResourceWrapper(id, nodeType));
+            clusterNode = clusterNodeRegistry.get(new StringResourceWrapper(id, nodeType));
             if (clusterNode != null) {
                 break;
             }
@@ -147,7 +177,18 @@ public class ClusterBuilderSlot extends AbstractLinkedProcessorSlot<DefaultNode>
      * @return all {@link ClusterNode}s
      */
     public static Map<ResourceWrapper, ClusterNode> getClusterNodeMap() {
-        return clusterNodeMap;
+        return clusterNodeRegistry.asMap();
+    }
+
+    /**
+     * Remove the {@link ClusterNode} of the resource, e.g. when the slot chain of the resource has been evicted.
+     *
+     * @param resourceWrapper the resource
+     * @return the removed {@link ClusterNode}, or null if absent
+     * @since 1.7.1
+     */
+    public static ClusterNode removeClusterNode(ResourceWrapper resourceWrapper) {
+        return clusterNodeRegistry.remove(resourceWrapper);
     }
 
     /**
@@ -155,7 +196,7 @@ public class ClusterBuilderSlot extends AbstractLinkedProcessorSlot<DefaultNode>
      * {@link SampleCountProperty#SAMPLE_COUNT} is changed.
      */
     public static void resetClusterNodes() {
-        for (ClusterNode node : clusterNodeMap.values()) {
+        for (ClusterNode node : clusterNodeRegistry.asMap().values()) {
             node.reset();
         }
     }
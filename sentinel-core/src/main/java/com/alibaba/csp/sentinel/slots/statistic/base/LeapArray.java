@@ -18,7 +18,6 @@ package com.alibaba.csp.sentinel.slots.statistic.base;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReferenceArray;
-import java.util.concurrent.locks.ReentrantLock;
 
 import com.alibaba.csp.sentinel.util.AssertUtil;
 import com.alibaba.csp.sentinel.util.TimeUtil;
@@ -46,11 +45,6 @@ public abstract class LeapArray<T> {
 
     protected final AtomicReferenceArray<WindowWrap<T>> array;
 
-    /**
-     * The conditional (predicate) update lock is used only when current bucket is deprecated.
-     */
-    private final ReentrantLock updateLock = new ReentrantLock();
-
     /**
      * The total bucket count is: {@code sampleCount = intervalInMs / windowLengthInMs}.
      *
@@ -140,17 +134,18 @@ public abstract class LeapArray<T> {
                  *
                  * If the old bucket is absent, then we create a new bucket at {@code windowStart},
                  * then try to update circular array via a CAS operation. Only one thread can
-                 * succeed to update, while other threads yield its time slice.
+                 * succeed to update, while other threads will find the bucket in the next loop.
                  */
                 WindowWrap<T> window = new WindowWrap<T>(windowLengthInMs, windowStart, newEmptyBucket(timeMillis));
                 if (array.compareAndSet(idx, null, window)) {
                     // Successfully updated, return the created bucket.
                     return window;
-                } else {
-                    // Contention failed, the thread will yield its time slice to wait for bucket available.
-                    Thread.yield();
                 }
-            } else if (windowStart == old.windowStart()) {
+                // Contention failed, which means the bucket has been created by another thread.
+                continue;
+            }
+            long oldStart = old.windowStart();
+            if (windowStart == oldStart) {
                 /*
                  *     B0       B1      B2     B3      B4
                  * ||_______|_______|_______|_______|_______||___
@@ -163,7 +158,7 @@ public abstract class LeapArray<T> {
                  * that means the time is within the bucket, so directly return the bucket.
                  */
                 return old;
-            } else if (windowStart > old.windowStart()) {
+            } else if (windowStart > oldStart) {
                 /*
                  *   (old)
                  *             B0       B1      B2    NULL      B4
@@ -175,24 +170,18 @@ public abstract class LeapArray<T> {
                  *
                  * If the start timestamp of old bucket is behind provided time, that means
                  * the bucket is deprecated. We have to reset the bucket to current {@code windowStart}.
-                 * Note that the reset and clean-up operations are hard to be atomic,
-                 * so we need a update lock to guarantee the correctness of bucket update.
                  *
-                 * The update lock is conditional (tiny scope) and will take effect only when
-                 * bucket is deprecated, so in most cases it won't lead to performance loss.
+                 * The start timestamp of the bucket works as an epoch stamp: the thread that
+                 * succeeds to CAS it to current {@code windowStart} takes charge of resetting the bucket,
+                 * while other threads will find the bucket up-to-date in the next loop.
+                 * So no thread will be blocked or yield its time slice at the window boundary.
+                 * Updates that happen between the CAS and the reset might be lost,
+                 * which is tolerable for statistics.
                  */
-                if (updateLock.tryLock()) {
-                    try {
-                        // Successfully get the update lock, now we reset the bucket.
-                        return resetWindowTo(old, windowStart);
-                    } finally {
-                        updateLock.unlock();
-                    }
-                } else {
-                    // Contention failed, the thread will yield its time slice to wait for bucket available.
-                    Thread.yield();
+                if (old.compareAndResetTo(oldStart, windowStart)) {
+                    return resetWindowTo(old, windowStart);
                 }
-            } else if (windowStart < old.windowStart()) {
+            } else {
                 // Should not go through here, as the provided time is already behind.
                 return new WindowWrap<T>(windowLengthInMs, windowStart, newEmptyBucket(timeMillis));
             }
@@ -0,0 +1,210 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.base;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>A lock-free histogram of fixed memory for non-negative values (e.g. response time in milliseconds),
+ * where each power-of-two range is split into {@code 2^SUB_BUCKET_BITS} linear sub-buckets
+ * (like the HDR histogram):</p>
+ * <ul>
+ * <li>values less than {@code 2^SUB_BUCKET_BITS} are recorded exactly;</li>
+ * <li>larger values are recorded with a relative error of at most {@code 1/2^SUB_BUCKET_BITS};</li>
+ * <li>values larger than {@code maxValue} are recorded as {@code maxValue}.</li>
+ * </ul>
+ *
+ * <p>Recording is a single atomic increment, and all queries are O(buckets) without allocation.</p>
+ *
+ * @since 1.7.1
+ */
+public class LogLinearHistogram {
+
+    public static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    private final long maxValue;
+    private final AtomicLongArray counts;
+
+    public LogLinearHistogram(long maxValue) {
+        AssertUtil.isTrue(maxValue > 0, "maxValue should be positive");
+        this.maxValue = maxValue;
+        this.counts = new AtomicLongArray(indexOf(maxValue) + 1);
+    }
+
+    /**
+     * Get the index of the sub-bucket that given value falls in.
+     *
+     * @param value a non-negative value
+     * @return index of the sub-bucket
+     */
+    public static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return value < 0 ? 0 : (int)value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subIndex = (int)(value >>> shift) & (SUB_BUCKET_COUNT - 1);
+        return (shift + 1) * SUB_BUCKET_COUNT + subIndex;
+    }
+
+    /**
+     * Get the lowest value of the sub-bucket of given index.
+     *
+     * @param index index of the sub-bucket
+     * @return the lowest value that falls in the sub-bucket
+     */
+    public static long lowestValueAt(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        return (long)(SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+    }
+
+    /**
+     * Get the highest value of the sub-bucket of given index.
+     *
+     * @param index index of the sub-bucket
+     * @return the highest value that falls in the sub-bucket
+     */
+    public static long highestValueAt(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        return lowestValueAt(index) + (1L << shift) - 1;
+    }
+
+    public void record(long value) {
+        counts.incrementAndGet(indexOf(Math.min(value, maxValue)));
+    }
+
+    public long getMaxValue() {
+        return maxValue;
+    }
+
+    /**
+     * @return amount of the sub-buckets
+     */
+    public int size() {
+        return counts.length();
+    }
+
+    public long countAt(int index) {
+        return counts.get(index);
+    }
+
+    /**
+     * @return total count of recorded values
+     */
+    public long totalCount() {
+        long sum = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            sum += counts.get(i);
+        }
+        return sum;
+    }
+
+    /**
+     * Get the count of recorded values that are larger than given value. Values in the same sub-bucket
+     * as given value are regarded as not larger, so the result is at the precision of the sub-buckets.
+     *
+     * @param value the value to compare
+     * @return count of recorded values that are larger than given value
+     */
+    public long countAbove(long value) {
+        long sum = 0;
+        for (int i = indexOf(Math.min(value, maxValue)) + 1; i < counts.length(); i++) {
+            sum += counts.get(i);
+        }
+        return sum;
+    }
+
+    /**
+     * Get the value at given percentile of the recorded values, which is the highest value of the
+     * sub-bucket it falls in.
+     *
+     * @param percentile the percentile in (0, 100]
+     * @return the value at given percentile, or 0 if nothing has been recorded
+     */
+    public long valueAtPercentile(double percentile) {
+        return valueAtPercentile(Collections.singletonList(this), percentile);
+    }
+
+    /**
+     * Get the value at given percentile of the values recorded in all given histograms
+     * (e.g. histograms of the buckets in a sliding window).
+     *
+     * @param histograms the histograms, where null elements are ignored
+     * @param percentile the percentile in (0, 100]
+     * @return the value at given percentile, or 0 if nothing has been recorded
+     */
+    public static long valueAtPercentile(List<LogLinearHistogram> histograms, double percentile) {
+        long total = 0;
+        int size = 0;
+        long maxValue = 0;
+        for (int i = 0; i < histograms.size(); i++) {
+            LogLinearHistogram histogram = histograms.get(i);
+            if (histogram != null) {
+                total += histogram.totalCount();
+                size = Math.max(size, histogram.size());
+                maxValue = Math.max(maxValue, histogram.maxValue);
+            }
+        }
+        long rank = rankOf(total, percentile);
+        if (rank <= 0) {
+            return 0;
+        }
+        long seen = 0;
+        for (int index = 0; index < size; index++) {
+            for (int i = 0; i < histograms.size(); i++) {
+                LogLinearHistogram histogram = histograms.get(i);
+                if (histogram != null && index < histogram.size()) {
+                    seen += histogram.countAt(index);
+                }
+            }
+            if (seen >= rank) {
+                return Math.min(highestValueAt(index), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    /**
+     * Get the rank (starting from 1) of the value at given percentile among {@code totalCount} values.
+     *
+     * @param totalCount total count of values
+     * @param percentile the percentile in (0, 100]
+     * @return the rank, or 0 if there are no values
+     */
+    public static long rankOf(long totalCount, double percentile) {
+        if (totalCount <= 0) {
+            return 0;
+        }
+        long rank = (long)Math.ceil(totalCount * Math.min(percentile, 100d) / 100d);
+        return Math.max(rank, 1);
+    }
+}
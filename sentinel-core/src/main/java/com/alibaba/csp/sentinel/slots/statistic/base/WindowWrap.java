@@ -15,6 +15,8 @@
  */
 package com.alibaba.csp.sentinel.slots.statistic.base;
 
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
 /**
  * Wrapper entity class for a period of time window.
  *
@@ -24,6 +26,10 @@ package com.alibaba.csp.sentinel.slots.statistic.base;
  */
 public class WindowWrap<T> {
 
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<WindowWrap> WINDOW_START_UPDATER
+        = AtomicLongFieldUpdater.newUpdater(WindowWrap.class, "windowStart");
+
     /**
      * Time length of a single window bucket in milliseconds.
      */
@@ -32,7 +38,7 @@ public class WindowWrap<T> {
     /**
      * Start timestamp of the window in milliseconds.
      */
-    private long windowStart;
+    private volatile long windowStart;
 
     /**
      * Statistic data.
@@ -77,6 +83,19 @@ public class WindowWrap<T> {
         return this;
     }
 
+    /**
+     * Atomically reset start timestamp of current bucket to provided time,
+     * if the current start timestamp equals to the expected one.
+     *
+     * @param expectedStart expected start timestamp
+     * @param startTime     valid start timestamp
+     * @return true if successful, which means the caller takes charge of resetting the bucket
+     * @since 1.7.1
+     */
+    public boolean compareAndResetTo(long expectedStart, long startTime) {
+        return WINDOW_START_UPDATER.compareAndSet(this, expectedStart, startTime);
+    }
+
     /**
      * Check whether given timestamp is in current bucket.
      *
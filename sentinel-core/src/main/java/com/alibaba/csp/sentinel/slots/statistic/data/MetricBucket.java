@@ -17,6 +17,7 @@ package com.alibaba.csp.sentinel.slots.statistic.data;
 
 import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.slots.statistic.MetricEvent;
+import com.alibaba.csp.sentinel.slots.statistic.base.LogLinearHistogram;
 import com.alibaba.csp.sentinel.slots.statistic.base.LongAdder;
 
 /**
@@ -31,6 +32,11 @@ public class MetricBucket {
 
     private volatile long minRt;
 
+    /**
+     * Histogram of RT, which is absent unless enabled for the resource.
+     */
+    private volatile LogLinearHistogram rtHistogram;
+
     public MetricBucket() {
         MetricEvent[] events = MetricEvent.values();
         this.counters = new LongAdder[events.length];
@@ -40,15 +46,46 @@ public class MetricBucket {
         initMinRt();
     }
 
+    /**
+     * For subclasses that maintain the event counters on their own, in which case they
+     * should override {@link #get(MetricEvent)}, {@link #add(MetricEvent, long)} and {@link #resetCounters()}.
+     *
+     * @param counters the event counters, could be null
+     * @since 1.7.1
+     */
+    MetricBucket(LongAdder[] counters) {
+        this.counters = counters;
+        initMinRt();
+    }
+
     public MetricBucket reset(MetricBucket bucket) {
+        resetCounters();
         for (MetricEvent event : MetricEvent.values()) {
-            counters[event.ordinal()].reset();
-            counters[event.ordinal()].add(bucket.get(event));
+            add(event, bucket.get(event));
         }
         initMinRt();
+        resetRtHistogram();
         return this;
     }
 
+    /**
+     * Estimate the retained heap size of the bucket on a 64-bit JVM with compressed references.
+     * Cells of contended adders are not included.
+     *
+     * @return estimated size of the bucket in bytes
+     * @since 1.7.1
+     */
+    public long estimateSizeInBytes() {
+        // Bucket object (header, references and long), the array and the adders (header, long, reference and int).
+        return 32 + (16 + 4L * counters.length) + 32L * counters.length + rtHistogramSizeInBytes();
+    }
+
+    long rtHistogramSizeInBytes() {
+        LogLinearHistogram histogram = rtHistogram;
+        // Histogram object, the AtomicLongArray and its long array.
+        return histogram == null ? 0 : 24 + 16 + (16 + 8L * histogram.size());
+    }
+
     private void initMinRt() {
         this.minRt = SentinelConfig.statisticMaxRt();
     }
@@ -59,11 +96,44 @@ public class MetricBucket {
      * @return new metric bucket in initial state
      */
     public MetricBucket reset() {
+        resetCounters();
+        initMinRt();
+        resetRtHistogram();
+        return this;
+    }
+
+    private void resetRtHistogram() {
+        LogLinearHistogram histogram = rtHistogram;
+        if (histogram != null) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Enable the RT histogram of this bucket, which is kept when the bucket is reset.
+     *
+     * @since 1.7.1
+     */
+    public synchronized void enableRtHistogram() {
+        if (rtHistogram == null) {
+            rtHistogram = new LogLinearHistogram(SentinelConfig.statisticMaxRt());
+        }
+    }
+
+    /**
+     * Get the RT histogram of this bucket.
+     *
+     * @return the RT histogram, or null if not enabled
+     * @since 1.7.1
+     */
+    public LogLinearHistogram rtHistogram() {
+        return rtHistogram;
+    }
+
+    void resetCounters() {
         for (MetricEvent event : MetricEvent.values()) {
             counters[event.ordinal()].reset();
         }
-        initMinRt();
-        return this;
     }
 
     public long get(MetricEvent event) {
@@ -130,6 +200,10 @@ public class MetricBucket {
         if (rt < minRt) {
             minRt = rt;
         }
+        LogLinearHistogram histogram = rtHistogram;
+        if (histogram != null) {
+            histogram.record(rt);
+        }
     }
 
     @Override
@@ -0,0 +1,75 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+
+/**
+ * Provider of {@link MetricBucket}s, which creates buckets of the type configured
+ * by {@link SentinelConfig#STATISTIC_BUCKET_TYPE}.
+ *
+ * @since 1.7.1
+ */
+public final class MetricBucketProvider {
+
+    /**
+     * Estimated size of an empty bucket of each type, or -1 if not estimated yet.
+     */
+    private static volatile long metricBucketBytes = -1;
+    private static volatile long stripedMetricBucketBytes = -1;
+
+    /**
+     * Create a new empty metric bucket of the configured type.
+     *
+     * @return new empty metric bucket
+     */
+    public static MetricBucket newMetricBucket() {
+        if (isStriped()) {
+            return new StripedMetricBucket();
+        }
+        return new MetricBucket();
+    }
+
+    /**
+     * Estimate the retained heap size of an empty metric bucket of the configured type
+     * (see {@link MetricBucket#estimateSizeInBytes()}). The size is computed only once for each type,
+     * as a bucket (especially a striped one) is not cheap to create.
+     *
+     * @return estimated size of an empty bucket in bytes
+     */
+    public static long estimateEmptyBucketBytes() {
+        if (isStriped()) {
+            long bytes = stripedMetricBucketBytes;
+            if (bytes < 0) {
+                bytes = new StripedMetricBucket().estimateSizeInBytes();
+                stripedMetricBucketBytes = bytes;
+            }
+            return bytes;
+        }
+        long bytes = metricBucketBytes;
+        if (bytes < 0) {
+            bytes = new MetricBucket().estimateSizeInBytes();
+            metricBucketBytes = bytes;
+        }
+        return bytes;
+    }
+
+    private static boolean isStriped() {
+        return SentinelConfig.STATISTIC_BUCKET_TYPE_STRIPED.equals(SentinelConfig.statisticBucketType());
+    }
+
+    private MetricBucketProvider() {}
+}
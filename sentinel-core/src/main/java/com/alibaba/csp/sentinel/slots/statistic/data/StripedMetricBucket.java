@@ -0,0 +1,122 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.alibaba.csp.sentinel.slots.statistic.MetricEvent;
+
+/**
+ * <p>A {@link MetricBucket} that keeps all event counters in one contiguous {@code long} array
+ * instead of one {@code LongAdder} per event.</p>
+ *
+ * <p>The array is divided into stripes, each stripe holds the counters of all events and is padded
+ * to its own cache lines. Threads are spread across the stripes by their id, so an update is a single
+ * atomic add to a cache line that is rarely shared, and resetting the bucket at window roll-over
+ * only zeroes the array without any allocation. The total of an event is the sum of all stripes.</p>
+ *
+ * <p>Memory usage is fixed and proportional to the stripe count, which is the number of available
+ * processors rounded up to a power of two and capped at {@link #MAX_STRIPES}.</p>
+ *
+ * @since 1.7.1
+ */
+public class StripedMetricBucket extends MetricBucket {
+
+    static final int MAX_STRIPES = 16;
+
+    /**
+     * Count of longs in each stripe: 16 longs (128 bytes) cover two cache lines,
+     * which also avoids false sharing caused by adjacent line prefetch.
+     */
+    private static final int STRIPE_LENGTH = 16;
+    /**
+     * Leading padding so that the first stripe does not share cache lines with the array header.
+     */
+    private static final int PADDING = STRIPE_LENGTH;
+
+    private static final MetricEvent[] EVENTS = MetricEvent.values();
+
+    private static final int DEFAULT_STRIPES = defaultStripes();
+
+    private final int stripeMask;
+    private final AtomicLongArray counters;
+
+    public StripedMetricBucket() {
+        this(DEFAULT_STRIPES);
+    }
+
+    StripedMetricBucket(int stripes) {
+        super(null);
+        if (stripes <= 0 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("stripes should be a positive power of two");
+        }
+        this.stripeMask = stripes - 1;
+        this.counters = new AtomicLongArray(PADDING + stripes * STRIPE_LENGTH);
+    }
+
+    private static int defaultStripes() {
+        int n = Runtime.getRuntime().availableProcessors();
+        int stripes = 1;
+        while (stripes < n && stripes < MAX_STRIPES) {
+            stripes <<= 1;
+        }
+        return stripes;
+    }
+
+    private int stripeOffset() {
+        long id = Thread.currentThread().getId();
+        int h = (int)((id * 0x9E3779B97F4A7C15L) >>> 32);
+        return PADDING + (h & stripeMask) * STRIPE_LENGTH;
+    }
+
+    @Override
+    public long get(MetricEvent event) {
+        int idx = PADDING + event.ordinal();
+        long sum = 0;
+        for (int i = 0; i <= stripeMask; i++) {
+            sum += counters.get(idx);
+            idx += STRIPE_LENGTH;
+        }
+        return sum;
+    }
+
+    @Override
+    public MetricBucket add(MetricEvent event, long n) {
+        counters.getAndAdd(stripeOffset() + event.ordinal(), n);
+        return this;
+    }
+
+    @Override
+    void resetCounters() {
+        int idx = PADDING;
+        for (int i = 0; i <= stripeMask; i++) {
+            for (int j = 0; j < EVENTS.length; j++) {
+                counters.set(idx + j, 0);
+            }
+            idx += STRIPE_LENGTH;
+        }
+    }
+
+    @Override
+    public long estimateSizeInBytes() {
+        // Bucket object, the AtomicLongArray and its padded long array.
+        return 32 + 16 + (16 + 8L * counters.length()) + rtHistogramSizeInBytes();
+    }
+
+    int stripes() {
+        return stripeMask + 1;
+    }
+}
@@ -22,6 +22,7 @@ import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.node.metric.MetricNode;
 import com.alibaba.csp.sentinel.slots.statistic.MetricEvent;
 import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
+import com.alibaba.csp.sentinel.slots.statistic.base.LogLinearHistogram;
 import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucket;
 import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
 import com.alibaba.csp.sentinel.slots.statistic.metric.occupy.OccupiableBucketLeapArray;
@@ -37,6 +38,8 @@ public class ArrayMetric implements Metric {
 
     private final LeapArray<MetricBucket> data;
 
+    private volatile boolean rtHistogramEnabled = false;
+
     public ArrayMetric(int sampleCount, int intervalInMs) {
         this.data = new OccupiableBucketLeapArray(sampleCount, intervalInMs);
     }
@@ -152,6 +155,35 @@ public class ArrayMetric implements Metric {
         return Math.max(1, rt);
     }
 
+    /**
+     * Get the RT at given percentile, which is available only if the RT histogram is enabled.
+     *
+     * @param percentile the percentile in (0, 100]
+     * @return the RT at given percentile, or 0 if the RT histogram is disabled or there are no RT records
+     * @since 1.7.1
+     */
+    public long rtPercentile(double percentile) {
+        if (!rtHistogramEnabled) {
+            return 0;
+        }
+        data.currentWindow();
+        List<MetricBucket> list = data.values();
+        List<LogLinearHistogram> histograms = new ArrayList<>(list.size());
+        for (MetricBucket window : list) {
+            histograms.add(window.rtHistogram());
+        }
+        return LogLinearHistogram.valueAtPercentile(histograms, percentile);
+    }
+
+    /**
+     * Enable the RT histogram for latency percentiles, which takes a fixed amount of memory in every bucket.
+     *
+     * @since 1.7.1
+     */
+    public void enableRtHistogram() {
+        this.rtHistogramEnabled = true;
+    }
+
     @Override
     public List<MetricNode> details() {
         List<MetricNode> details = new ArrayList<>();
@@ -201,6 +233,13 @@ public class ArrayMetric implements Metric {
         }
         node.setTimestamp(wrap.windowStart());
         node.setOccupiedPassQps(wrap.value().occupiedPass());
+        LogLinearHistogram histogram = wrap.value().rtHistogram();
+        if (histogram != null && histogram.totalCount() > 0) {
+            node.setRtP50(histogram.valueAtPercentile(50));
+            node.setRtP90(histogram.valueAtPercentile(90));
+            node.setRtP99(histogram.valueAtPercentile(99));
+            node.setRtP999(histogram.valueAtPercentile(99.9));
+        }
         return node;
     }
 
@@ -248,6 +287,9 @@ public class ArrayMetric implements Metric {
     @Override
     public void addRT(long rt) {
         WindowWrap<MetricBucket> wrap = data.currentWindow();
+        if (rtHistogramEnabled && wrap.value().rtHistogram() == null) {
+            wrap.value().enableRtHistogram();
+        }
         wrap.value().addRT(rt);
     }
 
@@ -31,6 +31,7 @@ import com.alibaba.csp.sentinel.property.SentinelProperty;
 import com.alibaba.csp.sentinel.property.SimplePropertyListener;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.RulePresenceRegistry;
 
 /**
  * <p>
@@ -193,6 +194,7 @@ public final class SystemRuleManager {
             } else {
                 checkSystemStatus.set(false);
             }
+            RulePresenceRegistry.setInboundRulePresent(checkSystemStatus.get());
 
             RecordLog.info(String.format("[SystemRuleManager] Current system check status: %s, "
                     + "highestSystemLoad: %e, "
@@ -0,0 +1,121 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.alibaba.csp.sentinel.slots.statistic.base.LongAdder;
+
+/**
+ * <p>A time source that only ticks while the time is read frequently.</p>
+ *
+ * <p>While idle, every read goes to {@link System#currentTimeMillis()} directly and no background
+ * thread is running. Once the read rate within a sample window exceeds {@link #DEFAULT_TICK_ON_READS_PER_MS},
+ * a tick thread is started and reads are served from the published time. The tick thread stops itself
+ * when the read rate drops below {@link #DEFAULT_TICK_OFF_READS_PER_MS}.</p>
+ *
+ * @since 1.7.1
+ */
+final class AdaptiveTimeSource implements TimeSource {
+
+    static final long DEFAULT_SAMPLE_WINDOW_MS = 100;
+    static final long DEFAULT_TICK_ON_READS_PER_MS = 50;
+    static final long DEFAULT_TICK_OFF_READS_PER_MS = 10;
+
+    private final long sampleWindowMs;
+    private final long tickOnReads;
+    private final long tickOffReads;
+
+    private final LongAdder reads = new LongAdder();
+    private final AtomicBoolean tickThreadRunning = new AtomicBoolean(false);
+
+    private volatile boolean ticking = false;
+    private volatile long currentTimeMillis;
+    private volatile long sampleStart;
+
+    AdaptiveTimeSource() {
+        this(DEFAULT_SAMPLE_WINDOW_MS, DEFAULT_TICK_ON_READS_PER_MS, DEFAULT_TICK_OFF_READS_PER_MS);
+    }
+
+    AdaptiveTimeSource(long sampleWindowMs, long tickOnReadsPerMs, long tickOffReadsPerMs) {
+        AssertUtil.isTrue(sampleWindowMs > 0, "sampleWindowMs should be positive");
+        AssertUtil.isTrue(tickOffReadsPerMs <= tickOnReadsPerMs, "tickOffReadsPerMs should not exceed tickOnReadsPerMs");
+        this.sampleWindowMs = sampleWindowMs;
+        this.tickOnReads = tickOnReadsPerMs * sampleWindowMs;
+        this.tickOffReads = tickOffReadsPerMs * sampleWindowMs;
+        this.currentTimeMillis = System.currentTimeMillis();
+        this.sampleStart = currentTimeMillis;
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        reads.increment();
+        if (ticking) {
+            return currentTimeMillis;
+        }
+        long now = System.currentTimeMillis();
+        if (now - sampleStart >= sampleWindowMs) {
+            sample(now);
+        }
+        return now;
+    }
+
+    boolean isTicking() {
+        return ticking;
+    }
+
+    private void sample(long now) {
+        // Contention may exist here, but only one caller could start the tick thread.
+        sampleStart = now;
+        if (reads.sumThenReset() >= tickOnReads && tickThreadRunning.compareAndSet(false, true)) {
+            startTicking(now);
+        }
+    }
+
+    private void startTicking(long now) {
+        currentTimeMillis = now;
+        ticking = true;
+        Thread daemon = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                long windowStart = System.currentTimeMillis();
+                while (true) {
+                    long now = System.currentTimeMillis();
+                    currentTimeMillis = now;
+                    if (now - windowStart >= sampleWindowMs) {
+                        windowStart = now;
+                        if (reads.sumThenReset() < tickOffReads) {
+                            break;
+                        }
+                    }
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(1);
+                    } catch (Throwable e) {
+
+                    }
+                }
+                // Readers fall back to direct reads before the thread is released.
+                ticking = false;
+                sampleStart = System.currentTimeMillis();
+                tickThreadRunning.set(false);
+            }
+        });
+        daemon.setDaemon(true);
+        daemon.setName("sentinel-adaptive-time-tick-thread");
+        daemon.start();
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.alibaba.csp.sentinel.log.RecordLog;
+
+/**
+ * <p>Matcher that maps a raw request path to the URL template it belongs to (e.g. {@code /foo/1} and
+ * {@code /foo/2} to {@code /foo/{id}}), so that web adapters could use the template as the resource name
+ * rather than a distinct resource per URL.</p>
+ *
+ * <p>Templates are compiled into a trie of path segments, where a segment could be:</p>
+ * <ul>
+ * <li>a literal (e.g. {@code foo});</li>
+ * <li>a variable that matches exactly one segment: {@code {id}}, {@code {id:[0-9]+}} or {@code *}
+ * (the regex of a variable is not checked);</li>
+ * <li>{@code **}, which matches zero or more segments.</li>
+ * </ul>
+ * <p>Literals take precedence over variables, and variables over {@code **}. Empty segments are ignored,
+ * so {@code /foo//bar/} matches {@code /foo/bar}. Templates with partial wildcards (e.g. {@code /foo/*.html})
+ * are not supported and will be ignored.</p>
+ *
+ * <p>The matcher is immutable, and matching allocates nothing: segments are looked up by hashing the
+ * characters in place.</p>
+ *
+ * @since 1.7.1
+ */
+public final class PathTemplateMatcher {
+
+    private static final String GLOB = "**";
+
+    private final Node root;
+    private final List<String> templates;
+
+    private PathTemplateMatcher(Node root, List<String> templates) {
+        this.root = root;
+        this.templates = templates;
+    }
+
+    /**
+     * Compile the URL templates. Unsupported templates are ignored with a warning.
+     *
+     * @param templates URL templates
+     * @return the compiled matcher
+     */
+    public static PathTemplateMatcher compile(Collection<String> templates) {
+        Node root = new Node();
+        List<String> accepted = new ArrayList<String>();
+        if (templates != null) {
+            for (String template : templates) {
+                if (StringUtil.isBlank(template)) {
+                    continue;
+                }
+                template = template.trim();
+                if (!isSupported(template)) {
+                    RecordLog.warn("[PathTemplateMatcher] Ignoring unsupported URL template: " + template);
+                    continue;
+                }
+                if (root.add(template, 0, template)) {
+                    accepted.add(template);
+                } else {
+                    RecordLog.warn("[PathTemplateMatcher] Ignoring duplicate URL template: " + template);
+                }
+            }
+        }
+        root.freeze();
+        return new PathTemplateMatcher(root, Collections.unmodifiableList(accepted));
+    }
+
+    /**
+     * Check whether the template could be compiled.
+     *
+     * @param template URL template
+     * @return true if all segments are literals, variables or {@code **}
+     */
+    public static boolean isSupported(String template) {
+        if (StringUtil.isBlank(template)) {
+            return false;
+        }
+        int pos = 0;
+        int len = template.length();
+        while (pos < len) {
+            int end = segmentEnd(template, pos);
+            if (end > pos && segmentType(template, pos, end) == SegmentType.UNSUPPORTED) {
+                return false;
+            }
+            pos = end + 1;
+        }
+        return true;
+    }
+
+    /**
+     * Find the template that matches the path.
+     *
+     * @param path raw request path without query string
+     * @return the matched template, or null if no template matches
+     */
+    public String match(String path) {
+        if (path == null) {
+            return null;
+        }
+        return match(root, path, skipSlashes(path, 0));
+    }
+
+    public List<String> getTemplates() {
+        return templates;
+    }
+
+    private static String match(Node node, String path, int pos) {
+        int len = path.length();
+        if (pos >= len) {
+            if (node.template != null) {
+                return node.template;
+            }
+            // "**" matches zero segments.
+            return node.globChild == null ? null : match(node.globChild, path, len);
+        }
+        int end = segmentEnd(path, pos);
+        int next = skipSlashes(path, end);
+        Node literalChild = node.findLiteral(path, pos, end);
+        if (literalChild != null) {
+            String result = match(literalChild, path, next);
+            if (result != null) {
+                return result;
+            }
+        }
+        if (node.varChild != null) {
+            String result = match(node.varChild, path, next);
+            if (result != null) {
+                return result;
+            }
+        }
+        Node glob = node.globChild;
+        if (glob != null) {
+            if (glob.isLeaf()) {
+                // Trailing "**" matches all remaining segments.
+                return glob.template;
+            }
+            for (int p = pos; ; p = skipSlashes(path, segmentEnd(path, p))) {
+                String result = match(glob, path, p);
+                if (result != null || p >= len) {
+                    return result;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static int segmentEnd(String s, int pos) {
+        int end = s.indexOf('/', pos);
+        return end < 0 ? s.length() : end;
+    }
+
+    private static int skipSlashes(String s, int pos) {
+        int len = s.length();
+        while (pos < len && s.charAt(pos) == '/') {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int hash(String s, int start, int end) {
+        // Same as String#hashCode() of the region.
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + s.charAt(i);
+        }
+        return h;
+    }
+
+    private static SegmentType segmentType(String s, int start, int end) {
+        int length = end - start;
+        if (length == 2 && s.startsWith(GLOB, start)) {
+            return SegmentType.GLOB;
+        }
+        if (length == 1 && s.charAt(start) == '*') {
+            return SegmentType.VARIABLE;
+        }
+        if (length > 2 && s.charAt(start) == '{' && s.charAt(end - 1) == '}') {
+            return SegmentType.VARIABLE;
+        }
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c == '*' || c == '?' || c == '{' || c == '}') {
+                return SegmentType.UNSUPPORTED;
+            }
+        }
+        return SegmentType.LITERAL;
+    }
+
+    private enum SegmentType {
+        LITERAL, VARIABLE, GLOB, UNSUPPORTED
+    }
+
+    private static final class Node {
+
+        private String template;
+
+        private Map<String, Node> literalMap = new HashMap<String, Node>();
+        private String[] literals;
+        private Node[] literalChildren;
+        private int mask;
+
+        private Node varChild;
+        private Node globChild;
+
+        /**
+         * @return false if the template is a duplicate
+         */
+        boolean add(String s, int pos, String fullTemplate) {
+            pos = skipSlashes(s, pos);
+            if (pos >= s.length()) {
+                if (template != null) {
+                    return false;
+                }
+                template = fullTemplate;
+                return true;
+            }
+            int end = segmentEnd(s, pos);
+            Node child;
+            switch (segmentType(s, pos, end)) {
+                case GLOB:
+                    if (globChild == null) {
+                        globChild = new Node();
+                    }
+                    child = globChild;
+                    break;
+                case VARIABLE:
+                    if (varChild == null) {
+                        varChild = new Node();
+                    }
+                    child = varChild;
+                    break;
+                default:
+                    String literal = s.substring(pos, end);
+                    child = literalMap.get(literal);
+                    if (child == null) {
+                        child = new Node();
+                        literalMap.put(literal, child);
+                    }
+            }
+            return child.add(s, end, fullTemplate);
+        }
+
+        void freeze() {
+            if (!literalMap.isEmpty()) {
+                int capacity = Integer.highestOneBit(literalMap.size() * 2 - 1) << 1;
+                literals = new String[capacity];
+                literalChildren = new Node[capacity];
+                mask = capacity - 1;
+                for (Map.Entry<String, Node> entry : literalMap.entrySet()) {
+                    int idx = entry.getKey().hashCode() & mask;
+                    while (literals[idx] != null) {
+                        idx = (idx + 1) & mask;
+                    }
+                    literals[idx] = entry.getKey();
+                    literalChildren[idx] = entry.getValue();
+                    entry.getValue().freeze();
+                }
+            }
+            literalMap = null;
+            if (varChild != null) {
+                varChild.freeze();
+            }
+            if (globChild != null) {
+                globChild.freeze();
+            }
+        }
+
+        Node findLiteral(String path, int start, int end) {
+            if (literals == null) {
+                return null;
+            }
+            int length = end - start;
+            for (int idx = hash(path, start, end) & mask; literals[idx] != null; idx = (idx + 1) & mask) {
+                String literal = literals[idx];
+                if (literal.length() == length && path.regionMatches(start, literal, 0, length)) {
+                    return literalChildren[idx];
+                }
+            }
+            return null;
+        }
+
+        boolean isLeaf() {
+            return literals == null && varChild == null && globChild == null;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes {@link System#currentTimeMillis()} from a daemon thread that ticks every millisecond.
+ *
+ * @author qinan.qn
+ * @since 1.7.1
+ */
+final class TickingTimeSource implements TimeSource {
+
+    private volatile long currentTimeMillis = System.currentTimeMillis();
+
+    TickingTimeSource() {
+        Thread daemon = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (true) {
+                    currentTimeMillis = System.currentTimeMillis();
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(1);
+                    } catch (Throwable e) {
+
+                    }
+                }
+            }
+        });
+        daemon.setDaemon(true);
+        daemon.setName("sentinel-time-tick-thread");
+        daemon.start();
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return currentTimeMillis;
+    }
+}
@@ -15,38 +15,38 @@
  */
 package com.alibaba.csp.sentinel.util;
 
-import java.util.concurrent.TimeUnit;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 
 /**
- * Provides millisecond-level time of OS.
+ * <p>Provides millisecond-level time of OS.</p>
+ *
+ * <p>The underlying time source is resolved once from {@link SentinelConfig#timeSourceMode()}:</p>
+ * <ul>
+ *     <li>{@link SentinelConfig#TIME_SOURCE_TICK}: a daemon thread refreshes the time every millisecond (by default)</li>
+ *     <li>{@link SentinelConfig#TIME_SOURCE_SYSTEM}: {@link System#currentTimeMillis()} is read on every call</li>
+ *     <li>{@link SentinelConfig#TIME_SOURCE_ADAPTIVE}: reads go to the system clock directly while the time is
+ *     rarely read, and a tick thread only runs while the time is read frequently</li>
+ * </ul>
  *
  * @author qinan.qn
  */
 public final class TimeUtil {
 
-    private static volatile long currentTimeMillis;
-
-    static {
-        currentTimeMillis = System.currentTimeMillis();
-        Thread daemon = new Thread(new Runnable() {
-            @Override
-            public void run() {
-                while (true) {
-                    currentTimeMillis = System.currentTimeMillis();
-                    try {
-                        TimeUnit.MILLISECONDS.sleep(1);
-                    } catch (Throwable e) {
+    private static final TimeSource TIME_SOURCE = newTimeSource(SentinelConfig.timeSourceMode());
 
-                    }
-                }
-            }
-        });
-        daemon.setDaemon(true);
-        daemon.setName("sentinel-time-tick-thread");
-        daemon.start();
+    static TimeSource newTimeSource(String mode) {
+        if (SentinelConfig.TIME_SOURCE_SYSTEM.equals(mode)) {
+            return new SystemTimeSource();
+        }
+        if (SentinelConfig.TIME_SOURCE_ADAPTIVE.equals(mode)) {
+            return new AdaptiveTimeSource();
+        }
+        return new TickingTimeSource();
     }
 
     public static long currentTimeMillis() {
-        return currentTimeMillis;
+        return TIME_SOURCE.currentTimeMillis();
     }
+
+    private TimeUtil() {}
 }
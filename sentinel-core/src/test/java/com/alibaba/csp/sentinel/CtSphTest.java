@@ -1,5 +1,7 @@
 package com.alibaba.csp.sentinel;
 
+import java.util.Collections;
+
 import com.alibaba.csp.sentinel.context.Context;
 import com.alibaba.csp.sentinel.context.ContextTestUtil;
 import com.alibaba.csp.sentinel.context.ContextUtil;
@@ -12,6 +14,7 @@ import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
 import com.alibaba.csp.sentinel.slotchain.SlotChainProvider;
 import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.RulePresenceRegistry;
 
 import org.junit.After;
 import org.junit.Before;
@@ -269,6 +272,34 @@ public class CtSphTest {
         assertNull(ctSph.lookProcessChain(r2));
     }
 
+    @Test
+    public void testRuleAwareFastPath() throws BlockException {
+        String resourceName = "testRuleAwareFastPath";
+        ResourceWrapper resourceWrapper = new StringResourceWrapper(resourceName, EntryType.OUT);
+        CtSph.setFastPathEnabled(true);
+        try {
+            // Resources without rules should not go through the slot chain.
+            addShouldNotPassSlotFor(resourceWrapper);
+            Entry entry = ctSph.entry(resourceWrapper, 1);
+            assertTrue(entry instanceof PassThroughEntry);
+            assertNull("Context should not be created for pass-through entries", ContextUtil.getContext());
+            assertSame("Pass-through entry should be reused", entry, ctSph.entry(resourceWrapper, 1));
+            entry.exit();
+
+            // Once a rule is present, the slot chain should be used again.
+            RulePresenceRegistry.updateResources(RulePresenceRegistry.FLOW, Collections.singleton(resourceName));
+            ShouldPassSlot slot = addShouldPassSlotFor(resourceWrapper);
+            entry = ctSph.entry(resourceWrapper, 1);
+            assertTrue(entry instanceof CtEntry);
+            assertTrue(slot.entered);
+            entry.exit();
+            assertTrue(slot.exited);
+        } finally {
+            RulePresenceRegistry.updateResources(RulePresenceRegistry.FLOW, null);
+            CtSph.setFastPathEnabled(false);
+        }
+    }
+
     private void fillFullContext() {
         for (int i = 0; i < Constants.MAX_CONTEXT_NAME_SIZE; i++) {
             ContextUtil.enter("test-context-" + i);
@@ -0,0 +1,131 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.concurrent.ResourceRegistry;
+import com.alibaba.csp.sentinel.concurrent.ResourceRegistry.EvictionListener;
+import com.alibaba.csp.sentinel.node.DefaultNode;
+import com.alibaba.csp.sentinel.node.EntranceNode;
+import com.alibaba.csp.sentinel.slotchain.DefaultProcessorSlotChain;
+import com.alibaba.csp.sentinel.slotchain.ProcessorSlotChain;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.RulePresenceRegistry;
+import com.alibaba.csp.sentinel.test.AbstractTimeBasedTest;
+import com.alibaba.csp.sentinel.util.function.Function;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class IdleResourceReaperTest extends AbstractTimeBasedTest {
+
+    /**
+     * A rule type that is not used by built-in rule managers.
+     */
+    private static final int TEST_RULE_TYPE = 1 << 20;
+
+    private static final EvictionListener<ResourceWrapper, ProcessorSlotChain> DETACH_ON_EVICTION
+        = new EvictionListener<ResourceWrapper, ProcessorSlotChain>() {
+        @Override
+        public void onEvicted(ResourceWrapper resourceWrapper, ProcessorSlotChain chain) {
+            IdleResourceReaper.detachDefaultNodes(resourceWrapper);
+        }
+    };
+
+    @After
+    public void tearDown() {
+        RulePresenceRegistry.updateResources(TEST_RULE_TYPE, null);
+        Constants.ROOT.removeChildList();
+    }
+
+    @Test
+    public void testReapIdleResourcesWithoutRules() {
+        ResourceWrapper idle = new StringResourceWrapper("testReapIdle", EntryType.OUT);
+        ResourceWrapper withRule = new StringResourceWrapper("testReapWithRule", EntryType.OUT);
+        ResourceWrapper active = new StringResourceWrapper("testReapActive", EntryType.OUT);
+        RulePresenceRegistry.updateResources(TEST_RULE_TYPE, Collections.singleton(withRule.getName()));
+
+        ResourceRegistry<ResourceWrapper, ProcessorSlotChain> registry = new ResourceRegistry<>(
+            "testReapIdleResourcesWithoutRules", Integer.MAX_VALUE, 0, true, DETACH_ON_EVICTION);
+        setCurrentMillis(10000);
+        registry.put(idle, new DefaultProcessorSlotChain());
+        registry.put(withRule, new DefaultProcessorSlotChain());
+        registry.put(active, new DefaultProcessorSlotChain());
+
+        EntranceNode entranceNode = new EntranceNode(new StringResourceWrapper("testReapContext", EntryType.IN),
+            null);
+        Constants.ROOT.addChild(entranceNode);
+        DefaultNode activeNode = new DefaultNode(active, null);
+        DefaultNode idleNode = new DefaultNode(idle, null);
+        entranceNode.addChild(activeNode);
+        // Nested invocation of the idle resource.
+        activeNode.addChild(idleNode);
+        entranceNode.addChild(new DefaultNode(withRule, null));
+
+        sleep(500);
+        registry.get(active);
+        assertTrue(IdleResourceReaper.reap(registry, 1000).isEmpty());
+
+        sleep(500);
+        List<String> reaped = IdleResourceReaper.reap(registry, 1000);
+        assertEquals(Collections.singletonList(idle.getName()), reaped);
+        assertNull(registry.get(idle));
+        assertNotNull(registry.get(withRule));
+        assertNotNull(registry.get(active));
+        assertEquals(2, entranceNode.getChildList().size());
+        assertTrue(activeNode.getChildList().isEmpty());
+    }
+
+    @Test
+    public void testEvictOnFullSkipsResourcesWithRules() {
+        ResourceWrapper withRule = new StringResourceWrapper("testEvictOnFullWithRule", EntryType.OUT);
+        ResourceWrapper idle = new StringResourceWrapper("testEvictOnFullIdle", EntryType.OUT);
+        ResourceWrapper incoming = new StringResourceWrapper("testEvictOnFullIncoming", EntryType.OUT);
+        RulePresenceRegistry.updateResources(TEST_RULE_TYPE, Collections.singleton(withRule.getName()));
+
+        ResourceRegistry<ResourceWrapper, ProcessorSlotChain> registry = new ResourceRegistry<>(
+            "testEvictOnFullSkipsResourcesWithRules", 2, 1000, false, IdleResourceReaper.NO_RULE_AND_IDLE,
+            DETACH_ON_EVICTION);
+        setCurrentMillis(10000);
+        registry.put(withRule, new DefaultProcessorSlotChain());
+        sleep(100);
+        registry.put(idle, new DefaultProcessorSlotChain());
+        EntranceNode entranceNode = new EntranceNode(new StringResourceWrapper("testEvictOnFullContext",
+            EntryType.IN), null);
+        Constants.ROOT.addChild(entranceNode);
+        entranceNode.addChild(new DefaultNode(idle, null));
+        entranceNode.addChild(new DefaultNode(withRule, null));
+
+        // The resource with rules is the coldest, but only the one without rules is evicted.
+        sleep(1000);
+        assertNotNull(registry.computeIfAbsent(incoming, new Function<ResourceWrapper, ProcessorSlotChain>() {
+            @Override
+            public ProcessorSlotChain apply(ResourceWrapper resourceWrapper) {
+                return new DefaultProcessorSlotChain();
+            }
+        }));
+        assertNotNull(registry.get(withRule));
+        assertNull(registry.get(idle));
+        // Default nodes of the evicted resource are detached, so they do not pile up when it comes back.
+        assertEquals(1, entranceNode.getChildList().size());
+        assertEquals(withRule, ((DefaultNode)entranceNode.getChildList().iterator().next()).getId());
+    }
+}
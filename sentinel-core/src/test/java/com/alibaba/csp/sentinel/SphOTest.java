@@ -18,11 +18,13 @@ package com.alibaba.csp.sentinel;
 import static org.junit.Assert.*;
 
 import java.lang.reflect.Method;
+import java.util.Collections;
 
 import org.junit.Test;
 
 import com.alibaba.csp.sentinel.util.StringUtil;
 import com.alibaba.csp.sentinel.context.ContextUtil;
+import com.alibaba.csp.sentinel.slots.block.RulePresenceRegistry;
 
 /**
  * Test cases for {@link SphO}.
@@ -168,4 +170,43 @@ public class SphOTest {
             }
         }
     }
+
+    @Test
+    public void testPassThroughEntryWithoutContext() {
+        CtSph.setFastPathEnabled(true);
+        try {
+            assertTrue(SphO.entry("testPassThroughEntryWithoutContext"));
+            assertNull(ContextUtil.getContext());
+            // Nothing is linked to the context, so exit should be a no-op.
+            SphO.exit();
+            assertNull(ContextUtil.getContext());
+        } finally {
+            CtSph.setFastPathEnabled(false);
+        }
+    }
+
+    @Test
+    public void testNoRuleEntryNestedInRuledEntry() {
+        String parentName = "testNoRuleEntryNestedInRuledEntry-parent";
+        String childName = "testNoRuleEntryNestedInRuledEntry-child";
+        CtSph.setFastPathEnabled(true);
+        RulePresenceRegistry.updateResources(RulePresenceRegistry.FLOW, Collections.singleton(parentName));
+        try {
+            assertTrue(SphO.entry(parentName));
+            Entry parent = ContextUtil.getContext().getCurEntry();
+            assertEquals(parentName, parent.getResourceWrapper().getName());
+
+            assertTrue(SphO.entry(childName));
+            assertEquals(childName, ContextUtil.getContext().getCurEntry().getResourceWrapper().getName());
+            // Exiting the nested entry should restore the parent entry rather than exit it.
+            SphO.exit();
+            assertSame(parent, ContextUtil.getContext().getCurEntry());
+
+            SphO.exit();
+            assertNull(ContextUtil.getContext());
+        } finally {
+            RulePresenceRegistry.updateResources(RulePresenceRegistry.FLOW, null);
+            CtSph.setFastPathEnabled(false);
+        }
+    }
 }
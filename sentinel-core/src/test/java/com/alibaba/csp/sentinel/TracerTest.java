@@ -1,5 +1,11 @@
 package com.alibaba.csp.sentinel;
 
+import java.util.Collections;
+
+import com.alibaba.csp.sentinel.context.ContextUtil;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.RulePresenceRegistry;
+
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -54,6 +60,51 @@ public class TracerTest extends Tracer {
         Tracer.setExceptionsToIgnore(IgnoreException.class, null);
     }
 
+    @Test
+    public void testTracePassThroughEntryWithoutContext() throws BlockException {
+        Tracer.ignoreClasses = null;
+        Tracer.traceClasses = null;
+        CtSph.setFastPathEnabled(true);
+        Entry entry = null;
+        try {
+            entry = SphU.entry("testTracePassThroughEntryWithoutContext");
+            Tracer.trace(new TraceException());
+            Assert.assertNull(ContextUtil.getContext());
+            Assert.assertNull(entry.getTracedError());
+        } finally {
+            if (entry != null) {
+                entry.exit();
+            }
+            CtSph.setFastPathEnabled(false);
+        }
+    }
+
+    @Test
+    public void testTraceNoRuleEntryNestedInRuledEntry() throws BlockException {
+        Tracer.ignoreClasses = null;
+        Tracer.traceClasses = null;
+        String parentName = "testTraceNoRuleEntryNestedInRuledEntry-parent";
+        CtSph.setFastPathEnabled(true);
+        RulePresenceRegistry.updateResources(RulePresenceRegistry.FLOW, Collections.singleton(parentName));
+        Entry parent = null;
+        try {
+            parent = SphU.entry(parentName);
+            Entry child = SphU.entry("testTraceNoRuleEntryNestedInRuledEntry-child");
+            TraceException e = new TraceException();
+            Tracer.trace(e);
+            // The exception belongs to the nested entry and must not be recorded against the parent.
+            Assert.assertSame(e, child.getTracedError());
+            Assert.assertNull(parent.getTracedError());
+            child.exit();
+        } finally {
+            if (parent != null) {
+                parent.exit();
+            }
+            RulePresenceRegistry.updateResources(RulePresenceRegistry.FLOW, null);
+            CtSph.setFastPathEnabled(false);
+        }
+    }
+
     private class TraceException extends Exception {}
 
     private class TraceException2 extends Exception {}
@@ -0,0 +1,264 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.concurrent;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.csp.sentinel.concurrent.ResourceRegistry.EvictionFilter;
+import com.alibaba.csp.sentinel.concurrent.ResourceRegistry.EvictionListener;
+import com.alibaba.csp.sentinel.test.AbstractTimeBasedTest;
+import com.alibaba.csp.sentinel.util.function.Function;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ResourceRegistryTest extends AbstractTimeBasedTest {
+
+    private static final Function<String, Object> FACTORY = new Function<String, Object>() {
+        @Override
+        public Object apply(String s) {
+            return new Object();
+        }
+    };
+
+    @Test
+    public void testCreateOnlyOnceConcurrently() throws Exception {
+        final ResourceRegistry<String, Object> registry = new ResourceRegistry<>(4);
+        final AtomicInteger created = new AtomicInteger();
+        final Function<String, Object> factory = new Function<String, Object>() {
+            @Override
+            public Object apply(String s) {
+                created.incrementAndGet();
+                return new Object();
+            }
+        };
+        int threads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threads);
+        final List<Object> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        Object value = registry.computeIfAbsent("res", factory);
+                        synchronized (results) {
+                            results.add(value);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }).start();
+        }
+        start.countDown();
+        done.await();
+
+        assertEquals(1, created.get());
+        assertEquals(threads, results.size());
+        for (Object value : results) {
+            assertSame(registry.get("res"), value);
+        }
+    }
+
+    @Test
+    public void testRejectWhenFull() {
+        ResourceRegistry<String, Object> registry = new ResourceRegistry<>("testRejectWhenFull", 2, 0, null);
+        assertNotNull(registry.computeIfAbsent("a", FACTORY));
+        assertNotNull(registry.computeIfAbsent("b", FACTORY));
+        assertNull(registry.computeIfAbsent("c", FACTORY));
+        // Existing values are still available.
+        assertNotNull(registry.computeIfAbsent("a", FACTORY));
+        assertEquals(2, registry.size());
+        assertEquals(1, registry.getRejectedCount());
+        assertSame(registry, ResourceRegistry.getNamedRegistries().get("testRejectWhenFull"));
+    }
+
+    @Test
+    public void testEvictIdleWhenFull() {
+        final List<String> evicted = new ArrayList<>();
+        ResourceRegistry<String, Object> registry = new ResourceRegistry<>("testEvictIdleWhenFull", 2, 1000,
+            new EvictionListener<String, Object>() {
+                @Override
+                public void onEvicted(String key, Object value) {
+                    evicted.add(key);
+                }
+            });
+        setCurrentMillis(10000);
+        registry.computeIfAbsent("a", FACTORY);
+        registry.computeIfAbsent("b", FACTORY);
+
+        // Nothing is idle long enough.
+        sleep(500);
+        registry.get("a");
+        assertNull(registry.computeIfAbsent("c", FACTORY));
+
+        // "b" is idle for 1000 ms, while "a" has been accessed recently.
+        sleep(500);
+        assertNotNull(registry.computeIfAbsent("c", FACTORY));
+        assertEquals(1, evicted.size());
+        assertEquals("b", evicted.get(0));
+        assertNull(registry.get("b"));
+        assertNotNull(registry.get("a"));
+        assertEquals(1, registry.getEvictedCount());
+        assertEquals(1, registry.getRejectedCount());
+    }
+
+    @Test
+    public void testEvictIdleWhenFullWithFilter() {
+        ResourceRegistry<String, Object> registry = new ResourceRegistry<>("testEvictIdleWhenFullWithFilter", 2,
+            1000, false, new EvictionFilter<String, Object>() {
+                @Override
+                public boolean canEvict(String key, Object value) {
+                    return !"pinned".equals(key);
+                }
+            }, null);
+        setCurrentMillis(10000);
+        registry.computeIfAbsent("pinned", FACTORY);
+        sleep(100);
+        registry.computeIfAbsent("a", FACTORY);
+
+        // "pinned" is the coldest, but it is rejected by the filter.
+        sleep(1000);
+        assertNotNull(registry.computeIfAbsent("b", FACTORY));
+        assertNotNull(registry.get("pinned"));
+        assertNull(registry.get("a"));
+
+        // Only "pinned" is idle long enough.
+        sleep(1000);
+        registry.get("b");
+        assertNull(registry.computeIfAbsent("c", FACTORY));
+        assertEquals(1, registry.getEvictedCount());
+        assertEquals(1, registry.getRejectedCount());
+    }
+
+    @Test
+    public void testEvictIdleWithFilter() {
+        final List<String> evicted = new ArrayList<>();
+        ResourceRegistry<String, Object> registry = new ResourceRegistry<>("testEvictIdleWithFilter",
+            Integer.MAX_VALUE, 0, true, new EvictionListener<String, Object>() {
+                @Override
+                public void onEvicted(String key, Object value) {
+                    evicted.add(key);
+                }
+            });
+        assertTrue(registry.isAccessTracked());
+        setCurrentMillis(10000);
+        registry.computeIfAbsent("a", FACTORY);
+        registry.computeIfAbsent("b", FACTORY);
+        registry.computeIfAbsent("pinned", FACTORY);
+
+        sleep(1000);
+        registry.get("a");
+        List<String> keys = registry.evictIdle(1000, new EvictionFilter<String, Object>() {
+            @Override
+            public boolean canEvict(String key, Object value) {
+                return !"pinned".equals(key);
+            }
+        });
+        assertEquals(1, keys.size());
+        assertEquals("b", keys.get(0));
+        assertEquals(keys, evicted);
+        assertEquals(2, registry.size());
+        assertEquals(1, registry.getEvictedCount());
+
+        // Access is not tracked, so nothing could be evicted.
+        ResourceRegistry<String, Object> untracked = new ResourceRegistry<>(1);
+        untracked.computeIfAbsent("a", FACTORY);
+        sleep(2000);
+        assertTrue(untracked.evictIdle(1000, null).isEmpty());
+        assertEquals(1, untracked.size());
+    }
+
+    @Test
+    public void testSampledEvictionWhenFull() {
+        final List<String> evicted = new ArrayList<>();
+        int maxSize = 200;
+        ResourceRegistry<String, Object> registry = new ResourceRegistry<>("testSampledEvictionWhenFull", maxSize,
+            1000, new EvictionListener<String, Object>() {
+                @Override
+                public void onEvicted(String key, Object value) {
+                    evicted.add(key);
+                }
+            });
+        setCurrentMillis(10000);
+        for (int i = 0; i < maxSize; i++) {
+            registry.computeIfAbsent("res-" + i, FACTORY);
+        }
+
+        sleep(1000);
+        for (int i = 0; i < 10; i++) {
+            assertNotNull(registry.computeIfAbsent("new-" + i, FACTORY));
+        }
+        // Each new value evicts exactly one idle value, and the sampling cursor moves on over the registry.
+        assertEquals(10, evicted.size());
+        assertEquals(10, new HashSet<>(evicted).size());
+        for (String key : evicted) {
+            assertTrue(key.startsWith("res-"));
+        }
+        assertEquals(maxSize, registry.size());
+    }
+
+    @Test
+    public void testAnonymousRegistryWithFilter() {
+        ResourceRegistry<String, Object> registry = new ResourceRegistry<>(1, 1000, 1,
+            new EvictionFilter<String, Object>() {
+                @Override
+                public boolean canEvict(String key, Object value) {
+                    return !"inUse".equals(key);
+                }
+            });
+        setCurrentMillis(10000);
+        registry.computeIfAbsent("inUse", FACTORY);
+        sleep(1000);
+        // The only idle value is still in use, so the new value is rejected.
+        assertNull(registry.computeIfAbsent("a", FACTORY));
+        registry.remove("inUse");
+        assertNotNull(registry.computeIfAbsent("a", FACTORY));
+        sleep(1000);
+        assertNotNull(registry.computeIfAbsent("b", FACTORY));
+        assertNull(registry.get("a"));
+        assertEquals(1, registry.getEvictedCount());
+        assertFalse(ResourceRegistry.getNamedRegistries().containsValue(registry));
+    }
+
+    @Test
+    public void testMapView() {
+        ResourceRegistry<String, Object> registry = new ResourceRegistry<>(1);
+        Map<String, Object> view = registry.asMap();
+        Object value = new Object();
+        view.put("a", value);
+        assertSame(value, registry.get("a"));
+        assertTrue(view.containsKey("a"));
+        assertEquals(1, view.size());
+        assertTrue(view.values().contains(value));
+
+        registry.computeIfAbsent("b", FACTORY);
+        assertEquals(2, view.size());
+        assertSame(value, view.remove("a"));
+        view.clear();
+        assertEquals(0, registry.size());
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.concurrent;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TimerWheelTest {
+
+    private TimerWheel timerWheel;
+
+    @Before
+    public void setUp() {
+        // Small wheel so that tasks will go round the wheel.
+        timerWheel = new TimerWheel("test-timer-wheel", 5, TimeUnit.MILLISECONDS, 4);
+    }
+
+    @After
+    public void tearDown() {
+        timerWheel.stop();
+    }
+
+    @Test
+    public void testScheduleAfterDelay() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicLong executedAt = new AtomicLong();
+        long start = System.nanoTime();
+        timerWheel.schedule(new Runnable() {
+            @Override
+            public void run() {
+                executedAt.set(System.nanoTime());
+                latch.countDown();
+            }
+        }, 100, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertTrue(executedAt.get() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(0, timerWheel.pendingTimeouts());
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        final AtomicBoolean executed = new AtomicBoolean(false);
+        TimerWheel.Timeout timeout = timerWheel.schedule(new Runnable() {
+            @Override
+            public void run() {
+                executed.set(true);
+            }
+        }, 30, TimeUnit.MILLISECONDS);
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        TimerWheel.Timeout other = timerWheel.schedule(new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        }, 60, TimeUnit.MILLISECONDS);
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertTrue(other.isExpired());
+        assertFalse(other.cancel());
+        assertFalse(executed.get());
+        assertTrue(timeout.isCancelled());
+    }
+
+    @Test
+    public void testScheduleAfterIdle() throws Exception {
+        final CountDownLatch first = new CountDownLatch(1);
+        timerWheel.schedule(new Runnable() {
+            @Override
+            public void run() {
+                first.countDown();
+            }
+        }, 0, TimeUnit.MILLISECONDS);
+        assertTrue(first.await(2, TimeUnit.SECONDS));
+
+        // The worker parks while idle, and should catch up with the time after waking up.
+        TimeUnit.MILLISECONDS.sleep(50);
+        final CountDownLatch second = new CountDownLatch(1);
+        long start = System.nanoTime();
+        timerWheel.schedule(new Runnable() {
+            @Override
+            public void run() {
+                second.countDown();
+            }
+        }, 20, TimeUnit.MILLISECONDS);
+        assertTrue(second.await(2, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testScheduleAfterStop() {
+        timerWheel.stop();
+        timerWheel.schedule(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }, 10, TimeUnit.MILLISECONDS);
+    }
+}
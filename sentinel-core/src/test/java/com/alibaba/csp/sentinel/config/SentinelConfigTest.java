@@ -68,6 +68,30 @@ public class SentinelConfigTest {
     }
 
 
+    @Test
+    public void testResourceIdleEviction() {
+        try {
+            assertEquals(0, SentinelConfig.resourceIdleEvictionMs());
+            Assert.assertFalse(SentinelConfig.resourceIdleReaperEnabled());
+
+            SentinelConfig.setConfig(SentinelConfig.RESOURCE_IDLE_EVICTION_MODE,
+                SentinelConfig.RESOURCE_IDLE_EVICTION_MODE_REAPER);
+            // The reaper is disabled without the idle time.
+            Assert.assertFalse(SentinelConfig.resourceIdleReaperEnabled());
+
+            SentinelConfig.setConfig(SentinelConfig.RESOURCE_IDLE_EVICTION_MS, "60000");
+            assertEquals(60000, SentinelConfig.resourceIdleEvictionMs());
+            Assert.assertTrue(SentinelConfig.resourceIdleReaperEnabled());
+
+            SentinelConfig.setConfig(SentinelConfig.RESOURCE_IDLE_EVICTION_MODE,
+                SentinelConfig.RESOURCE_IDLE_EVICTION_MODE_ON_FULL);
+            Assert.assertFalse(SentinelConfig.resourceIdleReaperEnabled());
+        } finally {
+            SentinelConfig.removeConfig(SentinelConfig.RESOURCE_IDLE_EVICTION_MS);
+            SentinelConfig.removeConfig(SentinelConfig.RESOURCE_IDLE_EVICTION_MODE);
+        }
+    }
+
     //add Jvm parameter
     //-Dcsp.sentinel.config.file=sentinel-propertiesTest.properties
     //-Dcsp.sentinel.flow.cold.factor=5
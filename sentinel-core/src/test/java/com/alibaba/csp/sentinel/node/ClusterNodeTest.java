@@ -15,6 +15,8 @@
  */
 package com.alibaba.csp.sentinel.node;
 
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.node.metric.MetricNode;
 import com.alibaba.csp.sentinel.slots.block.flow.FlowException;
 
 import org.junit.Test;
@@ -39,6 +41,67 @@ import static org.junit.Assert.*;
  */
 public class ClusterNodeTest {
 
+    @Test
+    public void testRtPercentiles() {
+        SentinelConfig.setConfig(SentinelConfig.STATISTIC_RT_HISTOGRAM_RESOURCES, "testRtPercentiles, other");
+        try {
+            ClusterNode disabledNode = new ClusterNode("testRtPercentilesDisabled");
+            assertFalse(disabledNode.isRtHistogramEnabled());
+            disabledNode.addRtAndSuccess(10, 1);
+            assertEquals(0, disabledNode.rtPercentile(99));
+
+            ClusterNode clusterNode = new ClusterNode("testRtPercentiles");
+            assertTrue(clusterNode.isRtHistogramEnabled());
+            assertEquals(0, clusterNode.rtPercentile(99));
+            for (int i = 1; i <= 100; i++) {
+                clusterNode.addRtAndSuccess(i % 10 == 0 ? 1000 : 10, 1);
+            }
+            assertEquals(10, clusterNode.rtPercentile(50));
+            assertEquals(10, clusterNode.rtPercentile(90));
+            long p99 = clusterNode.rtPercentile(99);
+            assertTrue(p99 >= 1000 && p99 <= 1000 + 1000 / 32);
+
+            boolean found = false;
+            for (MetricNode node : clusterNode.rawMetricsInMin(null)) {
+                if (node.getSuccessQps() > 0) {
+                    found = true;
+                    assertTrue(node.hasRtPercentiles());
+                    assertEquals(10, node.getRtP50());
+                }
+            }
+            assertTrue(found);
+
+            clusterNode.reset();
+            assertTrue(clusterNode.isRtHistogramEnabled());
+            clusterNode.addRtAndSuccess(20, 1);
+            assertEquals(20, clusterNode.rtPercentile(50));
+        } finally {
+            SentinelConfig.removeConfig(SentinelConfig.STATISTIC_RT_HISTOGRAM_RESOURCES);
+        }
+    }
+
+    @Test
+    public void testRtHistogramEnabledAtRuntime() {
+        ClusterNode clusterNode = new ClusterNode("testRtHistogramEnabledAtRuntime");
+        assertFalse(clusterNode.isRtHistogramEnabled());
+        SentinelConfig.setConfig(SentinelConfig.STATISTIC_RT_HISTOGRAM_RESOURCES, "testRtHistogramEnabledAtRuntime");
+        try {
+            // Reading the state or the percentile has no side effect.
+            assertEquals(0, clusterNode.rtPercentile(50));
+            assertFalse(clusterNode.isRtHistogramEnabled());
+            // The configuration is checked again on refresh, which is done before every metric log round.
+            clusterNode.refreshRtHistogramConfig();
+            assertTrue(clusterNode.isRtHistogramEnabled());
+            clusterNode.addRtAndSuccess(20, 1);
+            assertEquals(20, clusterNode.rtPercentile(50));
+        } finally {
+            SentinelConfig.removeConfig(SentinelConfig.STATISTIC_RT_HISTOGRAM_RESOURCES);
+        }
+        // Removing the resource from the configuration does not disable the histogram.
+        clusterNode.refreshRtHistogramConfig();
+        assertTrue(clusterNode.isRtHistogramEnabled());
+    }
+
     @Test
     public void testGetOrCreateOriginNodeSingleThread() {
         ClusterNode clusterNode = new ClusterNode("test");
@@ -63,6 +126,37 @@ public class ClusterNodeTest {
         assertTrue(clusterNode.getOriginCountMap().containsKey(origin2));
     }
 
+    @Test
+    public void testOriginNodeLimit() throws InterruptedException {
+        SentinelConfig.setConfig(SentinelConfig.STATISTIC_MAX_ORIGIN_NODE_SIZE, "2");
+        try {
+            ClusterNode clusterNode = new ClusterNode("testOriginNodeLimit");
+            assertNotNull(clusterNode.getOrCreateOriginNode("origin1"));
+            assertNotNull(clusterNode.getOrCreateOriginNode("origin2"));
+            // Idle eviction is disabled, so new origins share an unregistered node.
+            Node overflow = clusterNode.getOrCreateOriginNode("origin3");
+            assertNotNull(overflow);
+            assertSame(overflow, clusterNode.getOrCreateOriginNode("origin4"));
+            overflow.addPassRequest(1);
+            assertEquals(1, clusterNode.getOrCreateOriginNode("origin4").totalRequest());
+            assertEquals(2, clusterNode.getOriginCountMap().size());
+
+            SentinelConfig.setConfig(SentinelConfig.RESOURCE_IDLE_EVICTION_MS, "10");
+            clusterNode = new ClusterNode("testOriginNodeLimit");
+            Node inUse = clusterNode.getOrCreateOriginNode("origin1");
+            inUse.increaseThreadNum();
+            assertNotNull(clusterNode.getOrCreateOriginNode("origin2"));
+            Thread.sleep(50);
+            // The origin node with in-flight invocations should not be evicted.
+            assertNotNull(clusterNode.getOrCreateOriginNode("origin3"));
+            assertTrue(clusterNode.getOriginCountMap().containsKey("origin1"));
+            assertFalse(clusterNode.getOriginCountMap().containsKey("origin2"));
+        } finally {
+            SentinelConfig.removeConfig(SentinelConfig.STATISTIC_MAX_ORIGIN_NODE_SIZE);
+            SentinelConfig.removeConfig(SentinelConfig.RESOURCE_IDLE_EVICTION_MS);
+        }
+    }
+
     @Test
     public void testGetOrCreateOriginNodeMultiThread() {
         // Note: in JUnit 4, repeat execute a test method is not very convenient
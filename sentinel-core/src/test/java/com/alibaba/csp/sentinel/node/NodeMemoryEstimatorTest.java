@@ -0,0 +1,65 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node;
+
+import java.util.Map;
+
+import com.alibaba.csp.sentinel.Constants;
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class NodeMemoryEstimatorTest {
+
+    @After
+    public void tearDown() {
+        Constants.ROOT.removeChildList();
+    }
+
+    @Test
+    public void testEstimateClusterNodeWithOrigins() {
+        long nodeBytes = NodeMemoryEstimator.estimateStatisticNodeBytes();
+        assertTrue(nodeBytes > 0);
+
+        ClusterNode clusterNode = new ClusterNode("testEstimateClusterNodeWithOrigins");
+        assertEquals(nodeBytes, NodeMemoryEstimator.estimateClusterNodeBytes(clusterNode));
+        clusterNode.getOrCreateOriginNode("originA");
+        clusterNode.getOrCreateOriginNode("originB");
+        assertTrue(NodeMemoryEstimator.estimateClusterNodeBytes(clusterNode) > 3 * nodeBytes);
+        assertEquals(0, NodeMemoryEstimator.estimateClusterNodeBytes(null));
+    }
+
+    @Test
+    public void testCountDefaultNodes() {
+        EntranceNode entranceA = new EntranceNode(new StringResourceWrapper("contextA", EntryType.IN), null);
+        EntranceNode entranceB = new EntranceNode(new StringResourceWrapper("contextB", EntryType.IN), null);
+        Constants.ROOT.addChild(entranceA);
+        Constants.ROOT.addChild(entranceB);
+        DefaultNode nodeA = new DefaultNode(new StringResourceWrapper("resA", EntryType.OUT), null);
+        entranceA.addChild(nodeA);
+        nodeA.addChild(new DefaultNode(new StringResourceWrapper("resB", EntryType.OUT), null));
+        entranceB.addChild(new DefaultNode(new StringResourceWrapper("resA", EntryType.OUT), null));
+
+        Map<String, Integer> counts = NodeMemoryEstimator.countDefaultNodes();
+        assertEquals(2, counts.size());
+        assertEquals(2, (int)counts.get("resA"));
+        assertEquals(1, (int)counts.get("resB"));
+    }
+}
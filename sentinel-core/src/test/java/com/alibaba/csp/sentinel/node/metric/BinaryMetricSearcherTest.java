@@ -0,0 +1,200 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BinaryMetricSearcherTest {
+
+    private static final String BASE_FILE_NAME = "test-metrics.log";
+    /**
+     * Room for 10 records in each file.
+     */
+    private static final int FILE_SIZE = BinaryMetricFile.HEADER_SIZE + BinaryMetricFile.MIN_DICT_CAPACITY
+        + BinaryMetricFile.RECORD_SIZE * 10;
+
+    private File baseDir;
+
+    @Before
+    public void setUp() {
+        baseDir = new File(System.getProperty("java.io.tmpdir"), "sentinel-binary-metric-" + System.nanoTime());
+        assertTrue(baseDir.mkdirs());
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = baseDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        baseDir.delete();
+    }
+
+    @Test
+    public void testWriteAndFind() throws Exception {
+        BinaryMetricWriter writer = new BinaryMetricWriter(baseDir.getAbsolutePath(), BASE_FILE_NAME, FILE_SIZE, 3);
+        // 3 resources per second, 8 seconds, so the records span 3 files.
+        for (int second = 1; second <= 8; second++) {
+            writer.write(second * 1000, nodes(second, "resA", "resB", "resC"));
+        }
+        writer.close();
+        assertEquals(3, BinaryMetricFile.listFiles(baseDir.getAbsolutePath() + File.separator, BASE_FILE_NAME)
+            .size());
+
+        BinaryMetricSearcher searcher = new BinaryMetricSearcher(baseDir.getAbsolutePath(), BASE_FILE_NAME);
+        List<MetricNode> list = searcher.find(3000, 4);
+        // Metrics of the same second are never split.
+        assertEquals(6, list.size());
+        assertEquals(3000, list.get(0).getTimestamp());
+        assertEquals("resA", list.get(0).getResource());
+        assertEquals(4000, list.get(5).getTimestamp());
+        assertEquals("resC", list.get(5).getResource());
+        assertEquals(4 * 10, list.get(3).getPassQps());
+        assertEquals(4, list.get(3).getRt());
+        assertEquals(2, list.get(3).getConcurrency());
+        assertEquals(4 * 3, list.get(3).getRtP99());
+
+        list = searcher.findByTimeAndResource(3500, 6999, "resB");
+        assertEquals(4, list.size());
+        for (int i = 0; i < list.size(); i++) {
+            assertEquals("resB", list.get(i).getResource());
+            assertEquals((i + 3) * 1000, list.get(i).getTimestamp());
+        }
+        assertEquals(15, searcher.findByTimeAndResource(3000, 7000, null).size());
+        assertTrue(searcher.findByTimeAndResource(1000, 8000, "absent").isEmpty());
+        assertNull(searcher.find(9000, 10));
+    }
+
+    @Test
+    public void testWriteMetrics() throws Exception {
+        BinaryMetricWriter writer = new BinaryMetricWriter(baseDir.getAbsolutePath(), BASE_FILE_NAME, FILE_SIZE, 3);
+        for (int second = 1; second <= 8; second++) {
+            writer.write(second * 1000, nodes(second, "resA", "res|B", "resC"));
+        }
+        writer.close();
+
+        BinaryMetricSearcher searcher = new BinaryMetricSearcher(baseDir.getAbsolutePath(), BASE_FILE_NAME);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(6000, searcher.writeMetrics(3000, 6000, "res|B", 100, out));
+        String[] lines = out.toString("UTF-8").split("\n");
+        assertEquals(4, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            MetricNode node = MetricNode.fromThinString(lines[i]);
+            assertEquals("res_B", node.getResource());
+            assertEquals((i + 3) * 1000, node.getTimestamp());
+            assertEquals((i + 3) * 10, node.getPassQps());
+        }
+
+        out.reset();
+        assertEquals(4000, searcher.writeMetrics(3000, 8000, null, 4, out));
+        lines = out.toString("UTF-8").split("\n");
+        assertEquals(6, lines.length);
+        MetricNode expected = nodes(3, "resA").get(0);
+        expected.setTimestamp(3000);
+        assertEquals(expected.toThinString(), lines[0]);
+
+        out.reset();
+        assertEquals(-1, searcher.writeMetrics(9000, 10000, null, 100, out));
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    public void testRingOverwritesOldestFile() throws Exception {
+        BinaryMetricWriter writer = new BinaryMetricWriter(baseDir.getAbsolutePath(), BASE_FILE_NAME, FILE_SIZE, 2);
+        // 5 records per second and 2 seconds per file, so metrics of the first 2 seconds are overwritten.
+        for (int second = 1; second <= 6; second++) {
+            writer.write(second * 1000, nodes(second, "a", "b", "c", "d", "e"));
+        }
+
+        BinaryMetricSearcher searcher = new BinaryMetricSearcher(baseDir.getAbsolutePath(), BASE_FILE_NAME);
+        List<MetricNode> list = searcher.find(0, 100);
+        assertEquals(20, list.size());
+        assertEquals(3000, list.get(0).getTimestamp());
+        assertEquals(6000, list.get(19).getTimestamp());
+
+        // Records written later are visible to the same searcher.
+        writer.write(7000, nodes(7, "a"));
+        list = searcher.find(7000, 100);
+        assertEquals(1, list.size());
+        assertEquals("a", list.get(0).getResource());
+        writer.close();
+
+        // A new writer resumes after the latest slot.
+        writer = new BinaryMetricWriter(baseDir.getAbsolutePath(), BASE_FILE_NAME, FILE_SIZE, 2);
+        writer.write(8000, nodes(8, "f"));
+        writer.close();
+        list = searcher.find(0, 100);
+        assertEquals(7000, list.get(0).getTimestamp());
+        assertEquals("f", list.get(list.size() - 1).getResource());
+    }
+
+    @Test
+    public void testSkipUnpublishedRecords() throws Exception {
+        BinaryMetricWriter writer = new BinaryMetricWriter(baseDir.getAbsolutePath(), BASE_FILE_NAME, FILE_SIZE, 2);
+        writer.write(1000, nodes(1, "a", "b", "c"));
+        writer.close();
+
+        // Without a fence, readers may see the record count before the records themselves.
+        RandomAccessFile file = new RandomAccessFile(BinaryMetricFile.formFileName(
+            baseDir.getAbsolutePath() + File.separator, BASE_FILE_NAME, 0), "rw");
+        try {
+            file.seek(BinaryMetricFile.OFFSET_RECORD_COUNT);
+            file.writeInt(6);
+            // A record that refers to a resource not in the decoded dictionary.
+            file.seek(BinaryMetricFile.OFFSET_DICT_CAPACITY);
+            long offset = BinaryMetricFile.HEADER_SIZE + file.readInt() + 3 * BinaryMetricFile.RECORD_SIZE;
+            file.seek(offset + BinaryMetricFile.RECORD_TIMESTAMP);
+            file.writeLong(2000);
+            file.seek(offset + BinaryMetricFile.RECORD_RESOURCE_ID);
+            file.writeInt(7);
+        } finally {
+            file.close();
+        }
+
+        BinaryMetricSearcher searcher = new BinaryMetricSearcher(baseDir.getAbsolutePath(), BASE_FILE_NAME);
+        assertEquals(3, searcher.find(0, 100).size());
+        assertEquals(3, searcher.findByTimeAndResource(0, 10000, null).size());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(1000, searcher.writeMetrics(0, 10000, null, 100, out));
+        assertEquals(3, out.toString("UTF-8").split("\n").length);
+    }
+
+    private static List<MetricNode> nodes(int second, String... resources) {
+        List<MetricNode> nodes = new ArrayList<MetricNode>();
+        for (String resource : resources) {
+            MetricNode node = new MetricNode();
+            node.setResource(resource);
+            node.setPassQps(second * 10);
+            node.setRt(second);
+            node.setConcurrency(2);
+            node.setRtP99(second * 3);
+            nodes.add(node);
+        }
+        return nodes;
+    }
+}
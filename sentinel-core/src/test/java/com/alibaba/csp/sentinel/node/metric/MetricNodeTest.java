@@ -33,5 +33,35 @@ public class MetricNodeTest {
         assertEquals(ResourceTypeConstants.COMMON_WEB, node.getClassification());
         assertEquals(2, node.getConcurrency());
         assertEquals(1, node.getSuccessQps());
+        assertFalse(node.hasRtPercentiles());
+    }
+
+    @Test
+    public void testRtPercentiles() {
+        MetricNode node = new MetricNode();
+        node.setTimestamp(1564382218000L);
+        node.setResource("/foo/*");
+        node.setSuccessQps(3);
+        node.setRt(12);
+        node.setClassification(ResourceTypeConstants.COMMON_WEB);
+        String thinString = node.toThinString();
+        // Lines without RT percentiles keep the format expected by parsers before 1.7.1.
+        assertEquals("1564382218000|/foo/*|0|0|3|0|12|0|0|1", thinString);
+        assertEquals(11, node.toFatString().trim().split("\\|").length);
+
+        node.setRtP50(8);
+        node.setRtP90(20);
+        node.setRtP99(63);
+        node.setRtP999(101);
+        thinString = node.toThinString();
+        assertEquals("1564382218000|/foo/*|0|0|3|0|12|0|0|1|8|20|63|101", thinString);
+        for (MetricNode parsed : new MetricNode[] {MetricNode.fromThinString(thinString),
+            MetricNode.fromFatString(node.toFatString().trim())}) {
+            assertEquals(ResourceTypeConstants.COMMON_WEB, parsed.getClassification());
+            assertEquals(8, parsed.getRtP50());
+            assertEquals(20, parsed.getRtP90());
+            assertEquals(63, parsed.getRtP99());
+            assertEquals(101, parsed.getRtP999());
+        }
     }
 }
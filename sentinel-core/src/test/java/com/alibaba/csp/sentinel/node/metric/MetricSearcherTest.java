@@ -0,0 +1,127 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MetricSearcherTest {
+
+    private static final String BASE_FILE_NAME = "test-metrics.log";
+
+    private File baseDir;
+
+    @Before
+    public void setUp() throws Exception {
+        baseDir = new File(System.getProperty("java.io.tmpdir"), "sentinel-metric-" + System.nanoTime());
+        assertTrue(baseDir.mkdirs());
+        writeMetricFile(BASE_FILE_NAME + ".2020-01-01", 1, 4);
+        writeMetricFile(BASE_FILE_NAME + ".2020-01-01.1", 5, 8);
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = baseDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        baseDir.delete();
+    }
+
+    @Test
+    public void testFindByTimeAndResource() throws Exception {
+        MetricSearcher searcher = new MetricSearcher(baseDir.getAbsolutePath(), BASE_FILE_NAME);
+        List<MetricNode> list = searcher.findByTimeAndResource(3000, 6000, "res_B");
+        assertEquals(4, list.size());
+        for (int i = 0; i < list.size(); i++) {
+            assertEquals("res_B", list.get(i).getResource());
+            assertEquals((i + 3) * 1000, list.get(i).getTimestamp());
+        }
+        assertEquals(12, searcher.findByTimeAndResource(3000, 6000, null).size());
+        // The resource name is compared as a whole.
+        assertTrue(searcher.findByTimeAndResource(1000, 8000, "res").isEmpty());
+    }
+
+    @Test
+    public void testWriteMetrics() throws Exception {
+        MetricSearcher searcher = new MetricSearcher(baseDir.getAbsolutePath(), BASE_FILE_NAME);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(6000, searcher.writeMetrics(3000, 6000, "res_B", 100, out));
+        String[] lines = out.toString("UTF-8").split("\n");
+        assertEquals(4, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            MetricNode node = MetricNode.fromThinString(lines[i]);
+            assertEquals("res_B", node.getResource());
+            assertEquals((i + 3) * 1000, node.getTimestamp());
+            assertEquals((i + 3) * 10, node.getPassQps());
+        }
+
+        // Metrics of the same second are never split.
+        out.reset();
+        assertEquals(4000, searcher.writeMetrics(3000, 8000, null, 4, out));
+        lines = out.toString("UTF-8").split("\n");
+        assertEquals(6, lines.length);
+        assertEquals(nodes(3, "resA").get(0).toThinString(), lines[0]);
+
+        out.reset();
+        assertEquals(-1, searcher.writeMetrics(9000, 10000, null, 100, out));
+        assertEquals(0, out.size());
+    }
+
+    private void writeMetricFile(String fileName, int fromSecond, int toSecond) throws Exception {
+        File file = new File(baseDir, fileName);
+        FileOutputStream out = new FileOutputStream(file);
+        DataOutputStream index = new DataOutputStream(new FileOutputStream(MetricWriter.formIndexFileName(
+            file.getAbsolutePath())));
+        try {
+            for (int second = fromSecond; second <= toSecond; second++) {
+                index.writeLong(second);
+                index.writeLong(out.getChannel().position());
+                for (MetricNode node : nodes(second, "resA", "res|B", "resC")) {
+                    out.write(node.toFatString().getBytes("UTF-8"));
+                }
+            }
+        } finally {
+            out.close();
+            index.close();
+        }
+    }
+
+    private static List<MetricNode> nodes(int second, String... resources) {
+        List<MetricNode> nodes = new ArrayList<MetricNode>();
+        for (String resource : resources) {
+            MetricNode node = new MetricNode();
+            node.setTimestamp(second * 1000L);
+            node.setResource(resource);
+            node.setPassQps(second * 10);
+            node.setRt(second);
+            nodes.add(node);
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRule;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRuleManager;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
+import com.alibaba.csp.sentinel.slots.system.SystemRule;
+import com.alibaba.csp.sentinel.slots.system.SystemRuleManager;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link RulePresenceRegistry}.
+ */
+public class RulePresenceRegistryTest {
+
+    @Before
+    public void setUp() {
+        RulePresenceRegistry.clear();
+    }
+
+    @After
+    public void tearDown() {
+        FlowRuleManager.loadRules(null);
+        DegradeRuleManager.loadRules(null);
+        SystemRuleManager.loadRules(null);
+        RulePresenceRegistry.clear();
+    }
+
+    @Test
+    public void testUpdateResources() {
+        RulePresenceRegistry.updateResources(RulePresenceRegistry.FLOW, Arrays.asList("a", "b"));
+        RulePresenceRegistry.updateResources(RulePresenceRegistry.DEGRADE, Collections.singleton("b"));
+
+        assertEquals(RulePresenceRegistry.FLOW, RulePresenceRegistry.getRuleMask("a"));
+        assertEquals(RulePresenceRegistry.FLOW | RulePresenceRegistry.DEGRADE, RulePresenceRegistry.getRuleMask("b"));
+        assertEquals(0, RulePresenceRegistry.getRuleMask("c"));
+        assertFalse(RulePresenceRegistry.hasRules(new StringResourceWrapper("c", EntryType.OUT)));
+
+        RulePresenceRegistry.updateResources(RulePresenceRegistry.FLOW, null);
+        assertEquals(0, RulePresenceRegistry.getRuleMask("a"));
+        assertEquals(RulePresenceRegistry.DEGRADE, RulePresenceRegistry.getRuleMask("b"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUpdateResourcesWithInvalidType() {
+        RulePresenceRegistry.updateResources(RulePresenceRegistry.FLOW | RulePresenceRegistry.DEGRADE,
+            Collections.singleton("a"));
+    }
+
+    @Test
+    public void testRuleManagersPublishResources() {
+        FlowRule relateRule = new FlowRule("flowRes")
+            .setStrategy(RuleConstant.STRATEGY_RELATE)
+            .setRefResource("refRes")
+            .setCount(10);
+        FlowRuleManager.loadRules(Collections.singletonList(relateRule));
+        DegradeRule degradeRule = new DegradeRule("degradeRes")
+            .setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT)
+            .setCount(10)
+            .setTimeWindow(5);
+        DegradeRuleManager.loadRules(Collections.singletonList(degradeRule));
+
+        assertTrue(RulePresenceRegistry.hasRules(new StringResourceWrapper("flowRes", EntryType.OUT)));
+        assertTrue("Statistics of relate resource are needed",
+            RulePresenceRegistry.hasRules(new StringResourceWrapper("refRes", EntryType.OUT)));
+        assertTrue(RulePresenceRegistry.hasRules(new StringResourceWrapper("degradeRes", EntryType.OUT)));
+        assertFalse(RulePresenceRegistry.hasRules(new StringResourceWrapper("otherRes", EntryType.IN)));
+
+        SystemRule systemRule = new SystemRule();
+        systemRule.setQps(100);
+        SystemRuleManager.loadRules(Collections.singletonList(systemRule));
+        assertTrue("System rules apply to all inbound resources",
+            RulePresenceRegistry.hasRules(new StringResourceWrapper("otherRes", EntryType.IN)));
+        assertFalse(RulePresenceRegistry.hasRules(new StringResourceWrapper("otherRes", EntryType.OUT)));
+
+        FlowRuleManager.loadRules(null);
+        assertFalse(RulePresenceRegistry.hasRules(new StringResourceWrapper("flowRes", EntryType.OUT)));
+    }
+}
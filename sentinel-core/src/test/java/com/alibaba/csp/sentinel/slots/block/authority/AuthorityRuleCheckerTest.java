@@ -56,4 +56,51 @@ public class AuthorityRuleCheckerTest {
             ContextUtil.exit();
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testPassCheckWithCompiledOrigins() {
+        String resourceName = "testPassCheckWithCompiledOrigins";
+        StringBuilder limitApp = new StringBuilder("app");
+        for (int i = 0; i < 100; i++) {
+            limitApp.append(",app").append(i);
+        }
+        AuthorityRuleMatcher large = AuthorityRuleMatcher.compile(new AuthorityRule()
+            .setResource(resourceName)
+            .setLimitApp(limitApp.toString())
+            .as(AuthorityRule.class)
+            .setStrategy(RuleConstant.AUTHORITY_WHITE));
+        AuthorityRuleMatcher small = AuthorityRuleMatcher.compile(new AuthorityRule()
+            .setResource(resourceName)
+            .setLimitApp("app,app1,app1, app2")
+            .as(AuthorityRule.class)
+            .setStrategy(RuleConstant.AUTHORITY_BLACK));
+        assertEquals(101, large.size());
+        assertEquals(3, small.size());
+
+        for (AuthorityRuleMatcher matcher : new AuthorityRuleMatcher[] {large, small}) {
+            assertTrue(matcher.containsOrigin("app"));
+            assertTrue(matcher.containsOrigin("app1"));
+            // Origins are matched exactly.
+            assertFalse(matcher.containsOrigin("ap"));
+            assertFalse(matcher.containsOrigin("app1,app"));
+            assertFalse(matcher.containsOrigin("app100"));
+        }
+        assertFalse(large.containsOrigin(" app2"));
+        assertTrue(small.containsOrigin(" app2"));
+
+        ContextUtil.enter("entrance", "app99");
+        try {
+            assertTrue(AuthorityRuleChecker.passCheck(large, ContextUtil.getContext()));
+            assertTrue(AuthorityRuleChecker.passCheck(small, ContextUtil.getContext()));
+        } finally {
+            ContextUtil.exit();
+        }
+        ContextUtil.enter("entrance", "app1");
+        try {
+            assertTrue(AuthorityRuleChecker.passCheck(large, ContextUtil.getContext()));
+            assertFalse(AuthorityRuleChecker.passCheck(small, ContextUtil.getContext()));
+        } finally {
+            ContextUtil.exit();
+        }
+    }
+}
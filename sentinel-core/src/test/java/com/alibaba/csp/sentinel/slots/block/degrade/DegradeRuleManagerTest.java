@@ -16,7 +16,15 @@
 package com.alibaba.csp.sentinel.slots.block.degrade;
 
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.CircuitBreaker;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.ExceptionCircuitBreaker;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.ResponseTimeCircuitBreaker;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
 import org.junit.Test;
 
 import static org.junit.Assert.*;
@@ -28,6 +36,11 @@ import static org.junit.Assert.*;
  */
 public class DegradeRuleManagerTest {
 
+    @After
+    public void tearDown() {
+        DegradeRuleManager.loadRules(new ArrayList<DegradeRule>());
+    }
+
     @Test
     public void testIsValidRule() {
         DegradeRule rule1 = new DegradeRule("abc");
@@ -61,5 +74,54 @@ public class DegradeRuleManagerTest {
         assertFalse(DegradeRuleManager.isValidRule(rule4));
         assertFalse(DegradeRuleManager.isValidRule(rule5));
         assertFalse(DegradeRuleManager.isValidRule(rule6));
+
+        DegradeRule rule7 = new DegradeRule("Sentinel")
+            .setCount(200)
+            .setGrade(RuleConstant.DEGRADE_GRADE_SLOW_REQUEST_RATIO)
+            .setTimeWindow(10)
+            .setSlowRatioThreshold(0.3);
+        assertTrue(DegradeRuleManager.isValidRule(rule7));
+        assertFalse(DegradeRuleManager.isValidRule(rule7.setSlowRatioThreshold(1.2)));
+        assertFalse(DegradeRuleManager.isValidRule(rule7.setSlowRatioThreshold(0.3).setMinRequestAmount(0)));
+        assertFalse(DegradeRuleManager.isValidRule(new DegradeRule("Sentinel").setCount(1).setGrade(4)
+            .setTimeWindow(10)));
+    }
+
+    @Test
+    public void testLoadRulesKeepCircuitBreakers() {
+        String resource = "testLoadRulesKeepCircuitBreakers";
+        DegradeRule rtRule = new DegradeRule(resource)
+            .setCount(10)
+            .setGrade(RuleConstant.DEGRADE_GRADE_RT)
+            .setTimeWindow(5);
+        DegradeRule ratioRule = new DegradeRule(resource)
+            .setCount(0.5)
+            .setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_RATIO)
+            .setTimeWindow(5);
+        DegradeRuleManager.loadRules(Arrays.asList(rtRule, ratioRule));
+        assertEquals(2, DegradeRuleManager.getCircuitBreakers(resource).size());
+        CircuitBreaker rtBreaker = DegradeRuleManager.getCircuitBreaker(rtRule);
+        CircuitBreaker ratioBreaker = DegradeRuleManager.getCircuitBreaker(ratioRule);
+        assertTrue(rtBreaker instanceof ResponseTimeCircuitBreaker);
+        assertTrue(ratioBreaker instanceof ExceptionCircuitBreaker);
+
+        // Circuit breakers of unchanged rules are kept, so the states are not lost.
+        DegradeRule newRatioRule = new DegradeRule(resource)
+            .setCount(0.6)
+            .setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_RATIO)
+            .setTimeWindow(5);
+        DegradeRule newRtRule = new DegradeRule(resource)
+            .setCount(10)
+            .setGrade(RuleConstant.DEGRADE_GRADE_RT)
+            .setTimeWindow(5);
+        DegradeRuleManager.loadRules(Arrays.asList(newRtRule, newRatioRule));
+        List<CircuitBreaker> newBreakers = DegradeRuleManager.getCircuitBreakers(resource);
+        assertEquals(2, newBreakers.size());
+        assertTrue(newBreakers.contains(rtBreaker));
+        assertSame(rtBreaker, DegradeRuleManager.getCircuitBreaker(newRtRule));
+        assertFalse(newBreakers.contains(ratioBreaker));
+        assertSame(newRatioRule, DegradeRuleManager.getCircuitBreaker(newRatioRule).getRule());
+
+        assertTrue(DegradeRuleManager.getCircuitBreakers("non-existing").isEmpty());
     }
-}
\ No newline at end of file
+}
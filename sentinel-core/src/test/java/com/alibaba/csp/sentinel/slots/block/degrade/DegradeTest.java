@@ -15,17 +15,23 @@
  */
 package com.alibaba.csp.sentinel.slots.block.degrade;
 
-import com.alibaba.csp.sentinel.EntryType;
+import java.util.Collections;
+
+import com.alibaba.csp.sentinel.Entry;
 import com.alibaba.csp.sentinel.context.Context;
-import com.alibaba.csp.sentinel.node.ClusterNode;
-import com.alibaba.csp.sentinel.node.DefaultNode;
-import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
-import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.CircuitBreaker;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.CircuitBreaker.State;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.ExceptionCircuitBreaker;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.ResponseTimeCircuitBreaker;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.SlowRequestRatioCircuitBreaker;
+import com.alibaba.csp.sentinel.test.AbstractTimeBasedTest;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+import org.junit.Before;
 import org.junit.Test;
 
-import java.util.concurrent.TimeUnit;
-
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -34,120 +40,237 @@ import static org.mockito.Mockito.when;
 /**
  * @author jialiang.linjl
  */
-public class DegradeTest {
+public class DegradeTest extends AbstractTimeBasedTest {
 
-    @Test
-    public void testAverageRtDegrade() throws InterruptedException {
-        String key = "test_degrade_average_rt";
-        ClusterNode cn = mock(ClusterNode.class);
-        ClusterBuilderSlot.getClusterNodeMap().put(new StringResourceWrapper(key, EntryType.IN), cn);
+    private Context context;
+    private Entry entry;
 
-        Context context = mock(Context.class);
-        DefaultNode node = mock(DefaultNode.class);
-        when(node.getClusterNode()).thenReturn(cn);
-        when(cn.avgRt()).thenReturn(2d);
+    @Before
+    public void setUp() {
+        setCurrentMillis(100000);
+        context = mock(Context.class);
+        entry = mock(Entry.class);
+        when(context.getCurEntry()).thenReturn(entry);
+    }
 
+    @Test
+    public void testAverageRtDegrade() {
         int rtSlowRequestAmount = 10;
-        DegradeRule rule = new DegradeRule();
-        rule.setCount(1);
-        rule.setResource(key);
-        rule.setTimeWindow(2);
-        rule.setGrade(RuleConstant.DEGRADE_GRADE_RT);
-        rule.setRtSlowRequestAmount(rtSlowRequestAmount);
-
-        //Will true
+        DegradeRule rule = new DegradeRule("test_degrade_average_rt")
+            .setCount(1)
+            .setTimeWindow(2)
+            .setGrade(RuleConstant.DEGRADE_GRADE_RT)
+            .setRtSlowRequestAmount(rtSlowRequestAmount);
+        CircuitBreaker breaker = new ResponseTimeCircuitBreaker(rule);
+
         for (int i = 0; i < rtSlowRequestAmount - 1; i++) {
-            assertTrue(rule.passCheck(context, node, 1));
+            assertTrue(breaker.tryPass(context));
+            complete(breaker, 2, null);
         }
-
-        // The third time will fail.
-        assertFalse(rule.passCheck(context, node, 1));
-        assertFalse(rule.passCheck(context, node, 1));
-
-        // Restore.
-        TimeUnit.MILLISECONDS.sleep(2200);
-        assertTrue(rule.passCheck(context, node, 1));
+        assertEquals(State.CLOSED, breaker.currentState());
+        // A fast request does not bring the average RT below the threshold.
+        complete(breaker, 0, null);
+        assertEquals(State.OPEN, breaker.currentState());
+        assertFalse(breaker.tryPass(context));
+
+        // One probe request after the recovery timeout, which is still slow.
+        sleep(2000);
+        assertTrue(breaker.tryPass(context));
+        assertEquals(State.HALF_OPEN, breaker.currentState());
+        assertFalse(breaker.tryPass(context));
+        complete(breaker, 5, null);
+        assertEquals(State.OPEN, breaker.currentState());
+        assertFalse(breaker.tryPass(context));
+
+        // The probe completes in time.
+        sleep(2000);
+        assertTrue(breaker.tryPass(context));
+        complete(breaker, 0, null);
+        assertEquals(State.CLOSED, breaker.currentState());
+        assertTrue(breaker.tryPass(context));
     }
 
     @Test
-    public void testExceptionRatioModeDegrade() throws Throwable {
-        String key = "test_degrade_exception_ratio";
-        ClusterNode cn = mock(ClusterNode.class);
-        ClusterBuilderSlot.getClusterNodeMap().put(new StringResourceWrapper(key, EntryType.IN), cn);
-
-        Context context = mock(Context.class);
-        DefaultNode node = mock(DefaultNode.class);
-        when(node.getClusterNode()).thenReturn(cn);
-
-        DegradeRule rule = new DegradeRule();
-        rule.setCount(0.15);
-        rule.setResource(key);
-        rule.setTimeWindow(2);
-        rule.setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_RATIO);
-        rule.setMinRequestAmount(20);
-
-
-        // Will true. While totalQps < minRequestAmount
-        when(cn.totalQps()).thenReturn(8d);
-        assertTrue(rule.passCheck(context, node, 1));
-
-        // Will true.
-        when(cn.totalQps()).thenReturn(21d);
-        when(cn.successQps()).thenReturn(9d);
-        when(cn.exceptionQps()).thenReturn(9d);
-        assertTrue(rule.passCheck(context, node, 1));
-
-
-        // Will true. While totalQps > minRequestAmount and  exceptionRation < count
-        when(cn.totalQps()).thenReturn(100d);
-        when(cn.successQps()).thenReturn(90d);
-        when(cn.exceptionQps()).thenReturn(10d);
-        assertTrue(rule.passCheck(context, node, 1));
-
-        // Will fail. While totalQps > minRequestAmount and exceptionRation > count
-        rule.setMinRequestAmount(5);
-        when(cn.totalQps()).thenReturn(12d);
-        when(cn.successQps()).thenReturn(8d);
-        when(cn.exceptionQps()).thenReturn(6d);
-        assertFalse(rule.passCheck(context, node, 1));
-
-        // Restore from the degrade timeout.
-        TimeUnit.MILLISECONDS.sleep(2200);
-
-        // Will pass.
-        when(cn.totalQps()).thenReturn(106d);
-        when(cn.successQps()).thenReturn(100d);
-        assertTrue(rule.passCheck(context, node, 1));
+    public void testAverageRtSlowCountReset() {
+        DegradeRule rule = new DegradeRule("test_degrade_average_rt_reset")
+            .setCount(10)
+            .setTimeWindow(2)
+            .setGrade(RuleConstant.DEGRADE_GRADE_RT)
+            .setRtSlowRequestAmount(3);
+        CircuitBreaker breaker = new ResponseTimeCircuitBreaker(rule);
+
+        complete(breaker, 20, null);
+        complete(breaker, 20, null);
+        // The average RT of the next window is below the threshold.
+        sleep(1000);
+        complete(breaker, 1, null);
+        complete(breaker, 20, null);
+        complete(breaker, 20, null);
+        assertEquals(State.CLOSED, breaker.currentState());
+        complete(breaker, 20, null);
+        assertEquals(State.OPEN, breaker.currentState());
     }
 
     @Test
-    public void testExceptionCountModeDegrade() throws Throwable {
-        String key = "test_degrade_exception_count";
-        ClusterNode cn = mock(ClusterNode.class);
-        when(cn.totalException()).thenReturn(10L);
-        ClusterBuilderSlot.getClusterNodeMap().put(new StringResourceWrapper(key, EntryType.IN), cn);
-
-        Context context = mock(Context.class);
-        DefaultNode node = mock(DefaultNode.class);
-        when(node.getClusterNode()).thenReturn(cn);
+    public void testExceptionRatioModeDegrade() {
+        DegradeRule rule = new DegradeRule("test_degrade_exception_ratio")
+            .setCount(0.5)
+            .setTimeWindow(2)
+            .setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_RATIO)
+            .setMinRequestAmount(5);
+        CircuitBreaker breaker = new ExceptionCircuitBreaker(rule);
+        Exception ex = new IllegalStateException("biz");
+
+        // Not enough requests.
+        for (int i = 0; i < 4; i++) {
+            complete(breaker, 1, ex);
+        }
+        assertEquals(State.CLOSED, breaker.currentState());
+        // Requests of previous windows are discarded.
+        sleep(1000);
+        for (int i = 0; i < 3; i++) {
+            complete(breaker, 1, null);
+        }
+        complete(breaker, 1, ex);
+        complete(breaker, 1, ex);
+        assertEquals(State.CLOSED, breaker.currentState());
+        complete(breaker, 1, ex);
+        assertEquals(State.OPEN, breaker.currentState());
+        assertFalse(breaker.tryPass(context));
+
+        sleep(2000);
+        assertTrue(breaker.tryPass(context));
+        complete(breaker, 1, ex);
+        assertEquals(State.OPEN, breaker.currentState());
+
+        sleep(2000);
+        assertTrue(breaker.tryPass(context));
+        complete(breaker, 1, null);
+        assertEquals(State.CLOSED, breaker.currentState());
+        // The statistics are reset when the breaker closes.
+        complete(breaker, 1, ex);
+        assertEquals(State.CLOSED, breaker.currentState());
+    }
 
-        DegradeRule rule = new DegradeRule();
-        rule.setCount(4);
-        rule.setResource(key);
-        rule.setTimeWindow(2);
-        rule.setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT);
+    @Test
+    public void testExceptionCountModeDegrade() {
+        DegradeRule rule = new DegradeRule("test_degrade_exception_count")
+            .setCount(4)
+            .setTimeWindow(2)
+            .setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT);
+        CircuitBreaker breaker = new ExceptionCircuitBreaker(rule);
+        Exception ex = new IllegalStateException("biz");
+
+        for (int i = 0; i < 3; i++) {
+            complete(breaker, 1, ex);
+            // Errors in the last minute are counted.
+            sleep(10000);
+        }
+        complete(breaker, 1, null);
+        assertEquals(State.CLOSED, breaker.currentState());
+        complete(breaker, 1, ex);
+        assertEquals(State.OPEN, breaker.currentState());
+        assertFalse(breaker.tryPass(context));
+
+        sleep(2000);
+        assertTrue(breaker.tryPass(context));
+        complete(breaker, 1, null);
+        assertEquals(State.CLOSED, breaker.currentState());
+    }
 
-        when(cn.totalException()).thenReturn(4L);
+    @Test
+    public void testSlowRequestRatioModeDegrade() {
+        DegradeRule rule = new DegradeRule("test_degrade_slow_request_ratio")
+            .setCount(200)
+            .setTimeWindow(2)
+            .setGrade(RuleConstant.DEGRADE_GRADE_SLOW_REQUEST_RATIO)
+            .setSlowRatioThreshold(0.3)
+            .setMinRequestAmount(10);
+        SlowRequestRatioCircuitBreaker breaker = new SlowRequestRatioCircuitBreaker(rule);
+
+        // Not enough requests.
+        for (int i = 0; i < 5; i++) {
+            complete(breaker, 300, null);
+        }
+        assertEquals(State.CLOSED, breaker.currentState());
+        sleep(1000);
+        for (int i = 0; i < 7; i++) {
+            complete(breaker, 10, null);
+        }
+        // Requests of exactly the threshold are not slow.
+        complete(breaker, 200, null);
+        complete(breaker, 300, null);
+        complete(breaker, 300, null);
+        assertEquals(State.CLOSED, breaker.currentState());
+        assertEquals(10, breaker.getRtPercentile(50));
+        assertTrue(breaker.getRtPercentile(100) >= 300);
+        // 3 of 11 requests are slow.
+        complete(breaker, 300, null);
+        assertEquals(State.CLOSED, breaker.currentState());
+        // 4 of 12 requests are slow.
+        complete(breaker, 300, null);
+        assertEquals(State.OPEN, breaker.currentState());
+        assertFalse(breaker.tryPass(context));
+
+        sleep(2000);
+        assertTrue(breaker.tryPass(context));
+        complete(breaker, 250, null);
+        assertEquals(State.OPEN, breaker.currentState());
+
+        sleep(2000);
+        assertTrue(breaker.tryPass(context));
+        complete(breaker, 100, null);
+        assertEquals(State.CLOSED, breaker.currentState());
+        assertEquals(0, breaker.getRtPercentile(99));
+    }
 
-        // Will fail.
-        assertFalse(rule.passCheck(context, node, 1));
+    @Test
+    public void testLostProbeRetried() {
+        DegradeRule rule = new DegradeRule("test_degrade_lost_probe")
+            .setCount(1)
+            .setTimeWindow(1)
+            .setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT);
+        CircuitBreaker breaker = new ExceptionCircuitBreaker(rule);
+
+        complete(breaker, 1, new IllegalStateException("biz"));
+        assertEquals(State.OPEN, breaker.currentState());
+        sleep(1000);
+        assertTrue(breaker.tryPass(context));
+        // The probe never completes, so another probe is let through after the recovery timeout.
+        sleep(500);
+        assertFalse(breaker.tryPass(context));
+        sleep(500);
+        assertTrue(breaker.tryPass(context));
+        assertEquals(State.HALF_OPEN, breaker.currentState());
+    }
 
-        // Restore from the degrade timeout.
-        TimeUnit.MILLISECONDS.sleep(2200);
+    @Test
+    public void testPassCheckKeepsProbe() {
+        DegradeRule rule = new DegradeRule("test_degrade_pass_check")
+            .setCount(1)
+            .setTimeWindow(1)
+            .setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT);
+        DegradeRuleManager.loadRules(Collections.singletonList(rule));
+        try {
+            CircuitBreaker breaker = DegradeRuleManager.getCircuitBreaker(rule);
+            assertTrue(rule.passCheck(context, null, 1));
+            complete(breaker, 1, new IllegalStateException("biz"));
+            assertEquals(State.OPEN, breaker.currentState());
+            sleep(1000);
+            assertFalse(rule.passCheck(context, null, 1));
+            // The check does not consume the probe of the circuit breaker.
+            assertEquals(State.OPEN, breaker.currentState());
+            assertTrue(breaker.tryPass(context));
+        } finally {
+            DegradeRuleManager.loadRules(Collections.<DegradeRule>emptyList());
+        }
+    }
 
-        when(cn.totalException()).thenReturn(0L);
-        // Will pass.
-        assertTrue(rule.passCheck(context, node, 1));
+    private void complete(CircuitBreaker breaker, long rt, Throwable error) {
+        long createTime = TimeUtil.currentTimeMillis() - rt;
+        when(entry.getCreateTime()).thenReturn(createTime);
+        when(entry.getTracedError()).thenReturn(error);
+        breaker.onRequestComplete(context);
     }
 
     @Test
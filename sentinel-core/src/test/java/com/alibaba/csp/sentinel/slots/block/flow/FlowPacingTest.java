@@ -0,0 +1,129 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.AsyncEntry;
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.ResourceTypeConstants;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.test.AbstractTimeBasedTest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for asynchronous entries with non-blocking pacing.
+ */
+public class FlowPacingTest extends AbstractTimeBasedTest {
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        setCurrentMillis(System.currentTimeMillis());
+        executor = Executors.newSingleThreadExecutor();
+        FlowRuleManager.loadRules(new ArrayList<FlowRule>());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FlowRuleManager.loadRules(new ArrayList<FlowRule>());
+        executor.shutdownNow();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testNonBlockingPacing() throws BlockException {
+        String resourceName = "testNonBlockingPacing";
+        loadRateLimiterRule(resourceName);
+
+        AsyncEntry first = SphU.asyncEntryWithPacing(resourceName, ResourceTypeConstants.COMMON, EntryType.IN,
+            1, null);
+        long start = first.getScheduledPassTime();
+        assertEquals(0, first.getPassWaitInMs());
+        first.exit();
+        for (int i = 1; i < 5; i++) {
+            AsyncEntry entry = SphU.asyncEntryWithPacing(resourceName, ResourceTypeConstants.COMMON, EntryType.IN,
+                1, null);
+            // The pass time is reserved without waiting in the caller thread, as the time does not move.
+            assertEquals(start + i * 100, entry.getScheduledPassTime());
+            assertEquals(i * 100, entry.getPassWaitInMs());
+            entry.exit();
+        }
+
+        try {
+            SphU.asyncEntryWithPacing(resourceName, ResourceTypeConstants.COMMON, EntryType.IN, 10, null);
+            fail("Queueing time exceeds the max queueing time, so the request should be blocked");
+        } catch (BlockException ex) {
+            assertTrue(ex instanceof FlowException);
+        }
+
+        sleep(400);
+        AsyncEntry entry = SphU.asyncEntryWithPacing(resourceName, ResourceTypeConstants.COMMON, EntryType.IN,
+            1, null);
+        assertEquals(100, entry.getPassWaitInMs());
+        entry.exit();
+    }
+
+    @Test
+    public void testPacedContinuation() throws Exception {
+        String resourceName = "testPacedContinuation";
+        loadRateLimiterRule(resourceName);
+
+        final int requests = 3;
+        final CountDownLatch latch = new CountDownLatch(requests);
+        final List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+        for (int i = 0; i < requests; i++) {
+            AsyncEntry entry = SphU.asyncEntryWithPacing(resourceName, ResourceTypeConstants.COMMON, EntryType.IN,
+                1, null);
+            assertEquals(i * 100, entry.getPassWaitInMs());
+            final int index = i;
+            PacedContinuation.runWhenPassed(entry, new Runnable() {
+                @Override
+                public void run() {
+                    order.add(index);
+                    latch.countDown();
+                }
+            }, executor);
+            entry.exit();
+        }
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        // Continuations run in order of the reserved pass time.
+        assertEquals(Arrays.asList(0, 1, 2), order);
+    }
+
+    private static void loadRateLimiterRule(String resourceName) {
+        FlowRule flowRule = new FlowRule(resourceName)
+            .setCount(10)
+            .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER)
+            .setMaxQueueingTimeMs(500);
+        FlowRuleManager.loadRules(Collections.singletonList(flowRule));
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.slots.block.flow.controller.ParkWaitStrategy;
+import com.alibaba.csp.sentinel.slots.block.flow.controller.SleepWaitStrategy;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class WaitStrategyProviderTest {
+
+    @After
+    public void tearDown() {
+        SentinelConfig.removeConfig(SentinelConfig.FLOW_WAIT_STRATEGY);
+    }
+
+    @Test
+    public void testResolveConfiguredWaitStrategy() {
+        assertTrue(WaitStrategyProvider.resolveWaitStrategy() instanceof SleepWaitStrategy);
+
+        SentinelConfig.setConfig(SentinelConfig.FLOW_WAIT_STRATEGY, "PARK");
+        assertTrue(WaitStrategyProvider.resolveWaitStrategy() instanceof ParkWaitStrategy);
+
+        SentinelConfig.setConfig(SentinelConfig.FLOW_WAIT_STRATEGY, SentinelConfig.FLOW_WAIT_STRATEGY_SLEEP);
+        assertTrue(WaitStrategyProvider.resolveWaitStrategy() instanceof SleepWaitStrategy);
+
+        // Unknown strategies fall back to SPI.
+        SentinelConfig.setConfig(SentinelConfig.FLOW_WAIT_STRATEGY, "spin");
+        assertTrue(WaitStrategyProvider.resolveWaitStrategy() instanceof SleepWaitStrategy);
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.alibaba.csp.sentinel.slots.block.flow.controller;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -24,6 +25,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
+import com.alibaba.csp.sentinel.slots.block.flow.PacedTrafficShapingController;
 import com.alibaba.csp.sentinel.util.TimeUtil;
 import com.alibaba.csp.sentinel.node.Node;
 
@@ -95,4 +97,22 @@ public class RateLimiterControllerTest {
             assertTrue(paceController.canPass(node, 0));
         }
     }
+
+    @Test
+    public void testReservePassTime() {
+        RateLimiterController paceController = new RateLimiterController(500, 10d);
+        Node node = mock(Node.class);
+
+        long start = TimeUtil.currentTimeMillis();
+        long lastPassTime = paceController.reservePassTime(node, 1, false);
+        assertTrue(lastPassTime >= start);
+        for (int i = 0; i < 5; i++) {
+            long passTime = paceController.reservePassTime(node, 1, false);
+            assertEquals(100, passTime - lastPassTime);
+            lastPassTime = passTime;
+        }
+        // Reservation does not wait in the caller thread.
+        assertTrue(TimeUtil.currentTimeMillis() - start < 300);
+        assertEquals(PacedTrafficShapingController.REJECTED, paceController.reservePassTime(node, 1, false));
+    }
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.controller;
+
+import com.alibaba.csp.sentinel.slots.block.flow.WaitStrategy;
+import com.alibaba.csp.sentinel.slots.block.flow.WaitStrategyProvider;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class WaitStrategyTest {
+
+    @Test
+    public void testDefaultWaitStrategy() {
+        assertTrue(WaitStrategyProvider.getWaitStrategy() instanceof SleepWaitStrategy);
+    }
+
+    @Test
+    public void testSleepWaitStrategy() {
+        assertAwait(new SleepWaitStrategy());
+    }
+
+    @Test
+    public void testParkWaitStrategy() {
+        assertAwait(new ParkWaitStrategy());
+    }
+
+    @Test
+    public void testInterrupted() {
+        for (WaitStrategy strategy : new WaitStrategy[] {new SleepWaitStrategy(), new ParkWaitStrategy()}) {
+            Thread.currentThread().interrupt();
+            assertFalse(strategy.await(1000));
+            // Clear the interrupt status.
+            Thread.interrupted();
+        }
+    }
+
+    private void assertAwait(WaitStrategy strategy) {
+        long start = System.nanoTime();
+        assertTrue(strategy.await(50));
+        long costMs = (System.nanoTime() - start) / 1000000;
+        assertTrue(costMs >= 49);
+        assertTrue(costMs < 1000);
+        assertTrue(strategy.await(0));
+    }
+}
@@ -2,10 +2,13 @@ package com.alibaba.csp.sentinel.slots.block.flow.controller;
 
 import com.alibaba.csp.sentinel.node.Node;
 import com.alibaba.csp.sentinel.node.StatisticNode;
+import com.alibaba.csp.sentinel.slots.block.flow.PacedTrafficShapingController;
 import com.alibaba.csp.sentinel.slots.block.flow.controller.WarmUpRateLimiterController;
+import com.alibaba.csp.sentinel.util.TimeUtil;
 
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -50,4 +53,25 @@ public class WarmUpRateLimiterControllerTest {
 
         assertFalse(controller.canPass(node, 1));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testReservePassTime() {
+        WarmUpRateLimiterController controller = new WarmUpRateLimiterController(10, 10, 500, 3);
+
+        Node node = mock(Node.class);
+
+        when(node.passQps()).thenReturn(100d);
+        when(node.previousPassQps()).thenReturn(100d);
+
+        long start = TimeUtil.currentTimeMillis();
+        long lastPassTime = controller.reservePassTime(node, 1, false);
+        for (int i = 0; i < 5; i++) {
+            long passTime = controller.reservePassTime(node, 1, false);
+            assertEquals(100, passTime - lastPassTime);
+            lastPassTime = passTime;
+        }
+        // Reservation does not wait in the caller thread.
+        assertTrue(TimeUtil.currentTimeMillis() - start < 300);
+        assertEquals(PacedTrafficShapingController.REJECTED, controller.reservePassTime(node, 1, false));
+    }
+}
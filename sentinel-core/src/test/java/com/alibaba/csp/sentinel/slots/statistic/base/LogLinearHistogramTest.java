@@ -0,0 +1,71 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.base;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link LogLinearHistogram}.
+ */
+public class LogLinearHistogramTest {
+
+    @Test
+    public void testIndexOf() {
+        for (int i = 0; i < 32; i++) {
+            assertEquals(i, LogLinearHistogram.indexOf(i));
+            assertEquals(i, LogLinearHistogram.lowestValueAt(i));
+            assertEquals(i, LogLinearHistogram.highestValueAt(i));
+        }
+        assertEquals(0, LogLinearHistogram.indexOf(-1));
+        // Sub-buckets are continuous and the relative error is at most 1/32.
+        for (long value = 32; value < 100000; value++) {
+            int index = LogLinearHistogram.indexOf(value);
+            long lowest = LogLinearHistogram.lowestValueAt(index);
+            long highest = LogLinearHistogram.highestValueAt(index);
+            assertTrue(lowest <= value && value <= highest);
+            assertTrue((highest - lowest + 1) * 32 <= lowest);
+            if (value == lowest) {
+                assertEquals(index - 1, LogLinearHistogram.indexOf(value - 1));
+            }
+        }
+    }
+
+    @Test
+    public void testRecordAndQuery() {
+        LogLinearHistogram histogram = new LogLinearHistogram(5000);
+        assertEquals(0, histogram.valueAtPercentile(99));
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        histogram.record(10000);
+        assertEquals(101, histogram.totalCount());
+        assertEquals(1, histogram.countAt(LogLinearHistogram.indexOf(5000)));
+        assertEquals(51, histogram.countAbove(50));
+        assertEquals(1, histogram.countAbove(4000));
+        assertEquals(0, histogram.countAbove(5000));
+
+        assertEquals(1, histogram.valueAtPercentile(0.5));
+        assertEquals(31, histogram.valueAtPercentile(30));
+        long p90 = histogram.valueAtPercentile(90);
+        assertTrue(p90 >= 91 && p90 <= 91 + 91 / 32);
+        assertEquals(5000, histogram.valueAtPercentile(100));
+
+        histogram.reset();
+        assertEquals(0, histogram.totalCount());
+    }
+}
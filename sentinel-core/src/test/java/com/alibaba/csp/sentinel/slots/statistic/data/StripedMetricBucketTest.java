@@ -0,0 +1,109 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.slots.statistic.MetricEvent;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link StripedMetricBucket}.
+ */
+public class StripedMetricBucketTest {
+
+    @Test
+    public void testAddAndReset() {
+        StripedMetricBucket bucket = new StripedMetricBucket(4);
+        bucket.addPass(3);
+        bucket.addBlock(2);
+        bucket.addSuccess(1);
+        bucket.addRT(20);
+        bucket.addRT(10);
+
+        assertEquals(3, bucket.pass());
+        assertEquals(2, bucket.block());
+        assertEquals(1, bucket.success());
+        assertEquals(30, bucket.rt());
+        assertEquals(10, bucket.minRt());
+        assertEquals(0, bucket.exception());
+
+        MetricBucket source = new MetricBucket();
+        source.addOccupiedPass(5);
+        bucket.reset(source);
+        assertEquals(0, bucket.pass());
+        assertEquals(5, bucket.occupiedPass());
+        assertEquals(SentinelConfig.statisticMaxRt(), bucket.minRt());
+
+        bucket.reset();
+        for (MetricEvent event : MetricEvent.values()) {
+            assertEquals(0, bucket.get(event));
+        }
+    }
+
+    @Test
+    public void testConcurrentAdd() throws Exception {
+        final StripedMetricBucket bucket = new StripedMetricBucket(StripedMetricBucket.MAX_STRIPES);
+        final int threads = 8;
+        final int times = 10000;
+        final CountDownLatch latch = new CountDownLatch(threads);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            pool.submit(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < times; j++) {
+                        bucket.addPass(1);
+                        bucket.addSuccess(2);
+                    }
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        pool.shutdownNow();
+
+        assertEquals(threads * times, bucket.pass());
+        assertEquals(threads * times * 2, bucket.success());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidStripes() {
+        new StripedMetricBucket(3);
+    }
+
+    @Test
+    public void testProvider() {
+        try {
+            assertSame(MetricBucket.class, MetricBucketProvider.newMetricBucket().getClass());
+            assertEquals(new MetricBucket().estimateSizeInBytes(), MetricBucketProvider.estimateEmptyBucketBytes());
+            SentinelConfig.setConfig(SentinelConfig.STATISTIC_BUCKET_TYPE, SentinelConfig.STATISTIC_BUCKET_TYPE_STRIPED);
+            assertSame(StripedMetricBucket.class, MetricBucketProvider.newMetricBucket().getClass());
+            // The size is estimated for each bucket type.
+            assertEquals(new StripedMetricBucket().estimateSizeInBytes(),
+                MetricBucketProvider.estimateEmptyBucketBytes());
+        } finally {
+            SentinelConfig.removeConfig(SentinelConfig.STATISTIC_BUCKET_TYPE);
+        }
+    }
+}
@@ -16,9 +16,11 @@
 package com.alibaba.csp.sentinel.slots.statistic.metric;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 
 import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
@@ -146,6 +148,40 @@ public class BucketLeapArrayTest {
         assertEquals(nThreads, leapArray.currentWindow(time).value().pass());
     }
 
+    @Test
+    public void testMultiThreadRollOverDeprecatedWindow() throws Exception {
+        final long time = TimeUtil.currentTimeMillis();
+        final long nextTime = time + intervalInMs;
+        final int nThreads = 16;
+        final BucketLeapArray leapArray = new BucketLeapArray(sampleCount, intervalInMs);
+        final WindowWrap<MetricBucket> oldWindow = leapArray.currentWindow(time);
+        oldWindow.value().addPass(100);
+
+        final CountDownLatch latch = new CountDownLatch(nThreads);
+        final Set<WindowWrap<MetricBucket>> windows = Collections.newSetFromMap(
+            new ConcurrentHashMap<WindowWrap<MetricBucket>, Boolean>());
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                windows.add(leapArray.currentWindow(nextTime));
+                latch.countDown();
+            }
+        };
+
+        for (int i = 0; i < nThreads; i++) {
+            new Thread(task).start();
+        }
+
+        latch.await();
+
+        // The deprecated bucket should be reset exactly once and shared by all threads.
+        assertEquals(1, windows.size());
+        WindowWrap<MetricBucket> window = windows.iterator().next();
+        assertSame(oldWindow, window);
+        assertEquals(nextTime - nextTime % windowLengthInMs, window.windowStart());
+        assertEquals(0, window.value().pass());
+    }
+
     @Test
     public void testGetPreviousWindow() {
         BucketLeapArray leapArray = new BucketLeapArray(sampleCount, intervalInMs);
@@ -0,0 +1,68 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.util;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AdaptiveTimeSourceTest {
+
+    @Test
+    public void testStartAndStopTicking() throws Exception {
+        AdaptiveTimeSource timeSource = new AdaptiveTimeSource(20, 1, 1);
+        assertFalse(timeSource.isTicking());
+
+        // Busy reads will start the tick thread.
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!timeSource.isTicking() && System.currentTimeMillis() < deadline) {
+            timeSource.currentTimeMillis();
+        }
+        assertTrue(timeSource.isTicking());
+        assertTrue(Math.abs(timeSource.currentTimeMillis() - System.currentTimeMillis()) <= 50);
+
+        // The tick thread stops itself when no one reads.
+        deadline = System.currentTimeMillis() + 2000;
+        while (timeSource.isTicking() && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertFalse(timeSource.isTicking());
+    }
+
+    @Test
+    public void testNewTimeSource() {
+        assertTrue(TimeUtil.newTimeSource(SentinelConfig.TIME_SOURCE_SYSTEM) instanceof SystemTimeSource);
+        assertTrue(TimeUtil.newTimeSource(SentinelConfig.TIME_SOURCE_ADAPTIVE) instanceof AdaptiveTimeSource);
+    }
+
+    @Test
+    public void testTimeSourceModeConfig() {
+        try {
+            SentinelConfig.setConfig(SentinelConfig.TIME_SOURCE, "System");
+            assertEquals(SentinelConfig.TIME_SOURCE_SYSTEM, SentinelConfig.timeSourceMode());
+            SentinelConfig.setConfig(SentinelConfig.TIME_SOURCE, "adaptive");
+            assertEquals(SentinelConfig.TIME_SOURCE_ADAPTIVE, SentinelConfig.timeSourceMode());
+            SentinelConfig.setConfig(SentinelConfig.TIME_SOURCE, "unknown");
+            assertEquals(SentinelConfig.TIME_SOURCE_TICK, SentinelConfig.timeSourceMode());
+        } finally {
+            SentinelConfig.removeConfig(SentinelConfig.TIME_SOURCE);
+        }
+    }
+}
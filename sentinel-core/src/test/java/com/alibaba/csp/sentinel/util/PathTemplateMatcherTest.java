@@ -0,0 +1,78 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.util;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PathTemplateMatcherTest {
+
+    @Test
+    public void testMatch() {
+        PathTemplateMatcher matcher = PathTemplateMatcher.compile(Arrays.asList(
+            "/", "/foo/{id}", "/foo/new", "/foo/{id}/items/{itemId:[0-9]+}", "/users/*/profile",
+            "/static/**", "/api/**/health", " ", null));
+        assertEquals(7, matcher.getTemplates().size());
+
+        assertEquals("/", matcher.match("/"));
+        assertEquals("/", matcher.match(""));
+        assertEquals("/foo/{id}", matcher.match("/foo/1"));
+        assertEquals("/foo/{id}", matcher.match("/foo//2/"));
+        // Literals take precedence over variables.
+        assertEquals("/foo/new", matcher.match("/foo/new"));
+        assertEquals("/foo/{id}/items/{itemId:[0-9]+}", matcher.match("/foo/new/items/3"));
+        assertEquals("/users/*/profile", matcher.match("/users/eric/profile"));
+        assertEquals("/static/**", matcher.match("/static"));
+        assertEquals("/static/**", matcher.match("/static/js/app.js"));
+        assertEquals("/api/**/health", matcher.match("/api/health"));
+        assertEquals("/api/**/health", matcher.match("/api/v1/db/health"));
+
+        assertNull(matcher.match("/foo"));
+        assertNull(matcher.match("/foo/1/items"));
+        assertNull(matcher.match("/api/v1/db"));
+        assertNull(matcher.match("/bar"));
+        assertNull(matcher.match(null));
+    }
+
+    @Test
+    public void testUnsupportedAndDuplicateTemplates() {
+        assertFalse(PathTemplateMatcher.isSupported("/foo/*.html"));
+        assertFalse(PathTemplateMatcher.isSupported("/foo/{id}.json"));
+        assertFalse(PathTemplateMatcher.isSupported(""));
+        assertTrue(PathTemplateMatcher.isSupported("/foo/{id}/**"));
+
+        PathTemplateMatcher matcher = PathTemplateMatcher.compile(Arrays.asList(
+            "/foo/*.html", "/foo/{id}", "/foo/{name}"));
+        assertEquals(Arrays.asList("/foo/{id}"), matcher.getTemplates());
+        assertEquals("/foo/{id}", matcher.match("/foo/index.html"));
+    }
+
+    @Test
+    public void testManyLiterals() {
+        String[] templates = new String[100];
+        for (int i = 0; i < templates.length; i++) {
+            templates[i] = "/api/resource" + i + "/{id}";
+        }
+        PathTemplateMatcher matcher = PathTemplateMatcher.compile(Arrays.asList(templates));
+        for (int i = 0; i < templates.length; i++) {
+            assertEquals(templates[i], matcher.match("/api/resource" + i + "/" + i));
+        }
+        assertNull(matcher.match("/api/resource100/1"));
+    }
+}
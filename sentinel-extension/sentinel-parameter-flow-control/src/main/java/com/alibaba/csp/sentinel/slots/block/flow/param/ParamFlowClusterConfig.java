@@ -43,6 +43,32 @@ public class ParamFlowClusterConfig {
      */
     private int windowIntervalMs = RuleConstant.DEFAULT_WINDOW_INTERVAL_MS;
 
+    /**
+     * How the token server counts parameter values (exact or sketch-based).
+     *
+     * @since 1.7.1
+     */
+    private int statisticMode = ClusterRuleConstant.PARAM_STATISTIC_MODE_EXACT;
+    /**
+     * Counters per row of the Count-Min Sketch in each bucket (sketch mode only). A wider sketch
+     * over-estimates less, as the error is bounded by about {@code e / sketchWidth} of the total count.
+     *
+     * @since 1.7.1
+     */
+    private int sketchWidth = ClusterRuleConstant.DEFAULT_PARAM_SKETCH_WIDTH;
+    /**
+     * Rows of the Count-Min Sketch in each bucket (sketch mode only).
+     *
+     * @since 1.7.1
+     */
+    private int sketchDepth = ClusterRuleConstant.DEFAULT_PARAM_SKETCH_DEPTH;
+    /**
+     * Max count of hot parameter values tracked in each bucket (sketch mode only).
+     *
+     * @since 1.7.1
+     */
+    private int hotKeyCapacity = ClusterRuleConstant.DEFAULT_PARAM_HOT_KEY_CAPACITY;
+
     public Long getFlowId() {
         return flowId;
     }
@@ -88,6 +114,42 @@ public class ParamFlowClusterConfig {
         return this;
     }
 
+    public int getStatisticMode() {
+        return statisticMode;
+    }
+
+    public ParamFlowClusterConfig setStatisticMode(int statisticMode) {
+        this.statisticMode = statisticMode;
+        return this;
+    }
+
+    public int getSketchWidth() {
+        return sketchWidth;
+    }
+
+    public ParamFlowClusterConfig setSketchWidth(int sketchWidth) {
+        this.sketchWidth = sketchWidth;
+        return this;
+    }
+
+    public int getSketchDepth() {
+        return sketchDepth;
+    }
+
+    public ParamFlowClusterConfig setSketchDepth(int sketchDepth) {
+        this.sketchDepth = sketchDepth;
+        return this;
+    }
+
+    public int getHotKeyCapacity() {
+        return hotKeyCapacity;
+    }
+
+    public ParamFlowClusterConfig setHotKeyCapacity(int hotKeyCapacity) {
+        this.hotKeyCapacity = hotKeyCapacity;
+        return this;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) { return true; }
@@ -99,6 +161,10 @@ public class ParamFlowClusterConfig {
         if (fallbackToLocalWhenFail != config.fallbackToLocalWhenFail) { return false; }
         if (sampleCount != config.sampleCount) { return false; }
         if (windowIntervalMs != config.windowIntervalMs) { return false; }
+        if (statisticMode != config.statisticMode) { return false; }
+        if (sketchWidth != config.sketchWidth) { return false; }
+        if (sketchDepth != config.sketchDepth) { return false; }
+        if (hotKeyCapacity != config.hotKeyCapacity) { return false; }
         return flowId != null ? flowId.equals(config.flowId) : config.flowId == null;
     }
 
@@ -109,6 +175,10 @@ public class ParamFlowClusterConfig {
         result = 31 * result + (fallbackToLocalWhenFail ? 1 : 0);
         result = 31 * result + sampleCount;
         result = 31 * result + windowIntervalMs;
+        result = 31 * result + statisticMode;
+        result = 31 * result + sketchWidth;
+        result = 31 * result + sketchDepth;
+        result = 31 * result + hotKeyCapacity;
         return result;
     }
 
@@ -120,6 +190,10 @@ public class ParamFlowClusterConfig {
             ", fallbackToLocalWhenFail=" + fallbackToLocalWhenFail +
             ", sampleCount=" + sampleCount +
             ", windowIntervalMs=" + windowIntervalMs +
+            ", statisticMode=" + statisticMode +
+            ", sketchWidth=" + sketchWidth +
+            ", sketchDepth=" + sketchDepth +
+            ", hotKeyCapacity=" + hotKeyCapacity +
             '}';
     }
 }
@@ -25,6 +25,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.slots.block.ClusterRuleConstant;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleUtil;
 import com.alibaba.csp.sentinel.util.AssertUtil;
@@ -62,9 +63,24 @@ public final class ParamFlowRuleUtil {
         if (!FlowRuleUtil.isWindowConfigValid(clusterConfig.getSampleCount(), clusterConfig.getWindowIntervalMs())) {
             return false;
         }
+        if (!isStatisticConfigValid(clusterConfig)) {
+            return false;
+        }
         return validClusterRuleId(clusterConfig.getFlowId());
     }
 
+    private static boolean isStatisticConfigValid(ParamFlowClusterConfig clusterConfig) {
+        switch (clusterConfig.getStatisticMode()) {
+            case ClusterRuleConstant.PARAM_STATISTIC_MODE_EXACT:
+                return true;
+            case ClusterRuleConstant.PARAM_STATISTIC_MODE_SKETCH:
+                return clusterConfig.getSketchWidth() > 0 && clusterConfig.getSketchDepth() > 0
+                    && clusterConfig.getHotKeyCapacity() > 0;
+            default:
+                return false;
+        }
+    }
+
     public static boolean validClusterRuleId(Long id) {
         return id != null && id > 0;
     }
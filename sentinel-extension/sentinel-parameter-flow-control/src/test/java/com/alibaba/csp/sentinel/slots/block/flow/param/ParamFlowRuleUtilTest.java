@@ -5,6 +5,8 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
+import com.alibaba.csp.sentinel.slots.block.ClusterRuleConstant;
+
 import org.junit.Test;
 
 import static org.junit.Assert.*;
@@ -43,6 +45,28 @@ public class ParamFlowRuleUtilTest {
         assertTrue(ParamFlowRuleUtil.isValidRule(goodRule));
     }
 
+    @Test
+    public void testCheckValidClusterStatisticMode() {
+        ParamFlowClusterConfig clusterConfig = new ParamFlowClusterConfig().setFlowId(1L)
+            .setStatisticMode(ClusterRuleConstant.PARAM_STATISTIC_MODE_SKETCH);
+        ParamFlowRule rule = new ParamFlowRule("abc")
+            .setCount(10)
+            .setParamIdx(0)
+            .setClusterMode(true)
+            .setClusterConfig(clusterConfig);
+        assertTrue(ParamFlowRuleUtil.isValidRule(rule));
+
+        clusterConfig.setHotKeyCapacity(0);
+        assertFalse(ParamFlowRuleUtil.isValidRule(rule));
+        clusterConfig.setHotKeyCapacity(16).setSketchWidth(0);
+        assertFalse(ParamFlowRuleUtil.isValidRule(rule));
+        // Sketch settings are ignored in exact mode.
+        clusterConfig.setStatisticMode(ClusterRuleConstant.PARAM_STATISTIC_MODE_EXACT);
+        assertTrue(ParamFlowRuleUtil.isValidRule(rule));
+        clusterConfig.setStatisticMode(2);
+        assertFalse(ParamFlowRuleUtil.isValidRule(rule));
+    }
+
     @Test
     public void testParseHotParamExceptionItemsFailure() {
         String valueB = "Sentinel";
@@ -0,0 +1,54 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.command;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.log.CommandCenterLog;
+
+/**
+ * <p>A command result that writes itself to the response body, so that large results do not have to be built
+ * in memory. Transports that support streaming write the body as chunked output via {@link #writeTo(OutputStream)},
+ * while other transports fall back to {@link #toString()}.</p>
+ *
+ * <p>The result could be written only once.</p>
+ *
+ * @since 1.7.1
+ */
+public abstract class StreamingResult {
+
+    /**
+     * Write the result to the output. The output should not be closed by the result.
+     *
+     * @param out the output of the response body
+     * @throws Exception if any error occurs
+     */
+    public abstract void writeTo(OutputStream out) throws Exception;
+
+    @Override
+    public String toString() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            writeTo(out);
+            return new String(out.toByteArray(), SentinelConfig.charset());
+        } catch (Exception ex) {
+            CommandCenterLog.warn("[StreamingResult] Error when writing the result", ex);
+            return "";
+        }
+    }
+}
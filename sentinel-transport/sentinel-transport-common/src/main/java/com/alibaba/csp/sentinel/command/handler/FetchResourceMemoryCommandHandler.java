@@ -0,0 +1,79 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.command.handler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import com.alibaba.csp.sentinel.command.CommandHandler;
+import com.alibaba.csp.sentinel.command.CommandRequest;
+import com.alibaba.csp.sentinel.command.CommandResponse;
+import com.alibaba.csp.sentinel.command.annotation.CommandMapping;
+import com.alibaba.csp.sentinel.command.vo.ResourceMemoryVo;
+import com.alibaba.csp.sentinel.node.ClusterNode;
+import com.alibaba.csp.sentinel.node.NodeMemoryEstimator;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+import com.alibaba.csp.sentinel.util.StringUtil;
+import com.alibaba.fastjson.JSONArray;
+
+/**
+ * Estimated heap usage of the statistic nodes of each resource, sorted by the estimated size in descending order.
+ *
+ * @since 1.7.1
+ */
+@CommandMapping(name = "resourceMemory", desc = "get estimated heap usage of each resource; "
+    + "use id=xxx to get the usage of the given resource, and limit=n to get the n largest resources")
+public class FetchResourceMemoryCommandHandler implements CommandHandler<String> {
+
+    @Override
+    public CommandResponse<String> handle(CommandRequest request) {
+        String id = request.getParam("id");
+        int limit = Integer.MAX_VALUE;
+        String limitStr = request.getParam("limit");
+        if (StringUtil.isNotBlank(limitStr)) {
+            try {
+                limit = Integer.parseInt(limitStr);
+            } catch (NumberFormatException ex) {
+                return CommandResponse.ofFailure(new IllegalArgumentException("invalid limit: " + limitStr));
+            }
+        }
+
+        Map<String, Integer> defaultNodeCounts = NodeMemoryEstimator.countDefaultNodes();
+        List<ResourceMemoryVo> list = new ArrayList<ResourceMemoryVo>();
+        for (Map.Entry<ResourceWrapper, ClusterNode> e : ClusterBuilderSlot.getClusterNodeMap().entrySet()) {
+            String resource = e.getKey().getName();
+            if (StringUtil.isNotBlank(id) && !id.equals(resource)) {
+                continue;
+            }
+            Integer defaultNodeCount = defaultNodeCounts.get(resource);
+            list.add(ResourceMemoryVo.estimate(resource, e.getValue(), defaultNodeCount == null ? 0 : defaultNodeCount));
+        }
+        Collections.sort(list, new Comparator<ResourceMemoryVo>() {
+            @Override
+            public int compare(ResourceMemoryVo o1, ResourceMemoryVo o2) {
+                return o2.getEstimatedBytes().compareTo(o1.getEstimatedBytes());
+            }
+        });
+        if (list.size() > limit) {
+            list = list.subList(0, Math.max(0, limit));
+        }
+        return CommandResponse.ofSuccess(JSONArray.toJSONString(list));
+    }
+}
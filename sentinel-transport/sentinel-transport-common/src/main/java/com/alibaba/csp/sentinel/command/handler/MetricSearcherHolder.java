@@ -0,0 +1,55 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.command.handler;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.node.metric.BinaryMetricSearcher;
+import com.alibaba.csp.sentinel.node.metric.MetricSearcher;
+import com.alibaba.csp.sentinel.node.metric.MetricWriter;
+import com.alibaba.csp.sentinel.util.PidUtil;
+
+/**
+ * Holder of the {@link MetricSearcher} of the metric files written by current process, which is shared by
+ * the metric command handlers.
+ *
+ * @since 1.7.1
+ */
+final class MetricSearcherHolder {
+
+    private static volatile MetricSearcher searcher;
+
+    static MetricSearcher getSearcher() {
+        if (searcher == null) {
+            synchronized (MetricSearcherHolder.class) {
+                if (searcher == null) {
+                    String appName = SentinelConfig.getAppName();
+                    if (appName == null) {
+                        appName = "";
+                    }
+                    String baseFileName = MetricWriter.formMetricFileName(appName, PidUtil.getPid());
+                    if (SentinelConfig.METRIC_FILE_FORMAT_BINARY.equals(SentinelConfig.metricFileFormat())) {
+                        searcher = new BinaryMetricSearcher(MetricWriter.METRIC_BASE_DIR, baseFileName);
+                    } else {
+                        searcher = new MetricSearcher(MetricWriter.METRIC_BASE_DIR, baseFileName);
+                    }
+                }
+            }
+        }
+        return searcher;
+    }
+
+    private MetricSearcherHolder() {}
+}
@@ -23,17 +23,15 @@ import com.alibaba.csp.sentinel.command.CommandHandler;
 import com.alibaba.csp.sentinel.command.CommandRequest;
 import com.alibaba.csp.sentinel.command.CommandResponse;
 import com.alibaba.csp.sentinel.command.annotation.CommandMapping;
-import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.node.metric.MetricNode;
 import com.alibaba.csp.sentinel.node.metric.MetricSearcher;
-import com.alibaba.csp.sentinel.node.metric.MetricWriter;
 import com.alibaba.csp.sentinel.slots.system.SystemRuleManager;
-import com.alibaba.csp.sentinel.util.PidUtil;
 import com.alibaba.csp.sentinel.util.StringUtil;
 import com.alibaba.csp.sentinel.util.TimeUtil;
 
 /**
- * Retrieve and aggregate {@link MetricNode} metrics.
+ * Retrieve and aggregate {@link MetricNode} metrics. See {@link SendMetricStreamCommandHandler} for
+ * streaming the metrics without building the response in memory.
  *
  * @author leyou
  * @author Eric Zhao
@@ -42,31 +40,18 @@ import com.alibaba.csp.sentinel.util.TimeUtil;
     + "startTime={startTime}&endTime={endTime}&maxLines={maxLines}&identify={resourceName}")
 public class SendMetricCommandHandler implements CommandHandler<String> {
 
-    private MetricSearcher searcher;
-
-    private final Object lock = new Object();
+    static final int DEFAULT_MAX_LINES = 6000;
+    static final int MAX_LINES_LIMIT = 12000;
 
     @Override
     public CommandResponse<String> handle(CommandRequest request) {
-        // Note: not thread-safe.
-        if (searcher == null) {
-            synchronized (lock) {
-                String appName = SentinelConfig.getAppName();
-                if (appName == null) {
-                    appName = "";
-                }
-                if (searcher == null) {
-                    searcher = new MetricSearcher(MetricWriter.METRIC_BASE_DIR,
-                        MetricWriter.formMetricFileName(appName, PidUtil.getPid()));
-                }
-            }
-        }
+        MetricSearcher searcher = MetricSearcherHolder.getSearcher();
         String startTimeStr = request.getParam("startTime");
         String endTimeStr = request.getParam("endTime");
         String maxLinesStr = request.getParam("maxLines");
         String identity = request.getParam("identity");
         long startTime = -1;
-        int maxLines = 6000;
+        int maxLines = DEFAULT_MAX_LINES;
         if (StringUtil.isNotBlank(startTimeStr)) {
             startTime = Long.parseLong(startTimeStr);
         } else {
@@ -82,7 +67,7 @@ public class SendMetricCommandHandler implements CommandHandler<String> {
                 if (StringUtil.isNotBlank(maxLinesStr)) {
                     maxLines = Integer.parseInt(maxLinesStr);
                 }
-                maxLines = Math.min(maxLines, 12000);
+                maxLines = Math.min(maxLines, MAX_LINES_LIMIT);
                 list = searcher.find(startTime, maxLines);
             }
         } catch (Exception ex) {
@@ -106,7 +91,7 @@ public class SendMetricCommandHandler implements CommandHandler<String> {
      *
      * @param list metric list, should not be null
      */
-    private void addCpuUsageAndLoad(List<MetricNode> list) {
+    static void addCpuUsageAndLoad(List<MetricNode> list) {
         long time = TimeUtil.currentTimeMillis() / 1000 * 1000;
         double load = SystemRuleManager.getCurrentSystemAvgLoad();
         double usage = SystemRuleManager.getCurrentCpuUsage();
@@ -132,7 +117,7 @@ public class SendMetricCommandHandler implements CommandHandler<String> {
      * @param resource resource name.
      * @return a MetricNode represents the value.
      */
-    private MetricNode toNode(double value, long ts, String resource) {
+    private static MetricNode toNode(double value, long ts, String resource) {
         MetricNode node = new MetricNode();
         node.setPassQps((long)(value * 10000));
         node.setTimestamp(ts);
@@ -0,0 +1,96 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.command.handler;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.command.CommandHandler;
+import com.alibaba.csp.sentinel.command.CommandRequest;
+import com.alibaba.csp.sentinel.command.CommandResponse;
+import com.alibaba.csp.sentinel.command.StreamingResult;
+import com.alibaba.csp.sentinel.command.annotation.CommandMapping;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.node.metric.MetricNode;
+import com.alibaba.csp.sentinel.node.metric.MetricSearcher;
+import com.alibaba.csp.sentinel.util.StringUtil;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * Stream {@link MetricNode} metrics to the response body without building them in memory. The response is in
+ * the same format as {@link SendMetricCommandHandler}, and ends with a line of cursor, which is the start time
+ * of the metrics that have not been returned yet.
+ *
+ * @since 1.7.1
+ */
+@CommandMapping(name = "metric/stream", desc = "stream metrics, accept param: "
+    + "startTime={startTime}&endTime={endTime}&maxLines={maxLines}&identity={resourceName}, "
+    + "which ends with a line of cursor={cursor}, and use cursor={cursor} instead of startTime "
+    + "to get the metrics after last request")
+public class SendMetricStreamCommandHandler implements CommandHandler<StreamingResult> {
+
+    /**
+     * Prefix of the last line, which carries the cursor for the next request.
+     */
+    public static final String CURSOR_LINE_PREFIX = "cursor=";
+
+    /**
+     * Metrics of the latest seconds may be still being written, so they are excluded when streaming
+     * without end time, and will be returned in next request via the cursor.
+     */
+    private static final long UNSETTLED_MS = 2000;
+
+    @Override
+    public CommandResponse<StreamingResult> handle(CommandRequest request) {
+        String cursorStr = request.getParam("cursor");
+        String startTimeStr = StringUtil.isNotBlank(cursorStr) ? cursorStr : request.getParam("startTime");
+        String endTimeStr = request.getParam("endTime");
+        String maxLinesStr = request.getParam("maxLines");
+        final String identity = StringUtil.isBlank(request.getParam("identity")) ? null : request.getParam("identity");
+        final long startTime;
+        final long endTime;
+        final int maxLines;
+        try {
+            startTime = StringUtil.isNotBlank(startTimeStr) ? Long.parseLong(startTimeStr)
+                : TimeUtil.currentTimeMillis() - 60 * 1000;
+            endTime = StringUtil.isNotBlank(endTimeStr) ? Long.parseLong(endTimeStr)
+                : TimeUtil.currentTimeMillis() / 1000 * 1000 - UNSETTLED_MS;
+            maxLines = StringUtil.isNotBlank(maxLinesStr)
+                ? Math.min(Integer.parseInt(maxLinesStr), SendMetricCommandHandler.MAX_LINES_LIMIT)
+                : SendMetricCommandHandler.MAX_LINES_LIMIT;
+        } catch (NumberFormatException ex) {
+            return CommandResponse.ofFailure(new IllegalArgumentException("Invalid metric parameters", ex));
+        }
+        final MetricSearcher searcher = MetricSearcherHolder.getSearcher();
+        return CommandResponse.<StreamingResult>ofSuccess(new StreamingResult() {
+            @Override
+            public void writeTo(OutputStream out) throws Exception {
+                long lastTime = searcher.writeMetrics(startTime, endTime, identity, maxLines, out);
+                if (identity == null) {
+                    List<MetricNode> list = new ArrayList<>(2);
+                    SendMetricCommandHandler.addCpuUsageAndLoad(list);
+                    for (MetricNode node : list) {
+                        out.write((node.toThinString() + "\n").getBytes(SentinelConfig.charset()));
+                    }
+                }
+                // Nothing in the range means all seconds until the end time have been returned.
+                long cursor = lastTime < 0 ? Math.max(startTime, endTime / 1000 * 1000 + 1000) : lastTime + 1000;
+                out.write((CURSOR_LINE_PREFIX + cursor + "\n").getBytes(SentinelConfig.charset()));
+            }
+        });
+    }
+}
@@ -44,6 +44,17 @@ public class NodeVo {
     private Long oneMinuteException;
     private Long oneMinuteTotal;
 
+    /**
+     * RT percentiles of the recent second(s), which are present only if the RT histogram
+     * is enabled for the resource.
+     *
+     * @since 1.7.1
+     */
+    private Long rtP50;
+    private Long rtP90;
+    private Long rtP99;
+    private Long rtP999;
+
     private Long timestamp;
 
     /**
@@ -112,6 +123,12 @@ public class NodeVo {
         vo.oneMinutePass = node.totalRequest() - node.blockRequest();
         vo.oneMinuteBlock = node.blockRequest();
         vo.oneMinuteTotal = node.totalRequest();
+        if (node.isRtHistogramEnabled()) {
+            vo.rtP50 = node.rtPercentile(50);
+            vo.rtP90 = node.rtPercentile(90);
+            vo.rtP99 = node.rtPercentile(99);
+            vo.rtP999 = node.rtPercentile(99.9);
+        }
         vo.timestamp = System.currentTimeMillis();
         return vo;
     }
@@ -228,6 +245,38 @@ public class NodeVo {
         this.oneMinuteTotal = oneMinuteTotal;
     }
 
+    public Long getRtP50() {
+        return rtP50;
+    }
+
+    public void setRtP50(Long rtP50) {
+        this.rtP50 = rtP50;
+    }
+
+    public Long getRtP90() {
+        return rtP90;
+    }
+
+    public void setRtP90(Long rtP90) {
+        this.rtP90 = rtP90;
+    }
+
+    public Long getRtP99() {
+        return rtP99;
+    }
+
+    public void setRtP99(Long rtP99) {
+        this.rtP99 = rtP99;
+    }
+
+    public Long getRtP999() {
+        return rtP999;
+    }
+
+    public void setRtP999(Long rtP999) {
+        this.rtP999 = rtP999;
+    }
+
     public Long getTimestamp() {
         return timestamp;
     }
@@ -0,0 +1,92 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.command.vo;
+
+import com.alibaba.csp.sentinel.node.ClusterNode;
+import com.alibaba.csp.sentinel.node.NodeMemoryEstimator;
+
+/**
+ * View object of the estimated heap usage of a resource.
+ *
+ * @since 1.7.1
+ */
+public class ResourceMemoryVo {
+
+    private String resource;
+    private Integer clusterNodeCount;
+    private Integer defaultNodeCount;
+    private Integer originNodeCount;
+    private Long estimatedBytes;
+
+    /**
+     * Estimate the heap usage of the statistic nodes of a resource.
+     *
+     * @param resource         the resource name
+     * @param clusterNode      the cluster node of the resource, could be null
+     * @param defaultNodeCount count of default nodes of the resource in the invocation tree
+     * @return view object of the estimated heap usage
+     */
+    public static ResourceMemoryVo estimate(String resource, ClusterNode clusterNode, int defaultNodeCount) {
+        ResourceMemoryVo vo = new ResourceMemoryVo();
+        vo.resource = resource;
+        vo.clusterNodeCount = clusterNode == null ? 0 : 1;
+        vo.defaultNodeCount = defaultNodeCount;
+        vo.originNodeCount = clusterNode == null ? 0 : clusterNode.getOriginCountMap().size();
+        vo.estimatedBytes = NodeMemoryEstimator.estimateClusterNodeBytes(clusterNode)
+            + defaultNodeCount * NodeMemoryEstimator.estimateStatisticNodeBytes();
+        return vo;
+    }
+
+    public String getResource() {
+        return resource;
+    }
+
+    public void setResource(String resource) {
+        this.resource = resource;
+    }
+
+    public Integer getClusterNodeCount() {
+        return clusterNodeCount;
+    }
+
+    public void setClusterNodeCount(Integer clusterNodeCount) {
+        this.clusterNodeCount = clusterNodeCount;
+    }
+
+    public Integer getDefaultNodeCount() {
+        return defaultNodeCount;
+    }
+
+    public void setDefaultNodeCount(Integer defaultNodeCount) {
+        this.defaultNodeCount = defaultNodeCount;
+    }
+
+    public Integer getOriginNodeCount() {
+        return originNodeCount;
+    }
+
+    public void setOriginNodeCount(Integer originNodeCount) {
+        this.originNodeCount = originNodeCount;
+    }
+
+    public Long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public void setEstimatedBytes(Long estimatedBytes) {
+        this.estimatedBytes = estimatedBytes;
+    }
+}
@@ -16,14 +16,25 @@
 package com.alibaba.csp.sentinel.transport.command.netty;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import com.alibaba.csp.sentinel.command.CommandHandler;
 import com.alibaba.csp.sentinel.command.CommandRequest;
 import com.alibaba.csp.sentinel.command.CommandResponse;
+import com.alibaba.csp.sentinel.command.StreamingResult;
+import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
 import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.log.CommandCenterLog;
 import com.alibaba.csp.sentinel.transport.command.codec.CodecRegistry;
@@ -31,24 +42,33 @@ import com.alibaba.csp.sentinel.transport.command.codec.Encoder;
 import com.alibaba.csp.sentinel.transport.util.HttpCommandUtils;
 import com.alibaba.csp.sentinel.util.StringUtil;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultHttpResponse;
 import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpContent;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpUtil;
 import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
 import io.netty.handler.codec.http.QueryStringDecoder;
 import io.netty.handler.codec.http.multipart.HttpData;
 import io.netty.handler.codec.http.multipart.HttpPostRequestDecoder;
 import io.netty.handler.codec.http.multipart.InterfaceHttpData;
 import io.netty.handler.codec.http.multipart.InterfaceHttpData.HttpDataType;
+import io.netty.handler.stream.ChunkedInput;
+import io.netty.handler.stream.ChunkedWriteHandler;
 
 import static io.netty.handler.codec.http.HttpResponseStatus.BAD_REQUEST;
 import static io.netty.handler.codec.http.HttpResponseStatus.INTERNAL_SERVER_ERROR;
@@ -63,8 +83,21 @@ import static io.netty.handler.codec.http.HttpResponseStatus.OK;
  */
 public class HttpServerHandler extends SimpleChannelInboundHandler<Object> {
 
+    /**
+     * Executor for writing streaming results, so that the event loop is never blocked by a slow result.
+     */
+    private static final ExecutorService STREAMING_EXECUTOR = newStreamingExecutor();
+
     private final CodecRegistry codecRegistry = new CodecRegistry();
 
+    @SuppressWarnings("PMD.ThreadPoolCreationRule")
+    private static ExecutorService newStreamingExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 2, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<Runnable>(16), new NamedThreadFactory("sentinel-netty-command-stream", true));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     @Override
     public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
         ctx.flush();
@@ -126,6 +159,10 @@ public class HttpServerHandler extends SimpleChannelInboundHandler<Object> {
 
     private void writeResponse(CommandResponse response, ChannelHandlerContext ctx, boolean keepAlive)
         throws Exception {
+        if (response.isSuccess() && response.getResult() instanceof StreamingResult) {
+            writeStreamingResponse((StreamingResult)response.getResult(), ctx);
+            return;
+        }
         byte[] body;
         if (response.isSuccess()) {
             if (response.getResult() == null) {
@@ -165,6 +202,199 @@ public class HttpServerHandler extends SimpleChannelInboundHandler<Object> {
         ctx.writeAndFlush(Unpooled.EMPTY_BUFFER).addListener(ChannelFutureListener.CLOSE);
     }
 
+    private void writeStreamingResponse(StreamingResult result, ChannelHandlerContext ctx) {
+        final StreamingContentInput input = new StreamingContentInput(ctx.pipeline().get(ChunkedWriteHandler.class));
+        try {
+            input.startProducing(result, STREAMING_EXECUTOR);
+        } catch (RejectedExecutionException ex) {
+            writeErrorResponse(HttpResponseStatus.SERVICE_UNAVAILABLE.code(), "Too many streaming requests", ctx);
+            return;
+        }
+        HttpResponse httpResponse = new DefaultHttpResponse(HttpVersion.HTTP_1_1, OK);
+        httpResponse.headers().set("Content-Type", "text/plain; charset=" + SentinelConfig.charset());
+        httpResponse.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+        HttpUtil.setTransferEncodingChunked(httpResponse, true);
+        ctx.write(httpResponse);
+        // The chunks are pulled by the ChunkedWriteHandler only while the channel is writable.
+        ctx.writeAndFlush(input).addListener(ChannelFutureListener.CLOSE);
+    }
+
+    /**
+     * <p>Body of a streaming result as {@link HttpContent} chunks. The result is written by a thread of the
+     * streaming executor rather than the event loop, and the chunks are handed over via a bounded queue.
+     * The {@link ChunkedWriteHandler} pulls the chunks only while the channel is writable, so the producer
+     * blocks when the client reads slowly, and the memory of a response is bounded by the queue.</p>
+     *
+     * <p>If the result fails, the body is truncated without the last chunk and the connection is closed.</p>
+     */
+    static final class StreamingContentInput implements ChunkedInput<HttpContent> {
+
+        static final int CHUNK_SIZE = 8192;
+        static final int MAX_PENDING_CHUNKS = 8;
+        /**
+         * Max time that the producer waits for the client to read.
+         */
+        private static final long WRITE_TIMEOUT_MS = 30 * 1000;
+
+        private final ChunkedWriteHandler chunkedWriteHandler;
+        private final BlockingQueue<ByteBuf> chunks = new ArrayBlockingQueue<ByteBuf>(MAX_PENDING_CHUNKS);
+
+        private volatile boolean finished = false;
+        private volatile Throwable failure = null;
+        private volatile boolean closed = false;
+        private boolean lastChunkRead = false;
+        private long progress = 0;
+
+        StreamingContentInput(ChunkedWriteHandler chunkedWriteHandler) {
+            this.chunkedWriteHandler = chunkedWriteHandler;
+        }
+
+        void startProducing(final StreamingResult result, Executor executor) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    ProducerOutputStream out = new ProducerOutputStream();
+                    try {
+                        result.writeTo(out);
+                        out.flush();
+                    } catch (Throwable ex) {
+                        out.discard();
+                        if (!closed) {
+                            CommandCenterLog.warn("Error when writing streaming result", ex);
+                        }
+                        failure = ex;
+                    }
+                    finished = true;
+                    chunkedWriteHandler.resumeTransfer();
+                }
+            });
+        }
+
+        @Override
+        public boolean isEndOfInput() {
+            return lastChunkRead;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            ByteBuf buf;
+            while ((buf = chunks.poll()) != null) {
+                buf.release();
+            }
+        }
+
+        @Override
+        @Deprecated
+        public HttpContent readChunk(ChannelHandlerContext ctx) throws Exception {
+            return readChunk(ctx.alloc());
+        }
+
+        @Override
+        public HttpContent readChunk(ByteBufAllocator allocator) throws Exception {
+            ByteBuf buf = chunks.poll();
+            if (buf == null && finished) {
+                // The producer may have queued the last chunk just before it finished.
+                buf = chunks.poll();
+                if (buf == null) {
+                    Throwable ex = failure;
+                    if (ex != null) {
+                        throw new IOException("Failed to write streaming result", ex);
+                    }
+                    lastChunkRead = true;
+                    return LastHttpContent.EMPTY_LAST_CONTENT;
+                }
+            }
+            if (buf == null) {
+                // Suspended until the producer resumes the transfer.
+                return null;
+            }
+            progress += buf.readableBytes();
+            return new DefaultHttpContent(buf);
+        }
+
+        @Override
+        public long length() {
+            return -1;
+        }
+
+        @Override
+        public long progress() {
+            return progress;
+        }
+
+        private final class ProducerOutputStream extends OutputStream {
+
+            private ByteBuf buffer;
+
+            @Override
+            public void write(int b) throws IOException {
+                ensureWritable().writeByte(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                while (len > 0) {
+                    ByteBuf buf = ensureWritable();
+                    int n = Math.min(len, buf.writableBytes());
+                    buf.writeBytes(b, off, n);
+                    off += n;
+                    len -= n;
+                }
+            }
+
+            @Override
+            public void flush() throws IOException {
+                if (buffer == null || !buffer.isReadable()) {
+                    return;
+                }
+                ByteBuf buf = buffer;
+                buffer = null;
+                try {
+                    long deadline = System.currentTimeMillis() + WRITE_TIMEOUT_MS;
+                    while (!chunks.offer(buf, 100, TimeUnit.MILLISECONDS)) {
+                        if (closed) {
+                            throw new IOException("Connection closed");
+                        }
+                        if (System.currentTimeMillis() > deadline) {
+                            throw new IOException("Timed out waiting for the client to read");
+                        }
+                    }
+                } catch (InterruptedException ex) {
+                    buf.release();
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                } catch (IOException ex) {
+                    buf.release();
+                    throw ex;
+                }
+                if (closed) {
+                    // Released by the closed input, or by this producer.
+                    close();
+                    throw new IOException("Connection closed");
+                }
+                chunkedWriteHandler.resumeTransfer();
+            }
+
+            void discard() {
+                if (buffer != null) {
+                    buffer.release();
+                    buffer = null;
+                }
+            }
+
+            private ByteBuf ensureWritable() throws IOException {
+                if (buffer != null && !buffer.isWritable()) {
+                    flush();
+                }
+                if (buffer == null) {
+                    buffer = Unpooled.buffer(CHUNK_SIZE, CHUNK_SIZE);
+                }
+                return buffer;
+            }
+        }
+    }
+
     private CommandRequest parseRequest(FullHttpRequest request) {
         QueryStringDecoder queryStringDecoder = new QueryStringDecoder(request.uri());
         CommandRequest serverRequest = new CommandRequest();
@@ -0,0 +1,58 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.transport.command.handler;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.alibaba.csp.sentinel.command.CommandHandler;
+import com.alibaba.csp.sentinel.command.CommandRequest;
+import com.alibaba.csp.sentinel.command.CommandResponse;
+import com.alibaba.csp.sentinel.command.StreamingResult;
+import com.alibaba.csp.sentinel.command.annotation.CommandMapping;
+
+/**
+ * A test handler that writes {@code lines} lines (padded to {@code padding} bytes if present)
+ * as a streaming result.
+ */
+@CommandMapping(name = "streamingTest", desc = "a test handler with streaming result")
+public class StreamingCommandTestHandler implements CommandHandler<StreamingResult> {
+
+    /**
+     * Bytes that have been written by the results.
+     */
+    public static final AtomicLong WRITTEN_BYTES = new AtomicLong();
+
+    @Override
+    public CommandResponse<StreamingResult> handle(CommandRequest request) {
+        final int lines = Integer.parseInt(request.getParam("lines"));
+        String paddingStr = request.getParam("padding");
+        char[] chars = new char[paddingStr == null ? 0 : Integer.parseInt(paddingStr)];
+        Arrays.fill(chars, '-');
+        final String padding = new String(chars);
+        return CommandResponse.<StreamingResult>ofSuccess(new StreamingResult() {
+            @Override
+            public void writeTo(OutputStream out) throws Exception {
+                for (int i = 0; i < lines; i++) {
+                    byte[] line = ("line" + i + padding + "\n").getBytes("UTF-8");
+                    out.write(line);
+                    WRITTEN_BYTES.addAndGet(line.length);
+                }
+            }
+        });
+    }
+}
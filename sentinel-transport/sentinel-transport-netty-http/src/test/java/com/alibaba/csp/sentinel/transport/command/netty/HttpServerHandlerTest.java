@@ -24,16 +24,27 @@ import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
 import com.alibaba.csp.sentinel.transport.CommandCenter;
 import com.alibaba.csp.sentinel.transport.command.NettyHttpCommandCenter;
 import com.alibaba.csp.sentinel.transport.command.handler.MultipleSlashNameCommandTestHandler;
+import com.alibaba.csp.sentinel.transport.command.handler.StreamingCommandTestHandler;
 import com.alibaba.fastjson.JSON;
 import io.netty.buffer.ByteBuf;
+import io.netty.bootstrap.ServerBootstrap;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
 import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.codec.http.*;
+import io.netty.handler.stream.ChunkedWriteHandler;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
 import java.lang.reflect.Field;
+import java.net.InetSocketAddress;
+import java.net.Socket;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -43,6 +54,8 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import static io.netty.handler.codec.http.HttpResponseStatus.BAD_REQUEST;
 import static io.netty.handler.codec.http.HttpResponseStatus.OK;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Test cases for {@link HttpServerHandler}.
@@ -83,10 +96,12 @@ public class HttpServerHandlerTest {
         HttpObjectAggregator httpObjectAggregator = new HttpObjectAggregator(1024 * 1024);
         HttpResponseEncoder httpResponseEncoder = new HttpResponseEncoder();
 
+        ChunkedWriteHandler chunkedWriteHandler = new ChunkedWriteHandler();
         HttpServerHandler httpServerHandler = new HttpServerHandler();
 
         // Create new EmbeddedChannel every method call
-        embeddedChannel = new EmbeddedChannel(httpRequestDecoder, httpObjectAggregator, httpResponseEncoder, httpServerHandler);
+        embeddedChannel = new EmbeddedChannel(httpRequestDecoder, httpObjectAggregator, httpResponseEncoder,
+            chunkedWriteHandler, httpServerHandler);
 
         // Clear flow rules
         FlowRuleManager.loadRules(Collections.EMPTY_LIST);
@@ -189,6 +204,108 @@ public class HttpServerHandlerTest {
         processSuccess(httpRequestStr, expectedBody);
     }
 
+    /**
+     * {@link StreamingCommandTestHandler}
+     *
+     * Test command whose result is written as chunked body. Streaming results are written by another thread,
+     * so a real server is used instead of the embedded channel.
+     */
+    @Test
+    public void testStreamingCommand() throws Exception {
+        EventLoopGroup group = new NioEventLoopGroup(1);
+        try {
+            Channel server = startServer(group);
+            Socket socket = connect(server, "/streamingTest?lines=2000");
+            String httpResponseStr;
+            try {
+                httpResponseStr = readFully(socket.getInputStream());
+            } finally {
+                socket.close();
+            }
+
+            int headerEnd = httpResponseStr.indexOf(CRLF + CRLF);
+            String header = httpResponseStr.substring(0, headerEnd);
+            assertTrue(header.startsWith(HttpVersion.HTTP_1_1.toString() + ' ' + OK.toString()));
+            assertTrue(header.contains("transfer-encoding: chunked"));
+            assertFalse(header.contains("content-length"));
+
+            // Decode the chunks.
+            StringBuilder body = new StringBuilder();
+            int chunks = 0;
+            int pos = headerEnd + 4;
+            while (true) {
+                int lineEnd = httpResponseStr.indexOf(CRLF, pos);
+                int size = Integer.parseInt(httpResponseStr.substring(pos, lineEnd), 16);
+                if (size == 0) {
+                    break;
+                }
+                body.append(httpResponseStr, lineEnd + 2, lineEnd + 2 + size);
+                pos = lineEnd + 2 + size + 2;
+                chunks++;
+            }
+            assertTrue(chunks > 1);
+            String[] lines = body.toString().split("\n");
+            assertEquals(2000, lines.length);
+            assertEquals("line1999", lines[1999]);
+        } finally {
+            group.shutdownGracefully().sync();
+        }
+    }
+
+    /**
+     * The streaming result blocks while the client does not read, rather than being buffered by the server.
+     */
+    @Test
+    public void testStreamingCommandBackpressure() throws Exception {
+        EventLoopGroup group = new NioEventLoopGroup(1);
+        try {
+            Channel server = startServer(group);
+            StreamingCommandTestHandler.WRITTEN_BYTES.set(0);
+            // 256 MB in total, with 1 KB per line.
+            Socket socket = connect(server, "/streamingTest?lines=262144&padding=1000");
+            try {
+                Thread.sleep(1000);
+                long written = StreamingCommandTestHandler.WRITTEN_BYTES.get();
+                assertTrue(written > 0);
+                // Bounded by the socket buffers and pending chunks.
+                assertTrue("Written bytes: " + written, written < 64 * 1024 * 1024);
+                Thread.sleep(200);
+                assertTrue(StreamingCommandTestHandler.WRITTEN_BYTES.get() - written < 1024 * 1024);
+            } finally {
+                socket.close();
+            }
+        } finally {
+            group.shutdownGracefully().sync();
+        }
+    }
+
+    private static Channel startServer(EventLoopGroup group) throws Exception {
+        return new ServerBootstrap()
+            .group(group)
+            .channel(NioServerSocketChannel.class)
+            .childHandler(new HttpServerInitializer())
+            .bind("127.0.0.1", 0).sync().channel();
+    }
+
+    private static Socket connect(Channel server, String uri) throws Exception {
+        Socket socket = new Socket("127.0.0.1", ((InetSocketAddress)server.localAddress()).getPort());
+        socket.setSoTimeout(10000);
+        socket.getOutputStream().write(("GET " + uri + " HTTP/1.1" + CRLF + "Host: localhost:8719" + CRLF + CRLF)
+            .getBytes(SENTINEL_CHARSET));
+        socket.getOutputStream().flush();
+        return socket;
+    }
+
+    private static String readFully(InputStream in) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buf = new byte[8192];
+        int n;
+        while ((n = in.read(buf)) != -1) {
+            out.write(buf, 0, n);
+        }
+        return new String(out.toByteArray(), SENTINEL_CHARSET);
+    }
+
     private void processError(String httpRequestStr, String expectedBody) {
         processError(httpRequestStr, BAD_REQUEST, expectedBody);
     }
@@ -21,6 +21,7 @@ import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.HttpRequestDecoder;
 import io.netty.handler.codec.http.HttpResponseEncoder;
+import io.netty.handler.stream.ChunkedWriteHandler;
 import org.junit.Test;
 import org.mockito.InOrder;
 
@@ -49,15 +50,15 @@ public class HttpServerInitializerTest {
         // Start test for HttpServerInitializer#initChannel(SocketChannel)
         httpServerInitializer.initChannel(socketChannel);
 
-        // Verify 4 times calling ChannelPipeline#addLast() method
-        verify(channelPipeline, times(4)).addLast(any(ChannelHandler.class));
+        // Verify 5 times calling ChannelPipeline#addLast() method
+        verify(channelPipeline, times(5)).addLast(any(ChannelHandler.class));
 
         // Verify the order of calling ChannelPipeline#addLast() method
         InOrder inOrder = inOrder(channelPipeline);
         inOrder.verify(channelPipeline).addLast(any(HttpRequestDecoder.class));
         inOrder.verify(channelPipeline).addLast(any(HttpObjectAggregator.class));
         inOrder.verify(channelPipeline).addLast(any(HttpResponseEncoder.class));
-
+        inOrder.verify(channelPipeline).addLast(any(ChunkedWriteHandler.class));
         inOrder.verify(channelPipeline).addLast(any(HttpServerHandler.class));
     }
 }
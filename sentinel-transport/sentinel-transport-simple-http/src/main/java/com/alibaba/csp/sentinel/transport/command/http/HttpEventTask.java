@@ -29,6 +29,7 @@ import java.nio.charset.Charset;
 import com.alibaba.csp.sentinel.command.CommandHandler;
 import com.alibaba.csp.sentinel.command.CommandRequest;
 import com.alibaba.csp.sentinel.command.CommandResponse;
+import com.alibaba.csp.sentinel.command.StreamingResult;
 import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.log.CommandCenterLog;
 import com.alibaba.csp.sentinel.transport.command.SimpleHttpCommandCenter;
@@ -191,6 +192,10 @@ public class HttpEventTask implements Runnable {
                 writeOkStatusLine(printWriter);
                 return;
             }
+            if (response.getResult() instanceof StreamingResult) {
+                writeStreamingResult((StreamingResult)response.getResult(), printWriter, rawOutputStream);
+                return;
+            }
             // Write 200 OK status line.
             writeOkStatusLine(printWriter);
             // Here we directly use `toString` to encode the result to plain text.
@@ -206,6 +211,22 @@ public class HttpEventTask implements Runnable {
         }
     }
 
+    /**
+     * Write `200 OK` HTTP response status line, then write the result as chunked body.
+     */
+    private void writeStreamingResult(StreamingResult result, /*@NonNull*/ final PrintWriter printWriter,
+        /*@NonNull*/ final OutputStream rawOutputStream) throws Exception {
+        printWriter.print("HTTP/1.1 200 OK\r\n"
+            + "Connection: close\r\n"
+            + "Content-Type: text/plain; charset=" + SentinelConfig.charset() + "\r\n"
+            + "Transfer-Encoding: chunked\r\n\r\n");
+        printWriter.flush();
+        writtenHead = true;
+        ChunkedOutputStream out = new ChunkedOutputStream(rawOutputStream, STREAMING_CHUNK_SIZE);
+        result.writeTo(out);
+        out.finish();
+    }
+
     /**
      * Write `400 Bad Request` HTTP response status line and message body, then flush.
      */
@@ -285,4 +306,6 @@ public class HttpEventTask implements Runnable {
 
     private static final String SERVER_ERROR_MESSAGE = "Command server error";
 
+    private static final int STREAMING_CHUNK_SIZE = 8192;
+
 }